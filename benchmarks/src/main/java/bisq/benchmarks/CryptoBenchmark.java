@@ -0,0 +1,112 @@
+/*
+ * This file is part of Bisq.
+ *
+ * Bisq is free software: you can redistribute it and/or modify it
+ * under the terms of the GNU Affero General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or (at
+ * your option) any later version.
+ *
+ * Bisq is distributed in the hope that it will be useful, but WITHOUT
+ * ANY WARRANTY; without even the implied warranty of MERCHANTABILITY or
+ * FITNESS FOR A PARTICULAR PURPOSE. See the GNU Affero General Public
+ * License for more details.
+ *
+ * You should have received a copy of the GNU Affero General Public License
+ * along with Bisq. If not, see <http://www.gnu.org/licenses/>.
+ */
+
+package bisq.benchmarks;
+
+import bisq.common.crypto.Encryption;
+import bisq.common.crypto.Hash;
+import bisq.common.crypto.Sig;
+
+import javax.crypto.SecretKey;
+
+import java.security.KeyPair;
+
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+/**
+ * The hash, signature and encryption primitives used for storage entries and for
+ * direct and mailbox messages. The data is a serialized offer.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Fork(1)
+@Warmup(iterations = 5)
+@Measurement(iterations = 10)
+public class CryptoBenchmark {
+
+    private byte[] data;
+    private KeyPair signatureKeyPair;
+    private byte[] signature;
+    private KeyPair encryptionKeyPair;
+    private SecretKey secretKey;
+    private byte[] encryptedData;
+    private byte[] encryptedSecretKey;
+
+    @Setup
+    public void setUp() throws Exception {
+        Fixtures fixtures = new Fixtures();
+        data = fixtures.createOffers(1).get(0).toProtoMessage().toByteArray();
+        signatureKeyPair = Sig.generateKeyPair();
+        signature = Sig.sign(signatureKeyPair.getPrivate(), data);
+        encryptionKeyPair = Encryption.generateKeyPair();
+        secretKey = Encryption.generateSecretKey(128);
+        encryptedData = Encryption.encryptPayloadWithHmac(data, secretKey);
+        encryptedSecretKey = Encryption.encryptSecretKey(secretKey, encryptionKeyPair.getPublic());
+    }
+
+    @Benchmark
+    public byte[] sha256() {
+        return Hash.getSha256Hash(data);
+    }
+
+    @Benchmark
+    public byte[] sha256Ripemd160() {
+        return Hash.getSha256Ripemd160hash(data);
+    }
+
+    @Benchmark
+    public byte[] sign() throws Exception {
+        return Sig.sign(signatureKeyPair.getPrivate(), data);
+    }
+
+    @Benchmark
+    public boolean verify() throws Exception {
+        return Sig.verify(signatureKeyPair.getPublic(), data, signature);
+    }
+
+    @Benchmark
+    public byte[] encryptPayloadWithHmac() throws Exception {
+        return Encryption.encryptPayloadWithHmac(data, secretKey);
+    }
+
+    @Benchmark
+    public byte[] decryptPayloadWithHmac() throws Exception {
+        return Encryption.decryptPayloadWithHmac(encryptedData, secretKey);
+    }
+
+    @Benchmark
+    public byte[] encryptSecretKey() throws Exception {
+        return Encryption.encryptSecretKey(secretKey, encryptionKeyPair.getPublic());
+    }
+
+    @Benchmark
+    public SecretKey decryptSecretKey() throws Exception {
+        return Encryption.decryptSecretKey(encryptedSecretKey, encryptionKeyPair.getPrivate());
+    }
+}
@@ -0,0 +1,250 @@
+/*
+ * This file is part of Bisq.
+ *
+ * Bisq is free software: you can redistribute it and/or modify it
+ * under the terms of the GNU Affero General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or (at
+ * your option) any later version.
+ *
+ * Bisq is distributed in the hope that it will be useful, but WITHOUT
+ * ANY WARRANTY; without even the implied warranty of MERCHANTABILITY or
+ * FITNESS FOR A PARTICULAR PURPOSE. See the GNU Affero General Public
+ * License for more details.
+ *
+ * You should have received a copy of the GNU Affero General Public License
+ * along with Bisq. If not, see <http://www.gnu.org/licenses/>.
+ */
+
+package bisq.benchmarks;
+
+import bisq.core.account.sign.SignedWitness;
+import bisq.core.offer.OfferPayload;
+import bisq.core.trade.statistics.TradeStatistics3;
+
+import bisq.network.p2p.NodeAddress;
+import bisq.network.p2p.network.NetworkNode;
+import bisq.network.p2p.peers.Broadcaster;
+import bisq.network.p2p.storage.P2PDataStorage;
+import bisq.network.p2p.storage.payload.ProtectedStorageEntry;
+import bisq.network.p2p.storage.persistence.AppendOnlyDataStoreService;
+import bisq.network.p2p.storage.persistence.ProtectedDataStoreService;
+import bisq.network.p2p.storage.persistence.RemovedPayloadsService;
+import bisq.network.p2p.storage.persistence.ResourceDataStoreService;
+import bisq.network.p2p.storage.persistence.SequenceNumberMap;
+
+import bisq.common.app.Version;
+import bisq.common.crypto.CryptoException;
+import bisq.common.crypto.Encryption;
+import bisq.common.crypto.Hash;
+import bisq.common.crypto.PubKeyRing;
+import bisq.common.crypto.Sig;
+import bisq.common.persistence.PersistenceManager;
+import bisq.common.util.Utilities;
+
+import java.security.KeyPair;
+
+import java.time.Clock;
+import java.time.Instant;
+import java.time.ZoneOffset;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+import java.util.concurrent.TimeUnit;
+
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.withSettings;
+
+/**
+ * Generates the benchmark fixtures: offers, trade statistics and signed witnesses with
+ * realistic field values and sizes, signed with real keys.
+ * <p>
+ * The data is derived from a fixed seed, so all runs use the same data. We use a fixed
+ * clock, so offers don't expire while a benchmark runs.
+ */
+public class Fixtures {
+    private static final String[] CURRENCY_CODES = {"USD", "EUR", "GBP", "BRL", "CAD", "AUD", "CHF", "JPY"};
+    private static final String[] PAYMENT_METHOD_IDS = {"SEPA", "ZELLE", "REVOLUT", "F2F", "NATIONAL_BANK",
+            "SWIFT", "CASH_DEPOSIT", "TRANSFERWISE"};
+    private static final int NUM_OWNERS = 20;
+    private static final long SEED = 42;
+
+    public static final Clock CLOCK = Clock.fixed(Instant.parse("2021-03-01T00:00:00Z"), ZoneOffset.UTC);
+
+    private static class Owner {
+        private final KeyPair signatureKeyPair;
+        private final PubKeyRing pubKeyRing;
+        private final NodeAddress nodeAddress;
+
+        Owner(KeyPair signatureKeyPair, PubKeyRing pubKeyRing, NodeAddress nodeAddress) {
+            this.signatureKeyPair = signatureKeyPair;
+            this.pubKeyRing = pubKeyRing;
+            this.nodeAddress = nodeAddress;
+        }
+    }
+
+    private final Random random = new Random(SEED);
+    // Key generation is slow, so offers and witnesses share a small set of owners.
+    private final List<Owner> owners = new ArrayList<>();
+    private final P2PDataStorage signingStorage = createP2PDataStorage();
+
+    public Fixtures() {
+        for (int i = 0; i < NUM_OWNERS; i++) {
+            KeyPair signatureKeyPair = Sig.generateKeyPair();
+            PubKeyRing pubKeyRing = new PubKeyRing(signatureKeyPair.getPublic(), Encryption.generateKeyPair().getPublic());
+            owners.add(new Owner(signatureKeyPair, pubKeyRing, new NodeAddress(randomOnionHost(), 9999)));
+        }
+    }
+
+
+    ///////////////////////////////////////////////////////////////////////////////////////////
+    // Fixtures
+    ///////////////////////////////////////////////////////////////////////////////////////////
+
+    public List<OfferPayload> createOffers(int count) {
+        List<OfferPayload> offers = new ArrayList<>(count);
+        for (int i = 0; i < count; i++) {
+            Owner owner = getOwner(i);
+            boolean useMarketBasedPrice = random.nextBoolean();
+            long amount = 1_000_000_000L + random.nextInt(1_000_000_000);
+            offers.add(new OfferPayload(randomHex(4) + "-" + i,
+                    CLOCK.millis() - random.nextInt((int) TimeUnit.DAYS.toMillis(10)),
+                    owner.nodeAddress,
+                    owner.pubKeyRing,
+                    random.nextBoolean() ? OfferPayload.Direction.BUY : OfferPayload.Direction.SELL,
+                    useMarketBasedPrice ? 0 : 1_500_000 + random.nextInt(500_000),
+                    useMarketBasedPrice ? (random.nextInt(200) - 100) / 1000d : 0,
+                    useMarketBasedPrice,
+                    amount,
+                    amount / 2,
+                    "XMR",
+                    CURRENCY_CODES[random.nextInt(CURRENCY_CODES.length)],
+                    List.of(getOwner(i + 1).nodeAddress),
+                    List.of(getOwner(i + 2).nodeAddress),
+                    PAYMENT_METHOD_IDS[random.nextInt(PAYMENT_METHOD_IDS.length)],
+                    randomHex(16),
+                    randomHex(32),
+                    "DE",
+                    List.of("DE", "FR", "IT", "ES", "NL", "AT"),
+                    null,
+                    null,
+                    Version.VERSION,
+                    2_300_000 + random.nextInt(10_000),
+                    50_000,
+                    amount / 200,
+                    false,
+                    amount * 15 / 100,
+                    amount * 15 / 100,
+                    2_000_000_000L,
+                    TimeUnit.DAYS.toMillis(8),
+                    false,
+                    false,
+                    0,
+                    0,
+                    false,
+                    null,
+                    null,
+                    Version.TRADE_PROTOCOL_VERSION));
+        }
+        return offers;
+    }
+
+    // Signed by the offer owner with sequence number 1, as received by a peer.
+    public List<ProtectedStorageEntry> createOfferEntries(List<OfferPayload> offers) {
+        List<ProtectedStorageEntry> entries = new ArrayList<>(offers.size());
+        for (OfferPayload offer : offers) {
+            Owner owner = owners.stream()
+                    .filter(o -> o.pubKeyRing.equals(offer.getPubKeyRing()))
+                    .findAny()
+                    .orElseThrow();
+            try {
+                entries.add(signingStorage.getProtectedStorageEntry(offer, owner.signatureKeyPair));
+            } catch (CryptoException e) {
+                throw new IllegalStateException(e);
+            }
+        }
+        return entries;
+    }
+
+    public List<TradeStatistics3> createTradeStatistics(int count) {
+        List<TradeStatistics3> tradeStatistics = new ArrayList<>(count);
+        for (int i = 0; i < count; i++) {
+            tradeStatistics.add(new TradeStatistics3(CURRENCY_CODES[random.nextInt(CURRENCY_CODES.length)],
+                    1_500_000 + random.nextInt(500_000),
+                    1_000_000_000L + random.nextInt(1_000_000_000),
+                    PAYMENT_METHOD_IDS[random.nextInt(PAYMENT_METHOD_IDS.length)],
+                    CLOCK.millis() - (long) random.nextInt((int) TimeUnit.DAYS.toSeconds(365)) * 1000,
+                    getOwner(i).nodeAddress.getFullAddress(),
+                    (byte[]) null));
+        }
+        return tradeStatistics;
+    }
+
+    public List<SignedWitness> createSignedWitnesses(int count) {
+        List<SignedWitness> signedWitnesses = new ArrayList<>(count);
+        for (int i = 0; i < count; i++) {
+            Owner signer = getOwner(i);
+            Owner witnessOwner = getOwner(i + 1);
+            byte[] accountAgeWitnessHash = Hash.getSha256Ripemd160hash(randomBytes(32));
+            try {
+                signedWitnesses.add(new SignedWitness(SignedWitness.VerificationMethod.TRADE,
+                        accountAgeWitnessHash,
+                        Sig.sign(signer.signatureKeyPair.getPrivate(), accountAgeWitnessHash),
+                        signer.pubKeyRing.getSignaturePubKeyBytes(),
+                        witnessOwner.pubKeyRing.getSignaturePubKeyBytes(),
+                        CLOCK.millis() - (long) random.nextInt((int) TimeUnit.DAYS.toSeconds(365)) * 1000,
+                        10_000_000_000L));
+            } catch (CryptoException e) {
+                throw new IllegalStateException(e);
+            }
+        }
+        return signedWitnesses;
+    }
+
+    public PubKeyRing getPubKeyRing(int ownerIndex) {
+        return getOwner(ownerIndex).pubKeyRing;
+    }
+
+    public byte[] randomBytes(int length) {
+        byte[] bytes = new byte[length];
+        random.nextBytes(bytes);
+        return bytes;
+    }
+
+    // A P2PDataStorage without persistence and network. Broadcasts are ignored.
+    public static P2PDataStorage createP2PDataStorage() {
+        @SuppressWarnings("unchecked")
+        PersistenceManager<SequenceNumberMap> persistenceManager = mock(PersistenceManager.class, withSettings().stubOnly());
+        return new P2PDataStorage(mock(NetworkNode.class, withSettings().stubOnly()),
+                mock(Broadcaster.class, withSettings().stubOnly()),
+                new AppendOnlyDataStoreService(),
+                new ProtectedDataStoreService(),
+                new ResourceDataStoreService(),
+                persistenceManager,
+                mock(RemovedPayloadsService.class, withSettings().stubOnly()),
+                CLOCK,
+                Integer.MAX_VALUE);
+    }
+
+
+    ///////////////////////////////////////////////////////////////////////////////////////////
+    // Private
+    ///////////////////////////////////////////////////////////////////////////////////////////
+
+    private Owner getOwner(int index) {
+        return owners.get(index % owners.size());
+    }
+
+    private String randomHex(int numBytes) {
+        return Utilities.bytesAsHexString(randomBytes(numBytes));
+    }
+
+    private String randomOnionHost() {
+        StringBuilder sb = new StringBuilder();
+        String chars = "abcdefghijklmnopqrstuvwxyz234567";
+        for (int i = 0; i < 56; i++) {
+            sb.append(chars.charAt(random.nextInt(chars.length())));
+        }
+        return sb.append(".onion").toString();
+    }
+}
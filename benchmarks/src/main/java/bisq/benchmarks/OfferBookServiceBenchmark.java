@@ -0,0 +1,121 @@
+/*
+ * This file is part of Bisq.
+ *
+ * Bisq is free software: you can redistribute it and/or modify it
+ * under the terms of the GNU Affero General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or (at
+ * your option) any later version.
+ *
+ * Bisq is distributed in the hope that it will be useful, but WITHOUT
+ * ANY WARRANTY; without even the implied warranty of MERCHANTABILITY or
+ * FITNESS FOR A PARTICULAR PURPOSE. See the GNU Affero General Public
+ * License for more details.
+ *
+ * You should have received a copy of the GNU Affero General Public License
+ * along with Bisq. If not, see <http://www.gnu.org/licenses/>.
+ */
+
+package bisq.benchmarks;
+
+import bisq.core.filter.FilterManager;
+import bisq.core.offer.Offer;
+import bisq.core.offer.OfferBookService;
+import bisq.core.offer.OfferPayload;
+import bisq.core.provider.price.MarketPrice;
+import bisq.core.provider.price.PriceFeedService;
+
+import bisq.network.p2p.P2PService;
+import bisq.network.p2p.storage.P2PDataStorage;
+import bisq.network.p2p.storage.payload.ProtectedStorageEntry;
+
+import bisq.common.crypto.PubKeyRing;
+
+import java.nio.file.Files;
+
+import java.time.Instant;
+
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+import java.util.stream.Collectors;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+import static org.mockito.Mockito.withSettings;
+
+/**
+ * Getting the offers from the OfferBookService, and the filtering and sorting of the
+ * offers by direction and currency as done for the offer book and the api. Half of the
+ * offers use a market based price, which is calculated from the price feed.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Fork(1)
+@Warmup(iterations = 5)
+@Measurement(iterations = 10)
+public class OfferBookServiceBenchmark {
+
+    @Param({"1000", "5000"})
+    public int numOffers;
+
+    private OfferBookService offerBookService;
+    private PubKeyRing myPubKeyRing;
+
+    @Setup
+    public void setUp() throws Exception {
+        Fixtures fixtures = new Fixtures();
+        Map<P2PDataStorage.ByteArray, ProtectedStorageEntry> dataMap = new HashMap<>();
+        fixtures.createOfferEntries(fixtures.createOffers(numOffers)).forEach(entry ->
+                dataMap.put(P2PDataStorage.get32ByteHashAsByteArray(entry.getProtectedStoragePayload()), entry));
+        myPubKeyRing = fixtures.getPubKeyRing(0);
+
+        P2PService p2PService = mock(P2PService.class, withSettings().stubOnly());
+        when(p2PService.getDataMap()).thenReturn(dataMap);
+
+        Map<String, MarketPrice> marketPrices = new HashMap<>();
+        PriceFeedService priceFeedService = mock(PriceFeedService.class, withSettings().stubOnly());
+        when(priceFeedService.getMarketPrice(anyString())).thenAnswer(invocation -> {
+            String currencyCode = invocation.getArgument(0);
+            return marketPrices.computeIfAbsent(currencyCode, code ->
+                    new MarketPrice(code, 170, Instant.now().getEpochSecond(), true));
+        });
+
+        offerBookService = new OfferBookService(p2PService,
+                priceFeedService,
+                mock(FilterManager.class, withSettings().stubOnly()),
+                Files.createTempDirectory("benchmarks").toFile(),
+                false);
+    }
+
+    @Benchmark
+    public List<Offer> getOffers() {
+        return offerBookService.getOffers();
+    }
+
+    // A buyer wants to see the sell offers of others in price ascending order.
+    @Benchmark
+    public List<Offer> getOffersByDirectionAndCurrency() {
+        return offerBookService.getOffers().stream()
+                .filter(offer -> !offer.getPubKeyRing().equals(myPubKeyRing))
+                .filter(offer -> offer.getDirection() == OfferPayload.Direction.SELL)
+                .filter(offer -> offer.getOfferPayload().getCounterCurrencyCode().equals("USD"))
+                .sorted(Comparator.comparing(Offer::getPrice))
+                .collect(Collectors.toList());
+    }
+}
@@ -0,0 +1,87 @@
+/*
+ * This file is part of Bisq.
+ *
+ * Bisq is free software: you can redistribute it and/or modify it
+ * under the terms of the GNU Affero General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or (at
+ * your option) any later version.
+ *
+ * Bisq is distributed in the hope that it will be useful, but WITHOUT
+ * ANY WARRANTY; without even the implied warranty of MERCHANTABILITY or
+ * FITNESS FOR A PARTICULAR PURPOSE. See the GNU Affero General Public
+ * License for more details.
+ *
+ * You should have received a copy of the GNU Affero General Public License
+ * along with Bisq. If not, see <http://www.gnu.org/licenses/>.
+ */
+
+package bisq.benchmarks;
+
+import bisq.network.p2p.storage.P2PDataStorage;
+import bisq.network.p2p.storage.payload.ProtectedStorageEntry;
+
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+/**
+ * Adding offers to the P2PDataStorage, as done for each AddDataMessage and for each
+ * entry of a GetDataResponse. Most offers a seed node receives are known already, so
+ * the early return for known entries matters as much as a full add.
+ */
+@State(Scope.Benchmark)
+@Fork(1)
+@Warmup(iterations = 5)
+@Measurement(iterations = 10)
+public class P2PDataStorageBenchmark {
+
+    @Param({"1000", "5000"})
+    public int numOffers;
+
+    private List<ProtectedStorageEntry> entries;
+    private P2PDataStorage filledStorage;
+    private int index;
+
+    @Setup
+    public void setUp() {
+        Fixtures fixtures = new Fixtures();
+        entries = fixtures.createOfferEntries(fixtures.createOffers(numOffers));
+        filledStorage = Fixtures.createP2PDataStorage();
+        entries.forEach(entry -> filledStorage.addProtectedStorageEntry(entry, null, null));
+    }
+
+    // Includes the signature verification of each entry.
+    @Benchmark
+    @BenchmarkMode(Mode.SingleShotTime)
+    @OutputTimeUnit(TimeUnit.MILLISECONDS)
+    @Measurement(iterations = 20)
+    public int addAllNewEntries() {
+        P2PDataStorage storage = Fixtures.createP2PDataStorage();
+        int numAdded = 0;
+        for (ProtectedStorageEntry entry : entries) {
+            if (storage.addProtectedStorageEntry(entry, null, null)) {
+                numAdded++;
+            }
+        }
+        return numAdded;
+    }
+
+    @Benchmark
+    @BenchmarkMode(Mode.AverageTime)
+    @OutputTimeUnit(TimeUnit.MICROSECONDS)
+    public boolean addKnownEntry() {
+        index = (index + 1) % entries.size();
+        return filledStorage.addProtectedStorageEntry(entries.get(index), null, null);
+    }
+}
@@ -0,0 +1,100 @@
+/*
+ * This file is part of Bisq.
+ *
+ * Bisq is free software: you can redistribute it and/or modify it
+ * under the terms of the GNU Affero General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or (at
+ * your option) any later version.
+ *
+ * Bisq is distributed in the hope that it will be useful, but WITHOUT
+ * ANY WARRANTY; without even the implied warranty of MERCHANTABILITY or
+ * FITNESS FOR A PARTICULAR PURPOSE. See the GNU Affero General Public
+ * License for more details.
+ *
+ * You should have received a copy of the GNU Affero General Public License
+ * along with Bisq. If not, see <http://www.gnu.org/licenses/>.
+ */
+
+package bisq.benchmarks;
+
+import bisq.core.proto.network.CoreNetworkProtoResolver;
+
+import bisq.network.p2p.peers.getdata.messages.GetDataResponse;
+import bisq.network.p2p.storage.messages.AddDataMessage;
+import bisq.network.p2p.storage.payload.PersistableNetworkPayload;
+import bisq.network.p2p.storage.payload.ProtectedStorageEntry;
+
+import bisq.common.proto.network.NetworkEnvelope;
+
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+/**
+ * Serializing and resolving network messages: a GetDataResponse with offers, trade
+ * statistics and signed witnesses as a seed node sends it to a new peer, and a single
+ * AddDataMessage with an offer.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@Fork(1)
+@Warmup(iterations = 5)
+@Measurement(iterations = 10)
+public class ProtoResolverBenchmark {
+
+    @Param({"1000"})
+    public int numOffers;
+
+    @Param({"10000"})
+    public int numTradeStatistics;
+
+    @Param({"5000"})
+    public int numSignedWitnesses;
+
+    private final CoreNetworkProtoResolver resolver = new CoreNetworkProtoResolver(Fixtures.CLOCK);
+    private GetDataResponse getDataResponse;
+    private byte[] getDataResponseBytes;
+    private byte[] addDataMessageBytes;
+
+    @Setup
+    public void setUp() {
+        Fixtures fixtures = new Fixtures();
+        List<ProtectedStorageEntry> entries = fixtures.createOfferEntries(fixtures.createOffers(numOffers));
+        Set<PersistableNetworkPayload> payloads = new HashSet<>(fixtures.createTradeStatistics(numTradeStatistics));
+        payloads.addAll(fixtures.createSignedWitnesses(numSignedWitnesses));
+        getDataResponse = new GetDataResponse(new HashSet<>(entries), payloads, 1, false);
+        getDataResponseBytes = getDataResponse.toProtoNetworkEnvelope().toByteArray();
+        addDataMessageBytes = new AddDataMessage(entries.get(0)).toProtoNetworkEnvelope().toByteArray();
+    }
+
+    @Benchmark
+    @OutputTimeUnit(TimeUnit.MILLISECONDS)
+    public byte[] serializeGetDataResponse() {
+        return getDataResponse.toProtoNetworkEnvelope().toByteArray();
+    }
+
+    @Benchmark
+    @OutputTimeUnit(TimeUnit.MILLISECONDS)
+    public NetworkEnvelope resolveGetDataResponse() throws Exception {
+        return resolver.fromProto(protobuf.NetworkEnvelope.parseFrom(getDataResponseBytes));
+    }
+
+    @Benchmark
+    @OutputTimeUnit(TimeUnit.MICROSECONDS)
+    public NetworkEnvelope resolveAddDataMessage() throws Exception {
+        return resolver.fromProto(protobuf.NetworkEnvelope.parseFrom(addDataMessageBytes));
+    }
+}
@@ -0,0 +1,90 @@
+/*
+ * This file is part of Bisq.
+ *
+ * Bisq is free software: you can redistribute it and/or modify it
+ * under the terms of the GNU Affero General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or (at
+ * your option) any later version.
+ *
+ * Bisq is distributed in the hope that it will be useful, but WITHOUT
+ * ANY WARRANTY; without even the implied warranty of MERCHANTABILITY or
+ * FITNESS FOR A PARTICULAR PURPOSE. See the GNU Affero General Public
+ * License for more details.
+ *
+ * You should have received a copy of the GNU Affero General Public License
+ * along with Bisq. If not, see <http://www.gnu.org/licenses/>.
+ */
+
+package bisq.benchmarks;
+
+import bisq.common.FrameRateTimer;
+import bisq.common.Timer;
+import bisq.common.TimingWheelTimer;
+
+import java.time.Duration;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+import java.util.function.Supplier;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+
+/**
+ * Scheduling and stopping a timer while many other timers are pending, as on a seed node
+ * where each broadcast schedules a timer per peer. Compares the FrameRateTimer with the
+ * TimingWheelTimer.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Fork(1)
+@Warmup(iterations = 5)
+@Measurement(iterations = 10)
+public class TimerBenchmark {
+    private static final Duration PENDING_DELAY = Duration.ofHours(1);
+    private static final Duration DELAY = Duration.ofMinutes(1);
+
+    @Param({"FrameRateTimer", "TimingWheelTimer"})
+    public String timerClass;
+
+    @Param({"100", "1000", "10000"})
+    public int numPendingTimers;
+
+    private Supplier<Timer> timerFactory;
+    private final List<Timer> pendingTimers = new ArrayList<>();
+
+    @Setup
+    public void setUp() {
+        timerFactory = timerClass.equals("FrameRateTimer") ? FrameRateTimer::new : TimingWheelTimer::new;
+        for (int i = 0; i < numPendingTimers; i++) {
+            pendingTimers.add(timerFactory.get().runLater(PENDING_DELAY, () -> {
+            }));
+        }
+    }
+
+    @TearDown
+    public void tearDown() {
+        pendingTimers.forEach(Timer::stop);
+        pendingTimers.clear();
+    }
+
+    @Benchmark
+    public Timer scheduleAndStop() {
+        Timer timer = timerFactory.get().runLater(DELAY, () -> {
+        });
+        timer.stop();
+        return timer;
+    }
+}
@@ -0,0 +1,82 @@
+/*
+ * This file is part of Bisq.
+ *
+ * Bisq is free software: you can redistribute it and/or modify it
+ * under the terms of the GNU Affero General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or (at
+ * your option) any later version.
+ *
+ * Bisq is distributed in the hope that it will be useful, but WITHOUT
+ * ANY WARRANTY; without even the implied warranty of MERCHANTABILITY or
+ * FITNESS FOR A PARTICULAR PURPOSE. See the GNU Affero General Public
+ * License for more details.
+ *
+ * You should have received a copy of the GNU Affero General Public License
+ * along with Bisq. If not, see <http://www.gnu.org/licenses/>.
+ */
+
+package bisq.benchmarks.loadtest;
+
+import bisq.common.metrics.Histogram;
+import bisq.common.metrics.MetricsRegistry;
+
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Tracks the time from publishing a payload at one node until it was delivered to each of the
+ * other tracked nodes, and records it in the latency histogram of the traffic type.
+ *
+ * @param <K> The key identifying a payload, e.g. its hash
+ */
+class DeliveryTracker<K> {
+    private static class Publication {
+        private final int publisherIndex;
+        private final long nanoTime;
+
+        Publication(int publisherIndex, long nanoTime) {
+            this.publisherIndex = publisherIndex;
+            this.nanoTime = nanoTime;
+        }
+    }
+
+    private final Map<K, Publication> publications = new ConcurrentHashMap<>();
+    private final Histogram latency;
+    private final LongAdder numDelivered = new LongAdder();
+    private final CountDownLatch remainingDeliveries;
+
+    DeliveryTracker(String type, CountDownLatch remainingDeliveries) {
+        this.remainingDeliveries = remainingDeliveries;
+        latency = MetricsRegistry.histogram("loadtest_delivery_latency_ms",
+                "Time from publishing a payload until a peer received it",
+                MetricsRegistry.DEFAULT_MS_BUCKETS,
+                "type", type);
+    }
+
+    // Must be called before the payload gets published, as the publisher might already deliver it
+    // to its listeners when we publish it.
+    void onPublished(int publisherIndex, K key) {
+        publications.put(key, new Publication(publisherIndex, System.nanoTime()));
+    }
+
+    // Payloads we have not published, or received by the publisher itself, are ignored.
+    void onDelivered(int receiverIndex, K key) {
+        Publication publication = publications.get(key);
+        if (publication == null || publication.publisherIndex == receiverIndex)
+            return;
+
+        latency.record((System.nanoTime() - publication.nanoTime) / 1_000_000);
+        numDelivered.increment();
+        remainingDeliveries.countDown();
+    }
+
+    Histogram getLatency() {
+        return latency;
+    }
+
+    long getNumDelivered() {
+        return numDelivered.sum();
+    }
+}
@@ -0,0 +1,495 @@
+/*
+ * This file is part of Bisq.
+ *
+ * Bisq is free software: you can redistribute it and/or modify it
+ * under the terms of the GNU Affero General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or (at
+ * your option) any later version.
+ *
+ * Bisq is distributed in the hope that it will be useful, but WITHOUT
+ * ANY WARRANTY; without even the implied warranty of MERCHANTABILITY or
+ * FITNESS FOR A PARTICULAR PURPOSE. See the GNU Affero General Public
+ * License for more details.
+ *
+ * You should have received a copy of the GNU Affero General Public License
+ * along with Bisq. If not, see <http://www.gnu.org/licenses/>.
+ */
+
+package bisq.benchmarks.loadtest;
+
+import bisq.benchmarks.Fixtures;
+
+import bisq.core.trade.statistics.TradeStatistics3;
+
+import bisq.network.p2p.AckMessage;
+import bisq.network.p2p.AckMessageSourceType;
+import bisq.network.p2p.NodeAddress;
+import bisq.network.p2p.SendMailboxMessageListener;
+import bisq.network.p2p.mailbox.MailboxMessage;
+import bisq.network.p2p.network.LocalhostNetworkNode;
+import bisq.network.p2p.network.NetworkNode;
+import bisq.network.p2p.network.Statistic;
+import bisq.network.p2p.seed.SeedNodeRepository;
+import bisq.network.p2p.storage.P2PDataStorage;
+import bisq.network.p2p.storage.payload.ProtectedStorageEntry;
+import bisq.network.utils.Utils;
+
+import bisq.common.TimingWheelTimer;
+import bisq.common.UserThread;
+import bisq.common.app.Capabilities;
+import bisq.common.app.Capability;
+import bisq.common.file.FileUtil;
+import bisq.common.metrics.Histogram;
+import bisq.common.metrics.MetricsRegistry;
+import bisq.common.util.ExecutorRegistry;
+
+import joptsimple.OptionException;
+import joptsimple.OptionParser;
+import joptsimple.OptionSet;
+import joptsimple.OptionSpec;
+
+import com.google.common.util.concurrent.ThreadFactoryBuilder;
+
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+
+import java.io.File;
+import java.io.IOException;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ThreadFactory;
+import java.util.concurrent.TimeUnit;
+import java.util.stream.Collectors;
+
+import lombok.extern.slf4j.Slf4j;
+
+/**
+ * Boots seed nodes and peers in one JVM on {@link LocalhostNetworkNode}s, replays synthetic
+ * offer, trade statistics and mailbox traffic from the peers and reports the throughput, the
+ * sync time, the memory use and the delivery latency.
+ * <p>
+ * The run has four phases:
+ * <ol>
+ *     <li>The seed nodes are started one after the other, so each gets the data of the previous ones.</li>
+ *     <li>The peers are started at the same time and sync with the seed nodes.</li>
+ *     <li>The peers publish the traffic. We wait until each payload got delivered to every other
+ *     peer, or until the timeout.</li>
+ *     <li>A late joining peer is started and syncs the data published before.</li>
+ * </ol>
+ * All nodes share the UserThread and the static app capabilities, so a run shows the relative
+ * cost of a change in e.g. the P2PDataStorage, Broadcaster or PeerManager, not the capacity of a
+ * single seed node.
+ */
+@Slf4j
+public class LoadTestMain {
+    private static final int SEED_MAX_CONNECTIONS = 30;
+    private static final int PEER_MAX_CONNECTIONS = 12;
+    private static final long START_TIMEOUT_SEC = 120;
+    private static final long SHUT_DOWN_TIMEOUT_SEC = 30;
+
+    private static class LocalhostSeedNodeRepository implements SeedNodeRepository {
+        private final List<NodeAddress> seedNodeAddresses;
+
+        LocalhostSeedNodeRepository(List<NodeAddress> seedNodeAddresses) {
+            this.seedNodeAddresses = seedNodeAddresses;
+        }
+
+        @Override
+        public boolean isSeedNode(NodeAddress nodeAddress) {
+            return seedNodeAddresses.contains(nodeAddress);
+        }
+
+        @Override
+        public Collection<NodeAddress> getSeedNodeAddresses() {
+            return seedNodeAddresses;
+        }
+    }
+
+    private final int numSeeds;
+    private final int numPeers;
+    private final int numOffers;
+    private final int numTradeStatistics;
+    private final int numMailboxMessages;
+    private final long trafficTimeoutSec;
+    private final File baseDir;
+    private final LocalhostSeedNodeRepository seedNodeRepository;
+    private final List<LoadTestNode> seeds = new ArrayList<>();
+    private final List<LoadTestNode> peers = new ArrayList<>();
+    private final List<String> report = new ArrayList<>();
+
+    public static void main(String[] args) throws Exception {
+        OptionParser parser = new OptionParser();
+        OptionSpec<Integer> seedsOpt = parser.accepts("seeds", "Number of seed nodes")
+                .withRequiredArg().ofType(Integer.class).defaultsTo(2);
+        OptionSpec<Integer> peersOpt = parser.accepts("peers", "Number of peers, at least 2")
+                .withRequiredArg().ofType(Integer.class).defaultsTo(10);
+        OptionSpec<Integer> offersOpt = parser.accepts("offers", "Number of offers published by the peers")
+                .withRequiredArg().ofType(Integer.class).defaultsTo(500);
+        OptionSpec<Integer> tradeStatisticsOpt = parser.accepts("tradeStatistics",
+                "Number of trade statistics published by the peers")
+                .withRequiredArg().ofType(Integer.class).defaultsTo(500);
+        OptionSpec<Integer> mailboxMessagesOpt = parser.accepts("mailboxMessages",
+                "Number of mailbox messages sent between the peers")
+                .withRequiredArg().ofType(Integer.class).defaultsTo(100);
+        OptionSpec<Integer> timeoutOpt = parser.accepts("timeout",
+                "Max. time in seconds to wait for the delivery of the traffic")
+                .withRequiredArg().ofType(Integer.class).defaultsTo(120);
+        OptionSpec<Boolean> compressionOpt = parser.accepts("compression",
+                "Compress large envelopes, disable to compare the sync payload size and time without compression")
+                .withRequiredArg().ofType(Boolean.class).defaultsTo(true);
+        OptionSpec<File> resultFileOpt = parser.accepts("resultFile",
+                "File the metrics are written to as json")
+                .withRequiredArg().ofType(File.class);
+        parser.accepts("help", "Print this help text").forHelp();
+
+        OptionSet options;
+        try {
+            options = parser.parse(args);
+        } catch (OptionException e) {
+            System.err.println(e.getMessage());
+            parser.printHelpOn(System.err);
+            System.exit(1);
+            return;
+        }
+        if (options.has("help")) {
+            parser.printHelpOn(System.out);
+            return;
+        }
+        if (options.valueOf(seedsOpt) < 1 || options.valueOf(peersOpt) < 2) {
+            System.err.println("We need at least 1 seed node and 2 peers");
+            System.exit(1);
+            return;
+        }
+
+        ThreadFactory threadFactory = new ThreadFactoryBuilder()
+                .setNameFormat(LoadTestMain.class.getSimpleName())
+                .setDaemon(true)
+                .build();
+        UserThread.setExecutor(Executors.newSingleThreadExecutor(threadFactory));
+        UserThread.setTimerClass(TimingWheelTimer.class);
+        // All nodes run in this JVM and each node has its own executor, so we raise the limit of the registry.
+        int numNodes = options.valueOf(seedsOpt) + options.valueOf(peersOpt);
+        ExecutorRegistry.setMaxTotalThreads(ExecutorRegistry.getMaxTotalThreads() +
+                numNodes * NetworkNode.MAX_EXECUTOR_THREADS);
+        LocalhostNetworkNode.setSimulateTorDelayTorNode(0);
+        LocalhostNetworkNode.setSimulateTorDelayHiddenService(0);
+        Capabilities.app.addAll(Capability.TRADE_STATISTICS_3,
+                Capability.SIGNED_ACCOUNT_AGE_WITNESS,
+                Capability.MEDIATION,
+                Capability.REFUND_AGENT,
+                Capability.TRADE_STATISTICS_HASH_UPDATE,
+                Capability.NO_ADDRESS_PRE_FIX);
+        if (options.valueOf(compressionOpt))
+            Capabilities.app.addAll(Capability.ENVELOPE_COMPRESSION);
+
+        LoadTestMain loadTest = new LoadTestMain(options.valueOf(seedsOpt),
+                options.valueOf(peersOpt),
+                options.valueOf(offersOpt),
+                options.valueOf(tradeStatisticsOpt),
+                options.valueOf(mailboxMessagesOpt),
+                options.valueOf(timeoutOpt),
+                Files.createTempDirectory("bisq-loadtest").toFile());
+        int exitCode = 0;
+        try {
+            loadTest.run();
+            loadTest.printReport();
+            if (options.has(resultFileOpt)) {
+                File resultFile = options.valueOf(resultFileOpt);
+                Files.write(resultFile.toPath(), MetricsRegistry.toJson().getBytes(StandardCharsets.UTF_8));
+                System.out.println("Metrics written to " + resultFile.getAbsolutePath());
+            }
+        } catch (Throwable t) {
+            log.error("Load test failed", t);
+            exitCode = 1;
+        } finally {
+            loadTest.shutDown();
+        }
+        System.exit(exitCode);
+    }
+
+    private LoadTestMain(int numSeeds,
+                         int numPeers,
+                         int numOffers,
+                         int numTradeStatistics,
+                         int numMailboxMessages,
+                         long trafficTimeoutSec,
+                         File baseDir) {
+        this.numSeeds = numSeeds;
+        this.numPeers = numPeers;
+        this.numOffers = numOffers;
+        this.numTradeStatistics = numTradeStatistics;
+        this.numMailboxMessages = numMailboxMessages;
+        this.trafficTimeoutSec = trafficTimeoutSec;
+        this.baseDir = baseDir;
+
+        List<NodeAddress> seedNodeAddresses = new ArrayList<>();
+        for (int i = 0; i < numSeeds; i++) {
+            seedNodeAddresses.add(new NodeAddress("localhost", Utils.findFreeSystemPort()));
+        }
+        seedNodeRepository = new LocalhostSeedNodeRepository(seedNodeAddresses);
+    }
+
+
+    ///////////////////////////////////////////////////////////////////////////////////////////
+    // Phases
+    ///////////////////////////////////////////////////////////////////////////////////////////
+
+    private void run() throws InterruptedException {
+        // Fixtures signs the offers with the fixed clock, so the nodes use it as well to not
+        // consider them expired.
+        Fixtures fixtures = new Fixtures();
+        List<ProtectedStorageEntry> offerEntries = fixtures.createOfferEntries(fixtures.createOffers(numOffers));
+        List<TradeStatistics3> tradeStatistics = fixtures.createTradeStatistics(numTradeStatistics);
+        report.add(String.format("Setup: %d seed nodes, %d peers, %d offers, %d trade statistics, %d mailbox messages",
+                numSeeds, numPeers, numOffers, numTradeStatistics, numMailboxMessages));
+        report.add(String.format("Heap used at start: %d MB", getUsedHeapMb()));
+
+        startSeeds();
+        startPeers();
+        report.add(String.format("Heap used after bootstrap: %d MB", getUsedHeapMb()));
+
+        publishTraffic(offerEntries, tradeStatistics);
+        report.add(String.format("Heap used after traffic: %d MB", getUsedHeapMb()));
+
+        startLateJoiner();
+    }
+
+    private void startSeeds() throws InterruptedException {
+        Histogram syncTime = getSyncTimeHistogram("seed");
+        for (NodeAddress nodeAddress : seedNodeRepository.getSeedNodeAddresses()) {
+            LoadTestNode seed = createNode("seed-" + seeds.size(), nodeAddress.getPort(), SEED_MAX_CONNECTIONS);
+            seeds.add(seed);
+            startAndAwait(List.of(seed), syncTime);
+        }
+        addSyncTimeToReport("Seed node sync time", syncTime);
+    }
+
+    private void startPeers() throws InterruptedException {
+        for (int i = 0; i < numPeers; i++) {
+            peers.add(createNode("peer-" + i, Utils.findFreeSystemPort(), PEER_MAX_CONNECTIONS));
+        }
+        Histogram syncTime = getSyncTimeHistogram("initial");
+        startAndAwait(peers, syncTime);
+        addSyncTimeToReport("Peer sync time", syncTime);
+    }
+
+    private void publishTraffic(List<ProtectedStorageEntry> offerEntries,
+                                List<TradeStatistics3> tradeStatistics) throws InterruptedException {
+        int numDeliveries = (offerEntries.size() + tradeStatistics.size()) * (numPeers - 1) + numMailboxMessages;
+        CountDownLatch remainingDeliveries = new CountDownLatch(numDeliveries);
+        DeliveryTracker<P2PDataStorage.ByteArray> offerTracker = new DeliveryTracker<>("offer", remainingDeliveries);
+        DeliveryTracker<P2PDataStorage.ByteArray> tradeStatisticsTracker = new DeliveryTracker<>("trade_statistics",
+                remainingDeliveries);
+        DeliveryTracker<String> mailboxTracker = new DeliveryTracker<>("mailbox", remainingDeliveries);
+        for (int i = 0; i < peers.size(); i++) {
+            int receiverIndex = i;
+            P2PDataStorage p2PDataStorage = peers.get(i).getP2PDataStorage();
+            p2PDataStorage.addHashMapChangedListener(entries -> entries.forEach(entry ->
+                    offerTracker.onDelivered(receiverIndex,
+                            P2PDataStorage.get32ByteHashAsByteArray(entry.getProtectedStoragePayload()))));
+            p2PDataStorage.addAppendOnlyDataStoreListener(payload ->
+                    tradeStatisticsTracker.onDelivered(receiverIndex, new P2PDataStorage.ByteArray(payload.getHash())));
+            peers.get(i).getMailboxMessageService().addDecryptedMailboxListener((message, senderNodeAddress) ->
+                    mailboxTracker.onDelivered(receiverIndex,
+                            ((MailboxMessage) message.getNetworkEnvelope()).getUid()));
+        }
+
+        // Mailbox messages are sent to an address nobody listens on, so they get stored in the
+        // network as mailbox entries. Only the peer with the receiver's key can decrypt them.
+        NodeAddress offlineNodeAddress = new NodeAddress("localhost", Utils.findFreeSystemPort());
+        long sentBytesBefore = Statistic.getTotalSentBytes();
+        long sentMessagesBefore = Statistic.getNumTotalSentMessages();
+        long ts = System.currentTimeMillis();
+        for (int i = 0; i < offerEntries.size(); i++) {
+            int publisherIndex = i % numPeers;
+            ProtectedStorageEntry entry = offerEntries.get(i);
+            UserThread.execute(() -> {
+                LoadTestNode publisher = peers.get(publisherIndex);
+                offerTracker.onPublished(publisherIndex,
+                        P2PDataStorage.get32ByteHashAsByteArray(entry.getProtectedStoragePayload()));
+                publisher.getP2PDataStorage().addProtectedStorageEntry(entry,
+                        publisher.getNetworkNode().getNodeAddress(),
+                        null);
+            });
+        }
+        for (int i = 0; i < tradeStatistics.size(); i++) {
+            int publisherIndex = i % numPeers;
+            TradeStatistics3 payload = tradeStatistics.get(i);
+            UserThread.execute(() -> {
+                tradeStatisticsTracker.onPublished(publisherIndex, new P2PDataStorage.ByteArray(payload.getHash()));
+                peers.get(publisherIndex).getP2PService().addPersistableNetworkPayload(payload, false);
+            });
+        }
+        for (int i = 0; i < numMailboxMessages; i++) {
+            int senderIndex = i % numPeers;
+            LoadTestNode receiver = peers.get((senderIndex + 1) % numPeers);
+            UserThread.execute(() -> {
+                LoadTestNode sender = peers.get(senderIndex);
+                AckMessage message = new AckMessage(sender.getNetworkNode().getNodeAddress(),
+                        AckMessageSourceType.TRADE_MESSAGE,
+                        LoadTestMain.class.getSimpleName(),
+                        null,
+                        sender.getName(),
+                        true,
+                        null);
+                mailboxTracker.onPublished(senderIndex, message.getUid());
+                sender.getMailboxMessageService().sendEncryptedMailboxMessage(offlineNodeAddress,
+                        receiver.getKeyRing().getPubKeyRing(),
+                        message,
+                        new SendMailboxMessageListener() {
+                            @Override
+                            public void onArrived() {
+                            }
+
+                            @Override
+                            public void onStoredInMailbox() {
+                            }
+
+                            @Override
+                            public void onFault(String errorMessage) {
+                                log.warn("Sending mailbox message from {} failed: {}", sender.getName(), errorMessage);
+                            }
+                        });
+            });
+        }
+
+        boolean completed = remainingDeliveries.await(trafficTimeoutSec, TimeUnit.SECONDS);
+        long duration = System.currentTimeMillis() - ts;
+        long numDelivered = numDeliveries - remainingDeliveries.getCount();
+        report.add(String.format("Traffic: %d of %d deliveries in %d ms%s, %.1f deliveries/sec",
+                numDelivered,
+                numDeliveries,
+                duration,
+                completed ? "" : " (timed out)",
+                numDelivered * 1000d / Math.max(1, duration)));
+        report.add(String.format("Traffic: %d messages and %.1f MB sent by all nodes",
+                Statistic.getNumTotalSentMessages() - sentMessagesBefore,
+                (Statistic.getTotalSentBytes() - sentBytesBefore) / 1_000_000d));
+        addLatencyToReport("Offer delivery latency", offerTracker);
+        addLatencyToReport("Trade statistics delivery latency", tradeStatisticsTracker);
+        addLatencyToReport("Mailbox delivery latency", mailboxTracker);
+    }
+
+    private void startLateJoiner() throws InterruptedException {
+        LoadTestNode lateJoiner = createNode("late-joiner", Utils.findFreeSystemPort(), PEER_MAX_CONNECTIONS);
+        peers.add(lateJoiner);
+        Histogram syncTime = getSyncTimeHistogram("late_joiner");
+        long sentBytesBefore = Statistic.getTotalSentBytes();
+        startAndAwait(List.of(lateJoiner), syncTime);
+        addSyncTimeToReport("Late joiner sync time", syncTime);
+        // Includes the keep alive and broadcast traffic of the other nodes during the sync.
+        report.add(String.format("Late joiner sync: %.2f MB sent by all nodes, compression %s",
+                (Statistic.getTotalSentBytes() - sentBytesBefore) / 1_000_000d,
+                Capabilities.app.contains(Capability.ENVELOPE_COMPRESSION) ? "enabled" : "disabled"));
+        report.add(String.format("Late joiner received %d protected storage entries and %d trade statistics",
+                lateJoiner.getP2PDataStorage().getMap().size(),
+                lateJoiner.getNumTradeStatistics()));
+    }
+
+    private void shutDown() {
+        List<LoadTestNode> nodes = new ArrayList<>(peers);
+        nodes.addAll(seeds);
+        CountDownLatch shutDownLatch = new CountDownLatch(nodes.size());
+        UserThread.execute(() -> nodes.forEach(node -> node.shutDown(shutDownLatch::countDown)));
+        try {
+            if (!shutDownLatch.await(SHUT_DOWN_TIMEOUT_SEC, TimeUnit.SECONDS))
+                log.warn("Not all nodes shut down within {} sec", SHUT_DOWN_TIMEOUT_SEC);
+        } catch (InterruptedException ignore) {
+            Thread.currentThread().interrupt();
+        }
+        try {
+            FileUtil.deleteDirectory(baseDir);
+        } catch (IOException e) {
+            log.warn("Could not delete {}: {}", baseDir, e.toString());
+        }
+    }
+
+
+    ///////////////////////////////////////////////////////////////////////////////////////////
+    // Private
+    ///////////////////////////////////////////////////////////////////////////////////////////
+
+    private LoadTestNode createNode(String name, int port, int maxConnections) {
+        File nodeDir = new File(baseDir, name);
+        if (!nodeDir.mkdirs())
+            throw new IllegalStateException("Could not create " + nodeDir);
+
+        // The node reads the clock when it receives offers, so it must use the clock of the fixtures.
+        return new LoadTestNode(name, port, seedNodeRepository, maxConnections, nodeDir, Fixtures.CLOCK);
+    }
+
+    private void startAndAwait(List<LoadTestNode> nodes, Histogram syncTime) throws InterruptedException {
+        CountDownLatch bootstrapped = new CountDownLatch(nodes.size());
+        UserThread.execute(() -> nodes.forEach(node -> node.start(ms -> {
+            syncTime.record(ms);
+            bootstrapped.countDown();
+        })));
+        if (!bootstrapped.await(START_TIMEOUT_SEC, TimeUnit.SECONDS)) {
+            throw new IllegalStateException(String.format("%d of %s did not bootstrap within %d sec",
+                    bootstrapped.getCount(),
+                    nodes.stream().map(LoadTestNode::getName).collect(Collectors.joining(", ")),
+                    START_TIMEOUT_SEC));
+        }
+    }
+
+    private Histogram getSyncTimeHistogram(String phase) {
+        return MetricsRegistry.histogram("loadtest_sync_time_ms",
+                "Time from starting a node until it has bootstrapped",
+                MetricsRegistry.DEFAULT_MS_BUCKETS,
+                "phase", phase);
+    }
+
+    private void addSyncTimeToReport(String title, Histogram histogram) {
+        report.add(String.format("%s: mean=%.0f ms, p50<=%s, p95<=%s, max<=%s",
+                title,
+                histogram.getMean(),
+                getPercentile(histogram, 0.5),
+                getPercentile(histogram, 0.95),
+                getPercentile(histogram, 1)));
+    }
+
+    private void addLatencyToReport(String title, DeliveryTracker<?> tracker) {
+        Histogram histogram = tracker.getLatency();
+        report.add(String.format("%s: %d deliveries, mean=%.0f ms, p50<=%s, p95<=%s, p99<=%s",
+                title,
+                tracker.getNumDelivered(),
+                histogram.getMean(),
+                getPercentile(histogram, 0.5),
+                getPercentile(histogram, 0.95),
+                getPercentile(histogram, 0.99)));
+    }
+
+    // Returns the upper bound of the bucket containing the percentile.
+    private static String getPercentile(Histogram histogram, double quantile) {
+        long count = histogram.getCount();
+        if (count == 0)
+            return "n/a";
+
+        long[] upperBounds = histogram.getUpperBounds();
+        long[] bucketCounts = histogram.getBucketCounts();
+        long rank = (long) Math.ceil(quantile * count);
+        long cumulativeCount = 0;
+        for (int i = 0; i < upperBounds.length; i++) {
+            cumulativeCount += bucketCounts[i];
+            if (cumulativeCount >= rank)
+                return upperBounds[i] + " ms";
+        }
+        return "inf";
+    }
+
+    private static long getUsedHeapMb() {
+        System.gc();
+        Runtime runtime = Runtime.getRuntime();
+        return (runtime.totalMemory() - runtime.freeMemory()) / 1_000_000;
+    }
+
+    private void printReport() {
+        System.out.println();
+        report.forEach(System.out::println);
+        System.out.println();
+    }
+}
@@ -0,0 +1,230 @@
+/*
+ * This file is part of Bisq.
+ *
+ * Bisq is free software: you can redistribute it and/or modify it
+ * under the terms of the GNU Affero General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or (at
+ * your option) any later version.
+ *
+ * Bisq is distributed in the hope that it will be useful, but WITHOUT
+ * ANY WARRANTY; without even the implied warranty of MERCHANTABILITY or
+ * FITNESS FOR A PARTICULAR PURPOSE. See the GNU Affero General Public
+ * License for more details.
+ *
+ * You should have received a copy of the GNU Affero General Public License
+ * along with Bisq. If not, see <http://www.gnu.org/licenses/>.
+ */
+
+package bisq.benchmarks.loadtest;
+
+import bisq.core.proto.network.CoreNetworkProtoResolver;
+import bisq.core.trade.statistics.TradeStatistics3;
+import bisq.core.trade.statistics.TradeStatistics3Store;
+
+import bisq.network.Socks5ProxyProvider;
+import bisq.network.crypto.CryptoWorker;
+import bisq.network.crypto.EncryptionService;
+import bisq.network.p2p.P2PService;
+import bisq.network.p2p.P2PServiceListener;
+import bisq.network.p2p.mailbox.IgnoredMailboxService;
+import bisq.network.p2p.mailbox.MailboxMessageService;
+import bisq.network.p2p.network.LocalhostNetworkNode;
+import bisq.network.p2p.peers.Broadcaster;
+import bisq.network.p2p.peers.PeerManager;
+import bisq.network.p2p.peers.getdata.RequestDataManager;
+import bisq.network.p2p.peers.keepalive.KeepAliveManager;
+import bisq.network.p2p.peers.peerexchange.PeerExchangeManager;
+import bisq.network.p2p.seed.SeedNodeRepository;
+import bisq.network.p2p.storage.P2PDataStorage;
+import bisq.network.p2p.storage.payload.PersistableNetworkPayload;
+import bisq.network.p2p.storage.persistence.AppendOnlyDataStoreService;
+import bisq.network.p2p.storage.persistence.MapStoreService;
+import bisq.network.p2p.storage.persistence.ProtectedDataStoreService;
+import bisq.network.p2p.storage.persistence.RemovedPayloadsService;
+import bisq.network.p2p.storage.persistence.ResourceDataStoreService;
+
+import bisq.common.ClockWatcher;
+import bisq.common.crypto.KeyRing;
+import bisq.common.crypto.KeyStorage;
+import bisq.common.persistence.PersistenceManager;
+import bisq.common.proto.persistable.PersistableEnvelope;
+
+import java.time.Clock;
+
+import java.io.File;
+
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.function.LongConsumer;
+
+import lombok.Getter;
+import lombok.extern.slf4j.Slf4j;
+
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.withSettings;
+
+/**
+ * The P2P network stack of a seed node or peer, wired like the P2PModule binds it, on a
+ * {@link LocalhostNetworkNode}. Nothing is persisted and the trade statistics are kept in memory,
+ * so many nodes can run in one JVM without an app data directory.
+ */
+@Slf4j
+class LoadTestNode {
+    private static final int MAX_SEQUENCE_NUMBER_MAP_SIZE_BEFORE_PURGE = 1000;
+
+    // Keeps the trade statistics in memory instead of reading the store and the historical
+    // resource files like the TradeStatistics3StorageService.
+    private static class InMemoryTradeStatistics3StorageService
+            extends MapStoreService<TradeStatistics3Store, PersistableNetworkPayload> {
+        @Getter
+        private final Map<P2PDataStorage.ByteArray, PersistableNetworkPayload> map = new ConcurrentHashMap<>();
+
+        InMemoryTradeStatistics3StorageService(File storageDir) {
+            super(storageDir, createPersistenceManager());
+        }
+
+        @Override
+        public String getFileName() {
+            return "TradeStatistics3Store";
+        }
+
+        @Override
+        public boolean canHandle(PersistableNetworkPayload payload) {
+            return payload instanceof TradeStatistics3;
+        }
+
+        @Override
+        protected void initializePersistenceManager() {
+        }
+
+        @Override
+        protected TradeStatistics3Store createStore() {
+            return new TradeStatistics3Store();
+        }
+    }
+
+    @Getter
+    private final String name;
+    @Getter
+    private final LocalhostNetworkNode networkNode;
+    @Getter
+    private final P2PDataStorage p2PDataStorage;
+    @Getter
+    private final MailboxMessageService mailboxMessageService;
+    @Getter
+    private final P2PService p2PService;
+    @Getter
+    private final KeyRing keyRing;
+    private final InMemoryTradeStatistics3StorageService tradeStatisticsStorageService;
+
+    LoadTestNode(String name,
+                 int port,
+                 SeedNodeRepository seedNodeRepository,
+                 int maxConnections,
+                 File nodeDir,
+                 Clock clock) {
+        this.name = name;
+        CoreNetworkProtoResolver networkProtoResolver = new CoreNetworkProtoResolver(clock);
+        networkNode = new LocalhostNetworkNode(port, networkProtoResolver, null);
+        PeerManager peerManager = new PeerManager(networkNode,
+                seedNodeRepository,
+                new ClockWatcher(),
+                createPersistenceManager(),
+                maxConnections);
+        Broadcaster broadcaster = new Broadcaster(networkNode, peerManager);
+
+        AppendOnlyDataStoreService appendOnlyDataStoreService = new AppendOnlyDataStoreService();
+        tradeStatisticsStorageService = new InMemoryTradeStatistics3StorageService(nodeDir);
+        appendOnlyDataStoreService.addService(tradeStatisticsStorageService);
+        p2PDataStorage = new P2PDataStorage(networkNode,
+                broadcaster,
+                appendOnlyDataStoreService,
+                new ProtectedDataStoreService(),
+                new ResourceDataStoreService(),
+                createPersistenceManager(),
+                mock(RemovedPayloadsService.class, withSettings().stubOnly()),
+                clock,
+                MAX_SEQUENCE_NUMBER_MAP_SIZE_BEFORE_PURGE);
+
+        keyRing = new KeyRing(new KeyStorage(nodeDir));
+        EncryptionService encryptionService = new EncryptionService(keyRing, networkProtoResolver);
+        CryptoWorker cryptoWorker = new CryptoWorker();
+        mailboxMessageService = new MailboxMessageService(networkNode,
+                peerManager,
+                p2PDataStorage,
+                encryptionService,
+                cryptoWorker,
+                new IgnoredMailboxService(createPersistenceManager()),
+                createPersistenceManager(),
+                keyRing,
+                clock,
+                false);
+
+        p2PService = new P2PService(networkNode,
+                peerManager,
+                p2PDataStorage,
+                new RequestDataManager(networkNode, seedNodeRepository, p2PDataStorage, peerManager),
+                new PeerExchangeManager(networkNode, seedNodeRepository, peerManager),
+                new KeepAliveManager(networkNode, peerManager),
+                broadcaster,
+                new Socks5ProxyProvider("", ""),
+                encryptionService,
+                cryptoWorker,
+                keyRing,
+                mailboxMessageService);
+    }
+
+    // Must be called on the UserThread. The syncTimeHandler gets the time from the start until
+    // the node is bootstrapped, i.e. got the initial data from a seed node, or found no other seed
+    // node if it is the first seed node.
+    void start(LongConsumer syncTimeHandler) {
+        long ts = System.currentTimeMillis();
+        p2PService.onAllServicesInitialized();
+        p2PService.start(new P2PServiceListener() {
+            @Override
+            public void onDataReceived() {
+            }
+
+            @Override
+            public void onNoSeedNodeAvailable() {
+                syncTimeHandler.accept(System.currentTimeMillis() - ts);
+            }
+
+            @Override
+            public void onNoPeersAvailable() {
+            }
+
+            @Override
+            public void onUpdatedDataReceived() {
+                syncTimeHandler.accept(System.currentTimeMillis() - ts);
+            }
+
+            @Override
+            public void onTorNodeReady() {
+            }
+
+            @Override
+            public void onHiddenServicePublished() {
+            }
+
+            @Override
+            public void onSetupFailed(Throwable throwable) {
+                log.error("Setup of {} failed: {}", name, throwable.toString());
+            }
+        });
+    }
+
+    int getNumTradeStatistics() {
+        return tradeStatisticsStorageService.getMap().size();
+    }
+
+    // Must be called on the UserThread.
+    void shutDown(Runnable resultHandler) {
+        p2PService.shutDown(resultHandler);
+    }
+
+    @SuppressWarnings("unchecked")
+    private static <T extends PersistableEnvelope> PersistenceManager<T> createPersistenceManager() {
+        return mock(PersistenceManager.class, withSettings().stubOnly());
+    }
+}
@@ -0,0 +1,199 @@
+/*
+ * This file is part of Bisq.
+ *
+ * Bisq is free software: you can redistribute it and/or modify it
+ * under the terms of the GNU Affero General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or (at
+ * your option) any later version.
+ *
+ * Bisq is distributed in the hope that it will be useful, but WITHOUT
+ * ANY WARRANTY; without even the implied warranty of MERCHANTABILITY or
+ * FITNESS FOR A PARTICULAR PURPOSE. See the GNU Affero General Public
+ * License for more details.
+ *
+ * You should have received a copy of the GNU Affero General Public License
+ * along with Bisq. If not, see <http://www.gnu.org/licenses/>.
+ */
+
+package bisq.common;
+
+import java.time.Duration;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+/**
+ * Timer backed by a global hashed timing wheel.  An alternative to the FrameRateTimer for
+ * headless apps with many short-lived timers like the seed node.
+ * <p>
+ * Scheduling and stopping a timer are O(1), as a timer is linked into the wheel slot of
+ * its deadline.  The wheel thread only visits the slot of the current tick and executes
+ * only the due timers on the UserThread, so idle ticks cost nothing on the UserThread.
+ * The resolution is {@value TICK_MS} ms.
+ */
+public class TimingWheelTimer implements Timer {
+    private static final Logger log = LoggerFactory.getLogger(TimingWheelTimer.class);
+
+    static final long TICK_MS = 10;
+    private static final int WHEEL_SIZE = 512;
+    private static final Wheel wheel = new Wheel();
+
+    private long interval;
+    private Runnable runnable;
+    private boolean isPeriodically;
+    private volatile boolean stopped;
+
+    // Guarded by the wheel
+    private long deadlineTick;
+    private int slot = -1;
+    private TimingWheelTimer prev;
+    private TimingWheelTimer next;
+
+    public TimingWheelTimer() {
+    }
+
+    @Override
+    public Timer runLater(Duration delay, Runnable runnable) {
+        this.interval = delay.toMillis();
+        this.runnable = runnable;
+        wheel.schedule(this, interval);
+        return this;
+    }
+
+    @Override
+    public Timer runPeriodically(Duration interval, Runnable runnable) {
+        this.interval = interval.toMillis();
+        isPeriodically = true;
+        this.runnable = runnable;
+        wheel.schedule(this, this.interval);
+        return this;
+    }
+
+    @Override
+    public void stop() {
+        stopped = true;
+        wheel.cancel(this);
+    }
+
+    // Called on the UserThread. An exception only stops the failing timer, not the other
+    // timers due in the same tick.
+    private void fire() {
+        if (stopped)
+            return;
+
+        try {
+            runnable.run();
+            if (isPeriodically)
+                wheel.reschedule(this, interval);
+            else
+                stopped = true;
+        } catch (Throwable t) {
+            log.error("exception in TimingWheelTimer", t);
+            stop();
+        }
+    }
+
+
+    ///////////////////////////////////////////////////////////////////////////////////////////
+    // Wheel
+    ///////////////////////////////////////////////////////////////////////////////////////////
+
+    private static final class Wheel implements Runnable {
+        // Heads of the doubly linked lists of the timers in each slot
+        private final TimingWheelTimer[] slots = new TimingWheelTimer[WHEEL_SIZE];
+        private final long startNanos = System.nanoTime();
+        // The last tick processed by the wheel thread
+        private long currentTick;
+
+        Wheel() {
+            Thread thread = new Thread(this, "TimingWheelTimer");
+            thread.setDaemon(true);
+            thread.start();
+        }
+
+        synchronized void schedule(TimingWheelTimer timer, long delayMs) {
+            unlink(timer);
+            long elapsedMs = TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - startNanos);
+            // We round up so a timer never fires before its delay has passed.
+            long deadlineTick = Math.max(currentTick + 1, (elapsedMs + delayMs + TICK_MS - 1) / TICK_MS);
+            int slot = (int) (deadlineTick % WHEEL_SIZE);
+            timer.deadlineTick = deadlineTick;
+            timer.slot = slot;
+            timer.prev = null;
+            timer.next = slots[slot];
+            if (timer.next != null)
+                timer.next.prev = timer;
+            slots[slot] = timer;
+        }
+
+        // The stopped flag is checked under the lock, so a stop() racing with the reschedule either
+        // prevents it or unlinks the rescheduled timer.
+        synchronized void reschedule(TimingWheelTimer timer, long delayMs) {
+            if (!timer.stopped)
+                schedule(timer, delayMs);
+        }
+
+        synchronized void cancel(TimingWheelTimer timer) {
+            unlink(timer);
+        }
+
+        @Override
+        public void run() {
+            while (true) {
+                try {
+                    long nextTickNanos = startNanos + TimeUnit.MILLISECONDS.toNanos((currentTick + 1) * TICK_MS);
+                    long sleepNanos = nextTickNanos - System.nanoTime();
+                    if (sleepNanos > 0)
+                        TimeUnit.NANOSECONDS.sleep(sleepNanos);
+
+                    List<TimingWheelTimer> dueTimers = expireNextTick();
+                    if (!dueTimers.isEmpty())
+                        UserThread.execute(() -> dueTimers.forEach(TimingWheelTimer::fire));
+                } catch (InterruptedException e) {
+                    Thread.currentThread().interrupt();
+                    return;
+                } catch (Throwable t) {
+                    log.error("exception in TimingWheelTimer thread", t);
+                }
+            }
+        }
+
+        // If the wheel thread falls behind it processes the missed ticks one by one without sleeping.
+        private synchronized List<TimingWheelTimer> expireNextTick() {
+            currentTick++;
+            List<TimingWheelTimer> dueTimers = new ArrayList<>();
+            TimingWheelTimer timer = slots[(int) (currentTick % WHEEL_SIZE)];
+            while (timer != null) {
+                TimingWheelTimer next = timer.next;
+                // Timers with a deadline in a later round of the wheel stay in the slot.
+                if (timer.deadlineTick <= currentTick) {
+                    unlink(timer);
+                    dueTimers.add(timer);
+                }
+                timer = next;
+            }
+            return dueTimers;
+        }
+
+        private void unlink(TimingWheelTimer timer) {
+            if (timer.slot < 0)
+                return;
+
+            if (timer.prev != null)
+                timer.prev.next = timer.next;
+            else
+                slots[timer.slot] = timer.next;
+
+            if (timer.next != null)
+                timer.next.prev = timer.prev;
+
+            timer.prev = null;
+            timer.next = null;
+            timer.slot = -1;
+        }
+    }
+}
@@ -24,7 +24,9 @@ import java.time.Duration;
 import java.util.Random;
 import java.util.concurrent.Executor;
 import java.util.concurrent.TimeUnit;
+import java.util.function.Supplier;
 
+import java.lang.reflect.Constructor;
 import java.lang.reflect.InvocationTargetException;
 
 import lombok.Getter;
@@ -37,25 +39,25 @@ import lombok.extern.slf4j.Slf4j;
  * For JavaFX it is usually the Platform::RunLater executor, for a headless application it is any single threaded
  * executor.
  * Additionally sets a timer class so JavaFX and headless applications can set different timers (UITimer for JavaFX
- * otherwise we use the default FrameRateTimer).
+ * otherwise we use the default FrameRateTimer, or the TimingWheelTimer for apps with many timers).
  * <p>
  * Provides also methods for delayed and periodic executions.
  */
 @Slf4j
 public class UserThread {
-    private static Class<? extends Timer> timerClass;
+    private static Supplier<? extends Timer> timerFactory;
     @Getter
     @Setter
     private static Executor executor;
 
     public static void setTimerClass(Class<? extends Timer> timerClass) {
-        UserThread.timerClass = timerClass;
+        UserThread.timerFactory = createTimerFactory(timerClass);
     }
 
     static {
         // If not defined we use same thread as caller thread
         executor = MoreExecutors.directExecutor();
-        timerClass = FrameRateTimer.class;
+        timerFactory = FrameRateTimer::new;
     }
 
     public static void execute(Runnable command) {
@@ -89,12 +91,33 @@ public class UserThread {
     }
 
     private static Timer getTimer() {
+        return timerFactory.get();
+    }
+
+    // We avoid reflection for the timers of the common module. Other timer classes (e.g. UITimer) are created by
+    // reflection, but we look up their constructor only once.
+    private static Supplier<? extends Timer> createTimerFactory(Class<? extends Timer> timerClass) {
+        if (timerClass == FrameRateTimer.class)
+            return FrameRateTimer::new;
+        if (timerClass == TimingWheelTimer.class)
+            return TimingWheelTimer::new;
+
+        Constructor<? extends Timer> constructor;
         try {
-            return timerClass.getDeclaredConstructor().newInstance();
-        } catch (InstantiationException | NoSuchMethodException | InvocationTargetException | IllegalAccessException e) {
+            constructor = timerClass.getDeclaredConstructor();
+        } catch (NoSuchMethodException e) {
             String message = "Could not instantiate timer bsTimerClass=" + timerClass;
             log.error(message, e);
             throw new RuntimeException(message);
         }
+        return () -> {
+            try {
+                return constructor.newInstance();
+            } catch (InstantiationException | InvocationTargetException | IllegalAccessException e) {
+                String message = "Could not instantiate timer bsTimerClass=" + timerClass;
+                log.error(message, e);
+                throw new RuntimeException(message);
+            }
+        };
     }
 }
@@ -119,6 +119,7 @@ public class Config {
     public static final String ALLOW_FAULTY_DELAYED_TXS = "allowFaultyDelayedTxs";
     public static final String API_PASSWORD = "apiPassword";
     public static final String API_PORT = "apiPort";
+    public static final String METRICS_PORT = "metricsPort";
     public static final String PREVENT_PERIODIC_SHUTDOWN_AT_SEED_NODE = "preventPeriodicShutdownAtSeedNode";
     public static final String REPUBLISH_MAILBOX_ENTRIES = "republishMailboxEntries";
     public static final String BTC_TX_FEE = "btcTxFee";
@@ -211,6 +212,7 @@ public class Config {
     public final boolean allowFaultyDelayedTxs;
     public final String apiPassword;
     public final int apiPort;
+    public final int metricsPort;
     public final boolean preventPeriodicShutdownAtSeedNode;
     public final boolean republishMailboxEntries;
     public final boolean bypassMempoolValidation;
@@ -503,16 +505,16 @@ public class Config {
                         .defaultsTo(1000);
 
         ArgumentAcceptingOptionSpec<Integer> sendMsgThrottleTriggerOpt =
-                parser.accepts(SEND_MSG_THROTTLE_TRIGGER, "Time in ms when we trigger a sleep if 2 messages are sent")
+                parser.accepts(SEND_MSG_THROTTLE_TRIGGER, "Min. average time in ms between 2 messages sent to a peer")
                         .withRequiredArg()
                         .ofType(int.class)
-                        .defaultsTo(20); // Time in ms when we trigger a sleep if 2 messages are sent
+                        .defaultsTo(20); // Min. average time in ms between 2 messages sent to a peer
 
         ArgumentAcceptingOptionSpec<Integer> sendMsgThrottleSleepOpt =
-                parser.accepts(SEND_MSG_THROTTLE_SLEEP, "Pause in ms to sleep if we get too many messages to send")
+                parser.accepts(SEND_MSG_THROTTLE_SLEEP, "Min. delay in ms for queued messages if we get too many messages to send")
                         .withRequiredArg()
                         .ofType(int.class)
-                        .defaultsTo(50); // Pause in ms to sleep if we get too many messages to send
+                        .defaultsTo(50); // Min. delay in ms for queued messages if we get too many messages to send
 
         ArgumentAcceptingOptionSpec<String> btcNodesOpt =
                 parser.accepts(BTC_NODES, "Custom nodes used for BitcoinJ as comma separated IP addresses.")
@@ -648,6 +650,12 @@ public class Config {
                         .ofType(Integer.class)
                         .defaultsTo(9998);
 
+        ArgumentAcceptingOptionSpec<Integer> metricsPortOpt =
+                parser.accepts(METRICS_PORT, "Port of the local metrics endpoint of headless apps, disabled if not set")
+                        .withRequiredArg()
+                        .ofType(Integer.class)
+                        .defaultsTo(UNSPECIFIED_PORT);
+
         ArgumentAcceptingOptionSpec<Boolean> preventPeriodicShutdownAtSeedNodeOpt =
                 parser.accepts(PREVENT_PERIODIC_SHUTDOWN_AT_SEED_NODE,
                         "Prevents periodic shutdown at seed nodes")
@@ -784,6 +792,7 @@ public class Config {
             this.allowFaultyDelayedTxs = options.valueOf(allowFaultyDelayedTxsOpt);
             this.apiPassword = options.valueOf(apiPasswordOpt);
             this.apiPort = options.valueOf(apiPortOpt);
+            this.metricsPort = options.valueOf(metricsPortOpt);
             this.preventPeriodicShutdownAtSeedNode = options.valueOf(preventPeriodicShutdownAtSeedNodeOpt);
             this.republishMailboxEntries = options.valueOf(republishMailboxEntriesOpt);
             this.bypassMempoolValidation = options.valueOf(bypassMempoolValidationOpt);
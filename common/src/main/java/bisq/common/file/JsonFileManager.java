@@ -17,7 +17,7 @@
 
 package bisq.common.file;
 
-import bisq.common.util.Utilities;
+import bisq.common.util.ExecutorRegistry;
 
 import java.nio.file.Paths;
 
@@ -26,24 +26,24 @@ import java.io.PrintWriter;
 
 import java.util.ArrayList;
 import java.util.List;
-import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.ExecutorService;
 
 import lombok.extern.slf4j.Slf4j;
 
 import org.jetbrains.annotations.NotNull;
-import org.jetbrains.annotations.Nullable;
 
 @Slf4j
 public class JsonFileManager {
     private final static List<JsonFileManager> INSTANCES = new ArrayList<>();
+    // All instances share one executor, some apps create an instance per peer.
+    private final static String EXECUTOR_NAME = "JsonFileManagerExecutor";
+    private final static int EXECUTOR_THREADS = 5;
 
     public static void shutDownAllInstances() {
         INSTANCES.forEach(JsonFileManager::shutDown);
     }
 
 
-    @Nullable
-    private ThreadPoolExecutor executor;
     private final File dir;
 
 
@@ -61,18 +61,17 @@ public class JsonFileManager {
         INSTANCES.add(this);
     }
 
+    // Unbounded queue as we do not want to drop any write.
     @NotNull
-    protected ThreadPoolExecutor getExecutor() {
-        if (executor == null) {
-            executor = Utilities.getThreadPoolExecutor("JsonFileManagerExecutor", 5, 50, 60);
-        }
-        return executor;
+    protected ExecutorService getExecutor() {
+        return ExecutorRegistry.getListeningExecutorService(EXECUTOR_NAME,
+                EXECUTOR_THREADS,
+                ExecutorRegistry.UNBOUNDED_QUEUE_CAPACITY);
     }
 
+    // Queued writes still get executed.
     public void shutDown() {
-        if (executor != null) {
-            executor.shutdown();
-        }
+        ExecutorRegistry.shutDown(EXECUTOR_NAME);
     }
 
     public void writeToDiscThreaded(String json, String fileName) {
@@ -0,0 +1,74 @@
+/*
+ * This file is part of Bisq.
+ *
+ * Bisq is free software: you can redistribute it and/or modify it
+ * under the terms of the GNU Affero General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or (at
+ * your option) any later version.
+ *
+ * Bisq is distributed in the hope that it will be useful, but WITHOUT
+ * ANY WARRANTY; without even the implied warranty of MERCHANTABILITY or
+ * FITNESS FOR A PARTICULAR PURPOSE. See the GNU Affero General Public
+ * License for more details.
+ *
+ * You should have received a copy of the GNU Affero General Public License
+ * along with Bisq. If not, see <http://www.gnu.org/licenses/>.
+ */
+
+package bisq.common.metrics;
+
+import java.util.Arrays;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * A histogram with fixed bucket upper bounds. Recording a value increments one bucket
+ * and the sum and count, all without locking. The bucket counts are not cumulative, the
+ * Prometheus export adds them up.
+ */
+public final class Histogram {
+    private final long[] upperBounds;
+    // One more than upperBounds for the values above the largest bound.
+    private final LongAdder[] bucketCounts;
+    private final LongAdder sum = new LongAdder();
+    private final LongAdder count = new LongAdder();
+
+    Histogram(long[] upperBounds) {
+        this.upperBounds = upperBounds.clone();
+        Arrays.sort(this.upperBounds);
+        bucketCounts = new LongAdder[this.upperBounds.length + 1];
+        for (int i = 0; i < bucketCounts.length; i++) {
+            bucketCounts[i] = new LongAdder();
+        }
+    }
+
+    public void record(long value) {
+        int index = Arrays.binarySearch(upperBounds, value);
+        if (index < 0) {
+            index = -index - 1;
+        }
+        bucketCounts[index].increment();
+        sum.add(value);
+        count.increment();
+    }
+
+    public long[] getUpperBounds() {
+        return upperBounds.clone();
+    }
+
+    public long[] getBucketCounts() {
+        return Arrays.stream(bucketCounts).mapToLong(LongAdder::sum).toArray();
+    }
+
+    public long getSum() {
+        return sum.sum();
+    }
+
+    public long getCount() {
+        return count.sum();
+    }
+
+    public double getMean() {
+        long count = getCount();
+        return count > 0 ? (double) getSum() / count : 0;
+    }
+}
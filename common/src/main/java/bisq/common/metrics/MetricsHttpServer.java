@@ -0,0 +1,96 @@
+/*
+ * This file is part of Bisq.
+ *
+ * Bisq is free software: you can redistribute it and/or modify it
+ * under the terms of the GNU Affero General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or (at
+ * your option) any later version.
+ *
+ * Bisq is distributed in the hope that it will be useful, but WITHOUT
+ * ANY WARRANTY; without even the implied warranty of MERCHANTABILITY or
+ * FITNESS FOR A PARTICULAR PURPOSE. See the GNU Affero General Public
+ * License for more details.
+ *
+ * You should have received a copy of the GNU Affero General Public License
+ * along with Bisq. If not, see <http://www.gnu.org/licenses/>.
+ */
+
+package bisq.common.metrics;
+
+import bisq.common.util.ExecutorRegistry;
+
+import com.sun.net.httpserver.HttpExchange;
+import com.sun.net.httpserver.HttpServer;
+
+import java.net.InetAddress;
+import java.net.InetSocketAddress;
+
+import java.nio.charset.StandardCharsets;
+
+import java.io.IOException;
+import java.io.OutputStream;
+
+import java.util.function.Supplier;
+
+import lombok.extern.slf4j.Slf4j;
+
+import javax.annotation.Nullable;
+
+/**
+ * Serves the metrics of the {@link MetricsRegistry} on the loopback interface only, in the
+ * Prometheus text format at /metrics and as JSON at /metrics.json.
+ */
+@Slf4j
+public class MetricsHttpServer {
+    private static final String PROMETHEUS_CONTENT_TYPE = "text/plain; version=0.0.4; charset=utf-8";
+    private static final String JSON_CONTENT_TYPE = "application/json; charset=utf-8";
+
+    private final int port;
+    @Nullable
+    private HttpServer server;
+
+    public MetricsHttpServer(int port) {
+        this.port = port;
+    }
+
+    public void start() throws IOException {
+        server = HttpServer.create(new InetSocketAddress(InetAddress.getLoopbackAddress(), port), 0);
+        server.createContext("/metrics.json", exchange ->
+                respond(exchange, JSON_CONTENT_TYPE, MetricsRegistry::toJson));
+        server.createContext("/metrics", exchange ->
+                respond(exchange, PROMETHEUS_CONTENT_TYPE, MetricsRegistry::toPrometheusText));
+        server.setExecutor(ExecutorRegistry.getSingleThreadListeningExecutor("MetricsHttpServer"));
+        server.start();
+        log.info("Metrics are served at http://{}:{}/metrics", InetAddress.getLoopbackAddress().getHostAddress(), getPort());
+    }
+
+    public void shutDown() {
+        if (server != null) {
+            server.stop(0);
+            server = null;
+        }
+    }
+
+    // Returns the bound port, which differs from the configured one if that was 0.
+    public int getPort() {
+        return server != null ? server.getAddress().getPort() : port;
+    }
+
+    private static void respond(HttpExchange exchange, String contentType, Supplier<String> bodySupplier)
+            throws IOException {
+        try {
+            if (!"GET".equals(exchange.getRequestMethod())) {
+                exchange.sendResponseHeaders(405, -1);
+                return;
+            }
+            byte[] body = bodySupplier.get().getBytes(StandardCharsets.UTF_8);
+            exchange.getResponseHeaders().set("Content-Type", contentType);
+            exchange.sendResponseHeaders(200, body.length);
+            try (OutputStream outputStream = exchange.getResponseBody()) {
+                outputStream.write(body);
+            }
+        } finally {
+            exchange.close();
+        }
+    }
+}
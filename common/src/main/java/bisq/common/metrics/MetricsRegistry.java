@@ -0,0 +1,263 @@
+/*
+ * This file is part of Bisq.
+ *
+ * Bisq is free software: you can redistribute it and/or modify it
+ * under the terms of the GNU Affero General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or (at
+ * your option) any later version.
+ *
+ * Bisq is distributed in the hope that it will be useful, but WITHOUT
+ * ANY WARRANTY; without even the implied warranty of MERCHANTABILITY or
+ * FITNESS FOR A PARTICULAR PURPOSE. See the GNU Affero General Public
+ * License for more details.
+ *
+ * You should have received a copy of the GNU Affero General Public License
+ * along with Bisq. If not, see <http://www.gnu.org/licenses/>.
+ */
+
+package bisq.common.metrics;
+
+import com.google.gson.GsonBuilder;
+
+import com.google.common.annotations.VisibleForTesting;
+
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentSkipListMap;
+import java.util.function.DoubleSupplier;
+import java.util.regex.Pattern;
+
+import lombok.Getter;
+import lombok.extern.slf4j.Slf4j;
+
+import static com.google.common.base.Preconditions.checkArgument;
+
+/**
+ * Application wide registry of counters, gauges and histograms which does not depend on
+ * JavaFX or any metrics library, so it can be used by headless apps like the seed node
+ * or the daemon.
+ * <p>
+ * A metric is identified by its name and its labels, which are passed as alternating
+ * key value pairs (e.g. "type", "Ping"). Requesting a counter or histogram which exists
+ * already returns the existing one, so callers can look them up on each use or keep a
+ * reference. A gauge can only be registered once for a name and labels, so owners which
+ * exist more than once (e.g. network nodes) need to label their gauges, and owners which
+ * get shut down remove them again. Gauges are only evaluated when the metrics get exported.
+ * <p>
+ * The metrics can be exported in the Prometheus text format or as JSON, see
+ * {@link MetricsHttpServer}.
+ */
+@Slf4j
+public class MetricsRegistry {
+    public static final long[] DEFAULT_MS_BUCKETS = {5, 10, 25, 50, 100, 250, 500, 1000, 2500, 5000, 10000, 30000};
+    private static final Pattern NAME_PATTERN = Pattern.compile("[a-zA-Z_:][a-zA-Z0-9_:]*");
+
+    private enum Type {
+        COUNTER, GAUGE, HISTOGRAM
+    }
+
+    private static final Map<String, Family> FAMILIES = new ConcurrentSkipListMap<>();
+
+
+    ///////////////////////////////////////////////////////////////////////////////////////////
+    // API
+    ///////////////////////////////////////////////////////////////////////////////////////////
+
+    public static Counter counter(String name, String help, String... labels) {
+        return (Counter) getFamily(name, help, Type.COUNTER).getMetrics()
+                .computeIfAbsent(formatLabels(labels), key -> new Counter());
+    }
+
+    // Returns false and keeps the registered gauge if there is one with the same name and labels already.
+    public static boolean gauge(String name, String help, DoubleSupplier supplier, String... labels) {
+        String formattedLabels = formatLabels(labels);
+        if (getFamily(name, help, Type.GAUGE).getMetrics().putIfAbsent(formattedLabels, supplier) != null) {
+            log.warn("Gauge {}{} is registered already. We ignore the new one.", name, formattedLabels);
+            return false;
+        }
+        return true;
+    }
+
+    public static void removeGauge(String name, String... labels) {
+        Family family = FAMILIES.get(name);
+        if (family != null && family.getType() == Type.GAUGE) {
+            family.getMetrics().remove(formatLabels(labels));
+        }
+    }
+
+    public static Histogram histogram(String name, String help, long[] upperBounds, String... labels) {
+        return (Histogram) getFamily(name, help, Type.HISTOGRAM).getMetrics()
+                .computeIfAbsent(formatLabels(labels), key -> new Histogram(upperBounds));
+    }
+
+    public static String toPrometheusText() {
+        StringBuilder sb = new StringBuilder();
+        FAMILIES.values().forEach(family -> {
+            String name = family.getName();
+            sb.append("# HELP ").append(name).append(' ').append(escapeHelp(family.getHelp())).append('\n');
+            sb.append("# TYPE ").append(name).append(' ').append(family.getType().name().toLowerCase()).append('\n');
+            family.getMetrics().forEach((labels, metric) -> {
+                switch (family.getType()) {
+                    case COUNTER:
+                        appendSample(sb, name, labels, String.valueOf(((Counter) metric).get()));
+                        break;
+                    case GAUGE:
+                        Double value = getGaugeValue(name, (DoubleSupplier) metric);
+                        if (value != null) {
+                            appendSample(sb, name, labels, formatDouble(value));
+                        }
+                        break;
+                    case HISTOGRAM:
+                        Histogram histogram = (Histogram) metric;
+                        long[] upperBounds = histogram.getUpperBounds();
+                        long[] bucketCounts = histogram.getBucketCounts();
+                        long cumulativeCount = 0;
+                        for (int i = 0; i < bucketCounts.length; i++) {
+                            cumulativeCount += bucketCounts[i];
+                            String le = i < upperBounds.length ? String.valueOf(upperBounds[i]) : "+Inf";
+                            appendSample(sb, name + "_bucket", addLabel(labels, "le", le), String.valueOf(cumulativeCount));
+                        }
+                        appendSample(sb, name + "_sum", labels, String.valueOf(histogram.getSum()));
+                        appendSample(sb, name + "_count", labels, String.valueOf(histogram.getCount()));
+                        break;
+                }
+            });
+        });
+        return sb.toString();
+    }
+
+    public static String toJson() {
+        Map<String, Object> result = new LinkedHashMap<>();
+        FAMILIES.values().forEach(family -> {
+            List<Map<String, Object>> metrics = new ArrayList<>();
+            family.getMetrics().forEach((labels, metric) -> {
+                Map<String, Object> entry = new LinkedHashMap<>();
+                entry.put("labels", labels);
+                switch (family.getType()) {
+                    case COUNTER:
+                        entry.put("value", ((Counter) metric).get());
+                        break;
+                    case GAUGE:
+                        Double value = getGaugeValue(family.getName(), (DoubleSupplier) metric);
+                        // JSON has no representation of NaN and infinity.
+                        entry.put("value", value != null && Double.isFinite(value) ? value : null);
+                        break;
+                    case HISTOGRAM:
+                        Histogram histogram = (Histogram) metric;
+                        entry.put("count", histogram.getCount());
+                        entry.put("sum", histogram.getSum());
+                        entry.put("mean", histogram.getMean());
+                        Map<String, Long> buckets = new LinkedHashMap<>();
+                        long[] upperBounds = histogram.getUpperBounds();
+                        long[] bucketCounts = histogram.getBucketCounts();
+                        for (int i = 0; i < bucketCounts.length; i++) {
+                            buckets.put(i < upperBounds.length ? String.valueOf(upperBounds[i]) : "+Inf", bucketCounts[i]);
+                        }
+                        entry.put("buckets", buckets);
+                        break;
+                }
+                metrics.add(entry);
+            });
+            Map<String, Object> familyJson = new LinkedHashMap<>();
+            familyJson.put("type", family.getType().name().toLowerCase());
+            familyJson.put("help", family.getHelp());
+            familyJson.put("metrics", metrics);
+            result.put(family.getName(), familyJson);
+        });
+        return new GsonBuilder().setPrettyPrinting().create().toJson(result);
+    }
+
+    @VisibleForTesting
+    static void clear() {
+        FAMILIES.clear();
+    }
+
+
+    ///////////////////////////////////////////////////////////////////////////////////////////
+    // Private
+    ///////////////////////////////////////////////////////////////////////////////////////////
+
+    private static Family getFamily(String name, String help, Type type) {
+        Family family = FAMILIES.computeIfAbsent(name, key -> {
+            checkArgument(NAME_PATTERN.matcher(name).matches(), "Invalid metric name %s", name);
+            return new Family(name, help, type);
+        });
+        checkArgument(family.getType() == type, "Metric %s is registered as %s already", name, family.getType());
+        return family;
+    }
+
+    // Labels are stored in their exported form, e.g. {type="Ping"}, or an empty string if there are none.
+    private static String formatLabels(String... labels) {
+        checkArgument(labels.length % 2 == 0, "Labels must be key value pairs");
+        if (labels.length == 0) {
+            return "";
+        }
+        StringBuilder sb = new StringBuilder("{");
+        for (int i = 0; i < labels.length; i += 2) {
+            checkArgument(NAME_PATTERN.matcher(labels[i]).matches(), "Invalid label name %s", labels[i]);
+            if (i > 0) {
+                sb.append(',');
+            }
+            sb.append(labels[i]).append("=\"").append(escapeLabelValue(labels[i + 1])).append('"');
+        }
+        return sb.append('}').toString();
+    }
+
+    private static String addLabel(String labels, String key, String value) {
+        String label = key + "=\"" + value + "\"";
+        return labels.isEmpty() ? "{" + label + "}" : labels.substring(0, labels.length() - 1) + "," + label + "}";
+    }
+
+    private static String escapeLabelValue(String value) {
+        return value.replace("\\", "\\\\").replace("\"", "\\\"").replace("\n", "\\n");
+    }
+
+    private static String escapeHelp(String help) {
+        return help.replace("\\", "\\\\").replace("\n", "\\n");
+    }
+
+    private static void appendSample(StringBuilder sb, String name, String labels, String value) {
+        sb.append(name).append(labels).append(' ').append(value).append('\n');
+    }
+
+    private static String formatDouble(double value) {
+        if (Double.isNaN(value)) {
+            return "NaN";
+        }
+        if (Double.isInfinite(value)) {
+            return value > 0 ? "+Inf" : "-Inf";
+        }
+        return String.valueOf(value);
+    }
+
+    private static Double getGaugeValue(String name, DoubleSupplier supplier) {
+        try {
+            return supplier.getAsDouble();
+        } catch (RuntimeException e) {
+            log.warn("Could not get value of gauge {}: {}", name, e.toString());
+            return null;
+        }
+    }
+
+
+    ///////////////////////////////////////////////////////////////////////////////////////////
+    // Family
+    ///////////////////////////////////////////////////////////////////////////////////////////
+
+    @Getter
+    private static class Family {
+        private final String name;
+        private final String help;
+        private final Type type;
+        // Keyed by the formatted labels, sorted for a stable export.
+        private final Map<String, Object> metrics = new ConcurrentSkipListMap<>();
+
+        Family(String name, String help, Type type) {
+            this.name = name;
+            this.help = help;
+            this.type = type;
+        }
+    }
+}
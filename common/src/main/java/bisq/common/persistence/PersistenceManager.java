@@ -26,7 +26,7 @@ import bisq.common.file.FileUtil;
 import bisq.common.handlers.ResultHandler;
 import bisq.common.proto.persistable.PersistableEnvelope;
 import bisq.common.proto.persistable.PersistenceProtoResolver;
-import bisq.common.util.Utilities;
+import bisq.common.util.ExecutorRegistry;
 
 import com.google.inject.Inject;
 
@@ -208,6 +208,7 @@ public class PersistenceManager<T extends PersistableEnvelope> {
     ///////////////////////////////////////////////////////////////////////////////////////////
 
     private final File dir;
+    @Getter
     private final PersistenceProtoResolver persistenceProtoResolver;
     private final CorruptedStorageFileHandler corruptedStorageFileHandler;
     private File storageFile;
@@ -218,7 +219,6 @@ public class PersistenceManager<T extends PersistableEnvelope> {
     private volatile boolean persistenceRequested;
     @Nullable
     private Timer timer;
-    private ExecutorService writeToDiskExecutor;
     public final AtomicBoolean initCalled = new AtomicBoolean(false);
     public final AtomicBoolean readCalled = new AtomicBoolean(false);
 
@@ -282,9 +282,7 @@ public class PersistenceManager<T extends PersistableEnvelope> {
             timer.stop();
         }
 
-        if (writeToDiskExecutor != null) {
-            writeToDiskExecutor.shutdown();
-        }
+        ExecutorRegistry.shutDown(getWriteToDiskExecutorName());
     }
 
 
@@ -499,12 +497,15 @@ public class PersistenceManager<T extends PersistableEnvelope> {
         }
     }
 
+    // Unbounded queue as we must not drop any write.
     private ExecutorService getWriteToDiskExecutor() {
-        if (writeToDiskExecutor == null) {
-            String name = "Write-" + fileName + "_to-disk";
-            writeToDiskExecutor = Utilities.getSingleThreadExecutor(name);
-        }
-        return writeToDiskExecutor;
+        return ExecutorRegistry.getListeningExecutorService(getWriteToDiskExecutorName(),
+                1,
+                ExecutorRegistry.UNBOUNDED_QUEUE_CAPACITY);
+    }
+
+    private String getWriteToDiskExecutorName() {
+        return "Write-" + fileName + "_to-disk";
     }
 
     @Override
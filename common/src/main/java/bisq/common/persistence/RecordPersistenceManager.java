@@ -0,0 +1,371 @@
+/*
+ * This file is part of Bisq.
+ *
+ * Bisq is free software: you can redistribute it and/or modify it
+ * under the terms of the GNU Affero General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or (at
+ * your option) any later version.
+ *
+ * Bisq is distributed in the hope that it will be useful, but WITHOUT
+ * ANY WARRANTY; without even the implied warranty of MERCHANTABILITY or
+ * FITNESS FOR A PARTICULAR PURPOSE. See the GNU Affero General Public
+ * License for more details.
+ *
+ * You should have received a copy of the GNU Affero General Public License
+ * along with Bisq. If not, see <http://www.gnu.org/licenses/>.
+ */
+
+package bisq.common.persistence;
+
+import bisq.common.UserThread;
+import bisq.common.file.CorruptedStorageFileHandler;
+import bisq.common.file.FileUtil;
+import bisq.common.proto.persistable.PersistableList;
+import bisq.common.proto.persistable.PersistablePayload;
+import bisq.common.proto.persistable.PersistenceProtoResolver;
+import bisq.common.util.ExecutorRegistry;
+
+import com.google.protobuf.Message;
+
+import java.io.File;
+import java.io.FileInputStream;
+import java.io.FileOutputStream;
+import java.io.IOException;
+import java.io.InputStream;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ExecutorService;
+import java.util.function.Consumer;
+
+import lombok.extern.slf4j.Slf4j;
+
+import javax.annotation.Nullable;
+
+/**
+ * Persists each element of a {@link PersistableList} as its own record file, so a change of one element only
+ * rewrites that element instead of the whole list.
+ *
+ * Only the elements passed to {@link #requestPersistence(PersistablePayload)} get written. A call to
+ * {@link #requestPersistence()} still writes all elements, so callers which don't know which element they have
+ * changed are safe. At shut down only the elements marked dirty get written, so elements which never change, like
+ * closed trades, are never rewritten. An element passed to {@link #requestPersistence(PersistablePayload)} after it
+ * got removed from the list gets its record file deleted.
+ *
+ * We keep the shut down and backup flushing of {@link PersistenceManager} by overriding {@link #persistNow(Runnable)},
+ * but never use its single file write. A list persisted as a single file by an older version is read once, written
+ * as records and then moved to a backup folder.
+ *
+ * @param <T>   The type of the {@link PersistableList}
+ * @param <E>   The type of the elements which are persisted as records
+ */
+@Slf4j
+public abstract class RecordPersistenceManager<T extends PersistableList<E>, E extends PersistablePayload>
+        extends PersistenceManager<T> {
+    private static final String RECORDS_DIR_SUFFIX = "_records";
+    private static final String RECORD_FILE_SUFFIX = ".record";
+
+    private final File dir;
+    protected final PersistenceProtoResolver persistenceProtoResolver;
+    private T persistable;
+    protected String fileName;
+    private File legacyStorageFile;
+    protected File recordsDir;
+    private final Set<String> dirtyRecordIds = new HashSet<>();
+    private boolean allRecordsDirty;
+    private volatile boolean legacyStorageFileRead;
+    // Set if a record file was not named by the current record id of its element, e.g. after the record id changed.
+    private volatile boolean recordFileNamesChanged;
+
+
+    ///////////////////////////////////////////////////////////////////////////////////////////
+    // Constructor
+    ///////////////////////////////////////////////////////////////////////////////////////////
+
+    public RecordPersistenceManager(File dir,
+                                    PersistenceProtoResolver persistenceProtoResolver,
+                                    CorruptedStorageFileHandler corruptedStorageFileHandler) {
+        super(dir, persistenceProtoResolver, corruptedStorageFileHandler);
+
+        this.dir = dir;
+        this.persistenceProtoResolver = persistenceProtoResolver;
+    }
+
+
+    ///////////////////////////////////////////////////////////////////////////////////////////
+    // Abstract methods
+    ///////////////////////////////////////////////////////////////////////////////////////////
+
+    protected abstract String getRecordId(E element);
+
+    // Called on the user thread.
+    protected abstract Message toRecordProto(E element);
+
+    // Called on the read thread. Returns null at the end of the stream.
+    @Nullable
+    protected abstract E parseRecord(InputStream inputStream) throws IOException;
+
+    // Called on the write thread before the record is written to disk.
+    protected Message prepareRecordForDisk(Message record) throws IOException {
+        return record;
+    }
+
+
+    ///////////////////////////////////////////////////////////////////////////////////////////
+    // API
+    ///////////////////////////////////////////////////////////////////////////////////////////
+
+    @Override
+    public void initialize(T persistable, String fileName, Source source) {
+        super.initialize(persistable, fileName, source);
+
+        this.persistable = persistable;
+        this.fileName = fileName;
+        legacyStorageFile = new File(dir, fileName);
+        recordsDir = new File(dir, fileName + RECORDS_DIR_SUFFIX);
+    }
+
+    @Override
+    public void shutdown() {
+        super.shutdown();
+
+        ExecutorRegistry.shutDown(getWriteToDiskExecutorName());
+    }
+
+
+    ///////////////////////////////////////////////////////////////////////////////////////////
+    // Reading files
+    ///////////////////////////////////////////////////////////////////////////////////////////
+
+    /**
+     * Read persisted records in a thread.
+     * We map result handler calls to UserThread, so clients don't need to worry about threading
+     *
+     * @param resultHandler     Consumer of persisted elements once they were read from disk.
+     * @param orElse            Called if nothing has been persisted yet.
+     */
+    public void readRecords(Consumer<List<E>> resultHandler, Runnable orElse) {
+        new Thread(() -> {
+            List<E> elements = legacyStorageFile.exists() ? readLegacyStorageFile() : readRecordsDir();
+            if (elements == null) {
+                UserThread.execute(orElse);
+                return;
+            }
+
+            UserThread.execute(() -> {
+                resultHandler.accept(elements);
+                if (legacyStorageFileRead) {
+                    log.info("Migrating {} to one record per element", fileName);
+                    requestPersistence();
+                } else if (recordFileNamesChanged) {
+                    // Writing all records renames them, the records with outdated names get deleted.
+                    log.info("Renaming the records of {}", fileName);
+                    requestPersistence();
+                }
+            });
+        }, "RecordPersistenceManager-read-" + fileName).start();
+    }
+
+    @Nullable
+    private List<E> readLegacyStorageFile() {
+        T persisted = getPersisted(fileName);
+        if (persisted == null) {
+            return null;
+        }
+
+        legacyStorageFileRead = true;
+        return new ArrayList<>(persisted.getList());
+    }
+
+    @Nullable
+    private List<E> readRecordsDir() {
+        readCalled.set(true);
+
+        File[] files = recordsDir.listFiles((dir, name) -> name.endsWith(RECORD_FILE_SUFFIX));
+        if (files == null) {
+            return null;
+        }
+
+        long ts = System.currentTimeMillis();
+        List<E> elements = new ArrayList<>();
+        for (File file : files) {
+            try (FileInputStream fileInputStream = new FileInputStream(file)) {
+                E element = parseRecord(fileInputStream);
+                if (element != null) {
+                    elements.add(element);
+                    if (!file.getName().equals(getRecordFileName(getRecordId(element)))) {
+                        recordFileNamesChanged = true;
+                    }
+                }
+            } catch (Throwable t) {
+                log.error("Reading {} failed with {}.", file.getName(), t.getMessage());
+                try {
+                    // We keep a backup which might be used for recovery
+                    FileUtil.removeAndBackupFile(recordsDir, file, file.getName(), "backup_of_corrupted_data");
+                } catch (IOException e) {
+                    log.error(e.getMessage());
+                    // We swallow Exception if backup fails
+                }
+            }
+        }
+        log.info("Reading {} records of {} completed in {} ms", elements.size(), fileName, System.currentTimeMillis() - ts);
+        return elements;
+    }
+
+
+    ///////////////////////////////////////////////////////////////////////////////////////////
+    // Write files to disk
+    ///////////////////////////////////////////////////////////////////////////////////////////
+
+    public void requestPersistence(E element) {
+        dirtyRecordIds.add(getRecordId(element));
+        super.requestPersistence();
+    }
+
+    @Override
+    public void requestPersistence() {
+        allRecordsDirty = true;
+        super.requestPersistence();
+    }
+
+    @Override
+    public void persistNow(@Nullable Runnable completeHandler) {
+        if (persistable == null || (!allRecordsDirty && dirtyRecordIds.isEmpty())) {
+            if (completeHandler != null) {
+                UserThread.execute(completeHandler);
+            }
+            return;
+        }
+
+        long ts = System.currentTimeMillis();
+        Map<String, E> elementsByRecordFileName = new HashMap<>();
+        persistable.forEach(element -> elementsByRecordFileName.put(getRecordFileName(getRecordId(element)), element));
+        Set<String> recordFileNames = allRecordsDirty ? new HashSet<>(elementsByRecordFileName.keySet()) : new HashSet<>();
+        dirtyRecordIds.forEach(recordId -> recordFileNames.add(getRecordFileName(recordId)));
+        boolean writeAll = allRecordsDirty;
+        allRecordsDirty = false;
+        dirtyRecordIds.clear();
+
+        // The serialisation is done on the user thread to avoid threading issue with potential mutations of the
+        // elements. An element which is not in the list anymore gets its record file deleted.
+        Map<String, Message> serializedByRecordFileName = new HashMap<>();
+        Set<String> removedRecordFileNames = new HashSet<>();
+        recordFileNames.forEach(recordFileName -> {
+            E element = elementsByRecordFileName.get(recordFileName);
+            if (element != null) {
+                serializedByRecordFileName.put(recordFileName, toRecordProto(element));
+            } else {
+                removedRecordFileNames.add(recordFileName);
+            }
+        });
+
+        long duration = System.currentTimeMillis() - ts;
+        if (duration > 100) {
+            log.info("Serializing {} records of {} took {} msec", serializedByRecordFileName.size(), fileName, duration);
+        }
+
+        getWriteToDiskExecutor().execute(() -> {
+            try {
+                writeToDisk(serializedByRecordFileName, removedRecordFileNames, writeAll);
+            } finally {
+                if (completeHandler != null) {
+                    UserThread.execute(completeHandler);
+                }
+            }
+        });
+    }
+
+    private void writeToDisk(Map<String, Message> serializedByRecordFileName,
+                             Set<String> removedRecordFileNames,
+                             boolean writeAll) {
+        long ts = System.currentTimeMillis();
+        if (!recordsDir.exists() && !recordsDir.mkdirs())
+            log.warn("make dir failed {}", recordsDir);
+
+        boolean success = true;
+        for (Map.Entry<String, Message> entry : serializedByRecordFileName.entrySet()) {
+            success &= writeRecord(entry.getKey(), entry.getValue());
+        }
+
+        Set<String> recordFileNamesToDelete = new HashSet<>(removedRecordFileNames);
+        if (writeAll) {
+            // Clean up records of elements we might have missed to delete.
+            File[] files = recordsDir.listFiles((dir, name) -> name.endsWith(RECORD_FILE_SUFFIX) &&
+                    !serializedByRecordFileName.containsKey(name));
+            if (files != null) {
+                for (File file : files) {
+                    recordFileNamesToDelete.add(file.getName());
+                }
+            }
+        }
+        for (String recordFileName : recordFileNamesToDelete) {
+            try {
+                FileUtil.deleteFileIfExists(new File(recordsDir, recordFileName));
+            } catch (IOException e) {
+                log.error("Deleting {} failed", recordFileName, e);
+            }
+        }
+
+        // We only drop the old single file after all elements got written as records.
+        if (writeAll && success && legacyStorageFileRead && legacyStorageFile.exists()) {
+            try {
+                FileUtil.removeAndBackupFile(dir, legacyStorageFile, fileName, "backup_of_migrated_data");
+                legacyStorageFileRead = false;
+                log.info("Migration of {} to one record per element completed", fileName);
+            } catch (IOException e) {
+                log.error("Moving migrated file {} to backup failed", fileName, e);
+            }
+        }
+
+        long duration = System.currentTimeMillis() - ts;
+        if (duration > 100) {
+            log.info("Writing {} records of {} completed in {} msec", serializedByRecordFileName.size(), fileName, duration);
+        }
+    }
+
+    private boolean writeRecord(String recordFileName, Message serialized) {
+        File tempFile = null;
+        try {
+            Message record = prepareRecordForDisk(serialized);
+            tempFile = File.createTempFile("temp_" + recordFileName, null, recordsDir);
+            try (FileOutputStream fileOutputStream = new FileOutputStream(tempFile)) {
+                record.writeDelimitedTo(fileOutputStream);
+
+                // Attempt to force the bits to hit the disk.
+                fileOutputStream.flush();
+                fileOutputStream.getFD().sync();
+            }
+            // Close resources before replacing file with temp file because otherwise it causes problems on windows
+            // when rename temp file
+            FileUtil.renameFile(tempFile, new File(recordsDir, recordFileName));
+            return true;
+        } catch (Throwable t) {
+            log.error("Error at writing record {} of {}", recordFileName, fileName, t);
+            return false;
+        } finally {
+            if (tempFile != null && tempFile.exists() && !tempFile.delete()) {
+                log.error("Cannot delete temp file {}", tempFile);
+            }
+        }
+    }
+
+    // Unbounded queue as we must not drop any write.
+    private ExecutorService getWriteToDiskExecutor() {
+        return ExecutorRegistry.getListeningExecutorService(getWriteToDiskExecutorName(),
+                1,
+                ExecutorRegistry.UNBOUNDED_QUEUE_CAPACITY);
+    }
+
+    private String getWriteToDiskExecutorName() {
+        return "Write-" + fileName + RECORDS_DIR_SUFFIX + "_to-disk";
+    }
+
+    // We only replace characters which might not be permitted in file names.
+    private static String getRecordFileName(String recordId) {
+        return recordId.replaceAll("[^A-Za-z0-9_-]", "_") + RECORD_FILE_SUFFIX;
+    }
+}
@@ -19,15 +19,33 @@ package bisq.common.taskrunner;
 
 import bisq.common.handlers.ErrorMessageHandler;
 import bisq.common.handlers.ResultHandler;
+import bisq.common.metrics.MetricsRegistry;
+import bisq.common.util.Tuple2;
+
+import java.lang.reflect.Constructor;
 
 import java.util.Arrays;
+import java.util.Map;
 import java.util.Queue;
+import java.util.concurrent.ConcurrentHashMap;
 import java.util.concurrent.LinkedBlockingQueue;
 
 import lombok.extern.slf4j.Slf4j;
 
+import javax.annotation.Nullable;
+
 @Slf4j
 public class TaskRunner<T extends Model> {
+    // Tasks are created by their registered factory. Tasks without a factory are created by
+    // reflection. The constructor depends on the shared model class of the runner as well, so
+    // those are cached by task and shared model class.
+    private static final Map<Class<?>, TaskFactory<?>> FACTORIES = new ConcurrentHashMap<>();
+    private static final Map<Tuple2<Class<?>, Class<?>>, TaskFactory<?>> REFLECTIVE_FACTORIES = new ConcurrentHashMap<>();
+
+    public static <T extends Model> void registerFactory(Class<? extends Task<T>> taskClass, TaskFactory<T> factory) {
+        FACTORIES.put(taskClass, factory);
+    }
+
     private final Queue<Class<? extends Task<T>>> tasks = new LinkedBlockingQueue<>();
     private final T sharedModel;
     private final Class<T> sharedModelClass;
@@ -37,6 +55,7 @@ public class TaskRunner<T extends Model> {
     private boolean isCanceled;
 
     private Class<? extends Task<T>> currentTask;
+    private long currentTaskStartTime;
 
 
     public TaskRunner(T sharedModel, ResultHandler resultHandler, ErrorMessageHandler errorMessageHandler) {
@@ -66,7 +85,8 @@ public class TaskRunner<T extends Model> {
                 try {
                     currentTask = tasks.poll();
                     log.info("Run task: " + currentTask.getSimpleName());
-                    currentTask.getDeclaredConstructor(TaskRunner.class, sharedModelClass).newInstance(this, sharedModel).run();
+                    currentTaskStartTime = System.currentTimeMillis();
+                    getFactory(currentTask).create(this, sharedModel).run();
                 } catch (Throwable throwable) {
                     throwable.printStackTrace();
                     handleErrorMessage("Error at taskRunner: " + throwable.getMessage());
@@ -82,12 +102,60 @@ public class TaskRunner<T extends Model> {
     }
 
     void handleComplete() {
+        traceCurrentTask(TaskTrace.Outcome.COMPLETED, null);
         next();
     }
 
     void handleErrorMessage(String errorMessage) {
         log.error("Task failed: " + currentTask.getSimpleName() + " / errorMessage: " + errorMessage);
         failed = true;
+        traceCurrentTask(TaskTrace.Outcome.FAILED, errorMessage);
         errorMessageHandler.handleErrorMessage(errorMessage);
     }
+
+    // Called after each task completed or failed.
+    protected void onTaskTrace(TaskTrace taskTrace) {
+    }
+
+    // The id of the shared model stored with the task traces.
+    @Nullable
+    protected String getModelId() {
+        return null;
+    }
+
+    private void traceCurrentTask(TaskTrace.Outcome outcome, @Nullable String errorMessage) {
+        long durationMs = System.currentTimeMillis() - currentTaskStartTime;
+        String taskName = currentTask.getSimpleName();
+        MetricsRegistry.histogram("task_duration_ms", "Duration of the protocol tasks",
+                MetricsRegistry.DEFAULT_MS_BUCKETS, "task", taskName).record(durationMs);
+        onTaskTrace(new TaskTrace(taskName, currentTaskStartTime, durationMs, outcome, errorMessage, getModelId()));
+    }
+
+    @SuppressWarnings("unchecked")
+    private TaskFactory<T> getFactory(Class<? extends Task<T>> taskClass) {
+        TaskFactory<?> factory = FACTORIES.get(taskClass);
+        if (factory == null) {
+            factory = REFLECTIVE_FACTORIES.computeIfAbsent(new Tuple2<>(taskClass, sharedModelClass),
+                    key -> createReflectiveFactory(taskClass));
+        }
+        return (TaskFactory<T>) factory;
+    }
+
+    private TaskFactory<T> createReflectiveFactory(Class<?> taskClass) {
+        log.warn("No factory registered for task {}, it gets created by reflection", taskClass.getSimpleName());
+        Constructor<?> constructor;
+        try {
+            constructor = taskClass.getDeclaredConstructor(TaskRunner.class, sharedModelClass);
+        } catch (NoSuchMethodException e) {
+            throw new IllegalStateException("Task " + taskClass.getSimpleName() + " has no suitable constructor", e);
+        }
+        return (taskRunner, model) -> {
+            try {
+                //noinspection unchecked
+                return (Task<T>) constructor.newInstance(taskRunner, model);
+            } catch (ReflectiveOperationException e) {
+                throw new IllegalStateException("Could not create task " + taskClass.getSimpleName(), e);
+            }
+        };
+    }
 }
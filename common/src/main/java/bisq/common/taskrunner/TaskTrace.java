@@ -0,0 +1,83 @@
+/*
+ * This file is part of Bisq.
+ *
+ * Bisq is free software: you can redistribute it and/or modify it
+ * under the terms of the GNU Affero General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or (at
+ * your option) any later version.
+ *
+ * Bisq is distributed in the hope that it will be useful, but WITHOUT
+ * ANY WARRANTY; without even the implied warranty of MERCHANTABILITY or
+ * FITNESS FOR A PARTICULAR PURPOSE. See the GNU Affero General Public
+ * License for more details.
+ *
+ * You should have received a copy of the GNU Affero General Public License
+ * along with Bisq. If not, see <http://www.gnu.org/licenses/>.
+ */
+
+package bisq.common.taskrunner;
+
+import bisq.common.proto.ProtoUtil;
+import bisq.common.proto.persistable.PersistablePayload;
+
+import lombok.Value;
+
+import javax.annotation.Nullable;
+
+/**
+ * Records a single run of a task: when it started, how long it took until it completed or
+ * failed, and the id of the model it ran for (e.g., the trade id).
+ */
+@Value
+public class TaskTrace implements PersistablePayload {
+
+    public enum Outcome {
+        COMPLETED,
+        FAILED;
+
+        public static Outcome fromProto(protobuf.TaskTrace.Outcome outcome) {
+            return ProtoUtil.enumFromProto(Outcome.class, outcome.name());
+        }
+
+        public static protobuf.TaskTrace.Outcome toProtoMessage(Outcome outcome) {
+            return protobuf.TaskTrace.Outcome.valueOf(outcome.name());
+        }
+    }
+
+    String taskName;
+    long startTime;
+    long durationMs;
+    Outcome outcome;
+    @Nullable
+    String errorMessage;
+    @Nullable
+    String modelId;
+
+
+    ///////////////////////////////////////////////////////////////////////////////////////////
+    // PROTO BUFFER
+    ///////////////////////////////////////////////////////////////////////////////////////////
+
+    @Override
+    public protobuf.TaskTrace toProtoMessage() {
+        protobuf.TaskTrace.Builder builder = protobuf.TaskTrace.newBuilder()
+                .setTaskName(taskName)
+                .setStartTime(startTime)
+                .setDurationMs(durationMs)
+                .setOutcome(Outcome.toProtoMessage(outcome));
+        if (errorMessage != null)
+            builder.setErrorMessage(errorMessage);
+        if (modelId != null)
+            builder.setModelId(modelId);
+        return builder.build();
+    }
+
+    public static TaskTrace fromProto(protobuf.TaskTrace proto) {
+        return new TaskTrace(proto.getTaskName(),
+                proto.getStartTime(),
+                proto.getDurationMs(),
+                Outcome.fromProto(proto.getOutcome()),
+                ProtoUtil.stringOrNullFromProto(proto.getErrorMessage()),
+                ProtoUtil.stringOrNullFromProto(proto.getModelId()));
+    }
+}
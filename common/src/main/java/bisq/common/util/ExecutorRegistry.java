@@ -0,0 +1,461 @@
+/*
+ * This file is part of Bisq.
+ *
+ * Bisq is free software: you can redistribute it and/or modify it
+ * under the terms of the GNU Affero General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or (at
+ * your option) any later version.
+ *
+ * Bisq is distributed in the hope that it will be useful, but WITHOUT
+ * ANY WARRANTY; without even the implied warranty of MERCHANTABILITY or
+ * FITNESS FOR A PARTICULAR PURPOSE. See the GNU Affero General Public
+ * License for more details.
+ *
+ * You should have received a copy of the GNU Affero General Public License
+ * along with Bisq. If not, see <http://www.gnu.org/licenses/>.
+ */
+
+package bisq.common.util;
+
+import bisq.common.metrics.MetricsRegistry;
+
+import com.google.common.annotations.VisibleForTesting;
+import com.google.common.util.concurrent.ListeningExecutorService;
+import com.google.common.util.concurrent.MoreExecutors;
+import com.google.common.util.concurrent.ThreadFactoryBuilder;
+
+import java.util.Comparator;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.RejectedExecutionHandler;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.ScheduledThreadPoolExecutor;
+import java.util.concurrent.SynchronousQueue;
+import java.util.concurrent.ThreadFactory;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.function.Supplier;
+import java.util.function.ToDoubleFunction;
+import java.util.stream.Collectors;
+
+import lombok.Value;
+import lombok.extern.slf4j.Slf4j;
+
+import static com.google.common.base.Preconditions.checkArgument;
+
+/**
+ * Central registry of the named thread pools of the application.
+ * <p>
+ * Each executor has a bounded number of threads and a bounded queue. Idle threads time out, so an unused executor
+ * does not hold any threads. Tasks exceeding the queue capacity are rejected with a RejectedExecutionException,
+ * so the caller learns about it instead of waiting for a result which never comes. The sum of the max. threads
+ * of all executors is capped at maxTotalThreads; an executor exceeding it gets fewer threads. Pools for tasks
+ * which block for the lifetime of a resource (e.g. reading a socket) are not capped, see
+ * {@link #getCachedExecutorService(String)}.
+ * <p>
+ * For each executor we collect the queue depth, active threads and the time tasks spent in the queue and running,
+ * and register them with the {@link MetricsRegistry}. At shutdown the executors get shut down in reverse order of
+ * their registration, as executors created later usually belong to services which depend on the ones created
+ * earlier. Executors are removed from the registry when they get shut down, so callers should get them from the
+ * registry at each use instead of keeping a reference, then a new executor gets created if they are used again.
+ */
+@Slf4j
+public class ExecutorRegistry {
+    public static final int DEFAULT_QUEUE_CAPACITY = 100;
+    // For executors whose callers cannot handle a rejection, e.g. as the task bounds itself.
+    public static final int UNBOUNDED_QUEUE_CAPACITY = Integer.MAX_VALUE;
+    @VisibleForTesting
+    static final int DEFAULT_MAX_TOTAL_THREADS = 256;
+    private static final long KEEP_ALIVE_SEC = 60;
+
+    // Lookups are lock free as executors are requested at each use, registration is guarded by the class.
+    private static final Map<String, Entry> ENTRIES = new ConcurrentHashMap<>();
+    private static final AtomicLong REGISTRATION_COUNTER = new AtomicLong();
+    private static int maxTotalThreads = DEFAULT_MAX_TOTAL_THREADS;
+    private static int totalMaxThreads;
+
+
+    ///////////////////////////////////////////////////////////////////////////////////////////
+    // API
+    ///////////////////////////////////////////////////////////////////////////////////////////
+
+    public static ListeningExecutorService getSingleThreadListeningExecutor(String name) {
+        return getListeningExecutorService(name, 1, DEFAULT_QUEUE_CAPACITY);
+    }
+
+    public static ListeningExecutorService getListeningExecutorService(String name, int maxThreads) {
+        return getListeningExecutorService(name, maxThreads, DEFAULT_QUEUE_CAPACITY);
+    }
+
+    // If an executor with that name is registered already we return it.
+    public static ListeningExecutorService getListeningExecutorService(String name,
+                                                                       int maxThreads,
+                                                                       int queueCapacity) {
+        return (ListeningExecutorService) getOrRegister(name, ListeningExecutorService.class, () -> {
+            int threads = reserveThreads(name, maxThreads);
+            ManagedExecutor executor = new ManagedExecutor(name, threads, threads,
+                    new LinkedBlockingQueue<>(queueCapacity), queueCapacity);
+            return new Entry(executor, MoreExecutors.listeningDecorator(executor), threads,
+                    REGISTRATION_COUNTER.incrementAndGet());
+        });
+    }
+
+    // Threads are created on demand and never queued, as each task blocks a thread for a long time. Not counted
+    // in the total max. threads.
+    public static ExecutorService getCachedExecutorService(String name) {
+        return getOrRegister(name, ExecutorService.class, () -> {
+            ManagedExecutor executor = new ManagedExecutor(name, 0, Integer.MAX_VALUE, new SynchronousQueue<>(), 0);
+            return new Entry(executor, executor, 0, REGISTRATION_COUNTER.incrementAndGet());
+        });
+    }
+
+    public static ScheduledExecutorService getScheduledExecutorService(String name, int numThreads) {
+        return (ScheduledExecutorService) getOrRegister(name, ScheduledExecutorService.class, () -> {
+            int threads = reserveThreads(name, numThreads);
+            ManagedScheduledExecutor executor = new ManagedScheduledExecutor(name, threads);
+            return new Entry(executor, executor, threads, REGISTRATION_COUNTER.incrementAndGet());
+        });
+    }
+
+    public static List<ExecutorMetrics> getMetrics() {
+        return getEntriesInRegistrationOrder().stream()
+                .map(entry -> entry.getExecutor().getMetrics())
+                .collect(Collectors.toList());
+    }
+
+    public static synchronized int getTotalMaxThreads() {
+        return totalMaxThreads;
+    }
+
+    public static synchronized int getMaxTotalThreads() {
+        return maxTotalThreads;
+    }
+
+    public static synchronized void setMaxTotalThreads(int maxTotalThreads) {
+        ExecutorRegistry.maxTotalThreads = maxTotalThreads;
+    }
+
+    @VisibleForTesting
+    static boolean isRegistered(String name) {
+        return ENTRIES.containsKey(name);
+    }
+
+    public static void logMetrics() {
+        List<ExecutorMetrics> metrics = getMetrics();
+        log.info("Executor report: No. of executors: {}; Max. threads: {}; Threads: {}; Active threads: {}; Queued tasks: {}",
+                metrics.size(),
+                getTotalMaxThreads(),
+                metrics.stream().mapToInt(ExecutorMetrics::getPoolSize).sum(),
+                metrics.stream().mapToInt(ExecutorMetrics::getActiveThreads).sum(),
+                metrics.stream().mapToInt(ExecutorMetrics::getQueueDepth).sum());
+        metrics.forEach(e -> log.info("{}", e));
+    }
+
+    // Removes the executor from the registry and shuts it down. Its running and queued tasks still get executed.
+    public static void shutDown(String name) {
+        Entry entry = remove(name);
+        if (entry != null) {
+            entry.getExecutor().shutdown();
+        }
+    }
+
+    // Removes the executor from the registry and shuts it down. Tasks still running after the timeout get
+    // interrupted.
+    public static void shutDownAndAwaitTermination(String name, long timeout, TimeUnit timeUnit) {
+        Entry entry = remove(name);
+        if (entry != null) {
+            shutDownAndAwaitTermination(entry.getExecutor(), System.nanoTime() + timeUnit.toNanos(timeout));
+        }
+    }
+
+    // Shuts down the executors in reverse order of registration. Each executor can complete its running and queued
+    // tasks in the remaining time, tasks still running after the timeout get interrupted.
+    public static void shutDownAll(long timeout, TimeUnit timeUnit) {
+        List<Entry> entries;
+        synchronized (ExecutorRegistry.class) {
+            entries = getEntriesInRegistrationOrder();
+            entries.forEach(entry -> remove(entry.getExecutor().getName()));
+        }
+
+        long deadline = System.nanoTime() + timeUnit.toNanos(timeout);
+        for (int i = entries.size() - 1; i >= 0; i--) {
+            shutDownAndAwaitTermination(entries.get(i).getExecutor(), deadline);
+        }
+    }
+
+
+    ///////////////////////////////////////////////////////////////////////////////////////////
+    // ExecutorMetrics
+    ///////////////////////////////////////////////////////////////////////////////////////////
+
+    // Times are since creation of the executor.
+    @Value
+    public static class ExecutorMetrics {
+        String name;
+        int maxThreads;
+        int poolSize;
+        int activeThreads;
+        int queueDepth;
+        int queueCapacity;
+        long completedTasks;
+        long rejectedTasks;
+        double avgQueueTimeMs;
+        double maxQueueTimeMs;
+        double avgRunTimeMs;
+        double maxRunTimeMs;
+    }
+
+
+    ///////////////////////////////////////////////////////////////////////////////////////////
+    // Private
+    ///////////////////////////////////////////////////////////////////////////////////////////
+
+    private static ExecutorService getOrRegister(String name,
+                                                 Class<? extends ExecutorService> type,
+                                                 Supplier<Entry> factory) {
+        Entry entry = ENTRIES.get(name);
+        if (entry == null) {
+            synchronized (ExecutorRegistry.class) {
+                entry = ENTRIES.get(name);
+                if (entry == null) {
+                    entry = factory.get();
+                    ENTRIES.put(name, entry);
+                    registerGauges(name, entry.getExecutor());
+                }
+            }
+        }
+        checkArgument(type.isInstance(entry.getExecutorService()),
+                "Executor %s is registered as %s already", name, entry.getExecutorService().getClass().getSimpleName());
+        return entry.getExecutorService();
+    }
+
+    // Must be called while holding the class lock.
+    private static int reserveThreads(String name, int maxThreads) {
+        int availableThreads = Math.max(1, maxTotalThreads - totalMaxThreads);
+        if (maxThreads > availableThreads) {
+            log.warn("Executor {} requested {} threads but only {} are available. Total max. threads are {}.",
+                    name, maxThreads, availableThreads, maxTotalThreads);
+            maxThreads = availableThreads;
+        }
+        totalMaxThreads += maxThreads;
+        return maxThreads;
+    }
+
+    private static synchronized Entry remove(String name) {
+        Entry entry = ENTRIES.remove(name);
+        if (entry != null) {
+            totalMaxThreads -= entry.getReservedThreads();
+            unregisterGauges(name);
+        }
+        return entry;
+    }
+
+    private static List<Entry> getEntriesInRegistrationOrder() {
+        return ENTRIES.values().stream()
+                .sorted(Comparator.comparingLong(Entry::getRegistrationIndex))
+                .collect(Collectors.toList());
+    }
+
+    private static void shutDownAndAwaitTermination(MeteredExecutor executor, long deadline) {
+        executor.shutdown();
+        try {
+            if (!executor.awaitTermination(Math.max(0, deadline - System.nanoTime()), TimeUnit.NANOSECONDS)) {
+                log.warn("Executor {} did not terminate in time. We interrupt its {} running tasks.",
+                        executor.getName(), executor.getActiveCount());
+                executor.shutdownNow();
+            }
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            executor.shutdownNow();
+        }
+    }
+
+    private static final Map<String, ToDoubleFunction<ExecutorMetrics>> GAUGES = Map.of(
+            "executor_queue_depth", ExecutorMetrics::getQueueDepth,
+            "executor_active_threads", ExecutorMetrics::getActiveThreads,
+            "executor_pool_size", ExecutorMetrics::getPoolSize,
+            "executor_rejected_tasks", ExecutorMetrics::getRejectedTasks,
+            "executor_avg_queue_time_ms", ExecutorMetrics::getAvgQueueTimeMs,
+            "executor_avg_run_time_ms", ExecutorMetrics::getAvgRunTimeMs);
+
+    private static void registerGauges(String name, MeteredExecutor executor) {
+        GAUGES.forEach((gaugeName, value) -> MetricsRegistry.gauge(gaugeName,
+                "Executor statistics, see ExecutorRegistry.ExecutorMetrics",
+                () -> value.applyAsDouble(executor.getMetrics()),
+                "executor", name));
+    }
+
+    private static void unregisterGauges(String name) {
+        GAUGES.keySet().forEach(gaugeName -> MetricsRegistry.removeGauge(gaugeName, "executor", name));
+    }
+
+    @Value
+    private static class Entry {
+        MeteredExecutor executor;
+        ExecutorService executorService;
+        int reservedThreads;
+        long registrationIndex;
+    }
+
+    private interface MeteredExecutor extends ExecutorService {
+        String getName();
+
+        int getActiveCount();
+
+        ExecutorMetrics getMetrics();
+    }
+
+    private static class Latency {
+        private final LongAdder count = new LongAdder();
+        private final LongAdder totalNanos = new LongAdder();
+        private final AtomicLong maxNanos = new AtomicLong();
+
+        void record(long nanos) {
+            count.increment();
+            totalNanos.add(nanos);
+            maxNanos.accumulateAndGet(nanos, Math::max);
+        }
+
+        double getAvgMs() {
+            long count = this.count.sum();
+            return count == 0 ? 0 : totalNanos.sum() / (double) count / 1_000_000;
+        }
+
+        double getMaxMs() {
+            return maxNanos.get() / 1_000_000d;
+        }
+    }
+
+    private static ThreadFactory newThreadFactory(String name) {
+        return new ThreadFactoryBuilder()
+                .setNameFormat(name + "-%d")
+                .setDaemon(true)
+                .build();
+    }
+
+    private static RejectedExecutionHandler newRejectedExecutionHandler(String name, LongAdder rejectedTasks) {
+        return (runnable, executor) -> {
+            rejectedTasks.increment();
+            throw new RejectedExecutionException("Executor " + name + " rejected task. " +
+                    (executor.isShutdown() ? "Executor is shut down." : "Queue is full."));
+        };
+    }
+
+    private static class ManagedExecutor extends ThreadPoolExecutor implements MeteredExecutor {
+        private final String name;
+        private final int queueCapacity;
+        private final LongAdder rejectedTasks = new LongAdder();
+        private final Latency queueTime = new Latency();
+        private final Latency runTime = new Latency();
+
+        ManagedExecutor(String name,
+                        int corePoolSize,
+                        int maxThreads,
+                        BlockingQueue<Runnable> queue,
+                        int queueCapacity) {
+            // With core and max. size being the same we start new threads before tasks get queued. With a core size
+            // of 0 and a SynchronousQueue each task gets handed to an idle or new thread.
+            super(corePoolSize, maxThreads, KEEP_ALIVE_SEC, TimeUnit.SECONDS, queue, newThreadFactory(name));
+            this.name = name;
+            this.queueCapacity = queueCapacity;
+            allowCoreThreadTimeOut(true);
+            setRejectedExecutionHandler(newRejectedExecutionHandler(name, rejectedTasks));
+        }
+
+        @Override
+        public void execute(Runnable command) {
+            long queuedAt = System.nanoTime();
+            super.execute(() -> {
+                long startedAt = System.nanoTime();
+                queueTime.record(startedAt - queuedAt);
+                try {
+                    command.run();
+                } finally {
+                    runTime.record(System.nanoTime() - startedAt);
+                }
+            });
+        }
+
+        @Override
+        public String getName() {
+            return name;
+        }
+
+        @Override
+        public ExecutorMetrics getMetrics() {
+            return new ExecutorMetrics(name,
+                    getMaximumPoolSize(),
+                    getPoolSize(),
+                    getActiveCount(),
+                    getQueue().size(),
+                    queueCapacity,
+                    getCompletedTaskCount(),
+                    rejectedTasks.sum(),
+                    queueTime.getAvgMs(),
+                    queueTime.getMaxMs(),
+                    runTime.getAvgMs(),
+                    runTime.getMaxMs());
+        }
+    }
+
+    // The queue of a scheduled executor holds the delayed tasks, so we do not measure the queue time.
+    private static class ManagedScheduledExecutor extends ScheduledThreadPoolExecutor implements MeteredExecutor {
+        private final String name;
+        private final LongAdder rejectedTasks = new LongAdder();
+        private final Latency runTime = new Latency();
+        private final ThreadLocal<Long> startedAt = new ThreadLocal<>();
+
+        ManagedScheduledExecutor(String name, int numThreads) {
+            super(numThreads, newThreadFactory(name));
+            this.name = name;
+            setKeepAliveTime(KEEP_ALIVE_SEC, TimeUnit.SECONDS);
+            allowCoreThreadTimeOut(true);
+            setRemoveOnCancelPolicy(true);
+            setRejectedExecutionHandler(newRejectedExecutionHandler(name, rejectedTasks));
+        }
+
+        @Override
+        protected void beforeExecute(Thread thread, Runnable runnable) {
+            super.beforeExecute(thread, runnable);
+            startedAt.set(System.nanoTime());
+        }
+
+        @Override
+        protected void afterExecute(Runnable runnable, Throwable throwable) {
+            super.afterExecute(runnable, throwable);
+            Long started = startedAt.get();
+            if (started != null) {
+                runTime.record(System.nanoTime() - started);
+                startedAt.remove();
+            }
+        }
+
+        @Override
+        public String getName() {
+            return name;
+        }
+
+        @Override
+        public ExecutorMetrics getMetrics() {
+            return new ExecutorMetrics(name,
+                    getCorePoolSize(),
+                    getPoolSize(),
+                    getActiveCount(),
+                    getQueue().size(),
+                    UNBOUNDED_QUEUE_CAPACITY,
+                    getCompletedTaskCount(),
+                    rejectedTasks.sum(),
+                    0,
+                    0,
+                    runTime.getAvgMs(),
+                    runTime.getMaxMs());
+        }
+    }
+}
@@ -0,0 +1,96 @@
+/*
+ * This file is part of Bisq.
+ *
+ * Bisq is free software: you can redistribute it and/or modify it
+ * under the terms of the GNU Affero General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or (at
+ * your option) any later version.
+ *
+ * Bisq is distributed in the hope that it will be useful, but WITHOUT
+ * ANY WARRANTY; without even the implied warranty of MERCHANTABILITY or
+ * FITNESS FOR A PARTICULAR PURPOSE. See the GNU Affero General Public
+ * License for more details.
+ *
+ * You should have received a copy of the GNU Affero General Public License
+ * along with Bisq. If not, see <http://www.gnu.org/licenses/>.
+ */
+
+package bisq.common;
+
+import java.time.Duration;
+
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import org.junit.Test;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
+
+public class TimingWheelTimerTest {
+
+    @Test
+    public void testRunLater() throws InterruptedException {
+        CountDownLatch latch = new CountDownLatch(1);
+        long startTime = System.currentTimeMillis();
+        new TimingWheelTimer().runLater(Duration.ofMillis(50), latch::countDown);
+        assertTrue(latch.await(5, TimeUnit.SECONDS));
+        assertTrue(System.currentTimeMillis() - startTime >= 50);
+    }
+
+    @Test
+    public void testStoppedTimerDoesNotFire() throws InterruptedException {
+        AtomicInteger counter = new AtomicInteger();
+        Timer timer = new TimingWheelTimer().runLater(Duration.ofMillis(50), counter::incrementAndGet);
+        timer.stop();
+        Thread.sleep(200);
+        assertEquals(0, counter.get());
+    }
+
+    @Test
+    public void testRunPeriodically() throws InterruptedException {
+        CountDownLatch latch = new CountDownLatch(3);
+        Timer timer = new TimingWheelTimer().runPeriodically(Duration.ofMillis(20), latch::countDown);
+        assertTrue(latch.await(5, TimeUnit.SECONDS));
+        timer.stop();
+    }
+
+    @Test
+    public void testDelayLongerThanOneWheelRound() throws InterruptedException {
+        // One round of the wheel is 512 ticks, we schedule a short and a long timer into the same slot.
+        long roundMs = 512 * TimingWheelTimer.TICK_MS;
+        AtomicInteger counter = new AtomicInteger();
+        CountDownLatch latch = new CountDownLatch(1);
+        new TimingWheelTimer().runLater(Duration.ofMillis(100), latch::countDown);
+        new TimingWheelTimer().runLater(Duration.ofMillis(100 + roundMs), counter::incrementAndGet);
+        assertTrue(latch.await(5, TimeUnit.SECONDS));
+        assertEquals(0, counter.get());
+    }
+
+    @Test
+    public void testFailingTimerDoesNotStopOtherDueTimers() throws InterruptedException {
+        // The timers have the same deadline, so they are fired in the same tick.
+        CountDownLatch latch = new CountDownLatch(3);
+        new TimingWheelTimer().runLater(Duration.ofMillis(50), latch::countDown);
+        new TimingWheelTimer().runLater(Duration.ofMillis(50), latch::countDown);
+        new TimingWheelTimer().runLater(Duration.ofMillis(50), latch::countDown);
+        // The most recently scheduled timer of a slot is fired first.
+        new TimingWheelTimer().runLater(Duration.ofMillis(50), () -> {
+            throw new IllegalStateException("Expected exception");
+        });
+        assertTrue(latch.await(5, TimeUnit.SECONDS));
+    }
+
+    @Test
+    public void testPeriodicTimerStoppedWhileRunningIsNotRescheduled() throws InterruptedException {
+        AtomicInteger counter = new AtomicInteger();
+        TimingWheelTimer timer = new TimingWheelTimer();
+        timer.runPeriodically(Duration.ofMillis(20), () -> {
+            counter.incrementAndGet();
+            timer.stop();
+        });
+        Thread.sleep(200);
+        assertEquals(1, counter.get());
+    }
+}
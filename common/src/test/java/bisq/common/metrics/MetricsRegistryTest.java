@@ -0,0 +1,183 @@
+/*
+ * This file is part of Bisq.
+ *
+ * Bisq is free software: you can redistribute it and/or modify it
+ * under the terms of the GNU Affero General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or (at
+ * your option) any later version.
+ *
+ * Bisq is distributed in the hope that it will be useful, but WITHOUT
+ * ANY WARRANTY; without even the implied warranty of MERCHANTABILITY or
+ * FITNESS FOR A PARTICULAR PURPOSE. See the GNU Affero General Public
+ * License for more details.
+ *
+ * You should have received a copy of the GNU Affero General Public License
+ * along with Bisq. If not, see <http://www.gnu.org/licenses/>.
+ */
+
+package bisq.common.metrics;
+
+import java.net.HttpURLConnection;
+import java.net.URL;
+
+import java.nio.charset.StandardCharsets;
+
+import java.io.IOException;
+import java.io.InputStream;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import org.junit.After;
+import org.junit.Test;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertSame;
+import static org.junit.Assert.assertTrue;
+
+public class MetricsRegistryTest {
+
+    @After
+    public void tearDown() {
+        MetricsRegistry.clear();
+    }
+
+    @Test
+    public void testCountersAreRegisteredByNameAndLabels() {
+        Counter ping = MetricsRegistry.counter("messages_total", "Messages", "type", "Ping");
+        Counter pong = MetricsRegistry.counter("messages_total", "Messages", "type", "Pong");
+        assertSame(ping, MetricsRegistry.counter("messages_total", "Messages", "type", "Ping"));
+        assertFalse(ping == pong);
+
+        ping.inc();
+        ping.add(2);
+        pong.inc();
+        String text = MetricsRegistry.toPrometheusText();
+        assertTrue(text.contains("# HELP messages_total Messages\n"));
+        assertTrue(text.contains("# TYPE messages_total counter\n"));
+        assertTrue(text.contains("messages_total{type=\"Ping\"} 3\n"));
+        assertTrue(text.contains("messages_total{type=\"Pong\"} 1\n"));
+    }
+
+    @Test
+    public void testConcurrentIncrements() throws Exception {
+        Counter counter = MetricsRegistry.counter("concurrent_total", "Concurrent increments");
+        List<Thread> threads = new ArrayList<>();
+        for (int i = 0; i < 4; i++) {
+            Thread thread = new Thread(() -> {
+                for (int j = 0; j < 10_000; j++) {
+                    counter.inc();
+                }
+            });
+            threads.add(thread);
+            thread.start();
+        }
+        for (Thread thread : threads) {
+            thread.join();
+        }
+        assertEquals(40_000, counter.get());
+    }
+
+    @Test
+    public void testGaugeIsEvaluatedAtExport() {
+        AtomicInteger size = new AtomicInteger(1);
+        MetricsRegistry.gauge("entries", "Entries", size::get);
+        assertTrue(MetricsRegistry.toPrometheusText().contains("entries 1.0\n"));
+
+        size.set(5);
+        assertTrue(MetricsRegistry.toPrometheusText().contains("entries 5.0\n"));
+
+        // A failing gauge is left out of the export.
+        MetricsRegistry.gauge("failing_entries", "Entries", () -> {
+            throw new IllegalStateException();
+        });
+        assertFalse(MetricsRegistry.toPrometheusText().contains("\nfailing_entries "));
+    }
+
+    @Test
+    public void testDuplicateGaugeIsRejected() {
+        assertTrue(MetricsRegistry.gauge("connections", "Connections", () -> 1, "node", "9999"));
+        assertFalse(MetricsRegistry.gauge("connections", "Connections", () -> 2, "node", "9999"));
+        assertTrue(MetricsRegistry.gauge("connections", "Connections", () -> 3, "node", "8888"));
+        String text = MetricsRegistry.toPrometheusText();
+        assertTrue(text.contains("connections{node=\"9999\"} 1.0\n"));
+        assertTrue(text.contains("connections{node=\"8888\"} 3.0\n"));
+
+        MetricsRegistry.removeGauge("connections", "node", "9999");
+        assertFalse(MetricsRegistry.toPrometheusText().contains("connections{node=\"9999\"}"));
+        assertTrue(MetricsRegistry.gauge("connections", "Connections", () -> 2, "node", "9999"));
+    }
+
+    @Test
+    public void testHistogramBucketsAreCumulative() {
+        Histogram histogram = MetricsRegistry.histogram("rtt_ms", "Round trip time", new long[]{10, 100}, "peer", "a");
+        histogram.record(5);
+        histogram.record(10);
+        histogram.record(50);
+        histogram.record(500);
+
+        assertEquals(4, histogram.getCount());
+        assertEquals(565, histogram.getSum());
+        String text = MetricsRegistry.toPrometheusText();
+        assertTrue(text.contains("# TYPE rtt_ms histogram\n"));
+        assertTrue(text.contains("rtt_ms_bucket{peer=\"a\",le=\"10\"} 2\n"));
+        assertTrue(text.contains("rtt_ms_bucket{peer=\"a\",le=\"100\"} 3\n"));
+        assertTrue(text.contains("rtt_ms_bucket{peer=\"a\",le=\"+Inf\"} 4\n"));
+        assertTrue(text.contains("rtt_ms_sum{peer=\"a\"} 565\n"));
+        assertTrue(text.contains("rtt_ms_count{peer=\"a\"} 4\n"));
+    }
+
+    @Test
+    public void testLabelValuesAreEscaped() {
+        MetricsRegistry.counter("escaped_total", "Escaped", "type", "a\"b").inc();
+        assertTrue(MetricsRegistry.toPrometheusText().contains("escaped_total{type=\"a\\\"b\"} 1\n"));
+    }
+
+    @Test(expected = IllegalArgumentException.class)
+    public void testTypeConflictIsRejected() {
+        MetricsRegistry.counter("conflict", "Conflict");
+        MetricsRegistry.histogram("conflict", "Conflict", MetricsRegistry.DEFAULT_MS_BUCKETS);
+    }
+
+    @Test(expected = IllegalArgumentException.class)
+    public void testInvalidNameIsRejected() {
+        MetricsRegistry.counter("invalid-name", "Invalid");
+    }
+
+    @Test
+    public void testJson() {
+        MetricsRegistry.counter("json_total", "Json", "type", "Ping").add(7);
+        MetricsRegistry.gauge("json_gauge", "Json", () -> Double.NaN);
+        String json = MetricsRegistry.toJson();
+        assertTrue(json.contains("\"json_total\""));
+        assertTrue(json.contains("\"value\": 7"));
+        assertFalse(json.contains("NaN"));
+    }
+
+    @Test
+    public void testHttpServer() throws Exception {
+        MetricsRegistry.counter("http_total", "Http").inc();
+        MetricsHttpServer server = new MetricsHttpServer(0);
+        server.start();
+        try {
+            String text = get("http://127.0.0.1:" + server.getPort() + "/metrics");
+            assertTrue(text.contains("http_total 1\n"));
+            String json = get("http://127.0.0.1:" + server.getPort() + "/metrics.json");
+            assertTrue(json.contains("\"http_total\""));
+        } finally {
+            server.shutDown();
+        }
+    }
+
+    private static String get(String url) throws IOException {
+        HttpURLConnection connection = (HttpURLConnection) new URL(url).openConnection();
+        try (InputStream inputStream = connection.getInputStream()) {
+            assertEquals(200, connection.getResponseCode());
+            return new String(inputStream.readAllBytes(), StandardCharsets.UTF_8);
+        } finally {
+            connection.disconnect();
+        }
+    }
+}
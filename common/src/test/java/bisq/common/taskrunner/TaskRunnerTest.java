@@ -0,0 +1,198 @@
+/*
+ * This file is part of Bisq.
+ *
+ * Bisq is free software: you can redistribute it and/or modify it
+ * under the terms of the GNU Affero General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or (at
+ * your option) any later version.
+ *
+ * Bisq is distributed in the hope that it will be useful, but WITHOUT
+ * ANY WARRANTY; without even the implied warranty of MERCHANTABILITY or
+ * FITNESS FOR A PARTICULAR PURPOSE. See the GNU Affero General Public
+ * License for more details.
+ *
+ * You should have received a copy of the GNU Affero General Public License
+ * along with Bisq. If not, see <http://www.gnu.org/licenses/>.
+ */
+
+package bisq.common.taskrunner;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import org.junit.Test;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertTrue;
+
+public class TaskRunnerTest {
+
+    static class TestModel implements Model {
+        final List<String> runTasks = new ArrayList<>();
+
+        @Override
+        public void onComplete() {
+        }
+    }
+
+    static class OtherModel implements Model {
+        final List<String> runTasks = new ArrayList<>();
+
+        @Override
+        public void onComplete() {
+        }
+    }
+
+    public static class CompletingTask extends Task<TestModel> {
+        public CompletingTask(TaskRunner<TestModel> taskHandler, TestModel model) {
+            super(taskHandler, model);
+        }
+
+        @Override
+        protected void run() {
+            model.runTasks.add(getClass().getSimpleName());
+            complete();
+        }
+    }
+
+    public static class UnregisteredTask extends CompletingTask {
+        public UnregisteredTask(TaskRunner<TestModel> taskHandler, TestModel model) {
+            super(taskHandler, model);
+        }
+    }
+
+    public static class FailingTask extends Task<TestModel> {
+        public FailingTask(TaskRunner<TestModel> taskHandler, TestModel model) {
+            super(taskHandler, model);
+        }
+
+        @Override
+        protected void run() {
+            failed("Peer did not respond");
+        }
+    }
+
+    // Used by runners with different shared model classes, with a constructor for each of them.
+    public static class SharedTask extends Task<Model> {
+        private final List<String> runTasks;
+
+        public SharedTask(TaskRunner<Model> taskHandler, TestModel model) {
+            super(taskHandler, model);
+            runTasks = model.runTasks;
+        }
+
+        public SharedTask(TaskRunner<Model> taskHandler, OtherModel model) {
+            super(taskHandler, model);
+            runTasks = model.runTasks;
+        }
+
+        @Override
+        protected void run() {
+            runTasks.add(model.getClass().getSimpleName());
+            complete();
+        }
+    }
+
+    private static class TracingTaskRunner extends TaskRunner<TestModel> {
+        final List<TaskTrace> taskTraces = new ArrayList<>();
+
+        TracingTaskRunner(TestModel model, Runnable resultHandler, List<String> errorMessages) {
+            super(model, resultHandler::run, errorMessages::add);
+        }
+
+        @Override
+        protected void onTaskTrace(TaskTrace taskTrace) {
+            taskTraces.add(taskTrace);
+        }
+
+        @Override
+        protected String getModelId() {
+            return "tradeId";
+        }
+    }
+
+    @Test
+    public void testTasksAreCreatedByRegisteredFactory() {
+        AtomicInteger created = new AtomicInteger();
+        TaskRunner.registerFactory(CompletingTask.class, (taskRunner, model) -> {
+            created.incrementAndGet();
+            return new CompletingTask(taskRunner, model);
+        });
+        TestModel model = new TestModel();
+        AtomicInteger completed = new AtomicInteger();
+        List<String> errorMessages = new ArrayList<>();
+        TracingTaskRunner taskRunner = new TracingTaskRunner(model, completed::incrementAndGet, errorMessages);
+        taskRunner.addTasks(CompletingTask.class, CompletingTask.class);
+        taskRunner.run();
+
+        assertEquals(2, created.get());
+        assertEquals(1, completed.get());
+        assertTrue(errorMessages.isEmpty());
+        assertEquals(2, model.runTasks.size());
+    }
+
+    @Test
+    public void testUnregisteredTasksAreCreatedByReflection() {
+        TestModel model = new TestModel();
+        AtomicInteger completed = new AtomicInteger();
+        List<String> errorMessages = new ArrayList<>();
+        TracingTaskRunner taskRunner = new TracingTaskRunner(model, completed::incrementAndGet, errorMessages);
+        taskRunner.addTasks(UnregisteredTask.class);
+        taskRunner.run();
+
+        assertEquals(1, completed.get());
+        assertEquals(List.of("UnregisteredTask"), model.runTasks);
+    }
+
+    @Test
+    public void testReflectiveFactoryIsCachedPerSharedModelClass() {
+        TestModel testModel = new TestModel();
+        OtherModel otherModel = new OtherModel();
+        List<String> errorMessages = new ArrayList<>();
+        runSharedTask(testModel, TestModel.class, errorMessages);
+        runSharedTask(otherModel, OtherModel.class, errorMessages);
+
+        assertTrue(errorMessages.isEmpty());
+        assertEquals(List.of("TestModel"), testModel.runTasks);
+        assertEquals(List.of("OtherModel"), otherModel.runTasks);
+    }
+
+    @Test
+    public void testTracesRecordOutcomeAndModelId() {
+        TestModel model = new TestModel();
+        AtomicInteger completed = new AtomicInteger();
+        List<String> errorMessages = new ArrayList<>();
+        TracingTaskRunner taskRunner = new TracingTaskRunner(model, completed::incrementAndGet, errorMessages);
+        taskRunner.addTasks(UnregisteredTask.class, FailingTask.class, UnregisteredTask.class);
+        taskRunner.run();
+
+        assertEquals(0, completed.get());
+        assertEquals(1, errorMessages.size());
+        // The runner stops at the failed task.
+        assertEquals(2, taskRunner.taskTraces.size());
+
+        TaskTrace completedTrace = taskRunner.taskTraces.get(0);
+        assertEquals("UnregisteredTask", completedTrace.getTaskName());
+        assertEquals(TaskTrace.Outcome.COMPLETED, completedTrace.getOutcome());
+        assertNull(completedTrace.getErrorMessage());
+        assertEquals("tradeId", completedTrace.getModelId());
+        assertTrue(completedTrace.getStartTime() > 0);
+
+        TaskTrace failedTrace = taskRunner.taskTraces.get(1);
+        assertEquals("FailingTask", failedTrace.getTaskName());
+        assertEquals(TaskTrace.Outcome.FAILED, failedTrace.getOutcome());
+        assertTrue(failedTrace.getErrorMessage().contains("Peer did not respond"));
+        assertFalse(failedTrace.getDurationMs() < 0);
+    }
+
+    @SuppressWarnings("unchecked")
+    private static void runSharedTask(Model model, Class<? extends Model> modelClass, List<String> errorMessages) {
+        TaskRunner<Model> taskRunner = new TaskRunner<>(model, (Class<Model>) modelClass, () -> {
+        }, errorMessages::add);
+        taskRunner.addTasks(SharedTask.class);
+        taskRunner.run();
+    }
+}
@@ -0,0 +1,209 @@
+/*
+ * This file is part of Bisq.
+ *
+ * Bisq is free software: you can redistribute it and/or modify it
+ * under the terms of the GNU Affero General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or (at
+ * your option) any later version.
+ *
+ * Bisq is distributed in the hope that it will be useful, but WITHOUT
+ * ANY WARRANTY; without even the implied warranty of MERCHANTABILITY or
+ * FITNESS FOR A PARTICULAR PURPOSE. See the GNU Affero General Public
+ * License for more details.
+ *
+ * You should have received a copy of the GNU Affero General Public License
+ * along with Bisq. If not, see <http://www.gnu.org/licenses/>.
+ */
+
+package bisq.common.util;
+
+import com.google.common.util.concurrent.ListenableFuture;
+import com.google.common.util.concurrent.ListeningExecutorService;
+
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.function.BooleanSupplier;
+
+import org.junit.After;
+import org.junit.Test;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertNotSame;
+import static org.junit.Assert.assertSame;
+import static org.junit.Assert.assertTrue;
+import static org.junit.Assert.fail;
+
+public class ExecutorRegistryTest {
+
+    @After
+    public void tearDown() {
+        ExecutorRegistry.setMaxTotalThreads(ExecutorRegistry.DEFAULT_MAX_TOTAL_THREADS);
+        ExecutorRegistry.shutDownAll(1, TimeUnit.SECONDS);
+    }
+
+    @Test
+    public void testExecutorsAreRegisteredByName() {
+        ListeningExecutorService executor = ExecutorRegistry.getListeningExecutorService("test", 2);
+        assertSame(executor, ExecutorRegistry.getListeningExecutorService("test", 4));
+        assertTrue(ExecutorRegistry.isRegistered("test"));
+        assertEquals(2, getMetrics("test").getMaxThreads());
+    }
+
+    @Test
+    public void testMetricsAndRejection() throws Exception {
+        ListeningExecutorService executor = ExecutorRegistry.getListeningExecutorService("test", 1, 2);
+        CountDownLatch release = new CountDownLatch(1);
+        ListenableFuture<?> running = executor.submit(() -> {
+            release.await();
+            return null;
+        });
+        ListenableFuture<?> queued1 = executor.submit(() -> {
+        });
+        ListenableFuture<?> queued2 = executor.submit(() -> {
+        });
+        try {
+            executor.submit(() -> {
+            });
+            fail("Expected the task to be rejected as the queue is full");
+        } catch (RejectedExecutionException ignore) {
+        }
+
+        waitUntil(() -> getMetrics("test").getActiveThreads() == 1);
+        ExecutorRegistry.ExecutorMetrics metrics = getMetrics("test");
+        assertEquals(2, metrics.getQueueDepth());
+        assertEquals(2, metrics.getQueueCapacity());
+        assertEquals(1, metrics.getRejectedTasks());
+
+        release.countDown();
+        running.get(1, TimeUnit.SECONDS);
+        queued1.get(1, TimeUnit.SECONDS);
+        queued2.get(1, TimeUnit.SECONDS);
+        waitUntil(() -> getMetrics("test").getCompletedTasks() == 3);
+        metrics = getMetrics("test");
+        assertEquals(0, metrics.getQueueDepth());
+        assertEquals(0, metrics.getActiveThreads());
+        assertTrue(metrics.getMaxQueueTimeMs() >= metrics.getAvgQueueTimeMs());
+        assertTrue(metrics.getMaxRunTimeMs() >= metrics.getAvgRunTimeMs());
+    }
+
+    @Test
+    public void testTotalThreadsAreCapped() {
+        ExecutorRegistry.setMaxTotalThreads(ExecutorRegistry.getTotalMaxThreads() + 3);
+        ExecutorRegistry.getListeningExecutorService("first", 2);
+        ExecutorRegistry.getListeningExecutorService("second", 5);
+        ExecutorRegistry.getListeningExecutorService("third", 5);
+        assertEquals(2, getMetrics("first").getMaxThreads());
+        assertEquals(1, getMetrics("second").getMaxThreads());
+        // We always grant at least one thread
+        assertEquals(1, getMetrics("third").getMaxThreads());
+    }
+
+    @Test
+    public void testShutDownAll() throws Exception {
+        ListeningExecutorService completing = ExecutorRegistry.getSingleThreadListeningExecutor("completing");
+        ListeningExecutorService blocking = ExecutorRegistry.getSingleThreadListeningExecutor("blocking");
+        ListenableFuture<?> completed = completing.submit(() -> {
+            Thread.sleep(50);
+            return null;
+        });
+        ListenableFuture<?> interrupted = blocking.submit(() -> {
+            Thread.sleep(10_000);
+            return null;
+        });
+
+        ExecutorRegistry.shutDownAll(500, TimeUnit.MILLISECONDS);
+        assertFalse(ExecutorRegistry.isRegistered("completing"));
+        assertFalse(ExecutorRegistry.isRegistered("blocking"));
+        completed.get(1, TimeUnit.SECONDS);
+        assertTrue(completing.awaitTermination(1, TimeUnit.SECONDS));
+        try {
+            interrupted.get(1, TimeUnit.SECONDS);
+            fail("Expected the blocking task to be interrupted");
+        } catch (ExecutionException e) {
+            assertTrue(e.getCause() instanceof InterruptedException);
+        }
+        assertTrue(blocking.awaitTermination(1, TimeUnit.SECONDS));
+
+        try {
+            completing.submit(() -> {
+            });
+            fail("Expected the task to be rejected as the executor is shut down");
+        } catch (RejectedExecutionException ignore) {
+        }
+    }
+
+    @Test
+    public void testExecutorIsRecreatedAfterShutDown() throws Exception {
+        ListeningExecutorService executor = ExecutorRegistry.getSingleThreadListeningExecutor("test");
+        ExecutorRegistry.shutDownAll(1, TimeUnit.SECONDS);
+        assertTrue(executor.isShutdown());
+
+        ListeningExecutorService recreated = ExecutorRegistry.getSingleThreadListeningExecutor("test");
+        assertNotSame(executor, recreated);
+        assertEquals("done", recreated.submit(() -> "done").get(1, TimeUnit.SECONDS));
+
+        ExecutorRegistry.shutDown("test");
+        assertFalse(ExecutorRegistry.isRegistered("test"));
+        assertTrue(recreated.isShutdown());
+    }
+
+    @Test
+    public void testCachedExecutorIsNotCapped() throws Exception {
+        ExecutorRegistry.setMaxTotalThreads(ExecutorRegistry.getTotalMaxThreads() + 1);
+        int totalMaxThreads = ExecutorRegistry.getTotalMaxThreads();
+        ExecutorService executor = ExecutorRegistry.getCachedExecutorService("test");
+        assertEquals(totalMaxThreads, ExecutorRegistry.getTotalMaxThreads());
+
+        CountDownLatch started = new CountDownLatch(3);
+        CountDownLatch release = new CountDownLatch(1);
+        for (int i = 0; i < 3; i++) {
+            executor.execute(() -> {
+                started.countDown();
+                try {
+                    release.await();
+                } catch (InterruptedException ignore) {
+                }
+            });
+        }
+        assertTrue(started.await(1, TimeUnit.SECONDS));
+        assertEquals(3, getMetrics("test").getActiveThreads());
+        release.countDown();
+    }
+
+    @Test
+    public void testScheduledExecutor() throws Exception {
+        ScheduledExecutorService executor = ExecutorRegistry.getScheduledExecutorService("test", 1);
+        assertSame(executor, ExecutorRegistry.getScheduledExecutorService("test", 2));
+        assertEquals("done", executor.schedule(() -> "done", 10, TimeUnit.MILLISECONDS).get(1, TimeUnit.SECONDS));
+        waitUntil(() -> getMetrics("test").getCompletedTasks() == 1);
+
+        try {
+            ExecutorRegistry.getListeningExecutorService("test", 1);
+            fail("Expected a scheduled executor not to be returned as a listening executor");
+        } catch (IllegalArgumentException ignore) {
+        }
+
+        ExecutorRegistry.shutDownAndAwaitTermination("test", 1, TimeUnit.SECONDS);
+        assertTrue(executor.isTerminated());
+    }
+
+    private static ExecutorRegistry.ExecutorMetrics getMetrics(String name) {
+        return ExecutorRegistry.getMetrics().stream()
+                .filter(metrics -> metrics.getName().equals(name))
+                .findAny()
+                .orElseThrow();
+    }
+
+    private static void waitUntil(BooleanSupplier condition) throws InterruptedException {
+        long deadline = System.currentTimeMillis() + 1000;
+        while (!condition.getAsBoolean()) {
+            assertTrue("Condition not met in time", System.currentTimeMillis() < deadline);
+            Thread.sleep(5);
+        }
+    }
+}
@@ -19,12 +19,13 @@ package bisq.core.dao.node.explorer;
 
 import bisq.core.dao.DaoSetupService;
 import bisq.core.dao.state.DaoStateService;
-import bisq.core.dao.state.model.DaoState;
 import bisq.core.dao.state.model.blockchain.Block;
 import bisq.core.dao.state.model.blockchain.PubKeyScript;
 import bisq.core.dao.state.model.blockchain.Tx;
 import bisq.core.dao.state.model.blockchain.TxOutput;
 import bisq.core.dao.state.model.blockchain.TxType;
+import bisq.core.dao.state.model.governance.Issuance;
+import bisq.core.dao.state.model.governance.IssuanceType;
 
 import bisq.common.config.Config;
 import bisq.common.file.FileUtil;
@@ -37,6 +38,9 @@ import com.google.inject.Inject;
 
 import javax.inject.Named;
 
+import com.google.gson.Gson;
+
+import com.google.common.annotations.VisibleForTesting;
 import com.google.common.util.concurrent.Futures;
 import com.google.common.util.concurrent.ListenableFuture;
 import com.google.common.util.concurrent.ListeningExecutorService;
@@ -45,25 +49,59 @@ import com.google.common.util.concurrent.MoreExecutors;
 import java.nio.file.Paths;
 
 import java.io.File;
+import java.io.FileReader;
 import java.io.IOException;
+import java.io.Reader;
 
 import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.LinkedHashSet;
+import java.util.LinkedList;
 import java.util.List;
+import java.util.Map;
 import java.util.Objects;
 import java.util.Optional;
+import java.util.Set;
+import java.util.TreeMap;
+import java.util.TreeSet;
+import java.util.concurrent.ExecutionException;
 import java.util.stream.Collectors;
 
 import lombok.extern.slf4j.Slf4j;
 
+import javax.annotation.Nullable;
+
+/**
+ * Exports the DAO state as json files for block explorers. The export is incremental: for each new block we only write
+ * the files of the txs and tx outputs which got added or changed and rewrite the blocks segment files containing them.
+ * Beside the new txs and the txs spent by them, the vote result at the end of a cycle changes older txs, e.g. of
+ * accepted issuance requests or confiscated bonds. We therefore track the issuances and confiscations since the last
+ * export as well. The last exported block is stored as high-water mark, so after a restart we continue from there.
+ * In case the exported chain does not match our chain anymore (reorg) we start over from genesis.
+ */
 @Slf4j
 public class ExportJsonFilesService implements DaoSetupService {
+    private static final int BLOCKS_PER_SEGMENT = 100;
+    private static final String EXPORT_STATE_FILE_NAME = "exportState";
+
     private final DaoStateService daoStateService;
     private final File storageDir;
     private final boolean dumpBlockchainData;
 
     private final ListeningExecutorService executor = Utilities.getListeningExecutorService("JsonExporter",
             1, 1, 1200);
-    private JsonFileManager txFileManager, txOutputFileManager, bsqStateFileManager;
+    private File txDir, txOutputDir, blocksDir;
+    private JsonFileManager txFileManager, txOutputFileManager, blocksFileManager, exportStateFileManager;
+
+    // Only accessed from user thread
+    private int lastExportedHeight = -1;
+    @Nullable
+    private String lastExportedBlockHash;
+    private int numExportedConfiscatedLockupTxs;
+    private int currentSegmentStartHeight = -1;
+    private List<JsonBlock> currentSegment = new ArrayList<>();
 
     @Inject
     public ExportJsonFilesService(DaoStateService daoStateService,
@@ -87,38 +125,40 @@ public class ExportJsonFilesService implements DaoSetupService {
     public void start() {
         if (dumpBlockchainData) {
             File jsonDir = new File(Paths.get(storageDir.getAbsolutePath(), "json").toString());
-            File txDir = new File(Paths.get(storageDir.getAbsolutePath(), "json", "tx").toString());
-            File txOutputDir = new File(Paths.get(storageDir.getAbsolutePath(), "json", "txo").toString());
+            txDir = new File(Paths.get(storageDir.getAbsolutePath(), "json", "tx").toString());
+            txOutputDir = new File(Paths.get(storageDir.getAbsolutePath(), "json", "txo").toString());
+            blocksDir = new File(Paths.get(storageDir.getAbsolutePath(), "json", "blocks").toString());
+
+            // Previous versions have written all blocks into a single file in that directory.
             File bsqStateDir = new File(Paths.get(storageDir.getAbsolutePath(), "json", "all").toString());
             try {
-                if (txDir.exists())
-                    FileUtil.deleteDirectory(txDir);
-                if (txOutputDir.exists())
-                    FileUtil.deleteDirectory(txOutputDir);
                 if (bsqStateDir.exists())
                     FileUtil.deleteDirectory(bsqStateDir);
-                if (jsonDir.exists())
-                    FileUtil.deleteDirectory(jsonDir);
             } catch (IOException e) {
                 log.error(e.toString());
                 e.printStackTrace();
             }
 
-            if (!jsonDir.mkdir())
+            if (!jsonDir.exists() && !jsonDir.mkdir())
                 log.warn("make jsonDir failed.\njsonDir=" + jsonDir.getAbsolutePath());
 
-            if (!txDir.mkdir())
-                log.warn("make txDir failed.\ntxDir=" + txDir.getAbsolutePath());
-
-            if (!txOutputDir.mkdir())
-                log.warn("make txOutputDir failed.\ntxOutputDir=" + txOutputDir.getAbsolutePath());
-
-            if (!bsqStateDir.mkdir())
-                log.warn("make bsqStateDir failed.\nbsqStateDir=" + bsqStateDir.getAbsolutePath());
+            Optional<JsonExportState> exportState = readExportState(jsonDir);
+            if (exportState.isPresent() && exportState.get().getBlocksPerSegment() == BLOCKS_PER_SEGMENT) {
+                lastExportedHeight = exportState.get().getLastExportedHeight();
+                lastExportedBlockHash = exportState.get().getLastExportedBlockHash();
+                numExportedConfiscatedLockupTxs = exportState.get().getNumExportedConfiscatedLockupTxs();
+                log.info("We resume json export after block height {}", lastExportedHeight);
+            } else {
+                // Without a valid high-water mark we cannot know which files are outdated, so we start from scratch.
+                resetDirectory(txDir);
+                resetDirectory(txOutputDir);
+                resetDirectory(blocksDir);
+            }
 
             txFileManager = new JsonFileManager(txDir);
             txOutputFileManager = new JsonFileManager(txOutputDir);
-            bsqStateFileManager = new JsonFileManager(bsqStateDir);
+            blocksFileManager = new JsonFileManager(blocksDir);
+            exportStateFileManager = new JsonFileManager(jsonDir);
         }
     }
 
@@ -126,34 +166,104 @@ public class ExportJsonFilesService implements DaoSetupService {
         if (dumpBlockchainData && txFileManager != null) {
             txFileManager.shutDown();
             txOutputFileManager.shutDown();
-            bsqStateFileManager.shutDown();
+            blocksFileManager.shutDown();
+            exportStateFileManager.shutDown();
+            executor.shutdown();
         }
     }
 
     public void maybeExportToJson() {
         if (dumpBlockchainData &&
+                txFileManager != null &&
                 daoStateService.isParseBlockChainComplete()) {
             // We store the data we need once we write the data to disk (in the thread) locally.
             // Access to daoStateService is single threaded, we must not access daoStateService from the thread.
-            List<JsonTxOutput> allJsonTxOutputs = new ArrayList<>();
+            Optional<List<Block>> optionalNewBlocks = getNewBlocks();
+            if (!optionalNewBlocks.isPresent()) {
+                log.warn("Our chain does not contain the last exported block anymore (height={}, hash={}). " +
+                        "We delete all exported files and export again from genesis.", lastExportedHeight, lastExportedBlockHash);
+                lastExportedHeight = -1;
+                lastExportedBlockHash = null;
+                numExportedConfiscatedLockupTxs = 0;
+                currentSegmentStartHeight = -1;
+                currentSegment = new ArrayList<>();
+                executor.submit(() -> {
+                    resetDirectory(txDir);
+                    resetDirectory(txOutputDir);
+                    resetDirectory(blocksDir);
+                    return null;
+                });
+                optionalNewBlocks = getNewBlocks();
+            }
 
-            List<JsonTx> jsonTxs = daoStateService.getUnorderedTxStream()
+            List<Block> newBlocks = optionalNewBlocks.orElse(new ArrayList<>());
+            if (newBlocks.isEmpty())
+                return;
+
+            List<String> confiscatedLockupTxIds = daoStateService.getConfiscatedLockupTxIds();
+            if (confiscatedLockupTxIds.size() < numExportedConfiscatedLockupTxs)
+                numExportedConfiscatedLockupTxs = 0;
+            Set<String> touchedTxIds = getTouchedTxIds(newBlocks,
+                    confiscatedLockupTxIds.subList(numExportedConfiscatedLockupTxs, confiscatedLockupTxIds.size()));
+            List<Tx> touchedTxs = touchedTxIds.stream()
+                    .map(daoStateService::getTx)
+                    .filter(Optional::isPresent)
+                    .map(Optional::get)
+                    .collect(Collectors.toList());
+            List<JsonTxOutput> jsonTxOutputs = new ArrayList<>();
+            List<JsonTx> jsonTxs = touchedTxs.stream()
                     .map(tx -> {
                         JsonTx jsonTx = getJsonTx(tx);
-                        allJsonTxOutputs.addAll(jsonTx.getOutputs());
+                        jsonTxOutputs.addAll(jsonTx.getOutputs());
                         return jsonTx;
-                    }).collect(Collectors.toList());
-
-            DaoState daoState = daoStateService.getClone();
-            List<JsonBlock> jsonBlockList = daoState.getBlocks().stream()
-                    .map(this::getJsonBlock)
+                    })
                     .collect(Collectors.toList());
-            JsonBlocks jsonBlocks = new JsonBlocks(daoState.getChainHeight(), jsonBlockList);
+
+            // We only rewrite the segments the new blocks fall into. Segments have a fixed size so the cost for
+            // appending a block does not grow with the chain.
+            Map<Integer, List<JsonBlock>> touchedSegments = new TreeMap<>();
+            newBlocks.forEach(block -> {
+                int segmentStartHeight = getSegmentStartHeight(block.getHeight());
+                if (segmentStartHeight != currentSegmentStartHeight) {
+                    loadSegment(segmentStartHeight, block.getHeight());
+                }
+                currentSegment.add(getJsonBlock(block));
+                touchedSegments.put(segmentStartHeight, currentSegment);
+            });
+
+            // The segments of older blocks embed the touched txs as well, so we rebuild those from our state.
+            int firstNewBlockHeight = newBlocks.get(0).getHeight();
+            Set<Integer> staleSegmentStartHeights = touchedTxs.stream()
+                    .filter(tx -> tx.getBlockHeight() < firstNewBlockHeight)
+                    .map(tx -> getSegmentStartHeight(tx.getBlockHeight()))
+                    .collect(Collectors.toCollection(TreeSet::new));
+            Map<Integer, List<JsonBlock>> staleSegments = getSegments(staleSegmentStartHeights);
+            if (staleSegments.containsKey(currentSegmentStartHeight))
+                currentSegment = staleSegments.get(currentSegmentStartHeight);
+            touchedSegments.putAll(staleSegments);
+
+            // We copy the segments as the current segment gets appended at the next block.
+            int chainHeight = daoStateService.getChainHeight();
+            Map<String, JsonBlocks> jsonBlocksBySegmentFileName = new LinkedHashMap<>();
+            touchedSegments.forEach((segmentStartHeight, jsonBlocks) ->
+                    jsonBlocksBySegmentFileName.put(getSegmentFileName(segmentStartHeight),
+                            new JsonBlocks(chainHeight, new ArrayList<>(jsonBlocks))));
+
+            Block lastBlock = newBlocks.get(newBlocks.size() - 1);
+            lastExportedHeight = lastBlock.getHeight();
+            lastExportedBlockHash = lastBlock.getHash();
+            numExportedConfiscatedLockupTxs = confiscatedLockupTxIds.size();
+            JsonExportState exportState = new JsonExportState(lastExportedHeight,
+                    lastExportedBlockHash,
+                    BLOCKS_PER_SEGMENT,
+                    numExportedConfiscatedLockupTxs);
 
             ListenableFuture<Void> future = executor.submit(() -> {
-                bsqStateFileManager.writeToDisc(Utilities.objectToJson(jsonBlocks), "blocks");
-                allJsonTxOutputs.forEach(jsonTxOutput -> txOutputFileManager.writeToDisc(Utilities.objectToJson(jsonTxOutput), jsonTxOutput.getId()));
+                jsonTxOutputs.forEach(jsonTxOutput -> txOutputFileManager.writeToDisc(Utilities.objectToJson(jsonTxOutput), jsonTxOutput.getId()));
                 jsonTxs.forEach(jsonTx -> txFileManager.writeToDisc(Utilities.objectToJson(jsonTx), jsonTx.getId()));
+                jsonBlocksBySegmentFileName.forEach((fileName, jsonBlocks) -> blocksFileManager.writeToDisc(Utilities.objectToJson(jsonBlocks), fileName));
+                // We write the high-water mark last, so in case of a crash we export the last blocks again.
+                exportStateFileManager.writeToDisc(Utilities.objectToJson(exportState), EXPORT_STATE_FILE_NAME);
                 return null;
             });
 
@@ -164,6 +274,119 @@ public class ExportJsonFilesService implements DaoSetupService {
         }
     }
 
+    @VisibleForTesting
+    void awaitPendingWrites() throws ExecutionException, InterruptedException {
+        // The executor is single threaded so all previously submitted writes are done once our task completes.
+        executor.submit(() -> null).get();
+    }
+
+    // Beside the new txs we need to update the txs with outputs which got spent by the new txs as the spent info and
+    // unspent flag of those outputs have changed. The vote result changes the state of txs from earlier blocks:
+    // issuance candidate outputs of accepted requests become unspent BSQ outputs and confiscated bonds apply to
+    // their lockup and unlock txs. For those we update the txs spending their outputs as well, as the inputs carry
+    // the BSQ flag of the connected output.
+    private Set<String> getTouchedTxIds(List<Block> newBlocks, List<String> newConfiscatedLockupTxIds) {
+        Set<String> touchedTxIds = new LinkedHashSet<>();
+        newBlocks.forEach(block -> block.getTxs().forEach(tx -> {
+            touchedTxIds.add(tx.getId());
+            tx.getTxInputs().forEach(txInput -> touchedTxIds.add(txInput.getConnectedTxOutputTxId()));
+        }));
+
+        int firstNewBlockHeight = newBlocks.get(0).getHeight();
+        Set<String> txIdsWithChangedState = new LinkedHashSet<>();
+        Arrays.stream(IssuanceType.values())
+                .flatMap(issuanceType -> daoStateService.getIssuanceSetForType(issuanceType).stream())
+                .filter(issuance -> issuance.getChainHeight() >= firstNewBlockHeight)
+                .map(Issuance::getTxId)
+                .forEach(txIdsWithChangedState::add);
+        newConfiscatedLockupTxIds.forEach(lockupTxId -> {
+            txIdsWithChangedState.add(lockupTxId);
+            daoStateService.getUnlockTxFromLockupTxId(lockupTxId).ifPresent(unlockTx ->
+                    txIdsWithChangedState.add(unlockTx.getId()));
+        });
+        txIdsWithChangedState.forEach(txId -> {
+            touchedTxIds.add(txId);
+            daoStateService.getTx(txId).ifPresent(tx -> tx.getTxOutputs().forEach(txOutput ->
+                    daoStateService.getSpentInfo(txOutput).ifPresent(spentInfo ->
+                            touchedTxIds.add(spentInfo.getTxId()))));
+        });
+        return touchedTxIds;
+    }
+
+    // Returns the blocks after the last exported block or empty if the last exported block is not part of our chain.
+    private Optional<List<Block>> getNewBlocks() {
+        LinkedList<Block> newBlocks = new LinkedList<>();
+        Iterator<Block> iterator = daoStateService.getBlocks().descendingIterator();
+        while (iterator.hasNext()) {
+            Block block = iterator.next();
+            if (block.getHeight() <= lastExportedHeight) {
+                if (block.getHeight() == lastExportedHeight && block.getHash().equals(lastExportedBlockHash))
+                    return Optional.of(newBlocks);
+                else
+                    return Optional.empty();
+            }
+            newBlocks.addFirst(block);
+        }
+        return lastExportedHeight < 0 ? Optional.of(newBlocks) : Optional.empty();
+    }
+
+    // After a restart or when starting a new segment we fill the segment with the already exported blocks of it.
+    private void loadSegment(int segmentStartHeight, int height) {
+        currentSegmentStartHeight = segmentStartHeight;
+        currentSegment = new ArrayList<>();
+        daoStateService.getBlocks().stream()
+                .filter(block -> block.getHeight() >= segmentStartHeight && block.getHeight() < height)
+                .map(this::getJsonBlock)
+                .forEach(currentSegment::add);
+    }
+
+    // Builds the given segments from our state in one pass over the blocks.
+    private Map<Integer, List<JsonBlock>> getSegments(Set<Integer> segmentStartHeights) {
+        Map<Integer, List<JsonBlock>> segments = new TreeMap<>();
+        if (segmentStartHeights.isEmpty())
+            return segments;
+
+        daoStateService.getBlocks().stream()
+                .filter(block -> segmentStartHeights.contains(getSegmentStartHeight(block.getHeight())))
+                .forEach(block -> segments.computeIfAbsent(getSegmentStartHeight(block.getHeight()),
+                        segmentStartHeight -> new ArrayList<>()).add(getJsonBlock(block)));
+        return segments;
+    }
+
+    private int getSegmentStartHeight(int height) {
+        return height - (height % BLOCKS_PER_SEGMENT);
+    }
+
+    private String getSegmentFileName(int segmentStartHeight) {
+        return "blocks_" + segmentStartHeight;
+    }
+
+    private Optional<JsonExportState> readExportState(File jsonDir) {
+        File file = new File(jsonDir, EXPORT_STATE_FILE_NAME + ".json");
+        if (!file.exists())
+            return Optional.empty();
+
+        try (Reader reader = new FileReader(file)) {
+            return Optional.ofNullable(new Gson().fromJson(reader, JsonExportState.class));
+        } catch (Throwable t) {
+            log.warn("Could not read json export state. {}", t.toString());
+            return Optional.empty();
+        }
+    }
+
+    private void resetDirectory(File dir) {
+        try {
+            if (dir.exists())
+                FileUtil.deleteDirectory(dir);
+        } catch (IOException e) {
+            log.error(e.toString());
+            e.printStackTrace();
+        }
+
+        if (!dir.mkdir())
+            log.warn("make dir failed.\ndir=" + dir.getAbsolutePath());
+    }
+
     private JsonBlock getJsonBlock(Block block) {
         List<JsonTx> jsonTxs = block.getTxs().stream()
                 .map(this::getJsonTx)
@@ -0,0 +1,34 @@
+/*
+ * This file is part of Bisq.
+ *
+ * Bisq is free software: you can redistribute it and/or modify it
+ * under the terms of the GNU Affero General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or (at
+ * your option) any later version.
+ *
+ * Bisq is distributed in the hope that it will be useful, but WITHOUT
+ * ANY WARRANTY; without even the implied warranty of MERCHANTABILITY or
+ * FITNESS FOR A PARTICULAR PURPOSE. See the GNU Affero General Public
+ * License for more details.
+ *
+ * You should have received a copy of the GNU Affero General Public License
+ * along with Bisq. If not, see <http://www.gnu.org/licenses/>.
+ */
+
+package bisq.core.dao.node.explorer;
+
+import lombok.Value;
+
+/**
+ * High-water mark of the json export. Written after all files of the last exported block have been written, so
+ * after a restart we continue with the next block. Consumers can use blocksPerSegment to find the segment file of
+ * a given block height. The number of exported confiscated bonds tells which confiscations happened since the last
+ * export.
+ */
+@Value
+class JsonExportState {
+    private final int lastExportedHeight;
+    private final String lastExportedBlockHash;
+    private final int blocksPerSegment;
+    private final int numExportedConfiscatedLockupTxs;
+}
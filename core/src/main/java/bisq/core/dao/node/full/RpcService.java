@@ -31,7 +31,7 @@ import bisq.core.user.Preferences;
 import bisq.common.UserThread;
 import bisq.common.config.Config;
 import bisq.common.handlers.ResultHandler;
-import bisq.common.util.Utilities;
+import bisq.common.util.ExecutorRegistry;
 
 import org.bitcoinj.core.Utils;
 
@@ -75,6 +75,7 @@ public class RpcService {
     private static final int ACTIVATE_HARD_FORK_2_HEIGHT_TESTNET = 1943000;
     private static final int ACTIVATE_HARD_FORK_2_HEIGHT_REGTEST = 1;
     private static final Range<Integer> SUPPORTED_NODE_VERSION_RANGE = Range.closedOpen(180000, 210100);
+    private static final String EXECUTOR_NAME = "RpcService";
 
     private final String rpcUser;
     private final String rpcPassword;
@@ -86,9 +87,6 @@ public class RpcService {
     private BitcoindClient client;
     private BitcoindDaemon daemon;
 
-    // We could use multiple threads but then we need to support ordering of results in a queue
-    // Keep that for optimization after measuring performance differences
-    private final ListeningExecutorService executor = Utilities.getSingleThreadListeningExecutor("RpcService");
 
 
     ///////////////////////////////////////////////////////////////////////////////////////////
@@ -132,11 +130,11 @@ public class RpcService {
             log.info("daemon shut down");
         }
 
-        executor.shutdown();
+        ExecutorRegistry.shutDown(EXECUTOR_NAME);
     }
 
     void setup(ResultHandler resultHandler, Consumer<Throwable> errorHandler) {
-        ListenableFuture<Void> future = executor.submit(() -> {
+        ListenableFuture<Void> future = getExecutor().submit(() -> {
             try {
                 log.info("Starting RpcService on {}:{} with user {}, listening for blocknotify on port {} from {}",
                         this.rpcHost, this.rpcPort, this.rpcUser, this.rpcBlockPort, this.rpcBlockHost);
@@ -222,7 +220,7 @@ public class RpcService {
     }
 
     void requestChainHeadHeight(Consumer<Integer> resultHandler, Consumer<Throwable> errorHandler) {
-        ListenableFuture<Integer> future = executor.submit(client::getBlockCount);
+        ListenableFuture<Integer> future = getExecutor().submit(client::getBlockCount);
         Futures.addCallback(future, new FutureCallback<>() {
             public void onSuccess(Integer chainHeight) {
                 UserThread.execute(() -> resultHandler.accept(chainHeight));
@@ -237,7 +235,7 @@ public class RpcService {
     void requestDtoBlock(int blockHeight,
                          Consumer<RawBlock> resultHandler,
                          Consumer<Throwable> errorHandler) {
-        ListenableFuture<RawBlock> future = executor.submit(() -> {
+        ListenableFuture<RawBlock> future = getExecutor().submit(() -> {
             long startTs = System.currentTimeMillis();
             String blockHash = client.getBlockHash(blockHeight);
             var rawDtoBlock = client.getBlock(blockHash, 2);
@@ -348,6 +346,13 @@ public class RpcService {
                 ImmutableList.copyOf(txOutputs));
     }
 
+    // We could use multiple threads but then we need to support ordering of results in a queue
+    // Keep that for optimization after measuring performance differences
+    // Unbounded queue as we must not drop any request.
+    private static ListeningExecutorService getExecutor() {
+        return ExecutorRegistry.getListeningExecutorService(EXECUTOR_NAME, 1, ExecutorRegistry.UNBOUNDED_QUEUE_CAPACITY);
+    }
+
     private static int getActivateHardFork2Height() {
         return Config.baseCurrencyNetwork().isMainnet() ? ACTIVATE_HARD_FORK_2_HEIGHT_MAINNET :
                 Config.baseCurrencyNetwork().isTestnet() ? ACTIVATE_HARD_FORK_2_HEIGHT_TESTNET :
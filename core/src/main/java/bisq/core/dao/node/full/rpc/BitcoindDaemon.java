@@ -17,6 +17,7 @@
 
 package bisq.core.dao.node.full.rpc;
 
+import bisq.common.util.ExecutorRegistry;
 import bisq.common.util.Utilities;
 
 import com.google.common.annotations.VisibleForTesting;
@@ -34,8 +35,8 @@ import java.nio.charset.StandardCharsets;
 
 import java.io.IOException;
 
-import java.util.concurrent.ArrayBlockingQueue;
 import java.util.concurrent.Callable;
+import java.util.concurrent.RejectedExecutionException;
 import java.util.concurrent.TimeUnit;
 import java.util.function.Consumer;
 
@@ -43,9 +44,9 @@ import lombok.extern.slf4j.Slf4j;
 
 @Slf4j
 public class BitcoindDaemon {
-    private final ListeningExecutorService executor = Utilities.getSingleThreadListeningExecutor("block-notification-server");
-    private final ListeningExecutorService workerPool = Utilities.getListeningExecutorService("block-notification-worker-%d",
-            1, 10, 60, new ArrayBlockingQueue<>(100));
+    private static final String SERVER_EXECUTOR_NAME = "block-notification-server";
+    private static final String WORKER_POOL_NAME = "block-notification-worker";
+
     private final ServerSocket serverSocket;
     private final Consumer<Throwable> errorHandler;
     private volatile boolean active;
@@ -73,20 +74,25 @@ public class BitcoindDaemon {
 
     private void initialize() {
         active = true;
-        var serverFuture = executor.submit((Callable<Void>) () -> {
+        var serverFuture = getServerExecutor().submit((Callable<Void>) () -> {
             try {
                 while (active) {
                     try (var socket = serverSocket.accept(); var is = socket.getInputStream()) {
                         var blockHash = IOUtils.toString(is, StandardCharsets.UTF_8).trim();
-                        var future = workerPool.submit((Callable<Void>) () -> {
-                            try {
-                                blockListener.blockDetected(blockHash);
-                                return null;
-                            } catch (RuntimeException e) {
-                                throw new NotificationHandlerException(e);
-                            }
-                        });
-                        Futures.addCallback(future, Utilities.failureCallback(errorHandler), MoreExecutors.directExecutor());
+                        try {
+                            var future = getWorkerPool().submit((Callable<Void>) () -> {
+                                try {
+                                    blockListener.blockDetected(blockHash);
+                                    return null;
+                                } catch (RuntimeException e) {
+                                    throw new NotificationHandlerException(e);
+                                }
+                            });
+                            Futures.addCallback(future, Utilities.failureCallback(errorHandler), MoreExecutors.directExecutor());
+                        } catch (RejectedExecutionException e) {
+                            // We keep the server running and only drop this notification.
+                            log.warn("Block notification for {} got rejected: {}", blockHash, e.toString());
+                        }
                     }
                 }
             } catch (SocketException e) {
@@ -110,8 +116,8 @@ public class BitcoindDaemon {
         } catch (IOException e) {
             log.error("Error closing block notification server socket", e);
         } finally {
-            Utilities.shutdownAndAwaitTermination(executor, 1, TimeUnit.SECONDS);
-            Utilities.shutdownAndAwaitTermination(workerPool, 5, TimeUnit.SECONDS);
+            ExecutorRegistry.shutDownAndAwaitTermination(SERVER_EXECUTOR_NAME, 1, TimeUnit.SECONDS);
+            ExecutorRegistry.shutDownAndAwaitTermination(WORKER_POOL_NAME, 5, TimeUnit.SECONDS);
         }
     }
 
@@ -119,6 +125,15 @@ public class BitcoindDaemon {
         this.blockListener = blockListener;
     }
 
+    // The server thread blocks at accept for the lifetime of the daemon.
+    private static ListeningExecutorService getServerExecutor() {
+        return ExecutorRegistry.getSingleThreadListeningExecutor(SERVER_EXECUTOR_NAME);
+    }
+
+    private static ListeningExecutorService getWorkerPool() {
+        return ExecutorRegistry.getListeningExecutorService(WORKER_POOL_NAME, 10, 100);
+    }
+
     public interface BlockListener {
         void blockDetected(String blockHash);
     }
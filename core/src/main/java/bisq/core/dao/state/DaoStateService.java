@@ -886,6 +886,11 @@ public class DaoStateService implements DaoSetupService {
         daoState.getConfiscatedLockupTxList().add(lockupTxId);
     }
 
+    // The list is append-only, new confiscations get added at the end.
+    public List<String> getConfiscatedLockupTxIds() {
+        return new ArrayList<>(daoState.getConfiscatedLockupTxList());
+    }
+
     public boolean isConfiscatedOutput(TxOutputKey txOutputKey) {
         if (isLockupOutput(txOutputKey))
             return isConfiscatedLockupTxOutput(txOutputKey.getTxId());
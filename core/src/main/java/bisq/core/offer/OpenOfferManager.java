@@ -33,11 +33,13 @@ import bisq.core.offer.placeoffer.PlaceOfferModel;
 import bisq.core.offer.placeoffer.PlaceOfferProtocol;
 import bisq.core.provider.price.PriceFeedService;
 import bisq.core.support.dispute.arbitration.arbitrator.ArbitratorManager;
+import bisq.core.support.dispute.mediation.mediator.Mediator;
 import bisq.core.support.dispute.mediation.mediator.MediatorManager;
 import bisq.core.support.dispute.refund.refundagent.RefundAgentManager;
 import bisq.core.trade.TradableList;
 import bisq.core.trade.closed.ClosedTradableManager;
 import bisq.core.trade.handlers.TransactionResultHandler;
+import bisq.core.trade.statistics.TradeStatistics3;
 import bisq.core.trade.statistics.TradeStatisticsManager;
 import bisq.core.user.Preferences;
 import bisq.core.user.User;
@@ -66,14 +68,18 @@ import bisq.common.handlers.ResultHandler;
 import bisq.common.persistence.PersistenceManager;
 import bisq.common.proto.network.NetworkEnvelope;
 import bisq.common.proto.persistable.PersistedDataHost;
+import bisq.common.util.ExecutorRegistry;
 import bisq.common.util.Tuple2;
 
 import org.bitcoinj.core.Coin;
 
+import com.google.common.collect.ImmutableList;
+
 import javax.inject.Inject;
 
 import javafx.collections.FXCollections;
 import javafx.collections.ObservableList;
+import javafx.collections.SetChangeListener;
 
 import java.util.ArrayList;
 import java.util.HashMap;
@@ -81,6 +87,7 @@ import java.util.List;
 import java.util.Map;
 import java.util.Optional;
 import java.util.Set;
+import java.util.concurrent.ExecutorService;
 import java.util.concurrent.TimeUnit;
 import java.util.stream.Collectors;
 
@@ -102,6 +109,8 @@ public class OpenOfferManager implements PeerManager.Listener, DecryptedDirectMe
     private static final long REPUBLISH_AGAIN_AT_STARTUP_DELAY_SEC = 30;
     private static final long REPUBLISH_INTERVAL_MS = TimeUnit.MINUTES.toMillis(40);
     private static final long REFRESH_INTERVAL_MS = TimeUnit.MINUTES.toMillis(6);
+    // Selects the arbitrator for offer availability requests.
+    private static final String AVAILABILITY_CHECK_EXECUTOR_NAME = "OfferAvailabilityCheck";
 
     private final CoreContext coreContext;
     private final CreateOfferService createOfferService;
@@ -126,6 +135,9 @@ public class OpenOfferManager implements PeerManager.Listener, DecryptedDirectMe
     private final PersistenceManager<TradableList<OpenOffer>> persistenceManager;
     private final Map<String, OpenOffer> offersToBeEdited = new HashMap<>();
     private final TradableList<OpenOffer> openOffers = new TradableList<>();
+    // Taken on the UserThread for the arbitrator selection, reset when the trade statistics change.
+    @Nullable
+    private List<TradeStatistics3> tradeStatisticsSnapshot;
     private boolean stopped;
     private Timer periodicRepublishOffersTimer, periodicRefreshOffersTimer, retryRepublishOffersTimer;
     @Getter
@@ -195,6 +207,8 @@ public class OpenOfferManager implements PeerManager.Listener, DecryptedDirectMe
 
     public void onAllServicesInitialized() {
         p2PService.addDecryptedDirectMessageListener(this);
+        tradeStatisticsManager.getObservableTradeStatisticsSet().addListener(
+                (SetChangeListener<TradeStatistics3>) change -> tradeStatisticsSnapshot = null);
 
         if (p2PService.isBootstrapped()) {
             onBootstrapComplete();
@@ -234,6 +248,7 @@ public class OpenOfferManager implements PeerManager.Listener, DecryptedDirectMe
         stopPeriodicRefreshOffersTimer();
         stopPeriodicRepublishOffersTimer();
         stopRetryRepublishOffersTimer();
+        ExecutorRegistry.shutDown(AVAILABILITY_CHECK_EXECUTOR_NAME);
 
         // we remove own offers from offerbook when we go offline
         // Normally we use a delay for broadcasting to the peers, but at shut down we want to get it fast out
@@ -588,7 +603,7 @@ public class OpenOfferManager implements PeerManager.Listener, DecryptedDirectMe
     }
 
     public Optional<OpenOffer> getOpenOfferById(String offerId) {
-        return openOffers.stream().filter(e -> e.getId().equals(offerId)).findFirst();
+        return openOffers.getTradableById(offerId);
     }
 
 
@@ -597,11 +612,11 @@ public class OpenOfferManager implements PeerManager.Listener, DecryptedDirectMe
     ///////////////////////////////////////////////////////////////////////////////////////////
 
     private void handleOfferAvailabilityRequest(OfferAvailabilityRequest request, NodeAddress peer) {
+        long startTs = System.currentTimeMillis();
         log.info("Received OfferAvailabilityRequest from {} with offerId {} and uid {}",
                 peer, request.getOfferId(), request.getUid());
 
-        boolean result = false;
-        String errorMessage = null;
+        String errorMessage;
 
         if (!p2PService.isBootstrapped()) {
             errorMessage = "We got a handleOfferAvailabilityRequest but we have not bootstrapped yet.";
@@ -635,55 +650,114 @@ public class OpenOfferManager implements PeerManager.Listener, DecryptedDirectMe
             return;
         }
 
-        try {
-            Optional<OpenOffer> openOfferOptional = getOpenOfferById(request.offerId);
-            AvailabilityResult availabilityResult;
-            NodeAddress arbitratorNodeAddress = null;
-            NodeAddress mediatorNodeAddress = null;
-            NodeAddress refundAgentNodeAddress = null;
-            if (openOfferOptional.isPresent()) {
-                OpenOffer openOffer = openOfferOptional.get();
-                if (!apiUserDeniedByOffer(request)) {
-                    if (openOffer.getState() == OpenOffer.State.AVAILABLE) {
-                        Offer offer = openOffer.getOffer();
-                        if (preferences.getIgnoreTradersList().stream().noneMatch(fullAddress -> fullAddress.equals(peer.getFullAddress()))) {
-                            arbitratorNodeAddress = DisputeAgentSelection.getLeastUsedArbitrator(tradeStatisticsManager, mediatorManager).getNodeAddress();
-                            openOffer.setArbitratorNodeAddress(arbitratorNodeAddress);
-
-                            try {
-                                // Check also tradePrice to avoid failures after taker fee is paid caused by a too big difference
-                                // in trade price between the peers. Also here poor connectivity might cause market price API connection
-                                // losses and therefore an outdated market price.
-                                offer.checkTradePriceTolerance(request.getTakersTradePrice());
-                                availabilityResult = AvailabilityResult.AVAILABLE;
-                            } catch (TradePriceOutOfToleranceException e) {
-                                log.warn("Trade price check failed because takers price is outside out tolerance.");
-                                availabilityResult = AvailabilityResult.PRICE_OUT_OF_TOLERANCE;
-                            } catch (MarketPriceNotAvailableException e) {
-                                log.warn(e.getMessage());
-                                availabilityResult = AvailabilityResult.MARKET_PRICE_NOT_AVAILABLE;
-                            } catch (Throwable e) {
-                                log.warn("Trade price check failed. " + e.getMessage());
-                                if (coreContext.isApiUser())
-                                    // Give api user something more than 'unknown_failure'.
-                                    availabilityResult = AvailabilityResult.PRICE_CHECK_FAILED;
-                                else
-                                    availabilityResult = AvailabilityResult.UNKNOWN_FAILURE;
-                            }
-                        } else {
-                            availabilityResult = AvailabilityResult.USER_IGNORED;
-                        }
-                    } else {
-                        availabilityResult = AvailabilityResult.OFFER_TAKEN;
-                    }
-                } else {
-                    availabilityResult = AvailabilityResult.MAKER_DENIED_API_USER;
-                }
-            } else {
-                log.warn("handleOfferAvailabilityRequest: openOffer not found.");
-                availabilityResult = AvailabilityResult.OFFER_TAKEN;
+        // The checks against the open offer are cheap and done right away. The arbitrator
+        // selection has to go through the trade statistics, so it runs on the worker pool
+        // against snapshots taken here.
+        AvailabilityResult availabilityResult = getAvailabilityResult(request, peer);
+        if (availabilityResult != AvailabilityResult.AVAILABLE) {
+            sendOfferAvailabilityResponse(request, peer, availabilityResult, null, startTs);
+            return;
+        }
+
+        List<TradeStatistics3> tradeStatistics = getTradeStatisticsSnapshot();
+        List<Mediator> arbitrators = new ArrayList<>(mediatorManager.getObservableMap().values());
+        getAvailabilityCheckExecutor().execute(() -> {
+            NodeAddress arbitratorNodeAddress;
+            try {
+                arbitratorNodeAddress = DisputeAgentSelection.getLeastUsedArbitrator(tradeStatistics, arbitrators).getNodeAddress();
+            } catch (Throwable t) {
+                UserThread.execute(() -> {
+                    String message = "Exception at handleRequestIsOfferAvailableMessage " + t.getMessage();
+                    log.error(message);
+                    sendAckMessage(request, peer, false, message);
+                });
+                return;
+            }
+            UserThread.execute(() -> reserveOffer(request, peer, arbitratorNodeAddress, startTs));
+        });
+    }
+
+    // Called on the UserThread once the arbitrator got selected. The open offer might have
+    // been taken or removed in the meantime, so we check it again before we assign the
+    // arbitrator and check the takers price.
+    private void reserveOffer(OfferAvailabilityRequest request,
+                              NodeAddress peer,
+                              NodeAddress arbitratorNodeAddress,
+                              long startTs) {
+        if (stopped) {
+            String errorMessage = "We have stopped already. We ignore that handleOfferAvailabilityRequest call.";
+            log.debug(errorMessage);
+            sendAckMessage(request, peer, false, errorMessage);
+            return;
+        }
+
+        AvailabilityResult availabilityResult = getAvailabilityResult(request, peer);
+        if (availabilityResult == AvailabilityResult.AVAILABLE) {
+            OpenOffer openOffer = getOpenOfferById(request.offerId).get();
+            openOffer.setArbitratorNodeAddress(arbitratorNodeAddress);
+
+            try {
+                // Check also tradePrice to avoid failures after taker fee is paid caused by a too big difference
+                // in trade price between the peers. Also here poor connectivity might cause market price API connection
+                // losses and therefore an outdated market price.
+                openOffer.getOffer().checkTradePriceTolerance(request.getTakersTradePrice());
+            } catch (TradePriceOutOfToleranceException e) {
+                log.warn("Trade price check failed because takers price is outside out tolerance.");
+                availabilityResult = AvailabilityResult.PRICE_OUT_OF_TOLERANCE;
+            } catch (MarketPriceNotAvailableException e) {
+                log.warn(e.getMessage());
+                availabilityResult = AvailabilityResult.MARKET_PRICE_NOT_AVAILABLE;
+            } catch (Throwable e) {
+                log.warn("Trade price check failed. " + e.getMessage());
+                if (coreContext.isApiUser())
+                    // Give api user something more than 'unknown_failure'.
+                    availabilityResult = AvailabilityResult.PRICE_CHECK_FAILED;
+                else
+                    availabilityResult = AvailabilityResult.UNKNOWN_FAILURE;
             }
+        } else {
+            arbitratorNodeAddress = null;
+        }
+        sendOfferAvailabilityResponse(request, peer, availabilityResult, arbitratorNodeAddress, startTs);
+    }
+
+    // Returns AVAILABLE if the offer can be taken by the peer, apart from the price check.
+    private AvailabilityResult getAvailabilityResult(OfferAvailabilityRequest request, NodeAddress peer) {
+        Optional<OpenOffer> openOfferOptional = getOpenOfferById(request.offerId);
+        if (!openOfferOptional.isPresent()) {
+            log.warn("handleOfferAvailabilityRequest: openOffer not found.");
+            return AvailabilityResult.OFFER_TAKEN;
+        }
+        if (apiUserDeniedByOffer(request))
+            return AvailabilityResult.MAKER_DENIED_API_USER;
+        if (openOfferOptional.get().getState() != OpenOffer.State.AVAILABLE)
+            return AvailabilityResult.OFFER_TAKEN;
+        if (preferences.getIgnoreTradersList().stream().anyMatch(fullAddress -> fullAddress.equals(peer.getFullAddress())))
+            return AvailabilityResult.USER_IGNORED;
+        return AvailabilityResult.AVAILABLE;
+    }
+
+    private List<TradeStatistics3> getTradeStatisticsSnapshot() {
+        if (tradeStatisticsSnapshot == null)
+            tradeStatisticsSnapshot = ImmutableList.copyOf(tradeStatisticsManager.getObservableTradeStatisticsSet());
+        return tradeStatisticsSnapshot;
+    }
+
+    // Unbounded queue as rejected tasks would leave requests unanswered.
+    private ExecutorService getAvailabilityCheckExecutor() {
+        return ExecutorRegistry.getListeningExecutorService(AVAILABILITY_CHECK_EXECUTOR_NAME,
+                4,
+                ExecutorRegistry.UNBOUNDED_QUEUE_CAPACITY);
+    }
 
+    private void sendOfferAvailabilityResponse(OfferAvailabilityRequest request,
+                                               NodeAddress peer,
+                                               AvailabilityResult availabilityResult,
+                                               @Nullable NodeAddress arbitratorNodeAddress,
+                                               long startTs) {
+        boolean result = false;
+        String errorMessage = null;
+        try {
             if (btcWalletService.isUnconfirmedTransactionsLimitHit() || bsqWalletService.isUnconfirmedTransactionsLimitHit()) {
                 errorMessage = Res.get("shared.unconfirmedTransactionsLimitReached");
                 log.warn(errorMessage);
@@ -693,11 +767,11 @@ public class OpenOfferManager implements PeerManager.Listener, DecryptedDirectMe
             OfferAvailabilityResponse offerAvailabilityResponse = new OfferAvailabilityResponse(request.offerId,
                     availabilityResult,
                     arbitratorNodeAddress,
-                    mediatorNodeAddress,
-                    refundAgentNodeAddress);
-            log.info("Send {} with offerId {} and uid {} to peer {}",
+                    null,
+                    null);
+            log.info("Send {} with offerId {} and uid {} to peer {}. Request was handled in {} ms",
                     offerAvailabilityResponse.getClass().getSimpleName(), offerAvailabilityResponse.getOfferId(),
-                    offerAvailabilityResponse.getUid(), peer);
+                    offerAvailabilityResponse.getUid(), peer, System.currentTimeMillis() - startTs);
             p2PService.sendEncryptedDirectMessage(peer,
                     request.getPubKeyRing(),
                     offerAvailabilityResponse,
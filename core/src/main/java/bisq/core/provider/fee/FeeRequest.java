@@ -17,8 +17,8 @@
 
 package bisq.core.provider.fee;
 
+import bisq.common.util.ExecutorRegistry;
 import bisq.common.util.Tuple2;
-import bisq.common.util.Utilities;
 
 import com.google.common.util.concurrent.FutureCallback;
 import com.google.common.util.concurrent.Futures;
@@ -37,14 +37,14 @@ import org.jetbrains.annotations.NotNull;
 public class FeeRequest {
     private static final Logger log = LoggerFactory.getLogger(FeeRequest.class);
 
-    private static final ListeningExecutorService executorService = Utilities.getListeningExecutorService("FeeRequest", 3, 5, 10 * 60);
+    private static final String EXECUTOR_NAME = "FeeRequest";
 
     public FeeRequest() {
     }
 
     public SettableFuture<Tuple2<Map<String, Long>, Map<String, Long>>> getFees(FeeProvider provider) {
         final SettableFuture<Tuple2<Map<String, Long>, Map<String, Long>>> resultFuture = SettableFuture.create();
-        ListenableFuture<Tuple2<Map<String, Long>, Map<String, Long>>> future = executorService.submit(() -> {
+        ListenableFuture<Tuple2<Map<String, Long>, Map<String, Long>>> future = getExecutorService().submit(() -> {
             Thread.currentThread().setName("FeeRequest @ " + provider.getHttpClient().getBaseUrl());
             return provider.getFees();
         });
@@ -62,4 +62,8 @@ public class FeeRequest {
 
         return resultFuture;
     }
+
+    private static ListeningExecutorService getExecutorService() {
+        return ExecutorRegistry.getListeningExecutorService(EXECUTOR_NAME, 5);
+    }
 }
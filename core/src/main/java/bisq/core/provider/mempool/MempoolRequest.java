@@ -22,7 +22,7 @@ import bisq.core.user.Preferences;
 
 import bisq.network.Socks5ProxyProvider;
 
-import bisq.common.util.Utilities;
+import bisq.common.util.ExecutorRegistry;
 
 import com.google.common.util.concurrent.FutureCallback;
 import com.google.common.util.concurrent.Futures;
@@ -44,7 +44,7 @@ import static com.google.common.base.Preconditions.checkNotNull;
 
 @Slf4j
 public class MempoolRequest {
-    private static final ListeningExecutorService executorService = Utilities.getListeningExecutorService("MempoolRequest", 3, 5, 10 * 60);
+    private static final String EXECUTOR_NAME = "MempoolRequest";
     private final List<String> txBroadcastServices = new ArrayList<>();
     private final MempoolHttpClient mempoolHttpClient;
 
@@ -55,7 +55,7 @@ public class MempoolRequest {
 
     public void getTxStatus(SettableFuture<String> mempoolServiceCallback, String txId) {
         mempoolHttpClient.setBaseUrl(getRandomServiceAddress(txBroadcastServices));
-        ListenableFuture<String> future = executorService.submit(() -> {
+        ListenableFuture<String> future = getExecutorService().submit(() -> {
             Thread.currentThread().setName("MempoolRequest @ " + mempoolHttpClient.getBaseUrl());
             log.info("Making http request for information on txId: {}", txId);
             return mempoolHttpClient.getTxDetails(txId);
@@ -82,5 +82,8 @@ public class MempoolRequest {
         List<String> list = checkNotNull(txBroadcastServices);
         return !list.isEmpty() ? list.get(new Random().nextInt(list.size())) : null;
     }
-}
 
+    private static ListeningExecutorService getExecutorService() {
+        return ExecutorRegistry.getListeningExecutorService(EXECUTOR_NAME, 5);
+    }
+}
@@ -17,8 +17,8 @@
 
 package bisq.core.provider.price;
 
+import bisq.common.util.ExecutorRegistry;
 import bisq.common.util.Tuple2;
-import bisq.common.util.Utilities;
 
 import com.google.common.util.concurrent.FutureCallback;
 import com.google.common.util.concurrent.Futures;
@@ -28,7 +28,6 @@ import com.google.common.util.concurrent.MoreExecutors;
 import com.google.common.util.concurrent.SettableFuture;
 
 import java.util.Map;
-import java.util.concurrent.TimeUnit;
 
 import lombok.extern.slf4j.Slf4j;
 
@@ -37,7 +36,7 @@ import org.jetbrains.annotations.Nullable;
 
 @Slf4j
 public class PriceRequest {
-    private static final ListeningExecutorService executorService = Utilities.getListeningExecutorService("PriceRequest", 3, 5, 10 * 60);
+    private static final String EXECUTOR_NAME = "PriceRequest";
     @Nullable
     private PriceProvider provider;
     private boolean shutDownRequested;
@@ -49,7 +48,7 @@ public class PriceRequest {
         this.provider = provider;
         String baseUrl = provider.getBaseUrl();
         SettableFuture<Tuple2<Map<String, Long>, Map<String, MarketPrice>>> resultFuture = SettableFuture.create();
-        ListenableFuture<Tuple2<Map<String, Long>, Map<String, MarketPrice>>> future = executorService.submit(() -> {
+        ListenableFuture<Tuple2<Map<String, Long>, Map<String, MarketPrice>>> future = getExecutorService().submit(() -> {
             Thread.currentThread().setName("PriceRequest @ " + baseUrl);
             return provider.getAll();
         });
@@ -78,6 +77,12 @@ public class PriceRequest {
         if (provider != null) {
             provider.shutDown();
         }
-        Utilities.shutdownAndAwaitTermination(executorService, 1, TimeUnit.SECONDS);
+        // The executorService is shut down by the ExecutorRegistry.
+    }
+
+    // The executor is shut down by the ExecutorRegistry, so we get it at each request to get a new one after a
+    // shutdown.
+    private static ListeningExecutorService getExecutorService() {
+        return ExecutorRegistry.getListeningExecutorService(EXECUTOR_NAME, 5);
     }
 }
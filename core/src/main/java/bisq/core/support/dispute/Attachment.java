@@ -21,27 +21,82 @@ import bisq.common.proto.network.NetworkPayload;
 
 import com.google.protobuf.ByteString;
 
+import java.util.function.Function;
+
+import lombok.AccessLevel;
+import lombok.Getter;
 import lombok.Value;
 
+import javax.annotation.Nullable;
+
+import static com.google.common.base.Preconditions.checkNotNull;
+
 @Value
 public final class Attachment implements NetworkPayload {
     private final String fileName;
+    // Null if the bytes are stored out of line and are loaded at each getBytes call
+    @Getter(AccessLevel.NONE)
+    @Nullable
     private final byte[] bytes;
+    // Only set for attachments read by the DisputePersistenceManager. Not sent over the network.
+    @Nullable
+    private final String contentHash;
+    @Getter(AccessLevel.NONE)
+    @Nullable
+    transient private final Function<String, byte[]> bytesLoader;
 
     public Attachment(String fileName, byte[] bytes) {
+        this(fileName, bytes, null, null);
+    }
+
+    public Attachment(String fileName, String contentHash, Function<String, byte[]> bytesLoader) {
+        this(fileName, null, contentHash, bytesLoader);
+    }
+
+    private Attachment(String fileName,
+                       @Nullable byte[] bytes,
+                       @Nullable String contentHash,
+                       @Nullable Function<String, byte[]> bytesLoader) {
         this.fileName = fileName;
         this.bytes = bytes;
+        this.contentHash = contentHash;
+        this.bytesLoader = bytesLoader;
     }
 
     @Override
     public protobuf.Attachment toProtoMessage() {
         return protobuf.Attachment.newBuilder()
                 .setFileName(fileName)
-                .setBytes(ByteString.copyFrom(bytes))
+                .setBytes(ByteString.copyFrom(getBytes()))
+                .build();
+    }
+
+    // Used for the dispute records. An attachment stored out of line is written as its content hash, so its bytes
+    // are not loaded from disk.
+    public protobuf.Attachment toPersistableProto() {
+        if (!isStoredOutOfLine())
+            return toProtoMessage();
+
+        return protobuf.Attachment.newBuilder()
+                .setFileName(fileName)
+                .setContentHash(contentHash)
                 .build();
     }
 
     public static Attachment fromProto(protobuf.Attachment proto) {
         return new Attachment(proto.getFileName(), proto.getBytes().toByteArray());
     }
+
+    // We don't keep loaded bytes in memory as the attachments of old disputes are rarely looked at again.
+    public byte[] getBytes() {
+        if (bytes != null)
+            return bytes;
+
+        checkNotNull(bytesLoader, "bytesLoader must not be null if bytes are not set");
+        return bytesLoader.apply(contentHash);
+    }
+
+    public boolean isStoredOutOfLine() {
+        return bytes == null;
+    }
 }
@@ -53,6 +53,7 @@ import java.util.List;
 import java.util.Map;
 import java.util.Optional;
 import java.util.UUID;
+import java.util.function.Function;
 import java.util.stream.Collectors;
 
 import lombok.EqualsAndHashCode;
@@ -215,6 +216,15 @@ public final class Dispute implements NetworkPayload, PersistablePayload {
 
     @Override
     public protobuf.Dispute toProtoMessage() {
+        return toProtoMessage(msg -> msg.toProtoNetworkEnvelope().getChatMessage());
+    }
+
+    // Used for the dispute records, the chat message attachments stored out of line are not loaded from disk.
+    public protobuf.Dispute toPersistableProto() {
+        return toProtoMessage(ChatMessage::toPersistableProto);
+    }
+
+    private protobuf.Dispute toProtoMessage(Function<ChatMessage, protobuf.ChatMessage> chatMessageToProto) {
         // Needed to avoid ConcurrentModificationException
         List<ChatMessage> clonedChatMessages = new ArrayList<>(chatMessages);
         protobuf.Dispute.Builder builder = protobuf.Dispute.newBuilder()
@@ -231,7 +241,7 @@ public final class Dispute implements NetworkPayload, PersistablePayload {
                 .setAgentPubKeyRing(agentPubKeyRing.toProtoMessage())
                 .setIsSupportTicket(isSupportTicket)
                 .addAllChatMessage(clonedChatMessages.stream()
-                        .map(msg -> msg.toProtoNetworkEnvelope().getChatMessage())
+                        .map(chatMessageToProto)
                         .collect(Collectors.toList()))
                 .setIsClosed(this.isClosed())
                 .setOpeningDate(openingDate)
@@ -0,0 +1,78 @@
+/*
+ * This file is part of Bisq.
+ *
+ * Bisq is free software: you can redistribute it and/or modify it
+ * under the terms of the GNU Affero General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or (at
+ * your option) any later version.
+ *
+ * Bisq is distributed in the hope that it will be useful, but WITHOUT
+ * ANY WARRANTY; without even the implied warranty of MERCHANTABILITY or
+ * FITNESS FOR A PARTICULAR PURPOSE. See the GNU Affero General Public
+ * License for more details.
+ *
+ * You should have received a copy of the GNU Affero General Public License
+ * along with Bisq. If not, see <http://www.gnu.org/licenses/>.
+ */
+
+package bisq.core.support.dispute;
+
+import bisq.common.crypto.Hash;
+import bisq.common.file.FileUtil;
+import bisq.common.util.Utilities;
+
+import java.nio.file.Files;
+
+import java.io.File;
+import java.io.FileOutputStream;
+import java.io.IOException;
+import java.io.UncheckedIOException;
+
+import lombok.extern.slf4j.Slf4j;
+
+/**
+ * Stores the bytes of chat message attachments content-addressed by their sha256 hash, so
+ * an attachment is written once, no matter how often the dispute holding it gets persisted.
+ */
+@Slf4j
+class DisputeAttachmentStore {
+    private final File dir;
+
+    DisputeAttachmentStore(File dir) {
+        this.dir = dir;
+    }
+
+    // Called from the write thread.
+    String put(byte[] bytes) throws IOException {
+        String contentHash = Utilities.bytesAsHexString(Hash.getSha256Hash(bytes));
+        File file = new File(dir, contentHash);
+        if (file.exists())
+            return contentHash;
+
+        if (!dir.exists() && !dir.mkdirs())
+            log.warn("make dir failed {}", dir);
+
+        File tempFile = File.createTempFile("temp_" + contentHash, null, dir);
+        try {
+            try (FileOutputStream fileOutputStream = new FileOutputStream(tempFile)) {
+                fileOutputStream.write(bytes);
+                fileOutputStream.flush();
+                fileOutputStream.getFD().sync();
+            }
+            FileUtil.renameFile(tempFile, file);
+        } finally {
+            if (tempFile.exists() && !tempFile.delete())
+                log.error("Cannot delete temp file {}", tempFile);
+        }
+        return contentHash;
+    }
+
+    byte[] get(String contentHash) {
+        try {
+            return Files.readAllBytes(new File(dir, contentHash).toPath());
+        } catch (IOException e) {
+            log.error("Reading attachment {} failed", contentHash, e);
+            throw new UncheckedIOException(e);
+        }
+    }
+}
@@ -30,10 +30,16 @@ import org.fxmisc.easybind.EasyBind;
 import javafx.beans.property.IntegerProperty;
 import javafx.beans.property.SimpleIntegerProperty;
 
+import javafx.collections.ListChangeListener;
 import javafx.collections.ObservableList;
 
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.HashMap;
 import java.util.HashSet;
 import java.util.List;
+import java.util.Map;
+import java.util.Optional;
 import java.util.Set;
 import java.util.function.Consumer;
 import java.util.stream.Collectors;
@@ -46,22 +52,25 @@ import javax.annotation.Nullable;
 @Slf4j
 public abstract class DisputeListService<T extends DisputeList<Dispute>> implements PersistedDataHost {
     @Getter
-    protected final PersistenceManager<T> persistenceManager;
+    protected final DisputePersistenceManager<T> persistenceManager;
     @Getter
     private final T disputeList;
     @Getter
     private final IntegerProperty numOpenDisputes = new SimpleIntegerProperty();
     @Getter
     private final Set<String> disputedTradeIds = new HashSet<>();
+    // Index for the lookups by trade id. There are at most 2 disputes for a trade, one for each trader.
+    private final Map<String, List<Dispute>> disputesByTradeId = new HashMap<>();
 
 
     ///////////////////////////////////////////////////////////////////////////////////////////
     // Constructor
     ///////////////////////////////////////////////////////////////////////////////////////////
 
-    public DisputeListService(PersistenceManager<T> persistenceManager) {
+    public DisputeListService(DisputePersistenceManager<T> persistenceManager) {
         this.persistenceManager = persistenceManager;
         disputeList = getConcreteDisputeList();
+        disputeList.addListener(this::onDisputesChanged);
 
         this.persistenceManager.initialize(disputeList, getFileName(), PersistenceManager.Source.PRIVATE);
     }
@@ -80,8 +89,9 @@ public abstract class DisputeListService<T extends DisputeList<Dispute>> impleme
 
     @Override
     public void readPersisted(Runnable completeHandler) {
-        persistenceManager.readPersisted(getFileName(), persisted -> {
-                    disputeList.setAll(persisted.getList());
+        persistenceManager.readRecords(persisted -> {
+                    persisted.sort(Comparator.comparing(Dispute::getOpeningDate));
+                    disputeList.setAll(persisted);
                     completeHandler.run();
                 },
                 completeHandler);
@@ -140,11 +150,39 @@ public abstract class DisputeListService<T extends DisputeList<Dispute>> impleme
         return disputeList.getObservableList();
     }
 
+    Optional<Dispute> findDispute(String tradeId) {
+        return disputesByTradeId.getOrDefault(tradeId, List.of()).stream().findAny();
+    }
+
+    Optional<Dispute> findDispute(String tradeId, int traderId) {
+        return disputesByTradeId.getOrDefault(tradeId, List.of()).stream()
+                .filter(e -> e.getTraderId() == traderId)
+                .findAny();
+    }
+
 
     ///////////////////////////////////////////////////////////////////////////////////////////
     // Private
     ///////////////////////////////////////////////////////////////////////////////////////////
 
+    private void onDisputesChanged(ListChangeListener.Change<? extends Dispute> change) {
+        while (change.next()) {
+            change.getRemoved().forEach(dispute -> {
+                List<Dispute> disputes = disputesByTradeId.get(dispute.getTradeId());
+                if (disputes != null) {
+                    disputes.removeIf(e -> e == dispute);
+                    if (disputes.isEmpty()) {
+                        disputesByTradeId.remove(dispute.getTradeId());
+                    }
+                }
+                // Deletes the file of the dispute if it is not in the list anymore.
+                persistenceManager.requestPersistence(dispute);
+            });
+            change.getAddedSubList().forEach(dispute ->
+                    disputesByTradeId.computeIfAbsent(dispute.getTradeId(), k -> new ArrayList<>(2)).add(dispute));
+        }
+    }
+
     private void onDisputesChangeListener(List<? extends Dispute> addedList,
                                           @Nullable List<? extends Dispute> removedList) {
         if (removedList != null) {
@@ -171,4 +209,8 @@ public abstract class DisputeListService<T extends DisputeList<Dispute>> impleme
     public void requestPersistence() {
         persistenceManager.requestPersistence();
     }
+
+    public void requestPersistence(Dispute dispute) {
+        persistenceManager.requestPersistence(dispute);
+    }
 }
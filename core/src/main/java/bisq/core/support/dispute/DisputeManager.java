@@ -147,6 +147,21 @@ public abstract class DisputeManager<T extends DisputeList<Dispute>> extends Sup
         disputeListService.requestPersistence();
     }
 
+    @Override
+    protected void requestPersistence(ChatMessage message) {
+        Optional<Dispute> disputeOptional = findDispute(message);
+        if (disputeOptional.isPresent()) {
+            requestPersistence(disputeOptional.get());
+        } else {
+            requestPersistence();
+        }
+    }
+
+    // Only the given dispute gets written to disk.
+    public void requestPersistence(Dispute dispute) {
+        disputeListService.requestPersistence(dispute);
+    }
+
     @Override
     public NodeAddress getPeerNodeAddress(ChatMessage message) {
         Optional<Dispute> disputeOptional = findDispute(message);
@@ -187,7 +202,7 @@ public abstract class DisputeManager<T extends DisputeList<Dispute>> extends Sup
         findDispute(message).ifPresent(dispute -> {
             if (dispute.getChatMessages().stream().noneMatch(m -> m.getUid().equals(message.getUid()))) {
                 dispute.addAndPersistChatMessage(message);
-                requestPersistence();
+                requestPersistence(dispute);
             } else {
                 log.warn("We got a chatMessage what we have already stored. UId = {} TradeId = {}",
                         message.getUid(), message.getTradeId());
@@ -294,12 +309,7 @@ public abstract class DisputeManager<T extends DisputeList<Dispute>> extends Sup
 
 
     public Optional<Dispute> findOwnDispute(String tradeId) {
-        T disputeList = getDisputeList();
-        if (disputeList == null) {
-            log.warn("disputes is null");
-            return Optional.empty();
-        }
-        return disputeList.stream().filter(e -> e.getTradeId().equals(tradeId)).findAny();
+        return disputeListService.findDispute(tradeId);
     }
 
 
@@ -373,7 +383,7 @@ public abstract class DisputeManager<T extends DisputeList<Dispute>> extends Sup
             log.error(e.toString());
             validationExceptions.add(e);
         }
-        requestPersistence();
+        requestPersistence(dispute);
     }
 
     // Not-dispute-requester receives that msg from dispute agent
@@ -399,7 +409,7 @@ public abstract class DisputeManager<T extends DisputeList<Dispute>> extends Sup
                 if (!storedDisputeOptional.isPresent()) {
                     disputeList.add(dispute);
                     trade.setDisputeState(getDisputeStateStartedByPeer());
-                    tradeManager.requestPersistence();
+                    tradeManager.requestPersistence(trade);
                     errorMessage = null;
                 } else {
                     // valid case if both have opened a dispute and agent was not online.
@@ -423,7 +433,7 @@ public abstract class DisputeManager<T extends DisputeList<Dispute>> extends Sup
         }
 
         sendAckMessage(peerOpenedDisputeMessage, dispute.getAgentPubKeyRing(), errorMessage == null, errorMessage);
-        requestPersistence();
+        requestPersistence(dispute);
     }
 
 
@@ -495,7 +505,7 @@ public abstract class DisputeManager<T extends DisputeList<Dispute>> extends Sup
                             // We use the chatMessage wrapped inside the openNewDisputeMessage for
                             // the state, as that is displayed to the user and we only persist that msg
                             chatMessage.setArrived(true);
-                            requestPersistence();
+                            requestPersistence(dispute);
                             resultHandler.handleResult();
                         }
 
@@ -510,7 +520,7 @@ public abstract class DisputeManager<T extends DisputeList<Dispute>> extends Sup
                             // We use the chatMessage wrapped inside the openNewDisputeMessage for
                             // the state, as that is displayed to the user and we only persist that msg
                             chatMessage.setStoredInMailbox(true);
-                            requestPersistence();
+                            requestPersistence(dispute);
                             resultHandler.handleResult();
                         }
 
@@ -525,7 +535,7 @@ public abstract class DisputeManager<T extends DisputeList<Dispute>> extends Sup
                             // We use the chatMessage wrapped inside the openNewDisputeMessage for
                             // the state, as that is displayed to the user and we only persist that msg
                             chatMessage.setSendMessageError(errorMessage);
-                            requestPersistence();
+                            requestPersistence(dispute);
                             faultHandler.handleFault("Sending dispute message failed: " +
                                     errorMessage, new DisputeMessageDeliveryFailedException());
                         }
@@ -537,7 +547,7 @@ public abstract class DisputeManager<T extends DisputeList<Dispute>> extends Sup
             log.warn(msg);
             faultHandler.handleFault(msg, new DisputeAlreadyOpenException());
         }
-        requestPersistence();
+        requestPersistence(dispute);
     }
 
     // Dispute agent sends that to trading peer when he received openDispute request
@@ -643,7 +653,7 @@ public abstract class DisputeManager<T extends DisputeList<Dispute>> extends Sup
                         // We use the chatMessage wrapped inside the peerOpenedDisputeMessage for
                         // the state, as that is displayed to the user and we only persist that msg
                         chatMessage.setArrived(true);
-                        requestPersistence();
+                        requestPersistence(dispute);
                     }
 
                     @Override
@@ -657,7 +667,7 @@ public abstract class DisputeManager<T extends DisputeList<Dispute>> extends Sup
                         // We use the chatMessage wrapped inside the peerOpenedDisputeMessage for
                         // the state, as that is displayed to the user and we only persist that msg
                         chatMessage.setStoredInMailbox(true);
-                        requestPersistence();
+                        requestPersistence(dispute);
                     }
 
                     @Override
@@ -671,11 +681,11 @@ public abstract class DisputeManager<T extends DisputeList<Dispute>> extends Sup
                         // We use the chatMessage wrapped inside the peerOpenedDisputeMessage for
                         // the state, as that is displayed to the user and we only persist that msg
                         chatMessage.setSendMessageError(errorMessage);
-                        requestPersistence();
+                        requestPersistence(dispute);
                     }
                 }
         );
-        requestPersistence();
+        requestPersistence(dispute);
     }
 
     // arbitrator send result to trader
@@ -725,7 +735,7 @@ public abstract class DisputeManager<T extends DisputeList<Dispute>> extends Sup
                         // We use the chatMessage wrapped inside the disputeResultMessage for
                         // the state, as that is displayed to the user and we only persist that msg
                         chatMessage.setArrived(true);
-                        requestPersistence();
+                        requestPersistence(dispute);
                     }
 
                     @Override
@@ -739,7 +749,7 @@ public abstract class DisputeManager<T extends DisputeList<Dispute>> extends Sup
                         // We use the chatMessage wrapped inside the disputeResultMessage for
                         // the state, as that is displayed to the user and we only persist that msg
                         chatMessage.setStoredInMailbox(true);
-                        requestPersistence();
+                        requestPersistence(dispute);
                     }
 
                     @Override
@@ -753,11 +763,11 @@ public abstract class DisputeManager<T extends DisputeList<Dispute>> extends Sup
                         // We use the chatMessage wrapped inside the disputeResultMessage for
                         // the state, as that is displayed to the user and we only persist that msg
                         chatMessage.setSendMessageError(errorMessage);
-                        requestPersistence();
+                        requestPersistence(dispute);
                     }
                 }
         );
-        requestPersistence();
+        requestPersistence(dispute);
     }
 
     ///////////////////////////////////////////////////////////////////////////////////////////
@@ -802,25 +812,11 @@ public abstract class DisputeManager<T extends DisputeList<Dispute>> extends Sup
     }
 
     protected Optional<Dispute> findDispute(String tradeId, int traderId) {
-        T disputeList = getDisputeList();
-        if (disputeList == null) {
-            log.warn("disputes is null");
-            return Optional.empty();
-        }
-        return disputeList.stream()
-                .filter(e -> e.getTradeId().equals(tradeId) && e.getTraderId() == traderId)
-                .findAny();
+        return disputeListService.findDispute(tradeId, traderId);
     }
 
     public Optional<Dispute> findDispute(String tradeId) {
-        T disputeList = getDisputeList();
-        if (disputeList == null) {
-            log.warn("disputes is null");
-            return Optional.empty();
-        }
-        return disputeList.stream()
-                .filter(e -> e.getTradeId().equals(tradeId))
-                .findAny();
+        return disputeListService.findDispute(tradeId);
     }
 
     public Optional<Trade> findTrade(Dispute dispute) {
@@ -844,7 +840,7 @@ public abstract class DisputeManager<T extends DisputeList<Dispute>> extends Sup
                     p2PService.getAddress());
             mediatorsDisputeResultMessage.setSystemMessage(true);
             dispute.addAndPersistChatMessage(mediatorsDisputeResultMessage);
-            requestPersistence();
+            requestPersistence(dispute);
         }
     }
 
@@ -859,7 +855,7 @@ public abstract class DisputeManager<T extends DisputeList<Dispute>> extends Sup
         chatMessage.setSystemMessage(false);
         dispute.addAndPersistChatMessage(chatMessage);
         this.sendChatMessage(chatMessage);
-        requestPersistence();
+        requestPersistence(dispute);
     }
 
     // If price was going down between take offer time and open dispute time the buyer has an incentive to
@@ -931,7 +927,7 @@ public abstract class DisputeManager<T extends DisputeList<Dispute>> extends Sup
                 p2PService.getAddress());
         priceInfoMessage.setSystemMessage(true);
         dispute.addAndPersistChatMessage(priceInfoMessage);
-        requestPersistence();
+        requestPersistence(dispute);
     }
 
     @Nullable
@@ -0,0 +1,145 @@
+/*
+ * This file is part of Bisq.
+ *
+ * Bisq is free software: you can redistribute it and/or modify it
+ * under the terms of the GNU Affero General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or (at
+ * your option) any later version.
+ *
+ * Bisq is distributed in the hope that it will be useful, but WITHOUT
+ * ANY WARRANTY; without even the implied warranty of MERCHANTABILITY or
+ * FITNESS FOR A PARTICULAR PURPOSE. See the GNU Affero General Public
+ * License for more details.
+ *
+ * You should have received a copy of the GNU Affero General Public License
+ * along with Bisq. If not, see <http://www.gnu.org/licenses/>.
+ */
+
+package bisq.core.support.dispute;
+
+import bisq.core.proto.CoreProtoResolver;
+import bisq.core.support.messages.ChatMessage;
+
+import bisq.common.config.Config;
+import bisq.common.file.CorruptedStorageFileHandler;
+import bisq.common.persistence.RecordPersistenceManager;
+import bisq.common.proto.persistable.PersistenceProtoResolver;
+
+import com.google.protobuf.Message;
+
+import javax.inject.Inject;
+import javax.inject.Named;
+
+import java.io.File;
+import java.io.IOException;
+import java.io.InputStream;
+
+import java.util.List;
+
+import lombok.extern.slf4j.Slf4j;
+
+import javax.annotation.Nullable;
+
+import static com.google.common.base.Preconditions.checkArgument;
+
+/**
+ * Persists each dispute of a {@link DisputeList} as its own record, so a new chat message or a state change of a
+ * dispute only rewrites that dispute. The bytes of chat message attachments are stored content-addressed in a
+ * {@link DisputeAttachmentStore} and are loaded from disk when accessed.
+ *
+ * @param <T>   The type of the {@link DisputeList}
+ */
+@Slf4j
+public class DisputePersistenceManager<T extends DisputeList<Dispute>> extends RecordPersistenceManager<T, Dispute> {
+    private final File storageDir;
+    private final CoreProtoResolver coreProtoResolver;
+    private DisputeAttachmentStore attachmentStore;
+
+
+    ///////////////////////////////////////////////////////////////////////////////////////////
+    // Constructor
+    ///////////////////////////////////////////////////////////////////////////////////////////
+
+    @Inject
+    public DisputePersistenceManager(@Named(Config.STORAGE_DIR) File dir,
+                                     PersistenceProtoResolver persistenceProtoResolver,
+                                     CorruptedStorageFileHandler corruptedStorageFileHandler) {
+        super(dir, persistenceProtoResolver, corruptedStorageFileHandler);
+
+        checkArgument(persistenceProtoResolver instanceof CoreProtoResolver,
+                "persistenceProtoResolver must be a CoreProtoResolver");
+        this.storageDir = dir;
+        this.coreProtoResolver = (CoreProtoResolver) persistenceProtoResolver;
+    }
+
+
+    ///////////////////////////////////////////////////////////////////////////////////////////
+    // API
+    ///////////////////////////////////////////////////////////////////////////////////////////
+
+    @Override
+    public void initialize(T persistable, String fileName, Source source) {
+        super.initialize(persistable, fileName, source);
+
+        attachmentStore = new DisputeAttachmentStore(new File(storageDir, fileName + "_attachments"));
+    }
+
+
+    ///////////////////////////////////////////////////////////////////////////////////////////
+    // Implement template methods
+    ///////////////////////////////////////////////////////////////////////////////////////////
+
+    @Override
+    protected String getRecordId(Dispute dispute) {
+        return dispute.getId();
+    }
+
+    // Attachments stored out of line are written as their content hash, so no attachment is read from disk or
+    // hashed on the user thread.
+    @Override
+    protected Message toRecordProto(Dispute dispute) {
+        return dispute.toPersistableProto();
+    }
+
+    // Attachments added since the start are written to the attachment store and only their content hash is kept in
+    // the record. Attachments stored out of line already carry their content hash.
+    @Override
+    protected Message prepareRecordForDisk(Message record) throws IOException {
+        protobuf.Dispute.Builder builder = ((protobuf.Dispute) record).toBuilder();
+        for (protobuf.ChatMessage.Builder chatMessage : builder.getChatMessageBuilderList()) {
+            for (protobuf.Attachment.Builder attachment : chatMessage.getAttachmentsBuilderList()) {
+                if (!attachment.getBytes().isEmpty()) {
+                    attachment.setContentHash(attachmentStore.put(attachment.getBytes().toByteArray()))
+                            .clearBytes();
+                }
+            }
+        }
+        return builder.build();
+    }
+
+    @Nullable
+    @Override
+    protected Dispute parseRecord(InputStream inputStream) throws IOException {
+        protobuf.Dispute proto = protobuf.Dispute.parseDelimitedFrom(inputStream);
+        if (proto == null) {
+            return null;
+        }
+
+        Dispute dispute = Dispute.fromProto(proto, coreProtoResolver);
+
+        // Attachment.fromProto ignores the content hash as it is not part of the network messages, so we replace
+        // the attachments stored out of line by ones which load their bytes from the attachment store.
+        List<ChatMessage> chatMessages = dispute.getChatMessages();
+        for (int i = 0; i < chatMessages.size(); i++) {
+            List<protobuf.Attachment> storedAttachments = proto.getChatMessage(i).getAttachmentsList();
+            List<Attachment> attachments = chatMessages.get(i).getAttachments();
+            for (int j = 0; j < attachments.size(); j++) {
+                String contentHash = storedAttachments.get(j).getContentHash();
+                if (!contentHash.isEmpty()) {
+                    attachments.set(j, new Attachment(attachments.get(j).getFileName(), contentHash, attachmentStore::get));
+                }
+            }
+        }
+        return dispute;
+    }
+}
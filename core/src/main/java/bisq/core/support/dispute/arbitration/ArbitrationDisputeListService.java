@@ -18,8 +18,7 @@
 package bisq.core.support.dispute.arbitration;
 
 import bisq.core.support.dispute.DisputeListService;
-
-import bisq.common.persistence.PersistenceManager;
+import bisq.core.support.dispute.DisputePersistenceManager;
 
 import javax.inject.Inject;
 import javax.inject.Singleton;
@@ -32,7 +31,7 @@ public final class ArbitrationDisputeListService extends DisputeListService<Arbi
     ///////////////////////////////////////////////////////////////////////////////////////////
 
     @Inject
-    public ArbitrationDisputeListService(PersistenceManager<ArbitrationDisputeList> persistenceManager) {
+    public ArbitrationDisputeListService(DisputePersistenceManager<ArbitrationDisputeList> persistenceManager) {
         super(persistenceManager);
     }
 
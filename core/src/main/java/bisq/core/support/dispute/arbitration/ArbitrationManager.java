@@ -337,7 +337,7 @@ public final class ArbitrationManager extends DisputeManager<ArbitrationDisputeL
             if (requestUpdatedPayoutTx) sendArbitratorPayoutTxRequest(multisigWallet.getMultisigHex(), dispute, contract);
         }
 
-        requestPersistence();
+        requestPersistence(dispute);
     }
 
     // Losing trader or in case of 50/50 the seller gets the tx sent from the winner or buyer
@@ -381,7 +381,7 @@ public final class ArbitrationManager extends DisputeManager<ArbitrationDisputeL
 
         // We can only send the ack msg if we have the peersPubKeyRing which requires the dispute
         sendAckMessage(peerPublishedDisputePayoutTxMessage, peersPubKeyRing, true, null);
-        requestPersistence();
+        requestPersistence(dispute);
     }
 
     // Arbitrator receives updated multisig hex from dispute opener's peer (if co-signer) and returns updated payout tx to be signed and published
@@ -18,8 +18,7 @@
 package bisq.core.support.dispute.mediation;
 
 import bisq.core.support.dispute.DisputeListService;
-
-import bisq.common.persistence.PersistenceManager;
+import bisq.core.support.dispute.DisputePersistenceManager;
 
 import javax.inject.Inject;
 import javax.inject.Singleton;
@@ -32,7 +31,7 @@ public final class MediationDisputeListService extends DisputeListService<Mediat
     ///////////////////////////////////////////////////////////////////////////////////////////
 
     @Inject
-    public MediationDisputeListService(PersistenceManager<MediationDisputeList> persistenceManager) {
+    public MediationDisputeListService(DisputePersistenceManager<MediationDisputeList> persistenceManager) {
         super(persistenceManager);
     }
 
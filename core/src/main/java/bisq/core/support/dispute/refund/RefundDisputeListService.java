@@ -18,8 +18,7 @@
 package bisq.core.support.dispute.refund;
 
 import bisq.core.support.dispute.DisputeListService;
-
-import bisq.common.persistence.PersistenceManager;
+import bisq.core.support.dispute.DisputePersistenceManager;
 
 import javax.inject.Inject;
 import javax.inject.Singleton;
@@ -32,7 +31,7 @@ public final class RefundDisputeListService extends DisputeListService<RefundDis
     ///////////////////////////////////////////////////////////////////////////////////////////
 
     @Inject
-    public RefundDisputeListService(PersistenceManager<RefundDisputeList> persistenceManager) {
+    public RefundDisputeListService(DisputePersistenceManager<RefundDisputeList> persistenceManager) {
         super(persistenceManager);
     }
 
@@ -40,6 +40,7 @@ import java.util.List;
 import java.util.Optional;
 import java.util.UUID;
 import java.util.concurrent.TimeUnit;
+import java.util.function.Function;
 import java.util.stream.Collectors;
 
 import java.lang.ref.WeakReference;
@@ -208,13 +209,22 @@ public final class ChatMessage extends SupportMessage {
     // We cannot rename protobuf definition because it would break backward compatibility
     @Override
     public protobuf.NetworkEnvelope toProtoNetworkEnvelope() {
+        return getNetworkEnvelopeBuilder().setChatMessage(toProtoChatMessage(Attachment::toProtoMessage)).build();
+    }
+
+    // Used for the dispute records, the attachments stored out of line are not loaded from disk.
+    public protobuf.ChatMessage toPersistableProto() {
+        return toProtoChatMessage(Attachment::toPersistableProto);
+    }
+
+    private protobuf.ChatMessage toProtoChatMessage(Function<Attachment, protobuf.Attachment> attachmentToProto) {
         protobuf.ChatMessage.Builder builder = protobuf.ChatMessage.newBuilder()
                 .setType(SupportType.toProtoMessage(supportType))
                 .setTradeId(tradeId)
                 .setTraderId(traderId)
                 .setSenderIsTrader(senderIsTrader)
                 .setMessage(message)
-                .addAllAttachments(attachments.stream().map(Attachment::toProtoMessage).collect(Collectors.toList()))
+                .addAllAttachments(attachments.stream().map(attachmentToProto).collect(Collectors.toList()))
                 .setSenderNodeAddress(senderNodeAddress.toProtoMessage())
                 .setDate(date)
                 .setArrived(arrivedProperty.get())
@@ -225,9 +235,7 @@ public final class ChatMessage extends SupportMessage {
                 .setWasDisplayed(wasDisplayed);
         Optional.ofNullable(sendMessageErrorProperty.get()).ifPresent(builder::setSendMessageError);
         Optional.ofNullable(ackErrorProperty.get()).ifPresent(builder::setAckError);
-        return getNetworkEnvelopeBuilder()
-                .setChatMessage(builder)
-                .build();
+        return builder.build();
     }
 
     // The protobuf definition ChatMessage cannot be changed as it would break backward compatibility.
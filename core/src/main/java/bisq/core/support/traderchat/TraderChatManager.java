@@ -38,6 +38,7 @@ import javax.inject.Singleton;
 import javafx.collections.ObservableList;
 
 import java.util.List;
+import java.util.Optional;
 import java.util.stream.Collectors;
 
 import lombok.extern.slf4j.Slf4j;
@@ -78,6 +79,16 @@ public class TraderChatManager extends SupportManager {
         tradeManager.requestPersistence();
     }
 
+    @Override
+    protected void requestPersistence(ChatMessage message) {
+        Optional<Trade> tradeOptional = tradeManager.getTradeById(message.getTradeId());
+        if (tradeOptional.isPresent()) {
+            tradeManager.requestPersistence(tradeOptional.get());
+        } else {
+            requestPersistence();
+        }
+    }
+
     @Override
     public NodeAddress getPeerNodeAddress(ChatMessage message) {
         return tradeManager.getTradeById(message.getTradeId()).map(trade -> {
@@ -121,7 +132,7 @@ public class TraderChatManager extends SupportManager {
                     addSystemMsg(trade);
                 }
                 trade.addAndPersistChatMessage(message);
-                tradeManager.requestPersistence();
+                tradeManager.requestPersistence(trade);
             } else {
                 log.warn("Trade got a chatMessage that we have already stored. UId = {} TradeId = {}",
                         message.getUid(), message.getTradeId());
@@ -27,8 +27,13 @@ import bisq.common.proto.persistable.PersistableListAsObservable;
 
 import com.google.protobuf.Message;
 
+import javafx.collections.ListChangeListener;
+
 import java.util.Collection;
+import java.util.HashMap;
 import java.util.List;
+import java.util.Map;
+import java.util.Optional;
 import java.util.stream.Collectors;
 
 import lombok.extern.slf4j.Slf4j;
@@ -36,11 +41,17 @@ import lombok.extern.slf4j.Slf4j;
 @Slf4j
 public final class TradableList<T extends Tradable> extends PersistableListAsObservable<T> {
 
+    // Kept in sync with the observable list by a listener, so it also covers changes applied
+    // directly to the observable list.
+    private final Map<String, T> tradablesById = new HashMap<>();
+
+
     ///////////////////////////////////////////////////////////////////////////////////////////
     // Constructor
     ///////////////////////////////////////////////////////////////////////////////////////////
 
     public TradableList() {
+        addListener(this::onListChanged);
     }
 
 
@@ -50,6 +61,8 @@ public final class TradableList<T extends Tradable> extends PersistableListAsObs
 
     protected TradableList(Collection<T> collection) {
         super(collection);
+        getList().forEach(tradable -> tradablesById.putIfAbsent(tradable.getId(), tradable));
+        addListener(this::onListChanged);
     }
 
     @Override
@@ -89,6 +102,35 @@ public final class TradableList<T extends Tradable> extends PersistableListAsObs
         return new TradableList<>(list);
     }
 
+
+    ///////////////////////////////////////////////////////////////////////////////////////////
+    // API
+    ///////////////////////////////////////////////////////////////////////////////////////////
+
+    public Optional<T> getTradableById(String id) {
+        return Optional.ofNullable(tradablesById.get(id));
+    }
+
+
+    ///////////////////////////////////////////////////////////////////////////////////////////
+    // Private
+    ///////////////////////////////////////////////////////////////////////////////////////////
+
+    private void onListChanged(ListChangeListener.Change<? extends T> change) {
+        while (change.next()) {
+            change.getRemoved().forEach(tradable -> {
+                if (tradablesById.remove(tradable.getId(), tradable)) {
+                    // Closed tradables can hold an open offer and a trade with the same id.
+                    getList().stream()
+                            .filter(e -> e.getId().equals(tradable.getId()))
+                            .findFirst()
+                            .ifPresent(e -> tradablesById.put(e.getId(), e));
+                }
+            });
+            change.getAddedSubList().forEach(tradable -> tradablesById.putIfAbsent(tradable.getId(), tradable));
+        }
+    }
+
     @Override
     public String toString() {
         return "TradableList{" +
@@ -0,0 +1,81 @@
+/*
+ * This file is part of Bisq.
+ *
+ * Bisq is free software: you can redistribute it and/or modify it
+ * under the terms of the GNU Affero General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or (at
+ * your option) any later version.
+ *
+ * Bisq is distributed in the hope that it will be useful, but WITHOUT
+ * ANY WARRANTY; without even the implied warranty of MERCHANTABILITY or
+ * FITNESS FOR A PARTICULAR PURPOSE. See the GNU Affero General Public
+ * License for more details.
+ *
+ * You should have received a copy of the GNU Affero General Public License
+ * along with Bisq. If not, see <http://www.gnu.org/licenses/>.
+ */
+
+package bisq.core.trade;
+
+import bisq.common.config.Config;
+import bisq.common.file.CorruptedStorageFileHandler;
+import bisq.common.persistence.RecordPersistenceManager;
+import bisq.common.proto.persistable.PersistenceProtoResolver;
+
+import com.google.protobuf.Message;
+
+import javax.inject.Inject;
+import javax.inject.Named;
+
+import java.io.File;
+import java.io.IOException;
+import java.io.InputStream;
+
+import javax.annotation.Nullable;
+
+/**
+ * Persists each tradable of a {@link TradableList} as its own record keyed by the tradable type and id, so a state
+ * change of one trade does not re-serialize all other trades. Closed trades are only written when they get added, so
+ * the trade history is never re-serialized.
+ *
+ * @param <T>   The type of the {@link Tradable}
+ */
+public class TradablePersistenceManager<T extends Tradable> extends RecordPersistenceManager<TradableList<T>, T> {
+
+    @Inject
+    public TradablePersistenceManager(@Named(Config.STORAGE_DIR) File dir,
+                                      PersistenceProtoResolver persistenceProtoResolver,
+                                      CorruptedStorageFileHandler corruptedStorageFileHandler) {
+        super(dir, persistenceProtoResolver, corruptedStorageFileHandler);
+    }
+
+    // An OpenOffer and the Trade taken from it have the same id, e.g. in the ClosedTradableManager, so we need the
+    // type to keep their records apart.
+    @Override
+    protected String getRecordId(T tradable) {
+        return tradable.getClass().getSimpleName() + "_" + tradable.getId();
+    }
+
+    @Override
+    protected Message toRecordProto(T tradable) {
+        return tradable.toProtoMessage();
+    }
+
+    // We wrap the record into a TradableList so the persistenceProtoResolver can resolve the concrete trade type
+    // with its dependencies.
+    @Nullable
+    @Override
+    protected T parseRecord(InputStream inputStream) throws IOException {
+        protobuf.Tradable proto = protobuf.Tradable.parseDelimitedFrom(inputStream);
+        if (proto == null) {
+            return null;
+        }
+
+        protobuf.PersistableEnvelope envelope = protobuf.PersistableEnvelope.newBuilder()
+                .setTradableList(protobuf.TradableList.newBuilder().addTradable(proto))
+                .build();
+        //noinspection unchecked
+        TradableList<T> tradableList = (TradableList<T>) persistenceProtoResolver.fromProto(envelope);
+        return tradableList.getList().get(0);
+    }
+}
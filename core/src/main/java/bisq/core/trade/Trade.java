@@ -40,11 +40,14 @@ import bisq.network.p2p.NodeAddress;
 import bisq.common.crypto.PubKeyRing;
 import bisq.common.proto.ProtoUtil;
 import bisq.common.taskrunner.Model;
+import bisq.common.taskrunner.TaskTrace;
 import bisq.common.util.Utilities;
 
 import com.google.protobuf.ByteString;
 import com.google.protobuf.Message;
 
+import com.google.common.collect.ImmutableList;
+
 import org.bitcoinj.core.Coin;
 import org.bitcoinj.core.Transaction;
 
@@ -291,6 +294,10 @@ public abstract class Trade implements Tradable, Model {
     // Fields
     ///////////////////////////////////////////////////////////////////////////////////////////
 
+    // A full trade protocol runs 30 to 40 tasks per trader, so we keep the traces of a complete
+    // trade plus some retries.
+    private static final int MAX_TASK_TRACES = 50;
+
     // Persistable
     // Immutable
     @Getter
@@ -381,6 +388,9 @@ public abstract class Trade implements Tradable, Model {
     private String counterCurrencyTxId;
     @Getter
     private final ObservableList<ChatMessage> chatMessages = FXCollections.observableArrayList();
+    // The most recent task runs, kept to analyse failed or stuck trades. Added on the user thread and read by
+    // the API, so all access is synchronized on the list.
+    private final List<TaskTrace> taskTraces = new ArrayList<>();
 
     // Transient
     // Immutable
@@ -595,6 +605,9 @@ public abstract class Trade implements Tradable, Model {
                 .addAllChatMessage(chatMessages.stream()
                         .map(msg -> msg.toProtoNetworkEnvelope().getChatMessage())
                         .collect(Collectors.toList()))
+                .addAllTaskTraces(getTaskTraces().stream()
+                        .map(TaskTrace::toProtoMessage)
+                        .collect(Collectors.toList()))
                 .setLockTime(lockTime)
                 .setUid(uid);
 
@@ -673,6 +686,10 @@ public abstract class Trade implements Tradable, Model {
         trade.chatMessages.addAll(proto.getChatMessageList().stream()
                 .map(ChatMessage::fromPayloadProto)
                 .collect(Collectors.toList()));
+        trade.taskTraces.addAll(proto.getTaskTracesList().stream()
+                .map(TaskTrace::fromProto)
+                .collect(Collectors.toList()));
+        trade.trimTaskTraces();
 
         return trade;
     }
@@ -813,6 +830,23 @@ public abstract class Trade implements Tradable, Model {
         }
     }
 
+    public void addTaskTrace(TaskTrace taskTrace) {
+        synchronized (taskTraces) {
+            taskTraces.add(taskTrace);
+            trimTaskTraces();
+        }
+        TradeManager tradeManager = processModel.getTradeManager();
+        if (tradeManager != null) {
+            tradeManager.requestPersistence(this);
+        }
+    }
+
+    public List<TaskTrace> getTaskTraces() {
+        synchronized (taskTraces) {
+            return ImmutableList.copyOf(taskTraces);
+        }
+    }
+
     public boolean mediationResultAppliedPenaltyToSeller() {
         // If mediated payout is same or more then normal payout we enable otherwise a penalty was applied
         // by mediators and we keep the confirm disabled to avoid that the seller can complete the trade
@@ -1196,6 +1230,13 @@ public abstract class Trade implements Tradable, Model {
         return tradeVolumeProperty;
     }
 
+    // We keep only the most recent MAX_TASK_TRACES, also if more got persisted by an older version.
+    // Must be called while holding the lock of taskTraces, unless the trade is not shared yet.
+    private void trimTaskTraces() {
+        if (taskTraces.size() > MAX_TASK_TRACES)
+            taskTraces.subList(0, taskTraces.size() - MAX_TASK_TRACES).clear();
+    }
+
 //    private void setupConfidenceListener() {
 //        if (getDepositTx() != null) {
 //            TransactionConfidence transactionConfidence = getDepositTx().getConfidence();
@@ -89,6 +89,7 @@ import javafx.collections.ObservableList;
 
 import org.bouncycastle.crypto.params.KeyParameter;
 
+import java.util.Comparator;
 import java.util.Date;
 import java.util.HashMap;
 import java.util.HashSet;
@@ -140,7 +141,7 @@ public class TradeManager implements PersistedDataHost, DecryptedDirectMessageLi
     private final ClockWatcher clockWatcher;
 
     private final Map<String, TradeProtocol> tradeProtocolByTradeId = new HashMap<>();
-    private final PersistenceManager<TradableList<Trade>> persistenceManager;
+    private final TradablePersistenceManager<Trade> persistenceManager;
     private final TradableList<Trade> tradableList = new TradableList<>();
     @Getter
     private final BooleanProperty persistedTradesInitialized = new SimpleBooleanProperty();
@@ -176,7 +177,7 @@ public class TradeManager implements PersistedDataHost, DecryptedDirectMessageLi
                         MediatorManager mediatorManager,
                         ProcessModelServiceProvider processModelServiceProvider,
                         ClockWatcher clockWatcher,
-                        PersistenceManager<TradableList<Trade>> persistenceManager,
+                        TradablePersistenceManager<Trade> persistenceManager,
                         ReferralIdService referralIdService,
                         DumpDelayedPayoutTx dumpDelayedPayoutTx,
                         @Named(Config.ALLOW_FAULTY_DELAYED_TXS) boolean allowFaultyDelayedTxs) {
@@ -215,8 +216,9 @@ public class TradeManager implements PersistedDataHost, DecryptedDirectMessageLi
 
     @Override
     public void readPersisted(Runnable completeHandler) {
-        persistenceManager.readPersisted(persisted -> {
-                    tradableList.setAll(persisted.getList());
+        persistenceManager.readRecords(persisted -> {
+                    persisted.sort(Comparator.comparing(Trade::getDate));
+                    tradableList.setAll(persisted);
                     tradableList.stream()
                             .filter(trade -> trade.getOffer() != null)
                             .forEach(trade -> trade.getOffer().setPriceFeedService(priceFeedService));
@@ -314,19 +316,24 @@ public class TradeManager implements PersistedDataHost, DecryptedDirectMessageLi
     private void initPersistedTrade(Trade trade) {
         initTradeAndProtocol(trade, getTradeProtocol(trade));
         trade.updateDepositTxFromWallet();
-        requestPersistence();
+        requestPersistence(trade);
     }
 
     private void initTradeAndProtocol(Trade trade, TradeProtocol tradeProtocol) {
         tradeProtocol.initialize(processModelServiceProvider, this, trade.getOffer());
         trade.initialize(processModelServiceProvider);
-        requestPersistence();
+        requestPersistence(trade);
     }
 
     public void requestPersistence() {
         persistenceManager.requestPersistence();
     }
 
+    // Only the given trade gets written to disk.
+    public void requestPersistence(Trade trade) {
+        persistenceManager.requestPersistence(trade);
+    }
+
     private void handleInitTradeRequest(InitTradeRequest initTradeRequest, NodeAddress peer) {
       log.info("Received InitTradeRequest from {} with tradeId {} and uid {}", peer, initTradeRequest.getTradeId(), initTradeRequest.getUid());
 
@@ -388,7 +395,7 @@ public class TradeManager implements PersistedDataHost, DecryptedDirectMessageLi
                   takeOfferRequestErrorMessageHandler.handleErrorMessage(errorMessage);  // TODO (woodser): separate handler?
           });
 
-          requestPersistence();
+          requestPersistence(trade);
       }
 
       // handle request as maker
@@ -443,7 +450,7 @@ public class TradeManager implements PersistedDataHost, DecryptedDirectMessageLi
                   takeOfferRequestErrorMessageHandler.handleErrorMessage(errorMessage);
           });
 
-          requestPersistence();
+          requestPersistence(trade);
       }
     }
 
@@ -613,7 +620,7 @@ public class TradeManager implements PersistedDataHost, DecryptedDirectMessageLi
 
                         ((TakerProtocol) tradeProtocol).onTakeOffer();
                         tradeResultHandler.handleResult(trade);
-                        requestPersistence();
+                        requestPersistence(trade);
                     }
                 },
                 errorMessageHandler);
@@ -661,7 +668,7 @@ public class TradeManager implements PersistedDataHost, DecryptedDirectMessageLi
             onTradeCompleted(trade);
             trade.setState(Trade.State.WITHDRAW_COMPLETED);
             getTradeProtocol(trade).onWithdrawCompleted();
-            requestPersistence();
+            requestPersistence(trade);
             resultHandler.handleResult();
           }
         }
@@ -689,7 +696,7 @@ public class TradeManager implements PersistedDataHost, DecryptedDirectMessageLi
 
         // TODO The address entry should have been removed already. Check and if its the case remove that.
         xmrWalletService.resetAddressEntriesForPendingTrade(trade.getId());
-        requestPersistence();
+        requestPersistence(trade);
     }
 
 
@@ -704,7 +711,7 @@ public class TradeManager implements PersistedDataHost, DecryptedDirectMessageLi
             trade.setDisputeState(disputeState);
             onTradeCompleted(trade);
             xmrWalletService.swapTradeEntryToAvailableEntry(trade.getId(), XmrAddressEntry.Context.TRADE_PAYOUT);
-            requestPersistence();
+            requestPersistence(trade);
         }
     }
 
@@ -735,10 +742,10 @@ public class TradeManager implements PersistedDataHost, DecryptedDirectMessageLi
                     Date now = new Date();
                     if (now.after(maxTradePeriodDate)) {
                         trade.setTradePeriodState(Trade.TradePeriodState.TRADE_PERIOD_OVER);
-                        requestPersistence();
+                        requestPersistence(trade);
                     } else if (now.after(halfTradePeriodDate)) {
                         trade.setTradePeriodState(Trade.TradePeriodState.SECOND_HALF);
-                        requestPersistence();
+                        requestPersistence(trade);
                     }
                 }
             }
@@ -880,18 +887,18 @@ public class TradeManager implements PersistedDataHost, DecryptedDirectMessageLi
     }
 
     public Optional<Trade> getTradeById(String tradeId) {
-        return tradableList.stream().filter(e -> e.getId().equals(tradeId)).findFirst();
+        return tradableList.getTradableById(tradeId);
     }
 
     private void removeTrade(Trade trade) {
         if (tradableList.remove(trade)) {
-            requestPersistence();
+            requestPersistence(trade);
         }
     }
 
     private void addTrade(Trade trade) {
         if (tradableList.add(trade)) {
-            requestPersistence();
+            requestPersistence(trade);
         }
     }
 
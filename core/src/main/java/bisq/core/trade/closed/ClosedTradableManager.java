@@ -22,6 +22,7 @@ import bisq.core.provider.price.PriceFeedService;
 import bisq.core.trade.DumpDelayedPayoutTx;
 import bisq.core.trade.Tradable;
 import bisq.core.trade.TradableList;
+import bisq.core.trade.TradablePersistenceManager;
 import bisq.core.trade.Trade;
 
 import bisq.common.crypto.KeyRing;
@@ -34,6 +35,7 @@ import com.google.common.collect.ImmutableList;
 
 import javafx.collections.ObservableList;
 
+import java.util.Comparator;
 import java.util.List;
 import java.util.Optional;
 import java.util.stream.Collectors;
@@ -43,7 +45,7 @@ import lombok.extern.slf4j.Slf4j;
 
 @Slf4j
 public class ClosedTradableManager implements PersistedDataHost {
-    private final PersistenceManager<TradableList<Tradable>> persistenceManager;
+    private final TradablePersistenceManager<Tradable> persistenceManager;
     private final TradableList<Tradable> closedTradables = new TradableList<>();
     private final KeyRing keyRing;
     private final PriceFeedService priceFeedService;
@@ -53,7 +55,7 @@ public class ClosedTradableManager implements PersistedDataHost {
     @Inject
     public ClosedTradableManager(KeyRing keyRing,
                                  PriceFeedService priceFeedService,
-                                 PersistenceManager<TradableList<Tradable>> persistenceManager,
+                                 TradablePersistenceManager<Tradable> persistenceManager,
                                  CleanupMailboxMessages cleanupMailboxMessages,
                                  DumpDelayedPayoutTx dumpDelayedPayoutTx) {
         this.keyRing = keyRing;
@@ -67,8 +69,9 @@ public class ClosedTradableManager implements PersistedDataHost {
 
     @Override
     public void readPersisted(Runnable completeHandler) {
-        persistenceManager.readPersisted(persisted -> {
-                    closedTradables.setAll(persisted.getList());
+        persistenceManager.readRecords(persisted -> {
+                    persisted.sort(Comparator.comparing(Tradable::getDate));
+                    closedTradables.setAll(persisted);
                     closedTradables.stream()
                             .filter(tradable -> tradable.getOffer() != null)
                             .forEach(tradable -> tradable.getOffer().setPriceFeedService(priceFeedService));
@@ -84,13 +87,13 @@ public class ClosedTradableManager implements PersistedDataHost {
 
     public void add(Tradable tradable) {
         if (closedTradables.add(tradable)) {
-            requestPersistence();
+            requestPersistence(tradable);
         }
     }
 
     public void remove(Tradable tradable) {
         if (closedTradables.remove(tradable)) {
-            requestPersistence();
+            requestPersistence(tradable);
         }
     }
 
@@ -110,7 +113,7 @@ public class ClosedTradableManager implements PersistedDataHost {
     }
 
     public Optional<Tradable> getTradableById(String id) {
-        return closedTradables.stream().filter(e -> e.getId().equals(id)).findFirst();
+        return closedTradables.getTradableById(id);
     }
 
     public Stream<Trade> getTradesStreamWithFundsLockedIn() {
@@ -118,7 +121,7 @@ public class ClosedTradableManager implements PersistedDataHost {
                 .filter(Trade::isFundsLockedIn);
     }
 
-    private void requestPersistence() {
-        persistenceManager.requestPersistence();
+    private void requestPersistence(Tradable tradable) {
+        persistenceManager.requestPersistence(tradable);
     }
 }
@@ -23,6 +23,7 @@ import bisq.core.offer.Offer;
 import bisq.core.provider.price.PriceFeedService;
 import bisq.core.trade.DumpDelayedPayoutTx;
 import bisq.core.trade.TradableList;
+import bisq.core.trade.TradablePersistenceManager;
 import bisq.core.trade.Trade;
 import bisq.core.trade.TradeUtil;
 import bisq.core.trade.closed.CleanupMailboxMessages;
@@ -35,6 +36,7 @@ import com.google.inject.Inject;
 
 import javafx.collections.ObservableList;
 
+import java.util.Comparator;
 import java.util.Optional;
 import java.util.function.Function;
 import java.util.stream.Stream;
@@ -51,7 +53,7 @@ public class FailedTradesManager implements PersistedDataHost {
     private final PriceFeedService priceFeedService;
     private final XmrWalletService xmrWalletService;
     private final CleanupMailboxMessages cleanupMailboxMessages;
-    private final PersistenceManager<TradableList<Trade>> persistenceManager;
+    private final TradablePersistenceManager<Trade> persistenceManager;
     private final TradeUtil tradeUtil;
     private final DumpDelayedPayoutTx dumpDelayedPayoutTx;
     @Setter
@@ -61,7 +63,7 @@ public class FailedTradesManager implements PersistedDataHost {
     public FailedTradesManager(KeyRing keyRing,
                                PriceFeedService priceFeedService,
                                XmrWalletService xmrWalletService,
-                               PersistenceManager<TradableList<Trade>> persistenceManager,
+                               TradablePersistenceManager<Trade> persistenceManager,
                                TradeUtil tradeUtil,
                                CleanupMailboxMessages cleanupMailboxMessages,
                                DumpDelayedPayoutTx dumpDelayedPayoutTx) {
@@ -78,8 +80,9 @@ public class FailedTradesManager implements PersistedDataHost {
 
     @Override
     public void readPersisted(Runnable completeHandler) {
-        persistenceManager.readPersisted(persisted -> {
-                    failedTrades.setAll(persisted.getList());
+        persistenceManager.readRecords(persisted -> {
+                    persisted.sort(Comparator.comparing(Trade::getDate));
+                    failedTrades.setAll(persisted);
                     failedTrades.stream()
                             .filter(trade -> trade.getOffer() != null)
                             .forEach(trade -> trade.getOffer().setPriceFeedService(priceFeedService));
@@ -95,13 +98,13 @@ public class FailedTradesManager implements PersistedDataHost {
 
     public void add(Trade trade) {
         if (failedTrades.add(trade)) {
-            requestPersistence();
+            requestPersistence(trade);
         }
     }
 
     public void removeTrade(Trade trade) {
         if (failedTrades.remove(trade)) {
-            requestPersistence();
+            requestPersistence(trade);
         }
     }
 
@@ -114,7 +117,7 @@ public class FailedTradesManager implements PersistedDataHost {
     }
 
     public Optional<Trade> getTradeById(String id) {
-        return failedTrades.stream().filter(e -> e.getId().equals(id)).findFirst();
+        return failedTrades.getTradableById(id);
     }
 
     public Stream<Trade> getTradesStreamWithFundsLockedIn() {
@@ -129,7 +132,7 @@ public class FailedTradesManager implements PersistedDataHost {
         if (unFailTradeCallback.apply(trade)) {
             log.info("Unfailing trade {}", trade.getId());
             if (failedTrades.remove(trade)) {
-                requestPersistence();
+                requestPersistence(trade);
             }
         }
     }
@@ -152,7 +155,7 @@ public class FailedTradesManager implements PersistedDataHost {
         return blockingTrades.toString();
     }
 
-    private void requestPersistence() {
-        persistenceManager.requestPersistence();
+    private void requestPersistence(Trade trade) {
+        persistenceManager.requestPersistence(trade);
     }
 }
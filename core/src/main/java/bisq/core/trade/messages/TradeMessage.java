@@ -17,6 +17,7 @@
 
 package bisq.core.trade.messages;
 
+import bisq.network.p2p.RoutableMessage;
 import bisq.network.p2p.UidMessage;
 
 import bisq.common.proto.network.NetworkEnvelope;
@@ -28,7 +29,7 @@ import lombok.ToString;
 @EqualsAndHashCode(callSuper = true)
 @Getter
 @ToString
-public abstract class TradeMessage extends NetworkEnvelope implements UidMessage {
+public abstract class TradeMessage extends NetworkEnvelope implements UidMessage, RoutableMessage {
     protected final String tradeId;
     protected final String uid;
 
@@ -37,4 +38,9 @@ public abstract class TradeMessage extends NetworkEnvelope implements UidMessage
         this.tradeId = tradeId;
         this.uid = uid;
     }
+
+    @Override
+    public String getRoutingId() {
+        return tradeId;
+    }
 }
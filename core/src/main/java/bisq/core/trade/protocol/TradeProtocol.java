@@ -84,8 +84,10 @@ public abstract class TradeProtocol implements DecryptedDirectMessageListener, D
     }
 
     protected void onInitialized() {
+        // We only get the messages routed to our trade id, so a message is not dispatched to the
+        // protocols of all other trades.
         if (!trade.isWithdrawn()) {
-            processModel.getP2PService().addDecryptedDirectMessageListener(this);
+            processModel.getP2PService().addDecryptedDirectMessageListener(trade.getId(), this);
         }
 
         MailboxMessageService mailboxMessageService = processModel.getP2PService().getMailboxMessageService();
@@ -95,8 +97,8 @@ public abstract class TradeProtocol implements DecryptedDirectMessageListener, D
         // from the TradeManager, but as we are close to a release I dont want to risk a bigger
         // change and leave that for a later PR
         UserThread.runAfter(() -> {
-            mailboxMessageService.addDecryptedMailboxListener(this);
-            handleMailboxCollection(mailboxMessageService.getMyDecryptedMailboxMessages());
+            mailboxMessageService.addDecryptedMailboxListener(trade.getId(), this);
+            handleMailboxCollection(mailboxMessageService.getMyDecryptedMailboxMessages(trade.getId()));
         }, 100, TimeUnit.MILLISECONDS);
     }
 
@@ -375,7 +377,7 @@ public abstract class TradeProtocol implements DecryptedDirectMessageListener, D
                     trade.getId(), trade.stateProperty().get(), timeoutSec);
             trade.setErrorMessage("Timeout reached. Protocol did not complete in " + timeoutSec + " sec.");
 
-            processModel.getTradeManager().requestPersistence();
+            processModel.getTradeManager().requestPersistence(trade);
             cleanup();
         }, timeoutSec);
     }
@@ -0,0 +1,200 @@
+/*
+ * This file is part of Bisq.
+ *
+ * Bisq is free software: you can redistribute it and/or modify it
+ * under the terms of the GNU Affero General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or (at
+ * your option) any later version.
+ *
+ * Bisq is distributed in the hope that it will be useful, but WITHOUT
+ * ANY WARRANTY; without even the implied warranty of MERCHANTABILITY or
+ * FITNESS FOR A PARTICULAR PURPOSE. See the GNU Affero General Public
+ * License for more details.
+ *
+ * You should have received a copy of the GNU Affero General Public License
+ * along with Bisq. If not, see <http://www.gnu.org/licenses/>.
+ */
+
+package bisq.core.trade.protocol;
+
+import bisq.core.trade.Trade;
+import bisq.core.trade.protocol.tasks.ApplyFilter;
+import bisq.core.trade.protocol.tasks.ProcessInitMultisigMessage;
+import bisq.core.trade.protocol.tasks.ProcessInitTradeRequest;
+import bisq.core.trade.protocol.tasks.ProcessPeerPublishedDelayedPayoutTxMessage;
+import bisq.core.trade.protocol.tasks.ProcessUpdateMultisigRequest;
+import bisq.core.trade.protocol.tasks.PublishTradeStatistics;
+import bisq.core.trade.protocol.tasks.UpdateMultisigWithTradingPeer;
+import bisq.core.trade.protocol.tasks.VerifyPeersAccountAgeWitness;
+import bisq.core.trade.protocol.tasks.arbitration.PublishedDelayedPayoutTx;
+import bisq.core.trade.protocol.tasks.arbitration.SendPeerPublishedDelayedPayoutTxMessage;
+import bisq.core.trade.protocol.tasks.buyer.BuyerCreateAndSignPayoutTx;
+import bisq.core.trade.protocol.tasks.buyer.BuyerFinalizesDelayedPayoutTx;
+import bisq.core.trade.protocol.tasks.buyer.BuyerProcessDelayedPayoutTxSignatureRequest;
+import bisq.core.trade.protocol.tasks.buyer.BuyerProcessDepositTxAndDelayedPayoutTxMessage;
+import bisq.core.trade.protocol.tasks.buyer.BuyerProcessPayoutTxPublishedMessage;
+import bisq.core.trade.protocol.tasks.buyer.BuyerSendCounterCurrencyTransferStartedMessage;
+import bisq.core.trade.protocol.tasks.buyer.BuyerSendsDelayedPayoutTxSignatureResponse;
+import bisq.core.trade.protocol.tasks.buyer.BuyerSetupDepositTxListener;
+import bisq.core.trade.protocol.tasks.buyer.BuyerSetupPayoutTxListener;
+import bisq.core.trade.protocol.tasks.buyer.BuyerSignsDelayedPayoutTx;
+import bisq.core.trade.protocol.tasks.buyer.BuyerVerifiesFinalDelayedPayoutTx;
+import bisq.core.trade.protocol.tasks.buyer.BuyerVerifiesPreparedDelayedPayoutTx;
+import bisq.core.trade.protocol.tasks.buyer_as_maker.BuyerAsMakerCreatesAndSignsDepositTx;
+import bisq.core.trade.protocol.tasks.buyer_as_maker.BuyerAsMakerSendsInputsForDepositTxResponse;
+import bisq.core.trade.protocol.tasks.buyer_as_taker.BuyerAsTakerCreatesDepositTxInputs;
+import bisq.core.trade.protocol.tasks.buyer_as_taker.BuyerAsTakerSendsDepositTxMessage;
+import bisq.core.trade.protocol.tasks.buyer_as_taker.BuyerAsTakerSignsDepositTx;
+import bisq.core.trade.protocol.tasks.maker.MakerCreateAndPublishDepositTx;
+import bisq.core.trade.protocol.tasks.maker.MakerCreateAndSignContract;
+import bisq.core.trade.protocol.tasks.maker.MakerProcessesInputsForDepositTxRequest;
+import bisq.core.trade.protocol.tasks.maker.MakerRemovesOpenOffer;
+import bisq.core.trade.protocol.tasks.maker.MakerSendsInitTradeRequest;
+import bisq.core.trade.protocol.tasks.maker.MakerSendsReadyToFundMultisigResponse;
+import bisq.core.trade.protocol.tasks.maker.MakerSetsLockTime;
+import bisq.core.trade.protocol.tasks.maker.MakerSetupDepositTxsListener;
+import bisq.core.trade.protocol.tasks.maker.MakerVerifyTakerDepositTx;
+import bisq.core.trade.protocol.tasks.maker.MakerVerifyTakerFeePayment;
+import bisq.core.trade.protocol.tasks.mediation.BroadcastMediatedPayoutTx;
+import bisq.core.trade.protocol.tasks.mediation.FinalizeMediatedPayoutTx;
+import bisq.core.trade.protocol.tasks.mediation.ProcessMediatedPayoutSignatureMessage;
+import bisq.core.trade.protocol.tasks.mediation.ProcessMediatedPayoutTxPublishedMessage;
+import bisq.core.trade.protocol.tasks.mediation.SendMediatedPayoutSignatureMessage;
+import bisq.core.trade.protocol.tasks.mediation.SendMediatedPayoutTxPublishedMessage;
+import bisq.core.trade.protocol.tasks.mediation.SetupMediatedPayoutTxListener;
+import bisq.core.trade.protocol.tasks.mediation.SignMediatedPayoutTx;
+import bisq.core.trade.protocol.tasks.seller.SellerBroadcastPayoutTx;
+import bisq.core.trade.protocol.tasks.seller.SellerCreatesDelayedPayoutTx;
+import bisq.core.trade.protocol.tasks.seller.SellerFinalizesDelayedPayoutTx;
+import bisq.core.trade.protocol.tasks.seller.SellerProcessCounterCurrencyTransferStartedMessage;
+import bisq.core.trade.protocol.tasks.seller.SellerProcessDelayedPayoutTxSignatureResponse;
+import bisq.core.trade.protocol.tasks.seller.SellerPublishesDepositTx;
+import bisq.core.trade.protocol.tasks.seller.SellerPublishesTradeStatistics;
+import bisq.core.trade.protocol.tasks.seller.SellerSendDelayedPayoutTxSignatureRequest;
+import bisq.core.trade.protocol.tasks.seller.SellerSendPayoutTxPublishedMessage;
+import bisq.core.trade.protocol.tasks.seller.SellerSignAndPublishPayoutTx;
+import bisq.core.trade.protocol.tasks.seller.SellerSignsDelayedPayoutTx;
+import bisq.core.trade.protocol.tasks.seller_as_maker.SellerAsMakerCreatesUnsignedDepositTx;
+import bisq.core.trade.protocol.tasks.seller_as_maker.SellerAsMakerFinalizesDepositTx;
+import bisq.core.trade.protocol.tasks.seller_as_maker.SellerAsMakerProcessDepositTxMessage;
+import bisq.core.trade.protocol.tasks.seller_as_maker.SellerAsMakerSendsInputsForDepositTxResponse;
+import bisq.core.trade.protocol.tasks.seller_as_taker.SellerAsTakerCreatesDepositTxInputs;
+import bisq.core.trade.protocol.tasks.seller_as_taker.SellerAsTakerSignsDepositTx;
+import bisq.core.trade.protocol.tasks.taker.FundMultisig;
+import bisq.core.trade.protocol.tasks.taker.TakerCreateFeeTx;
+import bisq.core.trade.protocol.tasks.taker.TakerProcessesInputsForDepositTxResponse;
+import bisq.core.trade.protocol.tasks.taker.TakerProcessesMakerDepositTxMessage;
+import bisq.core.trade.protocol.tasks.taker.TakerPublishFeeTx;
+import bisq.core.trade.protocol.tasks.taker.TakerSendInitMultisigMessages;
+import bisq.core.trade.protocol.tasks.taker.TakerSendInitTradeRequests;
+import bisq.core.trade.protocol.tasks.taker.TakerSendInputsForDepositTxRequest;
+import bisq.core.trade.protocol.tasks.taker.TakerSendReadyToFundMultisigRequest;
+import bisq.core.trade.protocol.tasks.taker.TakerSetupDepositTxsListener;
+import bisq.core.trade.protocol.tasks.taker.TakerVerifyAndSignContract;
+import bisq.core.trade.protocol.tasks.taker.TakerVerifyMakerFeePayment;
+
+import bisq.common.taskrunner.Task;
+import bisq.common.taskrunner.TaskFactory;
+import bisq.common.taskrunner.TaskRunner;
+
+/**
+ * Registers the factories of all trade tasks, so the TradeTaskRunner creates the tasks
+ * without looking up their constructors by reflection. New trade tasks need to be added here,
+ * otherwise they get created by reflection and a warning is logged.
+ */
+final class TradeTaskFactories {
+
+    private TradeTaskFactories() {
+    }
+
+    static void registerAll() {
+        register(ApplyFilter.class, ApplyFilter::new);
+        register(ProcessInitMultisigMessage.class, ProcessInitMultisigMessage::new);
+        register(ProcessInitTradeRequest.class, ProcessInitTradeRequest::new);
+        register(ProcessPeerPublishedDelayedPayoutTxMessage.class, ProcessPeerPublishedDelayedPayoutTxMessage::new);
+        register(ProcessUpdateMultisigRequest.class, ProcessUpdateMultisigRequest::new);
+        register(PublishTradeStatistics.class, PublishTradeStatistics::new);
+        register(UpdateMultisigWithTradingPeer.class, UpdateMultisigWithTradingPeer::new);
+        register(VerifyPeersAccountAgeWitness.class, VerifyPeersAccountAgeWitness::new);
+
+        register(PublishedDelayedPayoutTx.class, PublishedDelayedPayoutTx::new);
+        register(SendPeerPublishedDelayedPayoutTxMessage.class, SendPeerPublishedDelayedPayoutTxMessage::new);
+
+        register(BuyerCreateAndSignPayoutTx.class, BuyerCreateAndSignPayoutTx::new);
+        register(BuyerFinalizesDelayedPayoutTx.class, BuyerFinalizesDelayedPayoutTx::new);
+        register(BuyerProcessDelayedPayoutTxSignatureRequest.class, BuyerProcessDelayedPayoutTxSignatureRequest::new);
+        register(BuyerProcessDepositTxAndDelayedPayoutTxMessage.class, BuyerProcessDepositTxAndDelayedPayoutTxMessage::new);
+        register(BuyerProcessPayoutTxPublishedMessage.class, BuyerProcessPayoutTxPublishedMessage::new);
+        register(BuyerSendCounterCurrencyTransferStartedMessage.class, BuyerSendCounterCurrencyTransferStartedMessage::new);
+        register(BuyerSendsDelayedPayoutTxSignatureResponse.class, BuyerSendsDelayedPayoutTxSignatureResponse::new);
+        register(BuyerSetupDepositTxListener.class, BuyerSetupDepositTxListener::new);
+        register(BuyerSetupPayoutTxListener.class, BuyerSetupPayoutTxListener::new);
+        register(BuyerSignsDelayedPayoutTx.class, BuyerSignsDelayedPayoutTx::new);
+        register(BuyerVerifiesFinalDelayedPayoutTx.class, BuyerVerifiesFinalDelayedPayoutTx::new);
+        register(BuyerVerifiesPreparedDelayedPayoutTx.class, BuyerVerifiesPreparedDelayedPayoutTx::new);
+
+        register(BuyerAsMakerCreatesAndSignsDepositTx.class, BuyerAsMakerCreatesAndSignsDepositTx::new);
+        register(BuyerAsMakerSendsInputsForDepositTxResponse.class, BuyerAsMakerSendsInputsForDepositTxResponse::new);
+
+        register(BuyerAsTakerCreatesDepositTxInputs.class, BuyerAsTakerCreatesDepositTxInputs::new);
+        register(BuyerAsTakerSendsDepositTxMessage.class, BuyerAsTakerSendsDepositTxMessage::new);
+        register(BuyerAsTakerSignsDepositTx.class, BuyerAsTakerSignsDepositTx::new);
+
+        register(MakerCreateAndPublishDepositTx.class, MakerCreateAndPublishDepositTx::new);
+        register(MakerCreateAndSignContract.class, MakerCreateAndSignContract::new);
+        register(MakerProcessesInputsForDepositTxRequest.class, MakerProcessesInputsForDepositTxRequest::new);
+        register(MakerRemovesOpenOffer.class, MakerRemovesOpenOffer::new);
+        register(MakerSendsInitTradeRequest.class, MakerSendsInitTradeRequest::new);
+        register(MakerSendsReadyToFundMultisigResponse.class, MakerSendsReadyToFundMultisigResponse::new);
+        register(MakerSetsLockTime.class, MakerSetsLockTime::new);
+        register(MakerSetupDepositTxsListener.class, MakerSetupDepositTxsListener::new);
+        register(MakerVerifyTakerDepositTx.class, MakerVerifyTakerDepositTx::new);
+        register(MakerVerifyTakerFeePayment.class, MakerVerifyTakerFeePayment::new);
+
+        register(BroadcastMediatedPayoutTx.class, BroadcastMediatedPayoutTx::new);
+        register(FinalizeMediatedPayoutTx.class, FinalizeMediatedPayoutTx::new);
+        register(ProcessMediatedPayoutSignatureMessage.class, ProcessMediatedPayoutSignatureMessage::new);
+        register(ProcessMediatedPayoutTxPublishedMessage.class, ProcessMediatedPayoutTxPublishedMessage::new);
+        register(SendMediatedPayoutSignatureMessage.class, SendMediatedPayoutSignatureMessage::new);
+        register(SendMediatedPayoutTxPublishedMessage.class, SendMediatedPayoutTxPublishedMessage::new);
+        register(SetupMediatedPayoutTxListener.class, SetupMediatedPayoutTxListener::new);
+        register(SignMediatedPayoutTx.class, SignMediatedPayoutTx::new);
+
+        register(SellerBroadcastPayoutTx.class, SellerBroadcastPayoutTx::new);
+        register(SellerCreatesDelayedPayoutTx.class, SellerCreatesDelayedPayoutTx::new);
+        register(SellerFinalizesDelayedPayoutTx.class, SellerFinalizesDelayedPayoutTx::new);
+        register(SellerProcessCounterCurrencyTransferStartedMessage.class, SellerProcessCounterCurrencyTransferStartedMessage::new);
+        register(SellerProcessDelayedPayoutTxSignatureResponse.class, SellerProcessDelayedPayoutTxSignatureResponse::new);
+        register(SellerPublishesDepositTx.class, SellerPublishesDepositTx::new);
+        register(SellerPublishesTradeStatistics.class, SellerPublishesTradeStatistics::new);
+        register(SellerSendDelayedPayoutTxSignatureRequest.class, SellerSendDelayedPayoutTxSignatureRequest::new);
+        register(SellerSendPayoutTxPublishedMessage.class, SellerSendPayoutTxPublishedMessage::new);
+        register(SellerSignAndPublishPayoutTx.class, SellerSignAndPublishPayoutTx::new);
+        register(SellerSignsDelayedPayoutTx.class, SellerSignsDelayedPayoutTx::new);
+
+        register(SellerAsMakerCreatesUnsignedDepositTx.class, SellerAsMakerCreatesUnsignedDepositTx::new);
+        register(SellerAsMakerFinalizesDepositTx.class, SellerAsMakerFinalizesDepositTx::new);
+        register(SellerAsMakerProcessDepositTxMessage.class, SellerAsMakerProcessDepositTxMessage::new);
+        register(SellerAsMakerSendsInputsForDepositTxResponse.class, SellerAsMakerSendsInputsForDepositTxResponse::new);
+
+        register(SellerAsTakerCreatesDepositTxInputs.class, SellerAsTakerCreatesDepositTxInputs::new);
+        register(SellerAsTakerSignsDepositTx.class, SellerAsTakerSignsDepositTx::new);
+
+        register(FundMultisig.class, FundMultisig::new);
+        register(TakerCreateFeeTx.class, TakerCreateFeeTx::new);
+        register(TakerProcessesInputsForDepositTxResponse.class, TakerProcessesInputsForDepositTxResponse::new);
+        register(TakerProcessesMakerDepositTxMessage.class, TakerProcessesMakerDepositTxMessage::new);
+        register(TakerPublishFeeTx.class, TakerPublishFeeTx::new);
+        register(TakerSendInitMultisigMessages.class, TakerSendInitMultisigMessages::new);
+        register(TakerSendInitTradeRequests.class, TakerSendInitTradeRequests::new);
+        register(TakerSendInputsForDepositTxRequest.class, TakerSendInputsForDepositTxRequest::new);
+        register(TakerSendReadyToFundMultisigRequest.class, TakerSendReadyToFundMultisigRequest::new);
+        register(TakerSetupDepositTxsListener.class, TakerSetupDepositTxsListener::new);
+        register(TakerVerifyAndSignContract.class, TakerVerifyAndSignContract::new);
+        register(TakerVerifyMakerFeePayment.class, TakerVerifyMakerFeePayment::new);
+    }
+
+    private static void register(Class<? extends Task<Trade>> taskClass, TaskFactory<Trade> factory) {
+        TaskRunner.registerFactory(taskClass, factory);
+    }
+}
@@ -22,11 +22,28 @@ import bisq.core.trade.Trade;
 import bisq.common.handlers.ErrorMessageHandler;
 import bisq.common.handlers.ResultHandler;
 import bisq.common.taskrunner.TaskRunner;
+import bisq.common.taskrunner.TaskTrace;
 
 public class TradeTaskRunner extends TaskRunner<Trade> {
+    static {
+        TradeTaskFactories.registerAll();
+    }
+
+    private final Trade trade;
 
     public TradeTaskRunner(Trade sharedModel, ResultHandler resultHandler, ErrorMessageHandler errorMessageHandler) {
         //noinspection unchecked
         super(sharedModel, (Class<Trade>) Trade.class, resultHandler, errorMessageHandler);
+        this.trade = sharedModel;
+    }
+
+    @Override
+    protected void onTaskTrace(TaskTrace taskTrace) {
+        trade.addTaskTrace(taskTrace);
+    }
+
+    @Override
+    protected String getModelId() {
+        return trade.getId();
     }
 }
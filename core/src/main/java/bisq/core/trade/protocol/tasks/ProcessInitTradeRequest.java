@@ -123,7 +123,7 @@ public class ProcessInitTradeRequest extends TradeTask {
             checkArgument(request.getTradeAmount() > 0);
             trade.setTradeAmount(Coin.valueOf(request.getTradeAmount()));
 
-            processModel.getTradeManager().requestPersistence();
+            processModel.getTradeManager().requestPersistence(trade);
 
             complete();
         } catch (Throwable t) {
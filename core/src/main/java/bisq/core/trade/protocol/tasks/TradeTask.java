@@ -39,7 +39,7 @@ public abstract class TradeTask extends Task<Trade> {
 
     @Override
     protected void complete() {
-        processModel.getTradeManager().requestPersistence();
+        processModel.getTradeManager().requestPersistence(trade);
 
         super.complete();
     }
@@ -47,7 +47,7 @@ public abstract class TradeTask extends Task<Trade> {
     @Override
     protected void failed() {
         trade.setErrorMessage(errorMessage);
-        processModel.getTradeManager().requestPersistence();
+        processModel.getTradeManager().requestPersistence(trade);
 
         super.failed();
     }
@@ -56,7 +56,7 @@ public abstract class TradeTask extends Task<Trade> {
     protected void failed(String message) {
         appendToErrorMessage(message);
         trade.setErrorMessage(errorMessage);
-        processModel.getTradeManager().requestPersistence();
+        processModel.getTradeManager().requestPersistence(trade);
 
         super.failed();
     }
@@ -66,7 +66,7 @@ public abstract class TradeTask extends Task<Trade> {
         t.printStackTrace();
         appendExceptionToErrorMessage(t);
         trade.setErrorMessage(errorMessage);
-        processModel.getTradeManager().requestPersistence();
+        processModel.getTradeManager().requestPersistence(trade);
 
         super.failed();
     }
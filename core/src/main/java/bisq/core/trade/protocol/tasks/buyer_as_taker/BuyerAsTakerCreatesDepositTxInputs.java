@@ -38,7 +38,7 @@ public class BuyerAsTakerCreatesDepositTxInputs extends TradeTask {
 
             throw new RuntimeException("Outputs not communicated in xmr integration");
 
-//            processModel.getTradeManager().requestPersistence();
+//            processModel.getTradeManager().requestPersistence(trade);
 
 //            Coin txFee = trade.getTxFee();
 //            Coin takerInputAmount = checkNotNull(trade.getOffer()).getBuyerSecurityDeposit()
@@ -154,7 +154,7 @@ public class MakerCreateAndPublishDepositTx extends TradeTask {
             );
 
         // complete
-        processModel.getTradeManager().requestPersistence();
+        processModel.getTradeManager().requestPersistence(trade);
         } catch (Throwable t) {
             failed(t);
         }
@@ -96,7 +96,7 @@ public class MakerCreateAndSignContract extends TradeTask {
             trade.setContractHash(contractHash);
 
 
-            processModel.getTradeManager().requestPersistence();
+            processModel.getTradeManager().requestPersistence(trade);
 
             complete();
         } catch (Throwable t) {
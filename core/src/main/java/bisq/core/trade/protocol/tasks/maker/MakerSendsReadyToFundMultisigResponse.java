@@ -128,7 +128,7 @@ public class MakerSendsReadyToFundMultisigResponse extends TradeTask {
               System.out.println("Contract as json:");
               System.out.println(contractAsJson);
 
-              processModel.getTradeManager().requestPersistence();
+              processModel.getTradeManager().requestPersistence(trade);
             }
 
             // create message to indicate if maker is ready to fund to-be-created multisig wallet
@@ -70,7 +70,7 @@ public class SellerSignsDelayedPayoutTx extends TradeTask {
 
             processModel.setDelayedPayoutTxSignature(delayedPayoutTxSignature);
 
-            processModel.getTradeManager().requestPersistence();
+            processModel.getTradeManager().requestPersistence(trade);
 
             complete();
         } catch (Throwable t) {
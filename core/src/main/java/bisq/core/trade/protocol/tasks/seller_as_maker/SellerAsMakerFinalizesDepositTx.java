@@ -49,7 +49,7 @@ public class SellerAsMakerFinalizesDepositTx extends TradeTask {
 
             processModel.setDepositTx(myDepositTx);
 
-            processModel.getTradeManager().requestPersistence();
+            processModel.getTradeManager().requestPersistence(trade);
 
             complete();
         } catch (Throwable t) {
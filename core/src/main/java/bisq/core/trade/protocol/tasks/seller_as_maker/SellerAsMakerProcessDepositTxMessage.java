@@ -48,7 +48,7 @@ public class SellerAsMakerProcessDepositTxMessage extends TradeTask {
 //            // but that cannot be changed due backward compatibility issues. It is a left over from the old trade protocol.
 //            trade.setTakerFeeTxId(processModel.getTakeOfferFeeTxId());
 //
-//            processModel.getTradeManager().requestPersistence();
+//            processModel.getTradeManager().requestPersistence(trade);
 //
 //            complete();
 //        } catch (Throwable t) {
@@ -52,7 +52,7 @@ public class SellerAsTakerCreatesDepositTxInputs extends TradeTask {
 //            processModel.setChangeOutputValue(result.changeOutputValue);
 //            processModel.setChangeOutputAddress(result.changeOutputAddress);
 //
-//            processModel.getTradeManager().requestPersistence();
+//            processModel.getTradeManager().requestPersistence(trade);
 //
 //            complete();
         } catch (Throwable t) {
@@ -130,7 +130,7 @@ public class TakerVerifyAndSignContract extends TradeTask {
 
             trade.setTakerContractSignature(signature);
 
-            processModel.getTradeManager().requestPersistence();
+            processModel.getTradeManager().requestPersistence(trade);
             try {
                 checkNotNull(maker.getPubKeyRing(), "maker.getPubKeyRing() must nto be null");
                 Sig.verify(maker.getPubKeyRing().getSignaturePubKey(),
@@ -28,7 +28,7 @@ import bisq.network.p2p.storage.persistence.AppendOnlyDataStoreService;
 import bisq.common.UserThread;
 import bisq.common.config.Config;
 import bisq.common.file.FileUtil;
-import bisq.common.util.Utilities;
+import bisq.common.util.ExecutorRegistry;
 
 import com.google.inject.Inject;
 
@@ -44,15 +44,13 @@ import java.util.Comparator;
 import java.util.HashMap;
 import java.util.List;
 import java.util.Map;
-import java.util.concurrent.ExecutorService;
 
 import lombok.extern.slf4j.Slf4j;
 
 @Singleton
 @Slf4j
 public class TradeStatisticsConverter {
-
-    private ExecutorService executor;
+    private static final String EXECUTOR_NAME = "TradeStatisticsConverter";
 
     @Inject
     public TradeStatisticsConverter(P2PService p2PService,
@@ -71,8 +69,7 @@ public class TradeStatisticsConverter {
                 if (!tradeStatistics2Store.exists()) {
                     return;
                 }
-                executor = Utilities.getSingleThreadExecutor("TradeStatisticsConverter");
-                executor.submit(() -> {
+                ExecutorRegistry.getSingleThreadListeningExecutor(EXECUTOR_NAME).submit(() -> {
                     // We convert early once tor is initialized but still not ready to receive data
                     Map<P2PDataStorage.ByteArray, PersistableNetworkPayload> tempMap = new HashMap<>();
                     convertToTradeStatistics3(tradeStatistics2StorageService.getMapOfAllData().values())
@@ -111,8 +108,7 @@ public class TradeStatisticsConverter {
     }
 
     public void shutDown() {
-        if (executor != null)
-            executor.shutdown();
+        ExecutorRegistry.shutDown(EXECUTOR_NAME);
     }
 
     private static List<TradeStatistics3> convertToTradeStatistics3(Collection<PersistableNetworkPayload> persistableNetworkPayloads) {
@@ -0,0 +1,180 @@
+/*
+ * This file is part of Bisq.
+ *
+ * Bisq is free software: you can redistribute it and/or modify it
+ * under the terms of the GNU Affero General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or (at
+ * your option) any later version.
+ *
+ * Bisq is distributed in the hope that it will be useful, but WITHOUT
+ * ANY WARRANTY; without even the implied warranty of MERCHANTABILITY or
+ * FITNESS FOR A PARTICULAR PURPOSE. See the GNU Affero General Public
+ * License for more details.
+ *
+ * You should have received a copy of the GNU Affero General Public License
+ * along with Bisq. If not, see <http://www.gnu.org/licenses/>.
+ */
+
+package bisq.core.trade.statistics;
+
+import bisq.common.util.Utilities;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.List;
+import java.util.Map;
+import java.util.NavigableMap;
+import java.util.Optional;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentSkipListMap;
+
+import lombok.Value;
+
+import javax.annotation.Nullable;
+
+import static com.google.common.base.Preconditions.checkArgument;
+
+/**
+ * Date sorted index of the trade statistics, overall and per currency, for paginated
+ * and time ranged queries.
+ * <p>
+ * Entries are sorted by date and hash, so the position of an entry is stable and a page
+ * boundary can be expressed as a cursor of the last returned entry's date and hash.
+ * Updates are expected from the UserThread while queries can run concurrently on other
+ * threads (e.g., the gRPC api executor).
+ */
+public class TradeStatisticsIndex {
+    public static final int MAX_PAGE_SIZE = 1000;
+
+    @Value
+    public static class Page {
+        List<TradeStatistics3> tradeStatistics;
+        // Cursor to be passed to the next query, or null if there are no more entries.
+        @Nullable
+        String nextCursor;
+    }
+
+    private static class Key implements Comparable<Key> {
+        private final long date;
+        private final byte[] hash;
+
+        Key(long date, byte[] hash) {
+            this.date = date;
+            this.hash = hash;
+        }
+
+        static Key of(TradeStatistics3 tradeStatistics) {
+            return new Key(tradeStatistics.getDateAsLong(), tradeStatistics.getHash());
+        }
+
+        static Key fromCursor(String cursor) {
+            String[] tokens = cursor.split(":");
+            checkArgument(tokens.length == 2, "invalid cursor '%s'", cursor);
+            try {
+                return new Key(Long.parseLong(tokens[0]), Utilities.decodeFromHex(tokens[1]));
+            } catch (RuntimeException e) {
+                throw new IllegalArgumentException("invalid cursor '" + cursor + "'");
+            }
+        }
+
+        String toCursor() {
+            return date + ":" + Utilities.encodeToHex(hash);
+        }
+
+        @Override
+        public int compareTo(Key other) {
+            int result = Long.compare(date, other.date);
+            return result != 0 ? result : Arrays.compareUnsigned(hash, other.hash);
+        }
+    }
+
+    // Sorts before any other hash of the same date, used for the time bounds.
+    private static final byte[] MIN_HASH = new byte[0];
+
+    private final NavigableMap<Key, TradeStatistics3> all = new ConcurrentSkipListMap<>();
+    private final Map<String, NavigableMap<Key, TradeStatistics3>> byCurrency = new ConcurrentHashMap<>();
+
+    public void addAll(Collection<TradeStatistics3> tradeStatistics) {
+        tradeStatistics.forEach(this::add);
+    }
+
+    public void add(TradeStatistics3 tradeStatistics) {
+        Key key = Key.of(tradeStatistics);
+        all.put(key, tradeStatistics);
+        byCurrency.computeIfAbsent(tradeStatistics.getCurrency().toUpperCase(), c -> new ConcurrentSkipListMap<>())
+                .put(key, tradeStatistics);
+    }
+
+    public void remove(TradeStatistics3 tradeStatistics) {
+        Key key = Key.of(tradeStatistics);
+        all.remove(key);
+        Optional.ofNullable(byCurrency.get(tradeStatistics.getCurrency().toUpperCase()))
+                .ifPresent(map -> map.remove(key));
+    }
+
+    public int size() {
+        return all.size();
+    }
+
+    /**
+     * @param currencyCode      Currency code, or null or empty for all currencies.
+     * @param paymentMethodId   Payment method id, or null or empty for all payment methods.
+     * @param fromDate          Inclusive lower bound of the trade date in ms, 0 for no lower bound.
+     * @param toDate            Exclusive upper bound of the trade date in ms, 0 for no upper bound.
+     * @param limit             Max. number of entries in the page, capped at {@value MAX_PAGE_SIZE}.
+     * @param cursor            Cursor of the previous page, or null or empty for the first page.
+     * @return Page of trade statistics sorted by ascending date.
+     */
+    public Page query(@Nullable String currencyCode,
+                      @Nullable String paymentMethodId,
+                      long fromDate,
+                      long toDate,
+                      int limit,
+                      @Nullable String cursor) {
+        checkArgument(limit > 0, "limit must be positive");
+        checkArgument(toDate == 0 || toDate > fromDate, "toDate must be after fromDate");
+        int pageSize = Math.min(limit, MAX_PAGE_SIZE);
+
+        NavigableMap<Key, TradeStatistics3> map = currencyCode == null || currencyCode.isEmpty() ?
+                all :
+                byCurrency.getOrDefault(currencyCode.toUpperCase(), Collections.emptyNavigableMap());
+
+        Key lowKey = fromDate > 0 ? new Key(fromDate, MIN_HASH) : null;
+        boolean lowInclusive = true;
+        if (cursor != null && !cursor.isEmpty()) {
+            Key cursorKey = Key.fromCursor(cursor);
+            if (lowKey == null || cursorKey.compareTo(lowKey) >= 0) {
+                lowKey = cursorKey;
+                lowInclusive = false;
+            }
+        }
+        Key highKey = toDate > 0 ? new Key(toDate, MIN_HASH) : null;
+        if (lowKey != null && highKey != null) {
+            if (lowKey.compareTo(highKey) >= 0)
+                return new Page(new ArrayList<>(), null);
+            map = map.subMap(lowKey, lowInclusive, highKey, false);
+        } else if (lowKey != null) {
+            map = map.tailMap(lowKey, lowInclusive);
+        } else if (highKey != null) {
+            map = map.headMap(highKey, false);
+        }
+
+        boolean filterByPaymentMethod = paymentMethodId != null && !paymentMethodId.isEmpty();
+        List<TradeStatistics3> result = new ArrayList<>();
+        Key lastKey = null;
+        boolean hasMore = false;
+        for (Map.Entry<Key, TradeStatistics3> entry : map.entrySet()) {
+            if (filterByPaymentMethod && !entry.getValue().getPaymentMethod().equalsIgnoreCase(paymentMethodId))
+                continue;
+            if (result.size() == pageSize) {
+                hasMore = true;
+                break;
+            }
+            result.add(entry.getValue());
+            lastKey = entry.getKey();
+        }
+        return new Page(result, hasMore ? lastKey.toCursor() : null);
+    }
+}
@@ -39,6 +39,7 @@ import javax.inject.Singleton;
 
 import javafx.collections.FXCollections;
 import javafx.collections.ObservableSet;
+import javafx.collections.SetChangeListener;
 
 import java.time.Instant;
 
@@ -64,6 +65,8 @@ public class TradeStatisticsManager {
     private final File storageDir;
     private final boolean dumpStatistics;
     private final ObservableSet<TradeStatistics3> observableTradeStatisticsSet = FXCollections.observableSet();
+    // Kept in sync with observableTradeStatisticsSet, can be queried from non-user threads.
+    private final TradeStatisticsIndex tradeStatisticsIndex = new TradeStatisticsIndex();
     private JsonFileManager jsonFileManager;
 
     @Inject
@@ -83,6 +86,13 @@ public class TradeStatisticsManager {
 
 
         appendOnlyDataStoreService.addService(tradeStatistics3StorageService);
+
+        observableTradeStatisticsSet.addListener((SetChangeListener<TradeStatistics3>) change -> {
+            if (change.wasAdded())
+                tradeStatisticsIndex.add(change.getElementAdded());
+            if (change.wasRemoved())
+                tradeStatisticsIndex.remove(change.getElementRemoved());
+        });
     }
 
     public void shutDown() {
@@ -119,6 +129,16 @@ public class TradeStatisticsManager {
         return observableTradeStatisticsSet;
     }
 
+    // Thread safe, see TradeStatisticsIndex.query for the parameters.
+    public TradeStatisticsIndex.Page queryTradeStatistics(@Nullable String currencyCode,
+                                                          @Nullable String paymentMethodId,
+                                                          long fromDate,
+                                                          long toDate,
+                                                          int limit,
+                                                          @Nullable String cursor) {
+        return tradeStatisticsIndex.query(currencyCode, paymentMethodId, fromDate, toDate, limit, cursor);
+    }
+
     private void maybeDumpStatistics() {
         if (!dumpStatistics) {
             return;
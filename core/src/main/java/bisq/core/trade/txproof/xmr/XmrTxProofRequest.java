@@ -26,7 +26,6 @@ import bisq.network.Socks5ProxyProvider;
 import bisq.common.UserThread;
 import bisq.common.app.Version;
 import bisq.common.handlers.FaultHandler;
-import bisq.common.util.Utilities;
 
 import com.google.gson.GsonBuilder;
 import com.google.gson.JsonParser;
@@ -34,7 +33,6 @@ import com.google.gson.JsonParser;
 import com.google.common.util.concurrent.FutureCallback;
 import com.google.common.util.concurrent.Futures;
 import com.google.common.util.concurrent.ListenableFuture;
-import com.google.common.util.concurrent.ListeningExecutorService;
 import com.google.common.util.concurrent.MoreExecutors;
 
 import java.util.concurrent.TimeUnit;
@@ -140,9 +138,7 @@ class XmrTxProofRequest implements AssetTxProofRequest<XmrTxProofRequest.Result>
     // Class fields
     ///////////////////////////////////////////////////////////////////////////////////////////
 
-    private final ListeningExecutorService executorService = Utilities.getListeningExecutorService(
-            "XmrTransferProofRequester", 3, 5, 10 * 60);
-
+    private final XmrTxProofRequestScheduler scheduler;
     private final AssetTxProofParser<XmrTxProofRequest.Result, XmrTxProofModel> parser;
     private final XmrTxProofModel model;
     private final AssetTxProofHttpClient httpClient;
@@ -159,7 +155,9 @@ class XmrTxProofRequest implements AssetTxProofRequest<XmrTxProofRequest.Result>
     ///////////////////////////////////////////////////////////////////////////////////////////
 
     XmrTxProofRequest(Socks5ProxyProvider socks5ProxyProvider,
+                      XmrTxProofRequestScheduler scheduler,
                       XmrTxProofModel model) {
+        this.scheduler = scheduler;
         this.parser = new XmrTxProofParser();
         this.model = model;
 
@@ -204,14 +202,16 @@ class XmrTxProofRequest implements AssetTxProofRequest<XmrTxProofRequest.Result>
 
         // Timeout handing is delegated to the connection timeout handling in httpClient.
 
-        ListenableFuture<Result> future = executorService.submit(() -> {
-            Thread.currentThread().setName("XmrTransferProofRequest-" + this.getShortId());
-            String param = "/api/outputs?txhash=" + model.getTxHash() +
-                    "&address=" + model.getRecipientAddress() +
-                    "&viewkey=" + model.getTxKey() +
-                    "&txprove=1";
-            log.info("Param {} for {}", param, this);
-            String json = httpClient.get(param, "User-Agent", "bisq/" + Version.VERSION);
+        String param = "/api/outputs?txhash=" + model.getTxHash() +
+                "&address=" + model.getRecipientAddress() +
+                "&viewkey=" + model.getTxKey() +
+                "&txprove=1";
+        log.info("Param {} for {}", param, this);
+        // Requests for the same tx at the same service share the http request and its response. The parsing
+        // depends on our model, so we do it for each request.
+        ListenableFuture<String> jsonFuture = scheduler.request(model.getServiceAddress() + param,
+                () -> httpClient.get(param, "User-Agent", "bisq/" + Version.VERSION));
+        ListenableFuture<Result> future = Futures.transform(jsonFuture, json -> {
             try {
                 String prettyJson = new GsonBuilder().setPrettyPrinting().create().toJson(new JsonParser().parse(json));
                 log.info("Response json from {}\n{}", this, prettyJson);
@@ -222,7 +222,7 @@ class XmrTxProofRequest implements AssetTxProofRequest<XmrTxProofRequest.Result>
             Result result = parser.parse(model, json);
             log.info("Result from {}\n{}", this, result);
             return result;
-        });
+        }, MoreExecutors.directExecutor());
 
         Futures.addCallback(future, new FutureCallback<>() {
             public void onSuccess(Result result) {
@@ -286,10 +286,6 @@ class XmrTxProofRequest implements AssetTxProofRequest<XmrTxProofRequest.Result>
     // Private
     ///////////////////////////////////////////////////////////////////////////////////////////
 
-    private String getShortId() {
-        return Utilities.getShortId(model.getTradeId()) + " @ " + model.getServiceAddress().substring(0, 6);
-    }
-
     private boolean isTimeOutReached() {
         return System.currentTimeMillis() - firstRequest > MAX_REQUEST_PERIOD;
     }
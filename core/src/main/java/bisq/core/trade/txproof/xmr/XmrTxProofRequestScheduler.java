@@ -0,0 +1,133 @@
+/*
+ * This file is part of Bisq.
+ *
+ * Bisq is free software: you can redistribute it and/or modify it
+ * under the terms of the GNU Affero General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or (at
+ * your option) any later version.
+ *
+ * Bisq is distributed in the hope that it will be useful, but WITHOUT
+ * ANY WARRANTY; without even the implied warranty of MERCHANTABILITY or
+ * FITNESS FOR A PARTICULAR PURPOSE. See the GNU Affero General Public
+ * License for more details.
+ *
+ * You should have received a copy of the GNU Affero General Public License
+ * along with Bisq. If not, see <http://www.gnu.org/licenses/>.
+ */
+
+package bisq.core.trade.txproof.xmr;
+
+import bisq.common.util.ExecutorRegistry;
+
+import com.google.common.annotations.VisibleForTesting;
+import com.google.common.util.concurrent.FutureCallback;
+import com.google.common.util.concurrent.Futures;
+import com.google.common.util.concurrent.ListenableFuture;
+import com.google.common.util.concurrent.ListeningExecutorService;
+import com.google.common.util.concurrent.MoreExecutors;
+import com.google.common.util.concurrent.SettableFuture;
+
+import java.util.Map;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.TimeUnit;
+
+import lombok.Value;
+import lombok.extern.slf4j.Slf4j;
+
+import org.jetbrains.annotations.NotNull;
+
+/**
+ * Runs the http requests of all XMR tx proof requests on one shared thread pool.
+ * <p>
+ * Requests with the same key (service address and query) which are in flight at the same time are sent only once
+ * and all callers get the same response. Responses are cached for CACHE_TTL, which is shorter than the repeat
+ * period of a XmrTxProofRequest, so a request repeated after a PENDING result always queries the service again.
+ * Failures are not cached.
+ */
+@Slf4j
+class XmrTxProofRequestScheduler {
+    private static final String EXECUTOR_NAME = "XmrTxProofRequestScheduler";
+    private static final int NUM_THREADS = 4;
+    private static final long CACHE_TTL = TimeUnit.SECONDS.toMillis(60);
+
+    @Value
+    private static class CachedResponse {
+        String json;
+        long timestamp;
+    }
+
+    private final Map<String, ListenableFuture<String>> pendingRequests = new ConcurrentHashMap<>();
+    private final Map<String, CachedResponse> cachedResponses = new ConcurrentHashMap<>();
+    private final long cacheTtl;
+
+
+    ///////////////////////////////////////////////////////////////////////////////////////////
+    // Constructor
+    ///////////////////////////////////////////////////////////////////////////////////////////
+
+    XmrTxProofRequestScheduler() {
+        this(CACHE_TTL);
+    }
+
+    @VisibleForTesting
+    XmrTxProofRequestScheduler(long cacheTtl) {
+        this.cacheTtl = cacheTtl;
+    }
+
+
+    ///////////////////////////////////////////////////////////////////////////////////////////
+    // API
+    ///////////////////////////////////////////////////////////////////////////////////////////
+
+    // The httpRequest is only called if there is no cached response and no pending request for that key.
+    ListenableFuture<String> request(String key, Callable<String> httpRequest) {
+        long now = System.currentTimeMillis();
+        cachedResponses.values().removeIf(cachedResponse -> now - cachedResponse.getTimestamp() > cacheTtl);
+        CachedResponse cachedResponse = cachedResponses.get(key);
+        if (cachedResponse != null) {
+            log.info("We use the cached response for {}", key);
+            return Futures.immediateFuture(cachedResponse.getJson());
+        }
+
+        SettableFuture<String> resultFuture = SettableFuture.create();
+        ListenableFuture<String> pendingRequest = pendingRequests.putIfAbsent(key, resultFuture);
+        if (pendingRequest != null) {
+            log.info("We have a pending request for {}. We wait for its response.", key);
+            return pendingRequest;
+        }
+
+        Futures.addCallback(getExecutorService().submit(httpRequest), new FutureCallback<>() {
+            public void onSuccess(String json) {
+                // We add it to the cache before we remove the pending request, so there is no gap in between.
+                cachedResponses.put(key, new CachedResponse(json, System.currentTimeMillis()));
+                pendingRequests.remove(key);
+                resultFuture.set(json);
+            }
+
+            public void onFailure(@NotNull Throwable throwable) {
+                pendingRequests.remove(key);
+                resultFuture.setException(throwable);
+            }
+        }, MoreExecutors.directExecutor());
+        return resultFuture;
+    }
+
+    @VisibleForTesting
+    int getNumPendingRequests() {
+        return pendingRequests.size();
+    }
+
+
+    ///////////////////////////////////////////////////////////////////////////////////////////
+    // Private
+    ///////////////////////////////////////////////////////////////////////////////////////////
+
+    // The queue is not bounded as the deduplication bounds it to the number of distinct queries, which is
+    // number of open trades times number of services.
+    private ListeningExecutorService getExecutorService() {
+        return ExecutorRegistry.getListeningExecutorService(EXECUTOR_NAME,
+                NUM_THREADS,
+                ExecutorRegistry.UNBOUNDED_QUEUE_CAPACITY);
+    }
+}
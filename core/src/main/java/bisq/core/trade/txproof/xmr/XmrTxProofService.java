@@ -78,6 +78,8 @@ public class XmrTxProofService implements AssetTxProofService {
     private final P2PService p2PService;
     private final WalletsSetup walletsSetup;
     private final Socks5ProxyProvider socks5ProxyProvider;
+    // Shared by the requests of all trades
+    private final XmrTxProofRequestScheduler scheduler = new XmrTxProofRequestScheduler();
     private final Map<String, XmrTxProofRequestsPerTrade> servicesByTradeId = new HashMap<>();
     private AutoConfirmSettings autoConfirmSettings;
     private final Map<String, ChangeListener<Trade.State>> tradeStateListenerMap = new HashMap<>();
@@ -228,21 +230,21 @@ public class XmrTxProofService implements AssetTxProofService {
         String txHash = trade.getCounterCurrencyExtraData();
         if (is32BitHexStringInValid(txId) || is32BitHexStringInValid(txHash)) {
             trade.setAssetTxProofResult(AssetTxProofResult.INVALID_DATA.details(Res.get("portfolio.pending.autoConf.state.txKeyOrTxIdInvalid")));
-            tradeManager.requestPersistence();
+            tradeManager.requestPersistence(trade);
             return;
         }
 
         if (isAutoConfDisabledByFilter()) {
             trade.setAssetTxProofResult(AssetTxProofResult.FEATURE_DISABLED
                     .details(Res.get("portfolio.pending.autoConf.state.filterDisabledFeature")));
-            tradeManager.requestPersistence();
+            tradeManager.requestPersistence(trade);
             return;
         }
 
         if (wasTxKeyReUsed(trade, tradeManager.getObservableList())) {
             trade.setAssetTxProofResult(AssetTxProofResult.INVALID_DATA
                     .details(Res.get("portfolio.pending.autoConf.state.xmr.txKeyReused")));
-            tradeManager.requestPersistence();
+            tradeManager.requestPersistence(trade);
             return;
         }
 
@@ -251,6 +253,7 @@ public class XmrTxProofService implements AssetTxProofService {
 
     private void startRequests(SellerTrade trade) {
         XmrTxProofRequestsPerTrade service = new XmrTxProofRequestsPerTrade(socks5ProxyProvider,
+                scheduler,
                 trade,
                 autoConfirmSettings,
                 mediationManager,
@@ -275,7 +278,7 @@ public class XmrTxProofService implements AssetTxProofService {
                         servicesByTradeId.remove(trade.getId());
                     }
 
-                    tradeManager.requestPersistence();
+                    tradeManager.requestPersistence(trade);
                 },
                 (errorMessage, throwable) -> {
                     log.error(errorMessage);
@@ -52,23 +52,37 @@ import java.time.temporal.ChronoUnit;
 import java.util.ArrayList;
 import java.util.Arrays;
 import java.util.Collection;
+import java.util.Comparator;
 import java.util.Date;
 import java.util.HashMap;
 import java.util.HashSet;
 import java.util.List;
 import java.util.Map;
 import java.util.Optional;
+import java.util.PriorityQueue;
 import java.util.Set;
 import java.util.Stack;
 import java.util.stream.Collectors;
 
+import lombok.Value;
 import lombok.extern.slf4j.Slf4j;
 
+import javax.annotation.Nullable;
+
 @Slf4j
 public class SignedWitnessService {
     public static final long SIGNER_AGE_DAYS = 30;
     private static final long SIGNER_AGE = SIGNER_AGE_DAYS * ChronoUnit.DAYS.getDuration().toMillis();
     public static final Coin MINIMUM_TRADE_AMOUNT_FOR_SIGNING = Coin.parseCoin("0.0025");
+    // Prevent DoS attack: an attacker floods the SignedWitness db with a long chain that takes lots of time to verify.
+    private static final int MAX_SIGNER_CHAIN_LENGTH = 1000;
+
+    // The earliest time an owner pubkey became a signer and the SignedWitness it became a signer with.
+    @Value
+    private static class SignerState {
+        long since;
+        SignedWitness signedWitness;
+    }
 
     private final KeyRing keyRing;
     private final P2PService p2PService;
@@ -94,6 +108,20 @@ public class SignedWitnessService {
     private final Map<P2PDataStorage.ByteArray, Boolean> verifySignatureWithDSAKeyResultCache = new HashMap<>();
     private final Map<P2PDataStorage.ByteArray, Boolean> verifySignatureWithECKeyResultCache = new HashMap<>();
 
+    // Used to update the signer states of the owners signed by a new signer.
+    private final Map<P2PDataStorage.ByteArray, Set<SignedWitness>> signedWitnessSetBySignerPubKey = new HashMap<>();
+
+    // Checking whether a SignedWitness is a valid signer walks the signer chain and is called for every offer,
+    // so we keep the signer state of all owner pubkeys. It is created at the first lookup and updated as new
+    // SignedWitnesses arrive. As removing SignedWitnesses or banning pubkeys can revoke signer states, it is
+    // created again after such changes.
+    @Nullable
+    private Map<P2PDataStorage.ByteArray, SignerState> signerStateByOwnerPubKey;
+
+    // The time from which on a SignedWitness is a valid signer witness by its hash, or Long.MAX_VALUE if it
+    // is not. Negative results are dropped when new SignedWitnesses arrive.
+    private final Map<P2PDataStorage.ByteArray, Long> validSignerFromCache = new HashMap<>();
+
 
     ///////////////////////////////////////////////////////////////////////////////////////////
     // Constructor
@@ -128,6 +156,7 @@ public class SignedWitnessService {
             if (payload instanceof SignedWitness)
                 addToMap((SignedWitness) payload);
         });
+        filterManager.filterProperty().addListener((observable, oldValue, newValue) -> onFilterChanged());
 
         // At startup the P2PDataStorage initializes earlier, otherwise we get the listener called.
         signedWitnessStorageService.getMap().values().forEach(e -> {
@@ -399,7 +428,7 @@ public class SignedWitnessService {
 
     public Set<SignedWitness> getRootSignedWitnessSet(boolean includeSignedByArbitrator) {
         return getSignedWitnessMapValues().stream()
-                .filter(witness -> getSignedWitnessSetByOwnerPubKey(witness.getSignerPubKey(), new Stack<>()).isEmpty())
+                .filter(witness -> !signedWitnessSetByOwnerPubKey.containsKey(new P2PDataStorage.ByteArray(witness.getSignerPubKey())))
                 .filter(witness -> includeSignedByArbitrator ||
                         witness.getVerificationMethod() != SignedWitness.VerificationMethod.ARBITRATOR)
                 .collect(Collectors.toSet());
@@ -443,8 +472,9 @@ public class SignedWitnessService {
     }
 
     private boolean verifySigner(SignedWitness signedWitness) {
-        return getSignedWitnessSetByOwnerPubKey(signedWitness.getWitnessOwnerPubKey(), new Stack<>()).stream()
-                .anyMatch(w -> isValidSignerWitnessInternal(w, signedWitness.getDate(), new Stack<>()));
+        P2PDataStorage.ByteArray ownerPubKey = new P2PDataStorage.ByteArray(signedWitness.getWitnessOwnerPubKey());
+        return signedWitnessSetByOwnerPubKey.getOrDefault(ownerPubKey, new HashSet<>()).stream()
+                .anyMatch(w -> isValidSignerWitness(w, signedWitness.getDate()));
     }
 
     /**
@@ -456,15 +486,102 @@ public class SignedWitnessService {
      * @return true if accountAgeWitness is allowed to sign at time, false otherwise.
      */
     private boolean isSignerAccountAgeWitness(AccountAgeWitness accountAgeWitness, long time) {
-        Stack<P2PDataStorage.ByteArray> excludedPubKeys = new Stack<>();
-        Set<SignedWitness> signedWitnessSet = getSignedWitnessSet(accountAgeWitness);
-        for (SignedWitness signedWitness : signedWitnessSet) {
-            if (isValidSignerWitnessInternal(signedWitness, time, excludedPubKeys)) {
-                return true;
+        return getSignedWitnessSet(accountAgeWitness).stream()
+                .anyMatch(signedWitness -> isValidSignerWitness(signedWitness, time));
+    }
+
+    private boolean isValidSignerWitness(SignedWitness signedWitness, long time) {
+        return getValidSignerFrom(signedWitness) <= time;
+    }
+
+    private long getValidSignerFrom(SignedWitness signedWitness) {
+        Map<P2PDataStorage.ByteArray, SignerState> signerStates = getSignerStateByOwnerPubKey();
+        P2PDataStorage.ByteArray hash = signedWitness.getHashAsByteArray();
+        Long cached = validSignerFromCache.get(hash);
+        if (cached != null) {
+            return cached;
+        }
+
+        long validSignerFrom = Long.MAX_VALUE;
+        if (isValidWitness(signedWitness)) {
+            if (signedWitness.isSignedByArbitrator()) {
+                validSignerFrom = Long.MIN_VALUE;
+            } else {
+                SignerState signerState = signerStates.get(new P2PDataStorage.ByteArray(signedWitness.getSignerPubKey()));
+                if (signerState != null && signerState.getSince() <= signedWitness.getDate()) {
+                    long time = signedWitness.getDate() + SIGNER_AGE;
+                    // The earliest signer chain might be too long or lead over the owner of the signedWitness, which
+                    // is not allowed. Then we fall back to the search over all signer chains.
+                    if (isAllowedSignerChain(signerState, signedWitness) ||
+                            isValidSignerWitnessInternal(signedWitness, time, new Stack<>())) {
+                        validSignerFrom = time;
+                    }
+                }
             }
         }
-        // If we have not returned in the loops or they have been empty we have not found a valid signer.
-        return false;
+        validSignerFromCache.put(hash, validSignerFrom);
+        return validSignerFrom;
+    }
+
+    private boolean isAllowedSignerChain(SignerState signerState, SignedWitness signedWitness) {
+        Map<P2PDataStorage.ByteArray, SignerState> signerStates = getSignerStateByOwnerPubKey();
+        P2PDataStorage.ByteArray ownerPubKey = new P2PDataStorage.ByteArray(signedWitness.getWitnessOwnerPubKey());
+        int length = 1;
+        SignedWitness signerWitness = signerState.getSignedWitness();
+        // The since of the signer states strictly decreases along the chain, so we cannot loop here.
+        while (!signerWitness.isSignedByArbitrator()) {
+            P2PDataStorage.ByteArray signerPubKey = new P2PDataStorage.ByteArray(signerWitness.getSignerPubKey());
+            if (++length > MAX_SIGNER_CHAIN_LENGTH || signerPubKey.equals(ownerPubKey)) {
+                return false;
+            }
+            signerWitness = signerStates.get(signerPubKey).getSignedWitness();
+        }
+        return true;
+    }
+
+    private Map<P2PDataStorage.ByteArray, SignerState> getSignerStateByOwnerPubKey() {
+        if (signerStateByOwnerPubKey == null) {
+            signerStateByOwnerPubKey = new HashMap<>();
+            validSignerFromCache.clear();
+            PriorityQueue<SignerState> queue = new PriorityQueue<>(Comparator.comparingLong(SignerState::getSince));
+            signedWitnessMap.values().stream()
+                    .filter(SignedWitness::isSignedByArbitrator)
+                    .filter(this::isValidWitness)
+                    .forEach(signedWitness -> queue.add(new SignerState(Long.MIN_VALUE, signedWitness)));
+            updateSignerStates(queue);
+        }
+        return signerStateByOwnerPubKey;
+    }
+
+    // Processes the signer states in the order of their since, so each owner pubkey gets the earliest one.
+    // A new signer state lets the signer sign the SignedWitnesses signed after it, which then become signers
+    // SIGNER_AGE after they were signed.
+    private void updateSignerStates(PriorityQueue<SignerState> queue) {
+        while (!queue.isEmpty()) {
+            SignerState signerState = queue.poll();
+            P2PDataStorage.ByteArray ownerPubKey = new P2PDataStorage.ByteArray(signerState.getSignedWitness().getWitnessOwnerPubKey());
+            SignerState current = signerStateByOwnerPubKey.get(ownerPubKey);
+            if (current != null && current.getSince() <= signerState.getSince()) {
+                continue;
+            }
+            signerStateByOwnerPubKey.put(ownerPubKey, signerState);
+            signedWitnessSetBySignerPubKey.getOrDefault(ownerPubKey, new HashSet<>()).stream()
+                    .filter(signedWitness -> !signedWitness.isSignedByArbitrator())
+                    .filter(signedWitness -> signerState.getSince() <= signedWitness.getDate())
+                    .filter(this::isValidWitness)
+                    .forEach(signedWitness -> queue.add(new SignerState(signedWitness.getDate() + SIGNER_AGE, signedWitness)));
+        }
+    }
+
+    private boolean isValidWitness(SignedWitness signedWitness) {
+        return !filterManager.isWitnessSignerPubKeyBanned(Utils.HEX.encode(signedWitness.getWitnessOwnerPubKey())) &&
+                verifySignature(signedWitness);
+    }
+
+    @VisibleForTesting
+    public void onFilterChanged() {
+        signerStateByOwnerPubKey = null;
+        validSignerFromCache.clear();
     }
 
     /**
@@ -491,8 +608,7 @@ public class SignedWitnessService {
             if (!verifyDate(signedWitness, childSignedWitnessDateMillis)) {
                 return false;
             }
-            if (excludedPubKeys.size() >= 2000) {
-                // Prevent DoS attack: an attacker floods the SignedWitness db with a long chain that takes lots of time to verify.
+            if (excludedPubKeys.size() >= 2 * MAX_SIGNER_CHAIN_LENGTH) {
                 return false;
             }
             excludedPubKeys.push(new P2PDataStorage.ByteArray(signedWitness.getSignerPubKey()));
@@ -533,6 +649,34 @@ public class SignedWitnessService {
         P2PDataStorage.ByteArray ownerPubKey = new P2PDataStorage.ByteArray(signedWitness.getWitnessOwnerPubKey());
         signedWitnessSetByOwnerPubKey.putIfAbsent(ownerPubKey, new HashSet<>());
         signedWitnessSetByOwnerPubKey.get(ownerPubKey).add(signedWitness);
+
+        P2PDataStorage.ByteArray signerPubKey = new P2PDataStorage.ByteArray(signedWitness.getSignerPubKey());
+        signedWitnessSetBySignerPubKey.putIfAbsent(signerPubKey, new HashSet<>());
+        signedWitnessSetBySignerPubKey.get(signerPubKey).add(signedWitness);
+
+        if (signerStateByOwnerPubKey != null) {
+            // A new SignedWitness can only add signers or make them signers earlier.
+            validSignerFromCache.values().removeIf(validSignerFrom -> validSignerFrom == Long.MAX_VALUE);
+            getSignerState(signedWitness).ifPresent(signerState -> {
+                PriorityQueue<SignerState> queue = new PriorityQueue<>(Comparator.comparingLong(SignerState::getSince));
+                queue.add(signerState);
+                updateSignerStates(queue);
+            });
+        }
+    }
+
+    private Optional<SignerState> getSignerState(SignedWitness signedWitness) {
+        if (!isValidWitness(signedWitness)) {
+            return Optional.empty();
+        }
+        if (signedWitness.isSignedByArbitrator()) {
+            return Optional.of(new SignerState(Long.MIN_VALUE, signedWitness));
+        }
+        SignerState signerState = signerStateByOwnerPubKey.get(new P2PDataStorage.ByteArray(signedWitness.getSignerPubKey()));
+        if (signerState == null || signerState.getSince() > signedWitness.getDate()) {
+            return Optional.empty();
+        }
+        return Optional.of(new SignerState(signedWitness.getDate() + SIGNER_AGE, signedWitness));
     }
 
     private void publishSignedWitness(SignedWitness signedWitness) {
@@ -570,6 +714,18 @@ public class SignedWitnessService {
                 signedWitnessSetByOwnerPubKey.remove(ownerPubKey);
             }
         }
+
+        P2PDataStorage.ByteArray signerPubKey = new P2PDataStorage.ByteArray(signedWitness.getSignerPubKey());
+        if (signedWitnessSetBySignerPubKey.containsKey(signerPubKey)) {
+            Set<SignedWitness> set = signedWitnessSetBySignerPubKey.get(signerPubKey);
+            set.remove(signedWitness);
+            if (set.isEmpty()) {
+                signedWitnessSetBySignerPubKey.remove(signerPubKey);
+            }
+        }
+
+        signerStateByOwnerPubKey = null;
+        validSignerFromCache.clear();
     }
 
     // Remove SignedWitnesses that are signed by TRADE that also have an ARBITRATOR signature
@@ -29,12 +29,14 @@ import haveno.core.payment.PaymentAccount;
 import haveno.core.payment.payload.PaymentMethod;
 import haveno.core.trade.Trade;
 import haveno.core.trade.statistics.TradeStatistics3;
+import haveno.core.trade.statistics.TradeStatisticsIndex;
 import haveno.core.trade.statistics.TradeStatisticsManager;
 
 import haveno.common.app.Version;
 import haveno.common.config.Config;
 import haveno.common.handlers.ErrorMessageHandler;
 import haveno.common.handlers.ResultHandler;
+import haveno.common.taskrunner.TaskTrace;
 
 import org.bitcoinj.core.Coin;
 import org.bitcoinj.core.Transaction;
@@ -126,6 +128,14 @@ public class CoreApi {
         return coreOffersService.getMyOffer(id);
     }
 
+    public List<Offer> getOffers() {
+        return coreOffersService.getOffers();
+    }
+
+    public List<Offer> getMyOffers() {
+        return coreOffersService.getMyOffers();
+    }
+
     public List<Offer> getOffers(String direction, String currencyCode) {
         return coreOffersService.getOffers(direction, currencyCode);
     }
@@ -269,10 +279,22 @@ public class CoreApi {
         return coreTradesService.getTrade(tradeId);
     }
 
+    public List<Trade> getTrades() {
+        return coreTradesService.getTrades();
+    }
+
+    public String getTradeRole(Trade trade) {
+        return coreTradesService.getTradeRole(trade);
+    }
+
     public String getTradeRole(String tradeId) {
         return coreTradesService.getTradeRole(tradeId);
     }
 
+    public List<TaskTrace> getTradeTaskTraces(String tradeId) {
+        return coreTradesService.getTradeTaskTraces(tradeId);
+    }
+
     ///////////////////////////////////////////////////////////////////////////////////////////
     // Wallets
     ///////////////////////////////////////////////////////////////////////////////////////////
@@ -281,6 +303,10 @@ public class CoreApi {
         return walletsService.getBalances(currencyCode);
     }
 
+    public void verifyEncryptedWalletIsUnlocked() {
+        walletsService.verifyEncryptedWalletIsUnlocked();
+    }
+
     public long getAddressBalance(String addressString) {
         return walletsService.getAddressBalance(addressString);
     }
@@ -357,6 +383,16 @@ public class CoreApi {
         return new ArrayList<>(tradeStatisticsManager.getObservableTradeStatisticsSet());
     }
 
+    // Can be called from any thread.
+    public TradeStatisticsIndex.Page queryTradeStatistics(String currencyCode,
+                                                          String paymentMethodId,
+                                                          long fromDate,
+                                                          long toDate,
+                                                          int limit,
+                                                          String cursor) {
+        return tradeStatisticsManager.queryTradeStatistics(currencyCode, paymentMethodId, fromDate, toDate, limit, cursor);
+    }
+
     public int getNumConfirmationsForMostRecentTransaction(String addressString) {
         return walletsService.getNumConfirmationsForMostRecentTransaction(addressString);
     }
@@ -116,6 +116,19 @@ class CoreOffersService {
                         new IllegalStateException(format("offer with id '%s' not found", id)));
     }
 
+    List<Offer> getOffers() {
+        return offerBookService.getOffers().stream()
+                .filter(o -> !o.isMyOffer(keyRing))
+                .filter(o -> offerFilter.canTakeOffer(o, coreContext.isApiUser()).isValid())
+                .collect(Collectors.toList());
+    }
+
+    List<Offer> getMyOffers() {
+        return offerBookService.getOffers().stream()
+                .filter(o -> o.isMyOffer(keyRing))
+                .collect(Collectors.toList());
+    }
+
     List<Offer> getOffers(String direction, String currencyCode) {
         return offerBookService.getOffers().stream()
                 .filter(o -> !o.isMyOffer(keyRing))
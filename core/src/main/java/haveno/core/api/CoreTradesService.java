@@ -27,18 +27,22 @@ import haveno.core.trade.Trade;
 import haveno.core.trade.TradeManager;
 import haveno.core.trade.TradeUtil;
 import haveno.core.trade.closed.ClosedTradableManager;
+import haveno.core.trade.failed.FailedTradesManager;
 import haveno.core.trade.protocol.BuyerProtocol;
 import haveno.core.trade.protocol.SellerProtocol;
 import haveno.core.user.User;
 import haveno.core.util.validation.BtcAddressValidator;
 
 import haveno.common.handlers.ErrorMessageHandler;
+import haveno.common.taskrunner.TaskTrace;
 
 import org.bitcoinj.core.Coin;
 
 import javax.inject.Inject;
 import javax.inject.Singleton;
 
+import java.util.ArrayList;
+import java.util.List;
 import java.util.Optional;
 import java.util.function.Consumer;
 
@@ -59,6 +63,7 @@ class CoreTradesService {
     private final BtcWalletService btcWalletService;
     private final OfferUtil offerUtil;
     private final ClosedTradableManager closedTradableManager;
+    private final FailedTradesManager failedTradesManager;
     private final TakeOfferModel takeOfferModel;
     private final TradeManager tradeManager;
     private final TradeUtil tradeUtil;
@@ -70,6 +75,7 @@ class CoreTradesService {
                              BtcWalletService btcWalletService,
                              OfferUtil offerUtil,
                              ClosedTradableManager closedTradableManager,
+                             FailedTradesManager failedTradesManager,
                              TakeOfferModel takeOfferModel,
                              TradeManager tradeManager,
                              TradeUtil tradeUtil,
@@ -79,6 +85,7 @@ class CoreTradesService {
         this.btcWalletService = btcWalletService;
         this.offerUtil = offerUtil;
         this.closedTradableManager = closedTradableManager;
+        this.failedTradesManager = failedTradesManager;
         this.takeOfferModel = takeOfferModel;
         this.tradeManager = tradeManager;
         this.tradeUtil = tradeUtil;
@@ -210,6 +217,17 @@ class CoreTradesService {
         return tradeUtil.getRole(getTrade(tradeId));
     }
 
+    // Returns the open trades, or throws a RuntimeException if the wallet is not available or locked.
+    List<Trade> getTrades() {
+        coreWalletsService.verifyWalletsAreAvailable();
+        coreWalletsService.verifyEncryptedWalletIsUnlocked();
+        return new ArrayList<>(tradeManager.getObservableList());
+    }
+
+    String getTradeRole(Trade trade) {
+        return tradeUtil.getRole(trade);
+    }
+
     Trade getTrade(String tradeId) {
         coreWalletsService.verifyWalletsAreAvailable();
         coreWalletsService.verifyEncryptedWalletIsUnlocked();
@@ -219,6 +237,18 @@ class CoreTradesService {
                 ));
     }
 
+    // Failed trades are included, as the task traces are mostly used to find out why a trade failed.
+    List<TaskTrace> getTradeTaskTraces(String tradeId) {
+        coreWalletsService.verifyWalletsAreAvailable();
+        coreWalletsService.verifyEncryptedWalletIsUnlocked();
+        Trade trade = getOpenTrade(tradeId)
+                .or(() -> getClosedTrade(tradeId))
+                .or(() -> failedTradesManager.getTradeById(tradeId))
+                .orElseThrow(() ->
+                        new IllegalArgumentException(format("trade with id '%s' not found", tradeId)));
+        return trade.getTaskTraces();
+    }
+
     private Optional<Trade> getOpenTrade(String tradeId) {
         return tradeManager.getTradeById(tradeId);
     }
@@ -47,7 +47,7 @@ import haveno.core.util.coin.CoinFormatter;
 import haveno.common.Timer;
 import haveno.common.UserThread;
 import haveno.common.handlers.ResultHandler;
-import haveno.common.util.Utilities;
+import haveno.common.util.ExecutorRegistry;
 
 import org.bitcoinj.core.Address;
 import org.bitcoinj.core.Coin;
@@ -110,10 +110,9 @@ class CoreWalletsService {
     @Nullable
     private Timer lockTimer;
 
+    // Volatile as the gRPC server checks the lock state from its read-only api threads.
     @Nullable
-    private KeyParameter tempAesKey;
-
-    private final ListeningExecutorService executor = Utilities.getSingleThreadListeningExecutor("CoreWalletsService");
+    private volatile KeyParameter tempAesKey;
 
     @Inject
     public CoreWalletsService(AppStartupState appStartupState,
@@ -353,7 +352,7 @@ class CoreWalletsService {
         try {
             @SuppressWarnings({"unchecked", "Convert2MethodRef"})
             ListenableFuture<Void> future =
-                    (ListenableFuture<Void>) executor.submit(() -> feeService.requestFees());
+                    (ListenableFuture<Void>) getExecutor().submit(() -> feeService.requestFees());
             Futures.addCallback(future, new FutureCallback<>() {
                 @Override
                 public void onSuccess(@Nullable Void ignored) {
@@ -563,6 +562,10 @@ class CoreWalletsService {
         }
     }
 
+    private ListeningExecutorService getExecutor() {
+        return ExecutorRegistry.getSingleThreadListeningExecutor("CoreWalletsService");
+    }
+
     // Throws a RuntimeException if wallet currency code is not BSQ or BTC.
     private void verifyWalletCurrencyCodeIsValid(String currencyCode) {
         if (currencyCode == null || currencyCode.isEmpty())
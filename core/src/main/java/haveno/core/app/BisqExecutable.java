@@ -31,6 +31,7 @@ import haveno.core.support.dispute.arbitration.arbitrator.ArbitratorManager;
 import haveno.core.trade.statistics.TradeStatisticsManager;
 import haveno.core.trade.txproof.xmr.XmrTxProofService;
 
+import haveno.network.http.HttpClientPool;
 import haveno.network.p2p.P2PService;
 
 
@@ -40,17 +41,22 @@ import haveno.common.config.BisqHelpFormatter;
 import haveno.common.config.Config;
 import haveno.common.config.ConfigException;
 import haveno.common.handlers.ResultHandler;
+import haveno.common.metrics.MetricsHttpServer;
 import haveno.common.persistence.PersistenceManager;
 import haveno.common.proto.persistable.PersistedDataHost;
 import haveno.common.setup.CommonSetup;
 import haveno.common.setup.GracefulShutDownHandler;
 import haveno.common.setup.UncaughtExceptionHandler;
+import haveno.common.util.ExecutorRegistry;
 import haveno.common.util.Utilities;
 
 import com.google.inject.Guice;
 import com.google.inject.Injector;
 
+import java.io.IOException;
+
 import java.util.List;
+import java.util.concurrent.TimeUnit;
 import java.util.concurrent.atomic.AtomicInteger;
 
 import lombok.extern.slf4j.Slf4j;
@@ -62,6 +68,8 @@ public abstract class BisqExecutable implements GracefulShutDownHandler, BisqSet
 
     public static final int EXIT_SUCCESS = 0;
     public static final int EXIT_FAILURE = 1;
+    // Max. time we wait for the tasks of our executors at shutdown
+    public static final long EXECUTOR_SHUTDOWN_TIMEOUT_SEC = 2;
 
     private final String fullName;
     private final String scriptName;
@@ -73,6 +81,8 @@ public abstract class BisqExecutable implements GracefulShutDownHandler, BisqSet
     protected Config config;
     private boolean isShutdownInProgress;
     private boolean hasDowngraded;
+    @Nullable
+    private MetricsHttpServer metricsHttpServer;
 
     public BisqExecutable(String fullName, String scriptName, String appName, String version) {
         this.fullName = fullName;
@@ -118,6 +128,28 @@ public abstract class BisqExecutable implements GracefulShutDownHandler, BisqSet
 
     protected abstract void configUserThread();
 
+    // Used by the headless apps to serve the metrics if the metricsPort option is set.
+    protected void maybeStartMetricsHttpServer() {
+        if (config.metricsPort == Config.UNSPECIFIED_PORT) {
+            return;
+        }
+
+        try {
+            metricsHttpServer = new MetricsHttpServer(config.metricsPort);
+            metricsHttpServer.start();
+        } catch (IOException e) {
+            metricsHttpServer = null;
+            log.error("Could not start metrics endpoint at port {}: {}", config.metricsPort, e.toString());
+        }
+    }
+
+    protected void shutDownMetricsHttpServer() {
+        if (metricsHttpServer != null) {
+            metricsHttpServer.shutDown();
+            metricsHttpServer = null;
+        }
+    }
+
     protected void addCapabilities() {
     }
 
@@ -255,14 +287,19 @@ public abstract class BisqExecutable implements GracefulShutDownHandler, BisqSet
                     injector.getInstance(P2PService.class).shutDown(() -> {
                         log.info("P2PService shutdown completed");
                         module.close(injector);
+                        shutDownMetricsHttpServer();
+                        HttpClientPool.getInstance().shutDown();
                         if (!hasDowngraded) {
                             // If user tried to downgrade we do not write the persistable data to avoid data corruption
                             PersistenceManager.flushAllDataToDiskAtShutdown(() -> {
+                                // The flush writes on executors of the registry, so we shut them down afterwards.
+                                ExecutorRegistry.shutDownAll(EXECUTOR_SHUTDOWN_TIMEOUT_SEC, TimeUnit.SECONDS);
                                 log.info("Graceful shutdown completed. Exiting now.");
                                 resultHandler.handleResult();
                                 UserThread.runAfter(() -> System.exit(EXIT_SUCCESS), 1);
                             });
                         } else {
+                            ExecutorRegistry.shutDownAll(EXECUTOR_SHUTDOWN_TIMEOUT_SEC, TimeUnit.SECONDS);
                             UserThread.runAfter(() -> System.exit(EXIT_SUCCESS), 1);
                         }
                     });
@@ -27,10 +27,12 @@ import haveno.core.dao.node.full.RpcService;
 import haveno.core.offer.OpenOfferManager;
 import haveno.core.support.dispute.arbitration.arbitrator.ArbitratorManager;
 
+import haveno.network.http.HttpClientPool;
 import haveno.network.p2p.NodeAddress;
 import haveno.network.p2p.P2PService;
 import haveno.network.p2p.seed.SeedNodeRepository;
 
+import haveno.common.TimingWheelTimer;
 import haveno.common.UserThread;
 import haveno.common.app.DevEnv;
 import haveno.common.config.Config;
@@ -38,6 +40,7 @@ import haveno.common.file.JsonFileManager;
 import haveno.common.handlers.ResultHandler;
 import haveno.common.persistence.PersistenceManager;
 import haveno.common.setup.GracefulShutDownHandler;
+import haveno.common.util.ExecutorRegistry;
 import haveno.common.util.Profiler;
 
 import com.google.common.util.concurrent.ThreadFactoryBuilder;
@@ -74,6 +77,9 @@ public abstract class ExecutableForAppWithP2p extends BisqExecutable {
                 .setDaemon(true)
                 .build();
         UserThread.setExecutor(Executors.newSingleThreadExecutor(threadFactory));
+        // Seed nodes carry thousands of short-lived timers, which the timing wheel handles without
+        // polling all of them each frame.
+        UserThread.setTimerClass(TimingWheelTimer.class);
     }
 
     @Override
@@ -94,8 +100,13 @@ public abstract class ExecutableForAppWithP2p extends BisqExecutable {
                 injector.getInstance(OpenOfferManager.class).shutDown(() -> injector.getInstance(P2PService.class).shutDown(() -> {
                     injector.getInstance(WalletsSetup.class).shutDownComplete.addListener((ov, o, n) -> {
                         module.close(injector);
+                        shutDownMetricsHttpServer();
+                        HttpClientPool.getInstance().shutDown();
 
                         PersistenceManager.flushAllDataToDiskAtShutdown(() -> {
+                            // The flush writes on executors of the registry, so we shut them down afterwards.
+                            ExecutorRegistry.shutDownAll(BisqExecutable.EXECUTOR_SHUTDOWN_TIMEOUT_SEC,
+                                    TimeUnit.SECONDS);
                             resultHandler.handleResult();
                             log.info("Graceful shutdown completed. Exiting now.");
                             UserThread.runAfter(() -> System.exit(BisqExecutable.EXIT_SUCCESS), 1);
@@ -207,6 +218,7 @@ public abstract class ExecutableForAppWithP2p extends BisqExecutable {
         int maxMemory = config.maxMemory;
         UserThread.runPeriodically(() -> {
             Profiler.printSystemLoad();
+            ExecutorRegistry.logMetrics();
             if (!stopped) {
                 long usedMemoryInMB = Profiler.getUsedMemoryInMB();
                 double warningTrigger = maxMemory * 0.8;
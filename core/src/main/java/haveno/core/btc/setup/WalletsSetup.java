@@ -40,6 +40,7 @@ import haveno.common.config.Config;
 import haveno.common.file.FileUtil;
 import haveno.common.handlers.ExceptionHandler;
 import haveno.common.handlers.ResultHandler;
+import haveno.common.util.ExecutorRegistry;
 
 import org.bitcoinj.core.Address;
 import org.bitcoinj.core.BlockChain;
@@ -457,7 +458,7 @@ public class WalletsSetup {
         backupWallets();
 
         Context ctx = Context.get();
-        new Thread(() -> {
+        ExecutorRegistry.getSingleThreadListeningExecutor("RestoreBTCWallet").execute(() -> {
             try {
                 Context.propagate(ctx);
                 walletConfig.stopAsync();
@@ -467,7 +468,7 @@ public class WalletsSetup {
                 t.printStackTrace();
                 log.error("Executing task failed. " + t.getMessage());
             }
-        }, "RestoreBTCWallet-%d").start();
+        });
     }
 
 
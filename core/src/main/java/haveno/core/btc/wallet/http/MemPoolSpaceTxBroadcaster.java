@@ -25,7 +25,7 @@ import haveno.network.http.HttpException;
 
 import haveno.common.app.Version;
 import haveno.common.config.Config;
-import haveno.common.util.Utilities;
+import haveno.common.util.ExecutorRegistry;
 
 import org.bitcoinj.core.Transaction;
 import org.bitcoinj.core.Utils;
@@ -39,6 +39,7 @@ import com.google.common.util.concurrent.MoreExecutors;
 import java.util.ArrayList;
 import java.util.List;
 import java.util.Random;
+import java.util.concurrent.RejectedExecutionException;
 
 import lombok.extern.slf4j.Slf4j;
 
@@ -52,8 +53,7 @@ public class MemPoolSpaceTxBroadcaster {
     private static Socks5ProxyProvider socks5ProxyProvider;
     private static Preferences preferences;
     private static LocalBitcoinNode localBitcoinNode;
-    private static final ListeningExecutorService executorService = Utilities.getListeningExecutorService(
-            "MemPoolSpaceTxBroadcaster", 3, 5, 10 * 60);
+    private static final String EXECUTOR_NAME = "MemPoolSpaceTxBroadcaster";
 
     public static void init(Socks5ProxyProvider socks5ProxyProvider,
                             Preferences preferences,
@@ -110,10 +110,17 @@ public class MemPoolSpaceTxBroadcaster {
         httpClient.setIgnoreSocks5Proxy(false);
 
         log.info("We broadcast rawTx {} to {}", rawTx, serviceAddress);
-        ListenableFuture<String> future = executorService.submit(() -> {
-            Thread.currentThread().setName("MemPoolSpaceTxBroadcaster @ " + serviceAddress);
-            return httpClient.post(rawTx, "User-Agent", "bisq/" + Version.VERSION);
-        });
+        ListenableFuture<String> future;
+        try {
+            future = getExecutorService().submit(() -> {
+                Thread.currentThread().setName("MemPoolSpaceTxBroadcaster @ " + serviceAddress);
+                return httpClient.post(rawTx, "User-Agent", "bisq/" + Version.VERSION);
+            });
+        } catch (RejectedExecutionException e) {
+            log.warn("Broadcast of raw tx with txId {} to {} got rejected. Error={}",
+                    txIdToSend, serviceAddress, e.toString());
+            return;
+        }
 
         Futures.addCallback(future, new FutureCallback<>() {
             public void onSuccess(String txId) {
@@ -153,4 +160,9 @@ public class MemPoolSpaceTxBroadcaster {
         List<String> list = checkNotNull(txBroadcastServices);
         return !list.isEmpty() ? list.get(new Random().nextInt(list.size())) : null;
     }
+
+    // Like before the registry we allow max. 5 threads.
+    private static ListeningExecutorService getExecutorService() {
+        return ExecutorRegistry.getListeningExecutorService(EXECUTOR_NAME, 5);
+    }
 }
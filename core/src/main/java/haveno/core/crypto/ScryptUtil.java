@@ -18,7 +18,7 @@
 package haveno.core.crypto;
 
 import haveno.common.UserThread;
-import haveno.common.util.Utilities;
+import haveno.common.util.ExecutorRegistry;
 
 import com.google.protobuf.ByteString;
 
@@ -49,7 +49,7 @@ public class ScryptUtil {
     }
 
     public static void deriveKeyWithScrypt(KeyCrypterScrypt keyCrypterScrypt, String password, DeriveKeyResultHandler resultHandler) {
-        Utilities.getThreadPoolExecutor("ScryptUtil:deriveKeyWithScrypt-%d", 1, 2, 5L).submit(() -> {
+        ExecutorRegistry.getListeningExecutorService("ScryptUtil", 2).submit(() -> {
             try {
                 log.debug("Doing key derivation");
                 long start = System.currentTimeMillis();
@@ -143,12 +143,12 @@ public class GetInventoryRequestHandler implements MessageListener {
             inventory.put(InventoryItem.peakNumConnections, String.valueOf(peerManager.getPeakNumConnections()));
             inventory.put(InventoryItem.numAllConnectionsLostEvents, String.valueOf(peerManager.getNumAllConnectionsLostEvents()));
             peerManager.maybeResetNumAllConnectionsLostEvents();
-            inventory.put(InventoryItem.sentBytes, String.valueOf(Statistic.totalSentBytesProperty().get()));
-            inventory.put(InventoryItem.sentBytesPerSec, String.valueOf(Statistic.totalSentBytesPerSecProperty().get()));
-            inventory.put(InventoryItem.receivedBytes, String.valueOf(Statistic.totalReceivedBytesProperty().get()));
-            inventory.put(InventoryItem.receivedBytesPerSec, String.valueOf(Statistic.totalReceivedBytesPerSecProperty().get()));
-            inventory.put(InventoryItem.receivedMessagesPerSec, String.valueOf(Statistic.numTotalReceivedMessagesPerSecProperty().get()));
-            inventory.put(InventoryItem.sentMessagesPerSec, String.valueOf(Statistic.numTotalSentMessagesPerSecProperty().get()));
+            inventory.put(InventoryItem.sentBytes, String.valueOf(Statistic.getTotalSentBytes()));
+            inventory.put(InventoryItem.sentBytesPerSec, String.valueOf(Statistic.getTotalSentBytesPerSec()));
+            inventory.put(InventoryItem.receivedBytes, String.valueOf(Statistic.getTotalReceivedBytes()));
+            inventory.put(InventoryItem.receivedBytesPerSec, String.valueOf(Statistic.getTotalReceivedBytesPerSec()));
+            inventory.put(InventoryItem.receivedMessagesPerSec, String.valueOf(Statistic.getNumTotalReceivedMessagesPerSec()));
+            inventory.put(InventoryItem.sentMessagesPerSec, String.valueOf(Statistic.getNumTotalSentMessagesPerSec()));
 
             // node
             inventory.put(InventoryItem.version, Version.VERSION);
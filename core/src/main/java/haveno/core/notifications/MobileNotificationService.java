@@ -24,7 +24,7 @@ import haveno.network.http.HttpClient;
 import haveno.common.UserThread;
 import haveno.common.app.Version;
 import haveno.common.config.Config;
-import haveno.common.util.Utilities;
+import haveno.common.util.ExecutorRegistry;
 
 import com.google.gson.Gson;
 
@@ -72,8 +72,6 @@ public class MobileNotificationService {
     private final MobileNotificationValidator mobileNotificationValidator;
     private final HttpClient httpClient;
 
-    private final ListeningExecutorService executorService = Utilities.getListeningExecutorService(
-            "MobileNotificationService", 10, 15, 10 * 60);
     @Getter
     private final MobileModel mobileModel;
 
@@ -300,7 +298,7 @@ public class MobileNotificationService {
                 isAndroid, useSound, tokenAsHex, msgAsHex);
 
         String threadName = "sendMobileNotification-" + msgAsHex.substring(0, 5) + "...";
-        ListenableFuture<String> future = executorService.submit(() -> {
+        ListenableFuture<String> future = getExecutorService().submit(() -> {
             Thread.currentThread().setName(threadName);
             String result = httpClient.get(param, "User-Agent",
                     "bisq/" + Version.VERSION + ", uid:" + httpClient.getUid());
@@ -321,4 +319,9 @@ public class MobileNotificationService {
             }
         }, MoreExecutors.directExecutor());
     }
+
+    // Like before the registry we allow max. 15 threads and 15 queued notifications.
+    private static ListeningExecutorService getExecutorService() {
+        return ExecutorRegistry.getListeningExecutorService("MobileNotificationService", 15, 15);
+    }
 }
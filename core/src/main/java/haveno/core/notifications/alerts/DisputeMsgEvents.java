@@ -125,9 +125,9 @@ public class DisputeMsgEvents {
         if (dispute.isClosed() && !chatMessages.isEmpty() && !chatMessages.get(chatMessages.size() - 1).isResultMessage(dispute)) {
             dispute.reOpen();
             if (dispute.getSupportType() == SupportType.MEDIATION) {
-                mediationManager.requestPersistence();
+                mediationManager.requestPersistence(dispute);
             } else if (dispute.getSupportType() == SupportType.REFUND) {
-                refundManager.requestPersistence();
+                refundManager.requestPersistence(dispute);
             }
         }
     }
@@ -25,9 +25,9 @@ import haveno.core.trade.statistics.TradeStatisticsManager;
 import haveno.common.util.Tuple2;
 
 import com.google.common.annotations.VisibleForTesting;
+import com.google.common.collect.Ordering;
 
-import java.util.ArrayList;
-import java.util.Collections;
+import java.util.Collection;
 import java.util.Comparator;
 import java.util.List;
 import java.util.Objects;
@@ -50,16 +50,26 @@ public class DisputeAgentSelection {
                 disputeAgentManager);
     }
 
+    /**
+     * Selects from snapshots of the trade statistics and the dispute agents, so it can be
+     * called off the UserThread.
+     */
+    public static <T extends DisputeAgent> T getLeastUsedArbitrator(Collection<TradeStatistics3> tradeStatistics,
+                                                                  Collection<T> disputeAgents) {
+        return getLeastUsedDisputeAgent(tradeStatistics, disputeAgents);
+    }
+
     private static <T extends DisputeAgent> T getLeastUsedDisputeAgent(TradeStatisticsManager tradeStatisticsManager,
                                                                        DisputeAgentManager<T> disputeAgentManager) {
+        return getLeastUsedDisputeAgent(tradeStatisticsManager.getObservableTradeStatisticsSet(),
+                disputeAgentManager.getObservableMap().values());
+    }
+
+    private static <T extends DisputeAgent> T getLeastUsedDisputeAgent(Collection<TradeStatistics3> tradeStatistics,
+                                                                       Collection<T> disputeAgents) {
         // We take last 100 entries from trade statistics
-        List<TradeStatistics3> list = new ArrayList<>(tradeStatisticsManager.getObservableTradeStatisticsSet());
-        list.sort(Comparator.comparing(TradeStatistics3::getDateAsLong));
-        Collections.reverse(list);
-        if (!list.isEmpty()) {
-            int max = Math.min(list.size(), LOOK_BACK_RANGE);
-            list = list.subList(0, max);
-        }
+        List<TradeStatistics3> list = Ordering.from(Comparator.comparing(TradeStatistics3::getDateAsLong))
+                .greatestOf(tradeStatistics, LOOK_BACK_RANGE);
 
         // We stored only first 4 chars of disputeAgents onion address
         List<String> lastAddressesUsedInTrades = list.stream()
@@ -67,13 +77,13 @@ public class DisputeAgentSelection {
                 .filter(Objects::nonNull)
                 .collect(Collectors.toList());
 
-        Set<String> disputeAgents = disputeAgentManager.getObservableMap().values().stream()
+        Set<String> disputeAgentAddresses = disputeAgents.stream()
                 .map(disputeAgent -> disputeAgent.getNodeAddress().getFullAddress())
                 .collect(Collectors.toSet());
 
-        String result = getLeastUsedDisputeAgent(lastAddressesUsedInTrades, disputeAgents);
+        String result = getLeastUsedDisputeAgent(lastAddressesUsedInTrades, disputeAgentAddresses);
 
-        Optional<T> optionalDisputeAgent = disputeAgentManager.getObservableMap().values().stream()
+        Optional<T> optionalDisputeAgent = disputeAgents.stream()
                 .filter(e -> e.getNodeAddress().getFullAddress().equals(result))
                 .findAny();
         checkArgument(optionalDisputeAgent.isPresent(), "optionalDisputeAgent has to be present");
@@ -46,6 +46,11 @@ import javax.annotation.Nullable;
 public class OfferAvailabilityProtocol {
     private static final long TIMEOUT = 90;
 
+    static {
+        TaskRunner.registerFactory(SendOfferAvailabilityRequest.class, SendOfferAvailabilityRequest::new);
+        TaskRunner.registerFactory(ProcessOfferAvailabilityResponse.class, ProcessOfferAvailabilityResponse::new);
+    }
+
     private final OfferAvailabilityModel model;
     private final ResultHandler resultHandler;
     private final ErrorMessageHandler errorMessageHandler;
@@ -32,6 +32,13 @@ import org.slf4j.LoggerFactory;
 public class PlaceOfferProtocol {
     private static final Logger log = LoggerFactory.getLogger(PlaceOfferProtocol.class);
 
+    static {
+        TaskRunner.registerFactory(ValidateOffer.class, ValidateOffer::new);
+        TaskRunner.registerFactory(CheckNumberOfUnconfirmedTransactions.class, CheckNumberOfUnconfirmedTransactions::new);
+        TaskRunner.registerFactory(MakerCreateFeeTx.class, MakerCreateFeeTx::new);
+        TaskRunner.registerFactory(AddToOfferBook.class, AddToOfferBook::new);
+    }
+
     private final PlaceOfferModel model;
     private final TransactionResultHandler resultHandler;
     private final ErrorMessageHandler errorMessageHandler;
@@ -0,0 +1,220 @@
+/*
+ * This file is part of Bisq.
+ *
+ * Bisq is free software: you can redistribute it and/or modify it
+ * under the terms of the GNU Affero General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or (at
+ * your option) any later version.
+ *
+ * Bisq is distributed in the hope that it will be useful, but WITHOUT
+ * ANY WARRANTY; without even the implied warranty of MERCHANTABILITY or
+ * FITNESS FOR A PARTICULAR PURPOSE. See the GNU Affero General Public
+ * License for more details.
+ *
+ * You should have received a copy of the GNU Affero General Public License
+ * along with Bisq. If not, see <http://www.gnu.org/licenses/>.
+ */
+
+package bisq.core.dao.node.explorer;
+
+import bisq.core.dao.state.DaoStateService;
+import bisq.core.dao.state.GenesisTxInfo;
+import bisq.core.dao.state.model.DaoState;
+import bisq.core.dao.state.model.blockchain.Block;
+import bisq.core.dao.state.model.blockchain.SpentInfo;
+import bisq.core.dao.state.model.blockchain.Tx;
+import bisq.core.dao.state.model.blockchain.TxInput;
+import bisq.core.dao.state.model.blockchain.TxOutput;
+import bisq.core.dao.state.model.blockchain.TxOutputType;
+import bisq.core.dao.state.model.blockchain.TxType;
+import bisq.core.dao.state.model.governance.Issuance;
+import bisq.core.dao.state.model.governance.IssuanceType;
+import bisq.core.util.coin.BsqFormatter;
+
+import bisq.common.file.FileUtil;
+
+import org.bitcoinj.core.Coin;
+
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+
+import java.io.File;
+import java.io.IOException;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Map;
+import java.util.TreeMap;
+import java.util.stream.Collectors;
+import java.util.stream.Stream;
+
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+
+public class ExportJsonFilesServiceTest {
+    private static final int GENESIS_BLOCK_HEIGHT = 100;
+    // First block of the next cycle, the vote result of the past cycle gets applied there. It is in another segment
+    // than the txs it changes.
+    private static final int VOTE_RESULT_BLOCK_HEIGHT = 200;
+
+    private final List<File> dirs = new ArrayList<>();
+    private DaoStateService daoStateService;
+
+    @Before
+    public void setUp() {
+        daoStateService = new DaoStateService(new DaoState(),
+                new GenesisTxInfo("genesisTxId", GENESIS_BLOCK_HEIGHT, Coin.parseCoin("2.5").value),
+                new BsqFormatter());
+    }
+
+    @After
+    public void tearDown() throws IOException {
+        for (File dir : dirs) {
+            FileUtil.deleteDirectory(dir);
+        }
+    }
+
+    @Test
+    public void testIncrementalExportMatchesFullExportAcrossCycleBoundary() throws Exception {
+        ExportJsonFilesService incrementalExport = createService();
+
+        Tx genesisTx = tx("genesisTxId", GENESIS_BLOCK_HEIGHT, TxType.GENESIS, new ArrayList<>(),
+                output("genesisTxId", 0, 150, TxOutputType.GENESIS_OUTPUT, GENESIS_BLOCK_HEIGHT),
+                output("genesisTxId", 1, 100, TxOutputType.GENESIS_OUTPUT, GENESIS_BLOCK_HEIGHT));
+        addBlock(GENESIS_BLOCK_HEIGHT, genesisTx);
+        incrementalExport.maybeExportToJson();
+
+        int height = GENESIS_BLOCK_HEIGHT + 1;
+        Tx compRequestTx = tx("compRequestTxId", height, TxType.COMPENSATION_REQUEST,
+                Arrays.asList(new TxInput("genesisTxId", 0, null)),
+                output("compRequestTxId", 0, 140, TxOutputType.BSQ_OUTPUT, height),
+                output("compRequestTxId", 1, 5000, TxOutputType.ISSUANCE_CANDIDATE_OUTPUT, height),
+                output("compRequestTxId", 2, 0, TxOutputType.COMP_REQ_OP_RETURN_OUTPUT, height));
+        Tx lockupTx = tx("lockupTxId", height, TxType.LOCKUP,
+                Arrays.asList(new TxInput("genesisTxId", 1, null)),
+                output("lockupTxId", 0, 100, TxOutputType.LOCKUP_OUTPUT, height),
+                output("lockupTxId", 1, 0, TxOutputType.LOCKUP_OP_RETURN_OUTPUT, height));
+        addBlock(height, compRequestTx, lockupTx);
+        incrementalExport.maybeExportToJson();
+
+        for (height++; height < VOTE_RESULT_BLOCK_HEIGHT; height++) {
+            addBlock(height);
+            incrementalExport.maybeExportToJson();
+        }
+
+        // The vote result accepts the compensation request and confiscates the bond without any tx in the block.
+        addBlock(VOTE_RESULT_BLOCK_HEIGHT, () -> {
+            daoStateService.addIssuance(new Issuance("compRequestTxId", VOTE_RESULT_BLOCK_HEIGHT, 5000, null,
+                    IssuanceType.COMPENSATION));
+            daoStateService.addUnspentTxOutput(compRequestTx.getTxOutputs().get(1));
+            daoStateService.confiscateBond("lockupTxId");
+        });
+        incrementalExport.maybeExportToJson();
+        assertSameExport(incrementalExport);
+
+        height = VOTE_RESULT_BLOCK_HEIGHT + 1;
+        Tx transferTx = tx("transferTxId", height, TxType.TRANSFER_BSQ,
+                Arrays.asList(new TxInput("compRequestTxId", 0, null), new TxInput("compRequestTxId", 1, null)),
+                output("transferTxId", 0, 5140, TxOutputType.BSQ_OUTPUT, height));
+        addBlock(height, transferTx);
+        incrementalExport.maybeExportToJson();
+        assertSameExport(incrementalExport);
+
+        incrementalExport.shutDown();
+    }
+
+    private void assertSameExport(ExportJsonFilesService incrementalExport) throws Exception {
+        incrementalExport.awaitPendingWrites();
+        ExportJsonFilesService fullExport = createService();
+        fullExport.maybeExportToJson();
+        fullExport.awaitPendingWrites();
+        fullExport.shutDown();
+
+        Map<String, String> incrementalFiles = readJsonFiles(dirs.get(0));
+        Map<String, String> fullFiles = readJsonFiles(dirs.get(dirs.size() - 1));
+        assertFalse(fullFiles.isEmpty());
+        assertEquals(fullFiles.keySet(), incrementalFiles.keySet());
+        fullFiles.forEach((path, json) -> assertEquals(path, json, incrementalFiles.get(path)));
+    }
+
+    private ExportJsonFilesService createService() throws IOException {
+        File storageDir = Files.createTempDirectory("json-export").toFile();
+        dirs.add(storageDir);
+        ExportJsonFilesService service = new ExportJsonFilesService(daoStateService, storageDir, true);
+        service.start();
+        return service;
+    }
+
+    // The segments carry the chain height at the time they got written which differs for segments written earlier.
+    private Map<String, String> readJsonFiles(File storageDir) throws IOException {
+        Path root = storageDir.toPath();
+        Map<String, String> files = new TreeMap<>();
+        try (Stream<Path> paths = Files.walk(root)) {
+            for (Path path : paths.filter(Files::isRegularFile).collect(Collectors.toList())) {
+                String json = new String(Files.readAllBytes(path), StandardCharsets.UTF_8);
+                files.put(root.relativize(path).toString(), json.replaceAll("\"chainHeight\": \\d+", ""));
+            }
+        }
+        return files;
+    }
+
+    private void addBlock(int height, Tx... txs) {
+        addBlock(height, () -> {
+        }, txs);
+    }
+
+    // Applies the state changes the parser does for the given txs.
+    private void addBlock(int height, Runnable stateChange, Tx... txs) {
+        Block block = new Block(height, 1534800000L + height, "blockHash" + height,
+                height > GENESIS_BLOCK_HEIGHT ? "blockHash" + (height - 1) : null);
+        daoStateService.onNewBlockHeight(height);
+        daoStateService.onNewBlockWithEmptyTxs(block);
+        for (Tx tx : txs) {
+            for (int i = 0; i < tx.getTxInputs().size(); i++) {
+                TxInput txInput = tx.getTxInputs().get(i);
+                daoStateService.getConnectedTxOutput(txInput).ifPresent(daoStateService::removeUnspentTxOutput);
+                daoStateService.setSpentInfo(txInput.getConnectedTxOutputKey(), new SpentInfo(height, tx.getId(), i));
+            }
+            tx.getTxOutputs().stream()
+                    .filter(txOutput -> txOutput.getTxOutputType() != TxOutputType.ISSUANCE_CANDIDATE_OUTPUT)
+                    .forEach(daoStateService::addUnspentTxOutput);
+            daoStateService.onNewTxForLastBlock(block, tx);
+        }
+        stateChange.run();
+        daoStateService.onParseBlockComplete(block);
+        if (!daoStateService.isParseBlockChainComplete())
+            daoStateService.onParseBlockChainComplete();
+    }
+
+    private static Tx tx(String txId, int height, TxType txType, List<TxInput> txInputs, TxOutput... txOutputs) {
+        return Tx.fromProto(protobuf.BaseTx.newBuilder()
+                .setId(txId)
+                .setBlockHeight(height)
+                .setBlockHash("blockHash" + height)
+                .setTime(1534800000L + height)
+                .addAllTxInputs(txInputs.stream().map(TxInput::toProtoMessage).collect(Collectors.toList()))
+                .setTx(protobuf.Tx.newBuilder()
+                        .addAllTxOutputs(Arrays.stream(txOutputs).map(TxOutput::toProtoMessage).collect(Collectors.toList()))
+                        .setTxType(txType.toProtoMessage()))
+                .build());
+    }
+
+    private static TxOutput output(String txId, int index, long value, TxOutputType txOutputType, int height) {
+        return TxOutput.fromProto(protobuf.BaseTxOutput.newBuilder()
+                .setIndex(index)
+                .setValue(value)
+                .setTxId(txId)
+                .setAddress("address" + index)
+                .setBlockHeight(height)
+                .setTxOutput(protobuf.TxOutput.newBuilder()
+                        .setTxOutputType(txOutputType.toProtoMessage())
+                        .setLockTime(-1))
+                .build());
+    }
+}
@@ -0,0 +1,89 @@
+/*
+ * This file is part of Bisq.
+ *
+ * Bisq is free software: you can redistribute it and/or modify it
+ * under the terms of the GNU Affero General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or (at
+ * your option) any later version.
+ *
+ * Bisq is distributed in the hope that it will be useful, but WITHOUT
+ * ANY WARRANTY; without even the implied warranty of MERCHANTABILITY or
+ * FITNESS FOR A PARTICULAR PURPOSE. See the GNU Affero General Public
+ * License for more details.
+ *
+ * You should have received a copy of the GNU Affero General Public License
+ * along with Bisq. If not, see <http://www.gnu.org/licenses/>.
+ */
+
+package bisq.core.support.dispute;
+
+import java.nio.file.Files;
+
+import java.io.File;
+import java.io.IOException;
+
+import java.util.Objects;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import org.junit.Before;
+import org.junit.Test;
+
+import static org.junit.Assert.assertArrayEquals;
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
+
+public class DisputeAttachmentStoreTest {
+    private File dir;
+    private DisputeAttachmentStore store;
+
+    @Before
+    public void setUp() throws IOException {
+        dir = new File(Files.createTempDirectory("attachments").toFile(), "attachments");
+        store = new DisputeAttachmentStore(dir);
+    }
+
+    @Test
+    public void testPutIsContentAddressed() throws IOException {
+        byte[] bytes = "attachment".getBytes();
+        String contentHash = store.put(bytes);
+
+        assertEquals(contentHash, store.put(bytes.clone()));
+        assertEquals(1, Objects.requireNonNull(dir.listFiles()).length);
+        assertArrayEquals(bytes, store.get(contentHash));
+    }
+
+    @Test
+    public void testAttachmentLoadsBytesAtAccess() throws IOException {
+        byte[] bytes = "attachment".getBytes();
+        String contentHash = store.put(bytes);
+        AtomicInteger numLoads = new AtomicInteger();
+        Attachment attachment = new Attachment("file.txt", contentHash, hash -> {
+            numLoads.incrementAndGet();
+            return store.get(hash);
+        });
+
+        assertTrue(attachment.isStoredOutOfLine());
+        assertEquals(0, numLoads.get());
+        assertArrayEquals(bytes, attachment.getBytes());
+        // Network messages carry the bytes, not the content hash.
+        protobuf.Attachment proto = attachment.toProtoMessage();
+        assertArrayEquals(bytes, proto.getBytes().toByteArray());
+        assertTrue(proto.getContentHash().isEmpty());
+        assertEquals(2, numLoads.get());
+    }
+
+    @Test
+    public void testPersistableProtoDoesNotLoadBytes() throws IOException {
+        String contentHash = store.put("attachment".getBytes());
+        AtomicInteger numLoads = new AtomicInteger();
+        Attachment attachment = new Attachment("file.txt", contentHash, hash -> {
+            numLoads.incrementAndGet();
+            return store.get(hash);
+        });
+
+        protobuf.Attachment proto = attachment.toPersistableProto();
+        assertEquals(contentHash, proto.getContentHash());
+        assertTrue(proto.getBytes().isEmpty());
+        assertEquals(0, numLoads.get());
+    }
+}
@@ -24,8 +24,11 @@ import bisq.core.offer.OpenOffer;
 import org.junit.Test;
 
 import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertSame;
 import static org.mockito.Mockito.RETURNS_DEEP_STUBS;
 import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
 import static protobuf.PersistableEnvelope.MessageCase.TRADABLE_LIST;
 
 public class TradableListTest {
@@ -45,4 +48,34 @@ public class TradableListTest {
         assertEquals(message.getMessageCase(), TRADABLE_LIST);
         assertEquals(1, message.getTradableList().getTradableList().size());
     }
+
+    @Test
+    public void getTradableById() {
+        Tradable openOffer = mockTradable("id1");
+        Tradable trade = mockTradable("id1");
+        Tradable other = mockTradable("id2");
+        TradableList<Tradable> tradableList = new TradableList<>();
+        tradableList.add(openOffer);
+        tradableList.add(trade);
+        tradableList.getObservableList().add(other);
+
+        assertSame(openOffer, tradableList.getTradableById("id1").get());
+        assertSame(other, tradableList.getTradableById("id2").get());
+        assertFalse(tradableList.getTradableById("id3").isPresent());
+
+        // Removing the first one with an id falls back to the next one with the same id.
+        tradableList.remove(openOffer);
+        assertSame(trade, tradableList.getTradableById("id1").get());
+        tradableList.remove(trade);
+        assertFalse(tradableList.getTradableById("id1").isPresent());
+
+        tradableList.clear();
+        assertFalse(tradableList.getTradableById("id2").isPresent());
+    }
+
+    private static Tradable mockTradable(String id) {
+        Tradable tradable = mock(Tradable.class);
+        when(tradable.getId()).thenReturn(id);
+        return tradable;
+    }
 }
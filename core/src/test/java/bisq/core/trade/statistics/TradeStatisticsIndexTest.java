@@ -0,0 +1,103 @@
+/*
+ * This file is part of Bisq.
+ *
+ * Bisq is free software: you can redistribute it and/or modify it
+ * under the terms of the GNU Affero General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or (at
+ * your option) any later version.
+ *
+ * Bisq is distributed in the hope that it will be useful, but WITHOUT
+ * ANY WARRANTY; without even the implied warranty of MERCHANTABILITY or
+ * FITNESS FOR A PARTICULAR PURPOSE. See the GNU Affero General Public
+ * License for more details.
+ *
+ * You should have received a copy of the GNU Affero General Public License
+ * along with Bisq. If not, see <http://www.gnu.org/licenses/>.
+ */
+
+package bisq.core.trade.statistics;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import org.junit.Before;
+import org.junit.Test;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertNotNull;
+import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertTrue;
+
+public class TradeStatisticsIndexTest {
+    private TradeStatisticsIndex index;
+
+    @Before
+    public void setup() {
+        index = new TradeStatisticsIndex();
+        for (int i = 0; i < 10; i++) {
+            index.add(tradeStatistics("EUR", "SEPA", 1000 + i));
+            index.add(tradeStatistics("USD", "REVOLUT", 1000 + i));
+        }
+    }
+
+    @Test
+    public void testPagesCoverAllEntriesInDateOrder() {
+        List<TradeStatistics3> result = new ArrayList<>();
+        String cursor = null;
+        int numPages = 0;
+        do {
+            TradeStatisticsIndex.Page page = index.query(null, null, 0, 0, 3, cursor);
+            result.addAll(page.getTradeStatistics());
+            cursor = page.getNextCursor();
+            numPages++;
+        } while (cursor != null);
+
+        assertEquals(20, result.size());
+        assertEquals(7, numPages);
+        for (int i = 1; i < result.size(); i++) {
+            assertTrue(result.get(i - 1).getDateAsLong() <= result.get(i).getDateAsLong());
+        }
+    }
+
+    @Test
+    public void testCurrencyAndTimeBounds() {
+        TradeStatisticsIndex.Page page = index.query("eur", null, 1002, 1005, 100, null);
+        assertEquals(3, page.getTradeStatistics().size());
+        assertNull(page.getNextCursor());
+        page.getTradeStatistics().forEach(e -> {
+            assertEquals("EUR", e.getCurrency());
+            assertTrue(e.getDateAsLong() >= 1002 && e.getDateAsLong() < 1005);
+        });
+    }
+
+    @Test
+    public void testCursorWithTimeBounds() {
+        TradeStatisticsIndex.Page page = index.query("USD", null, 1002, 1008, 4, null);
+        assertEquals(4, page.getTradeStatistics().size());
+        assertNotNull(page.getNextCursor());
+
+        page = index.query("USD", null, 1002, 1008, 4, page.getNextCursor());
+        assertEquals(2, page.getTradeStatistics().size());
+        assertEquals(1006, page.getTradeStatistics().get(0).getDateAsLong());
+        assertNull(page.getNextCursor());
+    }
+
+    @Test
+    public void testPaymentMethodFilterAndRemove() {
+        assertEquals(10, index.query(null, "REVOLUT", 0, 0, 100, null).getTradeStatistics().size());
+
+        TradeStatistics3 tradeStatistics = index.query("EUR", null, 0, 0, 1, null).getTradeStatistics().get(0);
+        index.remove(tradeStatistics);
+        assertEquals(19, index.size());
+        assertEquals(9, index.query("EUR", null, 0, 0, 100, null).getTradeStatistics().size());
+    }
+
+    @Test(expected = IllegalArgumentException.class)
+    public void testInvalidCursor() {
+        index.query(null, null, 0, 0, 10, "invalid");
+    }
+
+    private static TradeStatistics3 tradeStatistics(String currency, String paymentMethod, long date) {
+        return new TradeStatistics3(currency, 100, 10, paymentMethod, date, null, null, null);
+    }
+}
@@ -0,0 +1,142 @@
+/*
+ * This file is part of Bisq.
+ *
+ * Bisq is free software: you can redistribute it and/or modify it
+ * under the terms of the GNU Affero General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or (at
+ * your option) any later version.
+ *
+ * Bisq is distributed in the hope that it will be useful, but WITHOUT
+ * ANY WARRANTY; without even the implied warranty of MERCHANTABILITY or
+ * FITNESS FOR A PARTICULAR PURPOSE. See the GNU Affero General Public
+ * License for more details.
+ *
+ * You should have received a copy of the GNU Affero General Public License
+ * along with Bisq. If not, see <http://www.gnu.org/licenses/>.
+ */
+
+package bisq.core.trade.txproof.xmr;
+
+import bisq.network.http.HttpClientImpl;
+
+import com.sun.net.httpserver.HttpServer;
+
+import com.google.common.util.concurrent.ListenableFuture;
+
+import java.net.InetSocketAddress;
+
+import java.nio.charset.StandardCharsets;
+
+import java.io.IOException;
+import java.io.OutputStream;
+
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.fail;
+
+public class XmrTxProofRequestSchedulerTest {
+    private static final String PARAM = "/api/outputs?txhash=488e48ab&address=4ATyxmFG&viewkey=6c336e52&txprove=1";
+    private static final String JSON = "{\"data\":{\"title\":\"\"},\"status\":\"fail\"}";
+
+    private HttpServer server;
+    private String baseUrl;
+    private final AtomicInteger numHits = new AtomicInteger();
+    private final CountDownLatch releaseResponses = new CountDownLatch(1);
+    private volatile int responseCode = 200;
+
+    @Before
+    public void setUp() throws IOException {
+        // Stub of the explorer api which holds back its responses until releaseResponses is counted down.
+        server = HttpServer.create(new InetSocketAddress("127.0.0.1", 0), 0);
+        server.createContext("/api/outputs", exchange -> {
+            numHits.incrementAndGet();
+            try {
+                releaseResponses.await(10, TimeUnit.SECONDS);
+            } catch (InterruptedException ignore) {
+            }
+            byte[] response = JSON.getBytes(StandardCharsets.UTF_8);
+            exchange.sendResponseHeaders(responseCode, response.length);
+            try (OutputStream outputStream = exchange.getResponseBody()) {
+                outputStream.write(response);
+            }
+        });
+        server.setExecutor(Executors.newCachedThreadPool());
+        server.start();
+        baseUrl = "http://127.0.0.1:" + server.getAddress().getPort();
+    }
+
+    @After
+    public void tearDown() {
+        server.stop(0);
+    }
+
+    @Test
+    public void testConcurrentRequestsAreSentOnce() throws Exception {
+        XmrTxProofRequestScheduler scheduler = new XmrTxProofRequestScheduler();
+        ListenableFuture<String> first = request(scheduler, PARAM);
+        ListenableFuture<String> second = request(scheduler, PARAM);
+        assertEquals(1, scheduler.getNumPendingRequests());
+
+        releaseResponses.countDown();
+        assertEquals(JSON, first.get(10, TimeUnit.SECONDS));
+        assertEquals(JSON, second.get(10, TimeUnit.SECONDS));
+        assertEquals(1, numHits.get());
+        assertEquals(0, scheduler.getNumPendingRequests());
+    }
+
+    @Test
+    public void testResponseIsCached() throws Exception {
+        releaseResponses.countDown();
+        XmrTxProofRequestScheduler scheduler = new XmrTxProofRequestScheduler();
+        assertEquals(JSON, request(scheduler, PARAM).get(10, TimeUnit.SECONDS));
+        assertEquals(JSON, request(scheduler, PARAM).get(10, TimeUnit.SECONDS));
+        assertEquals(1, numHits.get());
+
+        // Other queries are not affected by the cache
+        assertEquals(JSON, request(scheduler, PARAM + "&other").get(10, TimeUnit.SECONDS));
+        assertEquals(2, numHits.get());
+    }
+
+    @Test
+    public void testCachedResponseExpires() throws Exception {
+        releaseResponses.countDown();
+        XmrTxProofRequestScheduler scheduler = new XmrTxProofRequestScheduler(0);
+        assertEquals(JSON, request(scheduler, PARAM).get(10, TimeUnit.SECONDS));
+        Thread.sleep(10);
+        assertEquals(JSON, request(scheduler, PARAM).get(10, TimeUnit.SECONDS));
+        assertEquals(2, numHits.get());
+    }
+
+    @Test
+    public void testFailureIsNotCached() throws Exception {
+        releaseResponses.countDown();
+        responseCode = 500;
+        XmrTxProofRequestScheduler scheduler = new XmrTxProofRequestScheduler();
+        try {
+            request(scheduler, PARAM).get(10, TimeUnit.SECONDS);
+            fail("Expected the request to fail");
+        } catch (ExecutionException e) {
+            assertEquals(IOException.class, e.getCause().getClass());
+        }
+        assertEquals(0, scheduler.getNumPendingRequests());
+
+        responseCode = 200;
+        assertEquals(JSON, request(scheduler, PARAM).get(10, TimeUnit.SECONDS));
+        assertEquals(2, numHits.get());
+    }
+
+    // Each request uses its own http client, as XmrTxProofRequest does.
+    private ListenableFuture<String> request(XmrTxProofRequestScheduler scheduler, String param) {
+        HttpClientImpl httpClient = new HttpClientImpl(baseUrl);
+        return scheduler.request(baseUrl + param, () -> httpClient.get(param, null, null));
+    }
+}
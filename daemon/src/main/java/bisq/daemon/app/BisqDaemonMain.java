@@ -104,6 +104,8 @@ public class BisqDaemonMain extends BisqHeadlessAppMain implements BisqSetup.Bis
 
         grpcServer = injector.getInstance(GrpcServer.class);
         grpcServer.start();
+
+        maybeStartMetricsHttpServer();
     }
 
     @Override
@@ -2,17 +2,26 @@ package bisq.daemon.grpc;
 
 import bisq.core.api.CoreApi;
 import bisq.core.trade.statistics.TradeStatistics3;
+import bisq.core.trade.statistics.TradeStatisticsIndex;
 
 import bisq.proto.grpc.GetTradeStatisticsReply;
 import bisq.proto.grpc.GetTradeStatisticsRequest;
+import bisq.proto.grpc.QueryTradeStatisticsReply;
+import bisq.proto.grpc.QueryTradeStatisticsRequest;
+
+import com.google.protobuf.Descriptors;
 
 import io.grpc.ServerInterceptor;
+import io.grpc.stub.ServerCallStreamObserver;
 import io.grpc.stub.StreamObserver;
 
 import javax.inject.Inject;
 
 import java.util.HashMap;
+import java.util.List;
 import java.util.Optional;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicReference;
 import java.util.stream.Collectors;
 
 import lombok.extern.slf4j.Slf4j;
@@ -20,6 +29,9 @@ import lombok.extern.slf4j.Slf4j;
 import static bisq.daemon.grpc.interceptor.GrpcServiceRateMeteringConfig.getCustomRateMeteringInterceptor;
 import static bisq.proto.grpc.GetTradeStatisticsGrpc.GetTradeStatisticsImplBase;
 import static bisq.proto.grpc.GetTradeStatisticsGrpc.getGetTradeStatisticsMethod;
+import static bisq.proto.grpc.GetTradeStatisticsGrpc.getQueryTradeStatisticsMethod;
+import static bisq.proto.grpc.GetTradeStatisticsGrpc.getStreamTradeStatisticsMethod;
+import static java.lang.String.format;
 import static java.util.concurrent.TimeUnit.SECONDS;
 
 
@@ -30,12 +42,18 @@ import bisq.daemon.grpc.interceptor.GrpcCallRateMeter;
 @Slf4j
 class GrpcGetTradeStatisticsService extends GetTradeStatisticsImplBase {
 
+    private static final int DEFAULT_PAGE_SIZE = 100;
+
     private final CoreApi coreApi;
+    private final GrpcReadSnapshotService readSnapshotService;
     private final GrpcExceptionHandler exceptionHandler;
 
     @Inject
-    public GrpcGetTradeStatisticsService(CoreApi coreApi, GrpcExceptionHandler exceptionHandler) {
+    public GrpcGetTradeStatisticsService(CoreApi coreApi,
+                                         GrpcReadSnapshotService readSnapshotService,
+                                         GrpcExceptionHandler exceptionHandler) {
         this.coreApi = coreApi;
+        this.readSnapshotService = readSnapshotService;
         this.exceptionHandler = exceptionHandler;
     }
 
@@ -43,7 +61,7 @@ class GrpcGetTradeStatisticsService extends GetTradeStatisticsImplBase {
     public void getTradeStatistics(GetTradeStatisticsRequest req,
                                    StreamObserver<GetTradeStatisticsReply> responseObserver) {
         try {
-            var tradeStatistics = coreApi.getTradeStatistics().stream()
+            var tradeStatistics = readSnapshotService.getTradeStatistics().stream()
                     .map(TradeStatistics3::toProtoTradeStatistics3)
                     .collect(Collectors.toList());
 
@@ -55,6 +73,82 @@ class GrpcGetTradeStatisticsService extends GetTradeStatisticsImplBase {
         }
     }
 
+    @Override
+    public void queryTradeStatistics(QueryTradeStatisticsRequest req,
+                                     StreamObserver<QueryTradeStatisticsReply> responseObserver) {
+        try {
+            var reply = toQueryTradeStatisticsReply(queryPage(req, req.getCursor()), req.getFieldsList());
+            responseObserver.onNext(reply);
+            responseObserver.onCompleted();
+        } catch (Throwable cause) {
+            exceptionHandler.handleException(log, cause, responseObserver);
+        }
+    }
+
+    @Override
+    public void streamTradeStatistics(QueryTradeStatisticsRequest req,
+                                      StreamObserver<QueryTradeStatisticsReply> responseObserver) {
+        var serverCallStreamObserver = (ServerCallStreamObserver<QueryTradeStatisticsReply>) responseObserver;
+        // We only query and send the next page when the transport can take it, so a slow client does not make us
+        // buffer the whole result. The handlers of a call are never run concurrently.
+        AtomicReference<String> cursor = new AtomicReference<>(req.getCursor());
+        AtomicBoolean done = new AtomicBoolean();
+        serverCallStreamObserver.setOnCancelHandler(() -> {
+            done.set(true);
+            log.info("Trade statistics stream was cancelled by the client.");
+        });
+        serverCallStreamObserver.setOnReadyHandler(() -> {
+            try {
+                while (!done.get() && serverCallStreamObserver.isReady()) {
+                    TradeStatisticsIndex.Page page = queryPage(req, cursor.get());
+                    serverCallStreamObserver.onNext(toQueryTradeStatisticsReply(page, req.getFieldsList()));
+                    cursor.set(page.getNextCursor());
+                    if (page.getNextCursor() == null) {
+                        done.set(true);
+                        serverCallStreamObserver.onCompleted();
+                    }
+                }
+            } catch (Throwable cause) {
+                done.set(true);
+                exceptionHandler.handleException(log, cause, responseObserver);
+            }
+        });
+    }
+
+    private TradeStatisticsIndex.Page queryPage(QueryTradeStatisticsRequest req, String cursor) {
+        return coreApi.queryTradeStatistics(req.getCurrencyCode(),
+                req.getPaymentMethodId(),
+                req.getFromDate(),
+                req.getToDate(),
+                req.getLimit() == 0 ? DEFAULT_PAGE_SIZE : req.getLimit(),
+                cursor);
+    }
+
+    private QueryTradeStatisticsReply toQueryTradeStatisticsReply(TradeStatisticsIndex.Page page, List<String> fields) {
+        var tradeStatistics = page.getTradeStatistics().stream()
+                .map(TradeStatistics3::toProtoTradeStatistics3)
+                .map(proto -> project(proto, fields))
+                .collect(Collectors.toList());
+        var builder = QueryTradeStatisticsReply.newBuilder().addAllTradeStatistics(tradeStatistics);
+        Optional.ofNullable(page.getNextCursor()).ifPresent(builder::setNextCursor);
+        return builder.build();
+    }
+
+    // Returns a copy of the proto with only the requested fields set, or the proto itself if no fields are requested.
+    private protobuf.TradeStatistics3 project(protobuf.TradeStatistics3 proto, List<String> fields) {
+        if (fields.isEmpty())
+            return proto;
+
+        var builder = protobuf.TradeStatistics3.newBuilder();
+        fields.forEach(name -> {
+            Descriptors.FieldDescriptor field = protobuf.TradeStatistics3.getDescriptor().findFieldByName(name);
+            if (field == null)
+                throw new IllegalArgumentException(format("trade statistics field '%s' does not exist", name));
+            builder.setField(field, proto.getField(field));
+        });
+        return builder.build();
+    }
+
     final ServerInterceptor[] interceptors() {
         Optional<ServerInterceptor> rateMeteringInterceptor = rateMeteringInterceptor();
         return rateMeteringInterceptor.map(serverInterceptor ->
@@ -66,6 +160,8 @@ class GrpcGetTradeStatisticsService extends GetTradeStatisticsImplBase {
                 .or(() -> Optional.of(CallRateMeteringInterceptor.valueOf(
                         new HashMap<>() {{
                             put(getGetTradeStatisticsMethod().getFullMethodName(), new GrpcCallRateMeter(1, SECONDS));
+                            put(getQueryTradeStatisticsMethod().getFullMethodName(), new GrpcCallRateMeter(10, SECONDS));
+                            put(getStreamTradeStatisticsMethod().getFullMethodName(), new GrpcCallRateMeter(1, SECONDS));
                         }}
                 )));
     }
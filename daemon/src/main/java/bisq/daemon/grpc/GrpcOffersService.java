@@ -19,8 +19,6 @@ package bisq.daemon.grpc;
 
 import bisq.core.api.CoreApi;
 import bisq.core.api.model.OfferInfo;
-import bisq.core.offer.Offer;
-import bisq.core.offer.OpenOffer;
 
 import bisq.proto.grpc.CancelOfferReply;
 import bisq.proto.grpc.CancelOfferRequest;
@@ -62,11 +60,15 @@ import bisq.daemon.grpc.interceptor.GrpcCallRateMeter;
 class GrpcOffersService extends OffersImplBase {
 
     private final CoreApi coreApi;
+    private final GrpcReadSnapshotService readSnapshotService;
     private final GrpcExceptionHandler exceptionHandler;
 
     @Inject
-    public GrpcOffersService(CoreApi coreApi, GrpcExceptionHandler exceptionHandler) {
+    public GrpcOffersService(CoreApi coreApi,
+                             GrpcReadSnapshotService readSnapshotService,
+                             GrpcExceptionHandler exceptionHandler) {
         this.coreApi = coreApi;
+        this.readSnapshotService = readSnapshotService;
         this.exceptionHandler = exceptionHandler;
     }
 
@@ -74,9 +76,9 @@ class GrpcOffersService extends OffersImplBase {
     public void getOffer(GetOfferRequest req,
                          StreamObserver<GetOfferReply> responseObserver) {
         try {
-            Offer offer = coreApi.getOffer(req.getId());
+            OfferInfo offerInfo = readSnapshotService.getOffer(req.getId());
             var reply = GetOfferReply.newBuilder()
-                    .setOffer(toOfferInfo(offer).toProtoMessage())
+                    .setOffer(offerInfo.toProtoMessage())
                     .build();
             responseObserver.onNext(reply);
             responseObserver.onCompleted();
@@ -89,10 +91,9 @@ class GrpcOffersService extends OffersImplBase {
     public void getMyOffer(GetMyOfferRequest req,
                            StreamObserver<GetMyOfferReply> responseObserver) {
         try {
-            Offer offer = coreApi.getMyOffer(req.getId());
-            OpenOffer openOffer = coreApi.getMyOpenOffer(req.getId());
+            OfferInfo offerInfo = readSnapshotService.getMyOffer(req.getId());
             var reply = GetMyOfferReply.newBuilder()
-                    .setOffer(toOfferInfo(offer, openOffer.getTriggerPrice()).toProtoMessage())
+                    .setOffer(offerInfo.toProtoMessage())
                     .build();
             responseObserver.onNext(reply);
             responseObserver.onCompleted();
@@ -105,9 +106,7 @@ class GrpcOffersService extends OffersImplBase {
     public void getOffers(GetOffersRequest req,
                           StreamObserver<GetOffersReply> responseObserver) {
         try {
-            List<OfferInfo> result = coreApi.getOffers(req.getDirection(), req.getCurrencyCode())
-                    .stream().map(OfferInfo::toOfferInfo)
-                    .collect(Collectors.toList());
+            List<OfferInfo> result = readSnapshotService.getOffers(req.getDirection(), req.getCurrencyCode());
             var reply = GetOffersReply.newBuilder()
                     .addAllOffers(result.stream()
                             .map(OfferInfo::toProtoMessage)
@@ -124,9 +123,7 @@ class GrpcOffersService extends OffersImplBase {
     public void getMyOffers(GetMyOffersRequest req,
                             StreamObserver<GetMyOffersReply> responseObserver) {
         try {
-            List<OfferInfo> result = coreApi.getMyOffers(req.getDirection(), req.getCurrencyCode())
-                    .stream().map(OfferInfo::toOfferInfo)
-                    .collect(Collectors.toList());
+            List<OfferInfo> result = readSnapshotService.getMyOffers(req.getDirection(), req.getCurrencyCode());
             var reply = GetMyOffersReply.newBuilder()
                     .addAllOffers(result.stream()
                             .map(OfferInfo::toProtoMessage)
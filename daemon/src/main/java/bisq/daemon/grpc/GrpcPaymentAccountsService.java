@@ -59,11 +59,15 @@ import bisq.daemon.grpc.interceptor.GrpcCallRateMeter;
 class GrpcPaymentAccountsService extends PaymentAccountsImplBase {
 
     private final CoreApi coreApi;
+    private final GrpcReadSnapshotService readSnapshotService;
     private final GrpcExceptionHandler exceptionHandler;
 
     @Inject
-    public GrpcPaymentAccountsService(CoreApi coreApi, GrpcExceptionHandler exceptionHandler) {
+    public GrpcPaymentAccountsService(CoreApi coreApi,
+                                      GrpcReadSnapshotService readSnapshotService,
+                                      GrpcExceptionHandler exceptionHandler) {
         this.coreApi = coreApi;
+        this.readSnapshotService = readSnapshotService;
         this.exceptionHandler = exceptionHandler;
     }
 
@@ -86,9 +90,7 @@ class GrpcPaymentAccountsService extends PaymentAccountsImplBase {
     public void getPaymentAccounts(GetPaymentAccountsRequest req,
                                    StreamObserver<GetPaymentAccountsReply> responseObserver) {
         try {
-            var paymentAccounts = coreApi.getPaymentAccounts().stream()
-                    .map(PaymentAccount::toProtoMessage)
-                    .collect(Collectors.toList());
+            var paymentAccounts = readSnapshotService.getPaymentAccounts();
             var reply = GetPaymentAccountsReply.newBuilder()
                     .addAllPaymentAccounts(paymentAccounts).build();
             responseObserver.onNext(reply);
@@ -0,0 +1,408 @@
+/*
+ * This file is part of Bisq.
+ *
+ * Bisq is free software: you can redistribute it and/or modify it
+ * under the terms of the GNU Affero General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or (at
+ * your option) any later version.
+ *
+ * Bisq is distributed in the hope that it will be useful, but WITHOUT
+ * ANY WARRANTY; without even the implied warranty of MERCHANTABILITY or
+ * FITNESS FOR A PARTICULAR PURPOSE. See the GNU Affero General Public
+ * License for more details.
+ *
+ * You should have received a copy of the GNU Affero General Public License
+ * along with Bisq. If not, see <http://www.gnu.org/licenses/>.
+ */
+
+package bisq.daemon.grpc;
+
+import bisq.core.api.CoreApi;
+import bisq.core.api.model.BalancesInfo;
+import bisq.core.api.model.OfferInfo;
+import bisq.core.api.model.TradeInfo;
+import bisq.core.offer.Offer;
+import bisq.core.offer.OfferBookService;
+import bisq.core.offer.OpenOffer;
+import bisq.core.offer.OpenOfferManager;
+import bisq.core.payment.PaymentAccount;
+import bisq.core.trade.Trade;
+import bisq.core.trade.TradeManager;
+import bisq.core.trade.statistics.TradeStatistics3;
+import bisq.core.trade.statistics.TradeStatisticsManager;
+import bisq.core.user.User;
+
+import bisq.common.Timer;
+import bisq.common.UserThread;
+
+import com.google.common.collect.ImmutableList;
+import com.google.common.collect.ImmutableMap;
+
+import javax.inject.Inject;
+import javax.inject.Singleton;
+
+import javafx.collections.ListChangeListener;
+import javafx.collections.SetChangeListener;
+
+import java.util.Comparator;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.Set;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.TimeoutException;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.function.Supplier;
+import java.util.stream.Collectors;
+
+import lombok.Value;
+import lombok.extern.slf4j.Slf4j;
+
+import javax.annotation.Nullable;
+
+import static bisq.core.api.model.OfferInfo.toOfferInfo;
+import static bisq.core.api.model.TradeInfo.toTradeInfo;
+import static bisq.core.offer.OfferPayload.Direction.BUY;
+import static java.lang.String.format;
+import static java.util.concurrent.TimeUnit.MILLISECONDS;
+import static java.util.concurrent.TimeUnit.SECONDS;
+
+/**
+ * Serves the read-only gRPC calls from immutable snapshots of offers, trades, balances,
+ * trade statistics and payment accounts, so these calls can run on the gRPC api executor
+ * instead of competing with the UserThread.
+ * <p>
+ * Each snapshot is rebuilt on the UserThread only after it got marked as changed: offers,
+ * open offers, trade statistics and payment accounts by listeners on their collections.
+ * Trades and balances change without such events (trade state, wallet), so they are
+ * marked as changed at each publish interval and after each mutating call.  Changed
+ * snapshots are published every {@value PUBLISH_INTERVAL_MS} ms while clients are
+ * reading, and right after a mutating call.  Reads never wait for a rebuild, except for
+ * the very first read of a snapshot and for a changed snapshot older than
+ * {@value MAX_STALE_SNAPSHOT_AGE_MS} ms, which only happens after no client read for a
+ * while.  Data not covered by a snapshot (e.g., closed trades) is looked up on the
+ * UserThread.
+ */
+@Singleton
+@Slf4j
+class GrpcReadSnapshotService {
+
+    private static final long PUBLISH_INTERVAL_MS = 1000;
+    private static final long MAX_STALE_SNAPSHOT_AGE_MS = 30_000;
+    private static final long USER_THREAD_TIMEOUT_SEC = 30;
+
+    @Value
+    private static class MyOffers {
+        List<OfferInfo> offers;
+        Map<String, OfferInfo> offersWithTriggerPrice;
+    }
+
+    private final CoreApi coreApi;
+    private final OfferBookService offerBookService;
+    private final OpenOfferManager openOfferManager;
+    private final TradeManager tradeManager;
+    private final TradeStatisticsManager tradeStatisticsManager;
+    private final User user;
+    // The balance currency codes requested by clients, all codes are published with each snapshot.
+    private final Set<String> balanceCurrencyCodes = ConcurrentHashMap.newKeySet();
+    private final AtomicBoolean readSinceLastPublish = new AtomicBoolean();
+
+    private final Snapshot<List<OfferInfo>> offers = new Snapshot<>("offers", this::buildOffers);
+    private final Snapshot<MyOffers> myOffers = new Snapshot<>("my offers", this::buildMyOffers);
+    private final Snapshot<Map<String, TradeInfo>> trades = new Snapshot<>("trades", this::buildTrades);
+    private final Snapshot<Map<String, BalancesInfo>> balances = new Snapshot<>("balances", this::buildBalances);
+    private final Snapshot<List<TradeStatistics3>> tradeStatistics = new Snapshot<>("trade statistics",
+            () -> ImmutableList.copyOf(coreApi.getTradeStatistics()));
+    private final Snapshot<List<protobuf.PaymentAccount>> paymentAccounts = new Snapshot<>("payment accounts",
+            this::buildPaymentAccounts);
+    private final List<Snapshot<?>> snapshots = List.of(offers, myOffers, trades, balances, tradeStatistics,
+            paymentAccounts);
+    @Nullable
+    private Timer publishTimer;
+
+    @Inject
+    public GrpcReadSnapshotService(CoreApi coreApi,
+                                   OfferBookService offerBookService,
+                                   OpenOfferManager openOfferManager,
+                                   TradeManager tradeManager,
+                                   TradeStatisticsManager tradeStatisticsManager,
+                                   User user) {
+        this.coreApi = coreApi;
+        this.offerBookService = offerBookService;
+        this.openOfferManager = openOfferManager;
+        this.tradeManager = tradeManager;
+        this.tradeStatisticsManager = tradeStatisticsManager;
+        this.user = user;
+    }
+
+    // Must be called on the UserThread.
+    void start() {
+        offerBookService.addOfferBookChangedListener(new OfferBookService.OfferBookChangedListener() {
+            @Override
+            public void onAdded(Offer offer) {
+                offers.markChanged();
+            }
+
+            @Override
+            public void onRemoved(Offer offer) {
+                offers.markChanged();
+            }
+        });
+        openOfferManager.getObservableList().addListener((ListChangeListener<OpenOffer>) c -> myOffers.markChanged());
+        tradeManager.getObservableList().addListener((ListChangeListener<Trade>) c -> trades.markChanged());
+        tradeStatisticsManager.getObservableTradeStatisticsSet().addListener(
+                (SetChangeListener<TradeStatistics3>) c -> tradeStatistics.markChanged());
+        user.getPaymentAccountsAsObservable().addListener(
+                (SetChangeListener<PaymentAccount>) c -> paymentAccounts.markChanged());
+
+        publishTimer = UserThread.runPeriodically(() -> {
+            if (readSinceLastPublish.getAndSet(false)) {
+                trades.markChanged();
+                balances.markChanged();
+                publishChangedSnapshots();
+            }
+        }, PUBLISH_INTERVAL_MS, MILLISECONDS);
+    }
+
+    void shutDown() {
+        if (publishTimer != null)
+            publishTimer.stop();
+    }
+
+    // Called after a mutating call, so the next reads see its changes.  Changes of offers,
+    // trade statistics and payment accounts are reported by their listeners.
+    void onMutatingCall() {
+        myOffers.markChanged();
+        trades.markChanged();
+        balances.markChanged();
+        UserThread.execute(this::publishChangedSnapshots);
+    }
+
+
+    ///////////////////////////////////////////////////////////////////////////////////////////
+    // Reads, called from the gRPC api executor
+    ///////////////////////////////////////////////////////////////////////////////////////////
+
+    OfferInfo getOffer(String id) {
+        return offers.get().stream()
+                .filter(o -> o.getId().equals(id))
+                .findAny().orElseThrow(() ->
+                        new IllegalStateException(format("offer with id '%s' not found", id)));
+    }
+
+    OfferInfo getMyOffer(String id) {
+        return Optional.ofNullable(myOffers.get().getOffersWithTriggerPrice().get(id))
+                .orElseThrow(() ->
+                        new IllegalStateException(format("offer with id '%s' not found", id)));
+    }
+
+    List<OfferInfo> getOffers(String direction, String currencyCode) {
+        return filterAndSortOffers(offers.get(), direction, currencyCode);
+    }
+
+    List<OfferInfo> getMyOffers(String direction, String currencyCode) {
+        return filterAndSortOffers(myOffers.get().getOffers(), direction, currencyCode);
+    }
+
+    TradeInfo getTrade(String tradeId) {
+        coreApi.verifyEncryptedWalletIsUnlocked();
+        TradeInfo tradeInfo = trades.get().get(tradeId);
+        if (tradeInfo != null)
+            return tradeInfo;
+
+        // Closed trades, or trades not yet in the snapshot are looked up on the UserThread.
+        return callOnUserThread(() -> toTradeInfo(coreApi.getTrade(tradeId), coreApi.getTradeRole(tradeId)));
+    }
+
+    BalancesInfo getBalances(String currencyCode) {
+        coreApi.verifyEncryptedWalletIsUnlocked();
+        String key = currencyCode.trim().toUpperCase();
+        BalancesInfo balancesInfo = balances.get().get(key);
+        if (balancesInfo != null)
+            return balancesInfo;
+
+        // We get it on the UserThread, which also throws the appropriate exception if the
+        // balances are not available, and include the currency code in the next snapshots.
+        BalancesInfo result = callOnUserThread(() -> coreApi.getBalances(currencyCode));
+        balanceCurrencyCodes.add(key);
+        balances.markChanged();
+        return result;
+    }
+
+    List<TradeStatistics3> getTradeStatistics() {
+        return tradeStatistics.get();
+    }
+
+    List<protobuf.PaymentAccount> getPaymentAccounts() {
+        return paymentAccounts.get();
+    }
+
+
+    ///////////////////////////////////////////////////////////////////////////////////////////
+    // Private
+    ///////////////////////////////////////////////////////////////////////////////////////////
+
+    // Must be called on the UserThread.
+    private void publishChangedSnapshots() {
+        snapshots.forEach(Snapshot::maybeRebuild);
+    }
+
+    // The builders are called on the UserThread and return an empty snapshot if the data is not available.
+
+    private List<OfferInfo> buildOffers() {
+        try {
+            return coreApi.getOffers().stream()
+                    .map(OfferInfo::toOfferInfo)
+                    .collect(ImmutableList.toImmutableList());
+        } catch (RuntimeException e) {
+            log.warn("Could not create offers snapshot: {}", e.toString());
+            return ImmutableList.of();
+        }
+    }
+
+    private MyOffers buildMyOffers() {
+        try {
+            List<Offer> myOfferList = coreApi.getMyOffers();
+            List<OfferInfo> offerInfos = myOfferList.stream()
+                    .map(OfferInfo::toOfferInfo)
+                    .collect(ImmutableList.toImmutableList());
+            ImmutableMap.Builder<String, OfferInfo> builder = ImmutableMap.builder();
+            myOfferList.forEach(offer -> {
+                try {
+                    builder.put(offer.getId(), toOfferInfo(offer, coreApi.getMyOpenOffer(offer.getId()).getTriggerPrice()));
+                } catch (RuntimeException ignore) {
+                    // Offers without an open offer are not returned by getMyOffer.
+                }
+            });
+            return new MyOffers(offerInfos, builder.build());
+        } catch (RuntimeException e) {
+            log.warn("Could not create my offers snapshot: {}", e.toString());
+            return new MyOffers(ImmutableList.of(), ImmutableMap.of());
+        }
+    }
+
+    private Map<String, TradeInfo> buildTrades() {
+        try {
+            ImmutableMap.Builder<String, TradeInfo> builder = ImmutableMap.builder();
+            for (Trade trade : coreApi.getTrades()) {
+                try {
+                    builder.put(trade.getId(), toTradeInfo(trade, coreApi.getTradeRole(trade)));
+                } catch (RuntimeException ignore) {
+                    // Trades without a contract have no role yet, getTrade falls back to the UserThread for them.
+                }
+            }
+            return builder.build();
+        } catch (RuntimeException ignore) {
+            // Wallet is not available or locked.
+            return ImmutableMap.of();
+        }
+    }
+
+    private Map<String, BalancesInfo> buildBalances() {
+        ImmutableMap.Builder<String, BalancesInfo> builder = ImmutableMap.builder();
+        balanceCurrencyCodes.forEach(currencyCode -> {
+            try {
+                builder.put(currencyCode, coreApi.getBalances(currencyCode));
+            } catch (RuntimeException ignore) {
+                // Wallet is not available or locked.
+            }
+        });
+        return builder.build();
+    }
+
+    private List<protobuf.PaymentAccount> buildPaymentAccounts() {
+        try {
+            return coreApi.getPaymentAccounts().stream()
+                    .map(PaymentAccount::toProtoMessage)
+                    .collect(ImmutableList.toImmutableList());
+        } catch (RuntimeException e) {
+            log.warn("Could not create payment accounts snapshot: {}", e.toString());
+            return ImmutableList.of();
+        }
+    }
+
+    private List<OfferInfo> filterAndSortOffers(List<OfferInfo> offers, String direction, String currencyCode) {
+        // A buyer probably wants to see sell orders in price ascending order.
+        // A seller probably wants to see buy orders in price descending order.
+        Comparator<OfferInfo> priceComparator = Comparator.comparing(OfferInfo::getPrice);
+        return offers.stream()
+                .filter(o -> o.getDirection().equalsIgnoreCase(direction))
+                .filter(o -> o.getCounterCurrencyCode().equalsIgnoreCase(currencyCode))
+                .sorted(direction.equalsIgnoreCase(BUY.name()) ? priceComparator.reversed() : priceComparator)
+                .collect(Collectors.toList());
+    }
+
+    private <T> T callOnUserThread(Supplier<T> supplier) {
+        CompletableFuture<T> future = new CompletableFuture<>();
+        UserThread.execute(() -> {
+            try {
+                future.complete(supplier.get());
+            } catch (Throwable t) {
+                future.completeExceptionally(t);
+            }
+        });
+        try {
+            return future.get(USER_THREAD_TIMEOUT_SEC, SECONDS);
+        } catch (ExecutionException e) {
+            if (e.getCause() instanceof RuntimeException)
+                throw (RuntimeException) e.getCause();
+            throw new IllegalStateException(e.getCause());
+        } catch (TimeoutException e) {
+            throw new IllegalStateException("server is busy, try again later");
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new IllegalStateException("request was interrupted");
+        }
+    }
+
+
+    ///////////////////////////////////////////////////////////////////////////////////////////
+    // Snapshot
+    ///////////////////////////////////////////////////////////////////////////////////////////
+
+    // One independently rebuilt part of the read model.
+    private class Snapshot<T> {
+        private final String name;
+        private final Supplier<T> builder;
+        private final AtomicBoolean changed = new AtomicBoolean(true);
+        @Nullable
+        private volatile T value;
+        private volatile long timestamp;
+
+        Snapshot(String name, Supplier<T> builder) {
+            this.name = name;
+            this.builder = builder;
+        }
+
+        void markChanged() {
+            changed.set(true);
+        }
+
+        // Must be called on the UserThread.
+        T maybeRebuild() {
+            if (changed.getAndSet(false) || value == null) {
+                long ts = System.currentTimeMillis();
+                try {
+                    value = builder.get();
+                } catch (RuntimeException e) {
+                    changed.set(true);
+                    throw e;
+                }
+                timestamp = System.currentTimeMillis();
+                log.debug("Rebuilt {} snapshot in {} ms", name, timestamp - ts);
+            }
+            return value;
+        }
+
+        T get() {
+            readSinceLastPublish.set(true);
+            T current = value;
+            if (current == null ||
+                    (changed.get() && System.currentTimeMillis() - timestamp > MAX_STALE_SNAPSHOT_AGE_MS))
+                return callOnUserThread(this::maybeRebuild);
+            return current;
+        }
+    }
+}
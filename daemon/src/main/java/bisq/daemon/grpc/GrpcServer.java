@@ -19,8 +19,15 @@ package bisq.daemon.grpc;
 
 import bisq.core.api.CoreContext;
 
-import bisq.common.UserThread;
 import bisq.common.config.Config;
+import bisq.common.util.ExecutorRegistry;
+
+import bisq.proto.grpc.GetTradeStatisticsGrpc;
+import bisq.proto.grpc.GetVersionGrpc;
+import bisq.proto.grpc.OffersGrpc;
+import bisq.proto.grpc.PaymentAccountsGrpc;
+import bisq.proto.grpc.TradesGrpc;
+import bisq.proto.grpc.WalletsGrpc;
 
 import io.grpc.Server;
 import io.grpc.ServerBuilder;
@@ -28,9 +35,14 @@ import io.grpc.ServerBuilder;
 import javax.inject.Inject;
 import javax.inject.Singleton;
 
+import com.google.common.util.concurrent.ListeningExecutorService;
+
 import java.io.IOException;
 import java.io.UncheckedIOException;
 
+import java.util.Set;
+import java.util.concurrent.TimeUnit;
+
 import lombok.extern.slf4j.Slf4j;
 
 import static io.grpc.ServerInterceptors.interceptForward;
@@ -38,12 +50,31 @@ import static io.grpc.ServerInterceptors.interceptForward;
 
 
 import bisq.daemon.grpc.interceptor.PasswordAuthInterceptor;
+import bisq.daemon.grpc.interceptor.UserThreadDispatchingInterceptor;
 
 @Singleton
 @Slf4j
 public class GrpcServer {
 
+    // These calls are served from the read snapshots on the api executor, all other
+    // calls are handled on the UserThread.
+    private static final Set<String> READ_ONLY_METHOD_NAMES = Set.of(
+            GetVersionGrpc.getGetVersionMethod().getFullMethodName(),
+            OffersGrpc.getGetOfferMethod().getFullMethodName(),
+            OffersGrpc.getGetMyOfferMethod().getFullMethodName(),
+            OffersGrpc.getGetOffersMethod().getFullMethodName(),
+            OffersGrpc.getGetMyOffersMethod().getFullMethodName(),
+            TradesGrpc.getGetTradeMethod().getFullMethodName(),
+            WalletsGrpc.getGetBalancesMethod().getFullMethodName(),
+            GetTradeStatisticsGrpc.getGetTradeStatisticsMethod().getFullMethodName(),
+            GetTradeStatisticsGrpc.getQueryTradeStatisticsMethod().getFullMethodName(),
+            GetTradeStatisticsGrpc.getStreamTradeStatisticsMethod().getFullMethodName(),
+            PaymentAccountsGrpc.getGetPaymentAccountsMethod().getFullMethodName());
+
+    private static final String API_EXECUTOR_NAME = "GrpcApiExecutor";
+
     private final Server server;
+    private final GrpcReadSnapshotService readSnapshotService;
 
     @Inject
     public GrpcServer(CoreContext coreContext,
@@ -58,9 +89,11 @@ public class GrpcServer {
                       GrpcVersionService versionService,
                       GrpcGetTradeStatisticsService tradeStatisticsService,
                       GrpcTradesService tradesService,
-                      GrpcWalletsService walletsService) {
+                      GrpcWalletsService walletsService,
+                      GrpcReadSnapshotService readSnapshotService) {
+        this.readSnapshotService = readSnapshotService;
         this.server = ServerBuilder.forPort(config.apiPort)
-                .executor(UserThread.getExecutor())
+                .executor(command -> getApiExecutor().execute(command))
                 .addService(interceptForward(disputeAgentsService, disputeAgentsService.interceptors()))
                 .addService(interceptForward(helpService, helpService.interceptors()))
                 .addService(interceptForward(offersService, offersService.interceptors()))
@@ -71,6 +104,7 @@ public class GrpcServer {
                 .addService(interceptForward(tradesService, tradesService.interceptors()))
                 .addService(interceptForward(versionService, versionService.interceptors()))
                 .addService(interceptForward(walletsService, walletsService.interceptors()))
+                .intercept(new UserThreadDispatchingInterceptor(READ_ONLY_METHOD_NAMES, readSnapshotService::onMutatingCall))
                 .intercept(passwordAuthInterceptor)
                 .build();
         coreContext.setApiUser(true);
@@ -79,6 +113,7 @@ public class GrpcServer {
     public void start() {
         try {
             server.start();
+            readSnapshotService.start();
             log.info("listening on port {}", server.getPort());
         } catch (IOException ex) {
             throw new UncheckedIOException(ex);
@@ -87,7 +122,14 @@ public class GrpcServer {
 
     public void shutdown() {
         log.info("Server shutdown started");
+        readSnapshotService.shutDown();
         server.shutdown();
+        ExecutorRegistry.shutDownAndAwaitTermination(API_EXECUTOR_NAME, 5, TimeUnit.SECONDS);
         log.info("Server shutdown complete");
     }
+
+    // Unbounded queue as rejected tasks would leave calls unanswered.
+    private ListeningExecutorService getApiExecutor() {
+        return ExecutorRegistry.getListeningExecutorService(API_EXECUTOR_NAME, 4, ExecutorRegistry.UNBOUNDED_QUEUE_CAPACITY);
+    }
 }
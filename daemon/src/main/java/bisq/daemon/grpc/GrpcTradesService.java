@@ -19,7 +19,8 @@ package bisq.daemon.grpc;
 
 import bisq.core.api.CoreApi;
 import bisq.core.api.model.TradeInfo;
-import bisq.core.trade.Trade;
+
+import bisq.common.taskrunner.TaskTrace;
 
 import bisq.proto.grpc.ConfirmPaymentReceivedReply;
 import bisq.proto.grpc.ConfirmPaymentReceivedRequest;
@@ -27,6 +28,8 @@ import bisq.proto.grpc.ConfirmPaymentStartedReply;
 import bisq.proto.grpc.ConfirmPaymentStartedRequest;
 import bisq.proto.grpc.GetTradeReply;
 import bisq.proto.grpc.GetTradeRequest;
+import bisq.proto.grpc.GetTradeTaskTracesReply;
+import bisq.proto.grpc.GetTradeTaskTracesRequest;
 import bisq.proto.grpc.KeepFundsReply;
 import bisq.proto.grpc.KeepFundsRequest;
 import bisq.proto.grpc.TakeOfferReply;
@@ -41,6 +44,7 @@ import javax.inject.Inject;
 
 import java.util.HashMap;
 import java.util.Optional;
+import java.util.stream.Collectors;
 
 import lombok.extern.slf4j.Slf4j;
 
@@ -59,11 +63,15 @@ import bisq.daemon.grpc.interceptor.GrpcCallRateMeter;
 class GrpcTradesService extends TradesImplBase {
 
     private final CoreApi coreApi;
+    private final GrpcReadSnapshotService readSnapshotService;
     private final GrpcExceptionHandler exceptionHandler;
 
     @Inject
-    public GrpcTradesService(CoreApi coreApi, GrpcExceptionHandler exceptionHandler) {
+    public GrpcTradesService(CoreApi coreApi,
+                             GrpcReadSnapshotService readSnapshotService,
+                             GrpcExceptionHandler exceptionHandler) {
         this.coreApi = coreApi;
+        this.readSnapshotService = readSnapshotService;
         this.exceptionHandler = exceptionHandler;
     }
 
@@ -71,10 +79,9 @@ class GrpcTradesService extends TradesImplBase {
     public void getTrade(GetTradeRequest req,
                          StreamObserver<GetTradeReply> responseObserver) {
         try {
-            Trade trade = coreApi.getTrade(req.getTradeId());
-            String role = coreApi.getTradeRole(req.getTradeId());
+            TradeInfo tradeInfo = readSnapshotService.getTrade(req.getTradeId());
             var reply = GetTradeReply.newBuilder()
-                    .setTrade(toTradeInfo(trade, role).toProtoMessage())
+                    .setTrade(tradeInfo.toProtoMessage())
                     .build();
             responseObserver.onNext(reply);
             responseObserver.onCompleted();
@@ -164,6 +171,24 @@ class GrpcTradesService extends TradesImplBase {
         }
     }
 
+    @Override
+    public void getTradeTaskTraces(GetTradeTaskTracesRequest req,
+                                   StreamObserver<GetTradeTaskTracesReply> responseObserver) {
+        try {
+            var reply = GetTradeTaskTracesReply.newBuilder()
+                    .addAllTaskTraces(coreApi.getTradeTaskTraces(req.getTradeId()).stream()
+                            .map(TaskTrace::toProtoMessage)
+                            .collect(Collectors.toList()))
+                    .build();
+            responseObserver.onNext(reply);
+            responseObserver.onCompleted();
+        } catch (IllegalArgumentException cause) {
+            exceptionHandler.handleExceptionAsWarning(log, "getTradeTaskTraces", cause, responseObserver);
+        } catch (Throwable cause) {
+            exceptionHandler.handleException(log, cause, responseObserver);
+        }
+    }
+
     final ServerInterceptor[] interceptors() {
         Optional<ServerInterceptor> rateMeteringInterceptor = rateMeteringInterceptor();
         return rateMeteringInterceptor.map(serverInterceptor ->
@@ -180,6 +205,7 @@ class GrpcTradesService extends TradesImplBase {
                             put(getConfirmPaymentReceivedMethod().getFullMethodName(), new GrpcCallRateMeter(1, MINUTES));
                             put(getKeepFundsMethod().getFullMethodName(), new GrpcCallRateMeter(1, MINUTES));
                             put(getWithdrawFundsMethod().getFullMethodName(), new GrpcCallRateMeter(1, MINUTES));
+                            put(getGetTradeTaskTracesMethod().getFullMethodName(), new GrpcCallRateMeter(1, SECONDS));
                         }}
                 )));
     }
@@ -87,18 +87,22 @@ import bisq.daemon.grpc.interceptor.GrpcCallRateMeter;
 class GrpcWalletsService extends WalletsImplBase {
 
     private final CoreApi coreApi;
+    private final GrpcReadSnapshotService readSnapshotService;
     private final GrpcExceptionHandler exceptionHandler;
 
     @Inject
-    public GrpcWalletsService(CoreApi coreApi, GrpcExceptionHandler exceptionHandler) {
+    public GrpcWalletsService(CoreApi coreApi,
+                              GrpcReadSnapshotService readSnapshotService,
+                              GrpcExceptionHandler exceptionHandler) {
         this.coreApi = coreApi;
+        this.readSnapshotService = readSnapshotService;
         this.exceptionHandler = exceptionHandler;
     }
 
     @Override
     public void getBalances(GetBalancesRequest req, StreamObserver<GetBalancesReply> responseObserver) {
         try {
-            var balances = coreApi.getBalances(req.getCurrencyCode());
+            var balances = readSnapshotService.getBalances(req.getCurrencyCode());
             var reply = GetBalancesReply.newBuilder()
                     .setBalances(balances.toProtoMessage())
                     .build();
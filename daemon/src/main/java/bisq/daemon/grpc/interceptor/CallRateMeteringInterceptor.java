@@ -17,6 +17,9 @@
 
 package bisq.daemon.grpc.interceptor;
 
+import bisq.common.metrics.MetricsRegistry;
+
+import io.grpc.Grpc;
 import io.grpc.Metadata;
 import io.grpc.ServerCall;
 import io.grpc.ServerCallHandler;
@@ -25,9 +28,13 @@ import io.grpc.StatusRuntimeException;
 
 import org.apache.commons.lang3.StringUtils;
 
+import java.net.InetSocketAddress;
+import java.net.SocketAddress;
+
 import java.util.HashMap;
 import java.util.Map;
 import java.util.Optional;
+import java.util.concurrent.ConcurrentHashMap;
 
 import lombok.extern.slf4j.Slf4j;
 
@@ -42,8 +49,20 @@ public final class CallRateMeteringInterceptor implements ServerInterceptor {
     // instance to handle rate metering for any or all the methods in a Grpc*Service.
     protected final Map<String, GrpcCallRateMeter> serviceCallRateMeters;
 
+    // Maps 'method-name client-host' keys to the rate meters of the methods having a
+    // per client limit.  We key on the host only, as a client gets a new ephemeral port
+    // with each connection.  Idle client rate meters are removed once there are more than
+    // MAX_CLIENT_RATE_METERS of them.
+    private static final int MAX_CLIENT_RATE_METERS = 1000;
+    private final Map<String, GrpcCallRateMeter> clientCallRateMeters = new ConcurrentHashMap<>();
+
     public CallRateMeteringInterceptor(Map<String, GrpcCallRateMeter> serviceCallRateMeters) {
         this.serviceCallRateMeters = serviceCallRateMeters;
+        serviceCallRateMeters.forEach((methodName, rateMeter) ->
+                MetricsRegistry.gauge("grpc_call_rate_per_second",
+                        "Calls per second of a gRPC method, averaged over its rate metering window",
+                        rateMeter::getCallsPerSecond,
+                        "method", methodName));
     }
 
     @Override
@@ -66,10 +85,44 @@ public final class CallRateMeteringInterceptor implements ServerInterceptor {
         String methodName = rateMeterKV.getKey();
         GrpcCallRateMeter rateMeter = rateMeterKV.getValue();
 
-        if (!rateMeter.checkAndIncrement())
-            handlePermissionDeniedWarningAndCloseCall(methodName, rateMeter, serverCall);
-        else
-            log.info(rateMeter.getCallsCountProgress(methodName));
+        // We check the global limit first, so calls rejected by it do not use up the client's limit.
+        if (!rateMeter.checkAndIncrement()) {
+            handlePermissionDeniedWarningAndCloseCall(methodName, rateMeter, "", serverCall);
+            return;
+        }
+
+        if (rateMeter.hasClientLimit()) {
+            GrpcCallRateMeter clientRateMeter = getClientRateMeter(methodName, rateMeter, serverCall);
+            if (!clientRateMeter.checkAndIncrement()) {
+                // A client exceeding its limit must not use up the global limit of the other clients.
+                rateMeter.undoIncrement();
+                handlePermissionDeniedWarningAndCloseCall(methodName, clientRateMeter, " per client", serverCall);
+                return;
+            }
+        }
+
+        log.info(rateMeter.getCallsCountProgress(methodName));
+    }
+
+    private GrpcCallRateMeter getClientRateMeter(String methodName,
+                                                 GrpcCallRateMeter rateMeter,
+                                                 ServerCall<?, ?> serverCall) {
+        String key = methodName + " " + getClientHost(serverCall);
+        if (clientCallRateMeters.size() > MAX_CLIENT_RATE_METERS)
+            clientCallRateMeters.values().removeIf(m -> m.getCallsCount() == 0);
+
+        return clientCallRateMeters.computeIfAbsent(key, k -> rateMeter.newClientRateMeter());
+    }
+
+    private String getClientHost(ServerCall<?, ?> serverCall) {
+        SocketAddress remoteAddress = serverCall.getAttributes().get(Grpc.TRANSPORT_ATTR_REMOTE_ADDR);
+        if (remoteAddress instanceof InetSocketAddress) {
+            InetSocketAddress inetSocketAddress = (InetSocketAddress) remoteAddress;
+            return inetSocketAddress.getAddress() != null ?
+                    inetSocketAddress.getAddress().getHostAddress() :
+                    inetSocketAddress.getHostString();
+        }
+        return String.valueOf(remoteAddress);
     }
 
     private void handleMissingRateMeterConfiguration(ServerCall<?, ?> serverCall)
@@ -81,22 +134,25 @@ public final class CallRateMeteringInterceptor implements ServerInterceptor {
 
     private void handlePermissionDeniedWarningAndCloseCall(String methodName,
                                                            GrpcCallRateMeter rateMeter,
+                                                           String limitQualifier,
                                                            ServerCall<?, ?> serverCall)
             throws StatusRuntimeException {
-        String msg = getDefaultRateExceededError(methodName, rateMeter);
+        String msg = getDefaultRateExceededError(methodName, rateMeter, limitQualifier);
         log.warn(msg + ".");
         serverCall.close(PERMISSION_DENIED.withDescription(msg.toLowerCase()), new Metadata());
     }
 
     private String getDefaultRateExceededError(String methodName,
-                                               GrpcCallRateMeter rateMeter) {
+                                               GrpcCallRateMeter rateMeter,
+                                               String limitQualifier) {
         // The derived method name may not be an exact match to CLI's method name.
         String timeUnitName = StringUtils.chop(rateMeter.getTimeUnit().name().toLowerCase());
         // Just print 'getversion', not the grpc method descriptor's
         // full-method-name: 'io.bisq.protobuffer.getversion/getversion'.
         String loggedMethodName = methodName.split("/")[1];
-        return format("The maximum allowed number of %s calls (%d/%s) has been exceeded",
+        return format("The maximum allowed number of %s calls%s (%d/%s) has been exceeded",
                 loggedMethodName,
+                limitQualifier,
                 rateMeter.getAllowedCallsPerTimeWindow(),
                 timeUnitName);
     }
@@ -2,9 +2,8 @@ package bisq.daemon.grpc.interceptor;
 
 import org.apache.commons.lang3.StringUtils;
 
-import java.util.ArrayDeque;
 import java.util.concurrent.TimeUnit;
-import java.util.function.Predicate;
+import java.util.concurrent.atomic.AtomicLongArray;
 
 import lombok.Getter;
 import lombok.extern.slf4j.Slf4j;
@@ -12,45 +11,101 @@ import lombok.extern.slf4j.Slf4j;
 import static java.lang.String.format;
 import static java.lang.System.currentTimeMillis;
 
+/**
+ * Lock-free sliding window call counter.
+ * <p>
+ * The time window is divided into {@value NUM_BUCKETS_PER_WINDOW} time slices (buckets),
+ * held in a fixed ring of atomic counters.  Each ring slot packs the id of the time
+ * slice it counts (upper 40 bits) and the number of calls in it (lower 24 bits) into
+ * one long, so a slot is recycled for a new time slice and incremented by a single CAS,
+ * without allocating anything per call.  A time slice is counted as long as it overlaps
+ * the window, so the calls count can be too low by at most the calls of one slice, which
+ * is 1/{@value NUM_BUCKETS_PER_WINDOW} of the window.
+ */
 @Slf4j
 public class GrpcCallRateMeter {
 
+    private static final int NUM_BUCKETS_PER_WINDOW = 100;
+    private static final int COUNT_BITS = 24;
+    private static final long COUNT_MASK = (1L << COUNT_BITS) - 1;
+
     @Getter
     private final int allowedCallsPerTimeWindow;
     @Getter
     private final TimeUnit timeUnit;
     @Getter
     private final int numTimeUnits;
+    // The calls allowed per client and time window, 0 if clients are only limited by allowedCallsPerTimeWindow.
+    @Getter
+    private final int allowedCallsPerClientPerTimeWindow;
 
     @Getter
     private transient final long timeUnitIntervalInMilliseconds;
 
-    private transient final ArrayDeque<Long> callTimestamps;
+    private transient final long bucketIntervalInMilliseconds;
+    private transient final long startTime;
+    private transient final AtomicLongArray buckets;
 
     public GrpcCallRateMeter(int allowedCallsPerTimeWindow, TimeUnit timeUnit) {
         this(allowedCallsPerTimeWindow, timeUnit, 1);
     }
 
     public GrpcCallRateMeter(int allowedCallsPerTimeWindow, TimeUnit timeUnit, int numTimeUnits) {
+        this(allowedCallsPerTimeWindow, timeUnit, numTimeUnits, 0);
+    }
+
+    public GrpcCallRateMeter(int allowedCallsPerTimeWindow,
+                             TimeUnit timeUnit,
+                             int numTimeUnits,
+                             int allowedCallsPerClientPerTimeWindow) {
         this.allowedCallsPerTimeWindow = allowedCallsPerTimeWindow;
         this.timeUnit = timeUnit;
         this.numTimeUnits = numTimeUnits;
+        this.allowedCallsPerClientPerTimeWindow = allowedCallsPerClientPerTimeWindow;
         this.timeUnitIntervalInMilliseconds = timeUnit.toMillis(1) * numTimeUnits;
-        this.callTimestamps = new ArrayDeque<>();
+        this.bucketIntervalInMilliseconds = Math.max(1, timeUnitIntervalInMilliseconds / NUM_BUCKETS_PER_WINDOW);
+        this.startTime = currentTimeMillis();
+        int numBuckets = (int) ((timeUnitIntervalInMilliseconds + bucketIntervalInMilliseconds - 1) / bucketIntervalInMilliseconds);
+        // One more slot than time slices in the window, so the oldest counted slice is never overwritten by the current one.
+        this.buckets = new AtomicLongArray(numBuckets + 1);
+    }
+
+    public boolean hasClientLimit() {
+        return allowedCallsPerClientPerTimeWindow > 0;
+    }
+
+    // Returns a new rate meter with the same time window, metering a single client's calls.
+    public GrpcCallRateMeter newClientRateMeter() {
+        return new GrpcCallRateMeter(allowedCallsPerClientPerTimeWindow, timeUnit, numTimeUnits);
     }
 
     public boolean checkAndIncrement() {
-        if (getCallsCount() < allowedCallsPerTimeWindow) {
-            incrementCallsCount();
+        long bucketId = getCurrentBucketId();
+        int slot = incrementBucket(bucketId);
+        // We increment first and roll back if the limit is exceeded, so concurrent calls
+        // can never exceed the limit together.
+        if (getCallsCount(bucketId) <= allowedCallsPerTimeWindow) {
             return true;
         } else {
+            decrementBucket(slot, bucketId);
             return false;
         }
     }
 
+    // Takes back the last successful checkAndIncrement, e.g. if the call got rejected by another
+    // limit.  If the time slice has changed since, the call stays counted until it leaves the window.
+    public void undoIncrement() {
+        long bucketId = getCurrentBucketId();
+        decrementBucket((int) (bucketId % buckets.length()), bucketId);
+    }
+
     public int getCallsCount() {
-        removeStaleCallTimestamps();
-        return callTimestamps.size();
+        return getCallsCount(getCurrentBucketId());
+    }
+
+    // Calls per second averaged over the time window.
+    public double getCallsPerSecond() {
+        return getCallsCount() * 1000d / timeUnitIntervalInMilliseconds;
     }
 
     public String getCallsCountProgress(String calledMethodName) {
@@ -58,30 +113,59 @@ public class GrpcCallRateMeter {
         // Just print 'GetVersion has been called N times...',
         // not 'io.bisq.protobuffer.GetVersion/GetVersion has been called N times...'
         String loggedMethodName = calledMethodName.split("/")[1];
+        int callsCount = getCallsCount();
         return format("%s has been called %d time%s in the last %s, rate limit is %d/%s",
                 loggedMethodName,
-                callTimestamps.size(),
-                callTimestamps.size() == 1 ? "" : "s",
+                callsCount,
+                callsCount == 1 ? "" : "s",
                 shortTimeUnitName,
                 allowedCallsPerTimeWindow,
                 shortTimeUnitName);
     }
 
-    private void incrementCallsCount() {
-        callTimestamps.add(currentTimeMillis());
+    private long getCurrentBucketId() {
+        return (currentTimeMillis() - startTime) / bucketIntervalInMilliseconds;
     }
 
-    private void removeStaleCallTimestamps() {
-        while (!callTimestamps.isEmpty() && isStale.test(callTimestamps.peek())) {
-            callTimestamps.remove();
+    private int getCallsCount(long currentBucketId) {
+        long oldestBucketId = currentBucketId - buckets.length() + 2;
+        int count = 0;
+        for (int i = 0; i < buckets.length(); i++) {
+            long value = buckets.get(i);
+            long bucketId = value >>> COUNT_BITS;
+            if (bucketId >= oldestBucketId && bucketId <= currentBucketId)
+                count += (int) (value & COUNT_MASK);
         }
+        return count;
     }
 
-    private final Predicate<Long> isStale = (t) -> {
-        long stale = currentTimeMillis() - this.getTimeUnitIntervalInMilliseconds();
-        // Is the given timestamp before the current time minus 1 timeUnit in millis?
-        return t < stale;
-    };
+    private int incrementBucket(long bucketId) {
+        int slot = (int) (bucketId % buckets.length());
+        while (true) {
+            long value = buckets.get(slot);
+            long newValue;
+            if (value >>> COUNT_BITS == bucketId)
+                newValue = (value & COUNT_MASK) == COUNT_MASK ? value : value + 1;
+            else if (value >>> COUNT_BITS < bucketId)
+                newValue = (bucketId << COUNT_BITS) | 1;
+            else
+                return slot; // Slot was already taken by a newer time slice, we are too late to be counted.
+
+            if (buckets.compareAndSet(slot, value, newValue))
+                return slot;
+        }
+    }
+
+    private void decrementBucket(int slot, long bucketId) {
+        while (true) {
+            long value = buckets.get(slot);
+            if (value >>> COUNT_BITS != bucketId || (value & COUNT_MASK) == 0)
+                return;
+
+            if (buckets.compareAndSet(slot, value, value - 1))
+                return;
+        }
+    }
 
     @Override
     public String toString() {
@@ -89,7 +173,8 @@ public class GrpcCallRateMeter {
                 "allowedCallsPerTimeWindow=" + allowedCallsPerTimeWindow +
                 ", timeUnit=" + timeUnit.name() +
                 ", timeUnitIntervalInMilliseconds=" + timeUnitIntervalInMilliseconds +
-                ", callsCount=" + callTimestamps.size() +
+                ", allowedCallsPerClientPerTimeWindow=" + allowedCallsPerClientPerTimeWindow +
+                ", callsCount=" + getCallsCount() +
                 '}';
     }
 }
@@ -60,6 +60,7 @@ public class GrpcServiceRateMeteringConfig {
     private static final String KEY_ALLOWED_CALL_PER_TIME_WINDOW = "allowedCallsPerTimeWindow";
     private static final String KEY_TIME_UNIT = "timeUnit";
     private static final String KEY_NUM_TIME_UNITS = "numTimeUnits";
+    private static final String KEY_ALLOWED_CALLS_PER_CLIENT_PER_TIME_WINDOW = "allowedCallsPerClientPerTimeWindow";
 
     private static final Gson gson = new GsonBuilder().setPrettyPrinting().create();
 
@@ -186,7 +187,11 @@ public class GrpcServiceRateMeteringConfig {
         int allowedCallsPerTimeWindow = ((Number) valueMap.get(KEY_ALLOWED_CALL_PER_TIME_WINDOW)).intValue();
         TimeUnit timeUnit = TimeUnit.valueOf((String) valueMap.get(KEY_TIME_UNIT));
         int numTimeUnits = ((Number) valueMap.get(KEY_NUM_TIME_UNITS)).intValue();
-        return new GrpcCallRateMeter(allowedCallsPerTimeWindow, timeUnit, numTimeUnits);
+        // The per client limit is optional, older config files do not define it.
+        int allowedCallsPerClientPerTimeWindow = valueMap.containsKey(KEY_ALLOWED_CALLS_PER_CLIENT_PER_TIME_WINDOW)
+                ? ((Number) valueMap.get(KEY_ALLOWED_CALLS_PER_CLIENT_PER_TIME_WINDOW)).intValue()
+                : 0;
+        return new GrpcCallRateMeter(allowedCallsPerTimeWindow, timeUnit, numTimeUnits, allowedCallsPerClientPerTimeWindow);
     }
 
     private static void verifyConfigFile(File configFile) {
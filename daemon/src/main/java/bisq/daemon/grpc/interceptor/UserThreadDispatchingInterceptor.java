@@ -0,0 +1,112 @@
+/*
+ * This file is part of Bisq.
+ *
+ * Bisq is free software: you can redistribute it and/or modify it
+ * under the terms of the GNU Affero General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or (at
+ * your option) any later version.
+ *
+ * Bisq is distributed in the hope that it will be useful, but WITHOUT
+ * ANY WARRANTY; without even the implied warranty of MERCHANTABILITY or
+ * FITNESS FOR A PARTICULAR PURPOSE. See the GNU Affero General Public
+ * License for more details.
+ *
+ * You should have received a copy of the GNU Affero General Public License
+ * along with Bisq. If not, see <http://www.gnu.org/licenses/>.
+ */
+
+package bisq.daemon.grpc.interceptor;
+
+import bisq.common.UserThread;
+
+import io.grpc.ForwardingServerCall.SimpleForwardingServerCall;
+import io.grpc.Metadata;
+import io.grpc.ServerCall;
+import io.grpc.ServerCallHandler;
+import io.grpc.ServerInterceptor;
+import io.grpc.Status;
+
+import java.util.Set;
+
+import lombok.extern.slf4j.Slf4j;
+
+/**
+ * Moves the handling of all server calls except the configured read-only calls from
+ * the gRPC server's api executor to the UserThread.  The read-only calls keep running
+ * on the api executor and must not touch state owned by the UserThread.
+ * <p>
+ * The onMutatingCallClosed handler is run whenever a non read-only call gets closed,
+ * which allows read caches to be invalidated after a call changed state.
+ */
+@Slf4j
+public final class UserThreadDispatchingInterceptor implements ServerInterceptor {
+
+    private final Set<String> readOnlyMethodNames;
+    private final Runnable onMutatingCallClosed;
+
+    public UserThreadDispatchingInterceptor(Set<String> readOnlyMethodNames, Runnable onMutatingCallClosed) {
+        this.readOnlyMethodNames = readOnlyMethodNames;
+        this.onMutatingCallClosed = onMutatingCallClosed;
+    }
+
+    @Override
+    public <ReqT, RespT> ServerCall.Listener<ReqT> interceptCall(ServerCall<ReqT, RespT> serverCall,
+                                                                 Metadata headers,
+                                                                 ServerCallHandler<ReqT, RespT> serverCallHandler) {
+        if (readOnlyMethodNames.contains(serverCall.getMethodDescriptor().getFullMethodName()))
+            return serverCallHandler.startCall(serverCall, headers);
+
+        ServerCall<ReqT, RespT> mutatingCall = new SimpleForwardingServerCall<>(serverCall) {
+            @Override
+            public void close(Status status, Metadata trailers) {
+                // We run the handler first so a client's next read after the reply sees the new state.
+                onMutatingCallClosed.run();
+                super.close(status, trailers);
+            }
+        };
+        ServerCall.Listener<ReqT> delegate = serverCallHandler.startCall(mutatingCall, headers);
+
+        // The UserThread is single threaded, so the order of the listener callbacks is preserved.
+        return new ServerCall.Listener<>() {
+            @Override
+            public void onMessage(ReqT message) {
+                execute(mutatingCall, () -> delegate.onMessage(message));
+            }
+
+            @Override
+            public void onHalfClose() {
+                execute(mutatingCall, delegate::onHalfClose);
+            }
+
+            @Override
+            public void onCancel() {
+                execute(mutatingCall, delegate::onCancel);
+            }
+
+            @Override
+            public void onComplete() {
+                execute(mutatingCall, delegate::onComplete);
+            }
+
+            @Override
+            public void onReady() {
+                execute(mutatingCall, delegate::onReady);
+            }
+        };
+    }
+
+    private void execute(ServerCall<?, ?> serverCall, Runnable runnable) {
+        UserThread.execute(() -> {
+            try {
+                runnable.run();
+            } catch (RuntimeException e) {
+                log.error("Unhandled exception in {}", serverCall.getMethodDescriptor().getFullMethodName(), e);
+                try {
+                    serverCall.close(Status.fromThrowable(e), new Metadata());
+                } catch (IllegalStateException ignore) {
+                    // Call was already closed.
+                }
+            }
+        });
+    }
+}
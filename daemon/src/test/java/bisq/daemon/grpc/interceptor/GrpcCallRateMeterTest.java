@@ -0,0 +1,96 @@
+/*
+ * This file is part of Bisq.
+ *
+ * Bisq is free software: you can redistribute it and/or modify it
+ * under the terms of the GNU Affero General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or (at
+ * your option) any later version.
+ *
+ * Bisq is distributed in the hope that it will be useful, but WITHOUT
+ * ANY WARRANTY; without even the implied warranty of MERCHANTABILITY or
+ * FITNESS FOR A PARTICULAR PURPOSE. See the GNU Affero General Public
+ * License for more details.
+ *
+ * You should have received a copy of the GNU Affero General Public License
+ * along with Bisq. If not, see <http://www.gnu.org/licenses/>.
+ */
+
+package bisq.daemon.grpc.interceptor;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+
+import org.junit.Test;
+
+import static java.util.concurrent.TimeUnit.MINUTES;
+import static java.util.concurrent.TimeUnit.SECONDS;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+public class GrpcCallRateMeterTest {
+
+    @Test
+    public void testConcurrentCallsDoNotExceedLimit() throws Exception {
+        int allowedCalls = 1000;
+        GrpcCallRateMeter rateMeter = new GrpcCallRateMeter(allowedCalls, MINUTES);
+        int numThreads = 8;
+        int callsPerThread = 500;
+        ExecutorService executor = Executors.newFixedThreadPool(numThreads);
+        CountDownLatch startLatch = new CountDownLatch(1);
+        List<Future<Integer>> futures = new ArrayList<>();
+        for (int i = 0; i < numThreads; i++) {
+            futures.add(executor.submit(() -> {
+                startLatch.await();
+                int allowed = 0;
+                for (int j = 0; j < callsPerThread; j++) {
+                    if (rateMeter.checkAndIncrement())
+                        allowed++;
+                }
+                return allowed;
+            }));
+        }
+        startLatch.countDown();
+        int totalAllowed = 0;
+        for (Future<Integer> future : futures) {
+            totalAllowed += future.get();
+        }
+        executor.shutdown();
+
+        // A call rolled back after a concurrent increment can cause another call to get rejected, so fewer calls
+        // than the limit might get admitted, but never more.
+        assertTrue(totalAllowed > 0);
+        assertTrue(totalAllowed <= allowedCalls);
+        assertTrue(rateMeter.getCallsCount() <= allowedCalls);
+    }
+
+    @Test
+    public void testClientRateMeter() {
+        GrpcCallRateMeter rateMeter = new GrpcCallRateMeter(10, SECONDS, 1, 2);
+        assertTrue(rateMeter.hasClientLimit());
+        assertFalse(new GrpcCallRateMeter(10, SECONDS).hasClientLimit());
+
+        GrpcCallRateMeter clientRateMeter = rateMeter.newClientRateMeter();
+        assertEquals(2, clientRateMeter.getAllowedCallsPerTimeWindow());
+        assertEquals(rateMeter.getTimeUnitIntervalInMilliseconds(), clientRateMeter.getTimeUnitIntervalInMilliseconds());
+        assertTrue(clientRateMeter.checkAndIncrement());
+        assertTrue(clientRateMeter.checkAndIncrement());
+        assertFalse(clientRateMeter.checkAndIncrement());
+        assertEquals(2, clientRateMeter.getCallsCount());
+    }
+
+    @Test
+    public void testUndoIncrement() {
+        GrpcCallRateMeter rateMeter = new GrpcCallRateMeter(2, MINUTES);
+        assertTrue(rateMeter.checkAndIncrement());
+        assertTrue(rateMeter.checkAndIncrement());
+        rateMeter.undoIncrement();
+        assertEquals(1, rateMeter.getCallsCount());
+        assertTrue(rateMeter.checkAndIncrement());
+        assertFalse(rateMeter.checkAndIncrement());
+    }
+}
@@ -871,7 +871,7 @@ public class DisputeSummaryWindow extends Overlay<DisputeSummaryWindow> {
 
         finalizeDisputeHandlerOptional.ifPresent(Runnable::run);
 
-        disputeManager.requestPersistence();
+        disputeManager.requestPersistence(dispute);
 
         closeTicketButton.disableProperty().unbind();
 
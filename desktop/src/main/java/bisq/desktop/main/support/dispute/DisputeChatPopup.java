@@ -88,7 +88,7 @@ public class DisputeChatPopup {
         closeChat();
         this.selectedDispute = selectedDispute;
         selectedDispute.getChatMessages().forEach(m -> m.setWasDisplayed(true));
-        disputeManager.requestPersistence();
+        disputeManager.requestPersistence(selectedDispute);
 
         ChatView chatView = new ChatView(disputeManager, formatter, counterpartyName);
         chatView.setAllowAttachments(true);
@@ -122,7 +122,7 @@ public class DisputeChatPopup {
             chatView.deactivate();
             // at close we set all as displayed. While open we ignore updates of the numNewMsg in the list icon.
             selectedDispute.getChatMessages().forEach(m -> m.setWasDisplayed(true));
-            disputeManager.requestPersistence();
+            disputeManager.requestPersistence(selectedDispute);
             chatPopupStage = null;
         });
 
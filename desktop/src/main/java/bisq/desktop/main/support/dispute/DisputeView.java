@@ -505,7 +505,7 @@ public abstract class DisputeView extends ActivatableView<VBox, Void> {
         Optional<Trade> tradeOptional = disputeManager.findTrade(selectedDispute);
         if (tradeOptional.isPresent() && tradeOptional.get().getPayoutTxId() != null && tradeOptional.get().getPayoutTxId().length() > 0) {
             selectedDispute.setIsClosed();
-            disputeManager.requestPersistence();
+            disputeManager.requestPersistence(selectedDispute);
             onSelectDispute(selectedDispute);
         } else {
             new Popup().warning(Res.get("support.warning.traderCloseOwnDisputeWarning")).show();
@@ -520,7 +520,7 @@ public abstract class DisputeView extends ActivatableView<VBox, Void> {
         if (selectedDispute != null && selectedDispute.isClosed()) {
             selectedDispute.reOpen();
             handleOnProcessDispute(selectedDispute);
-            disputeManager.requestPersistence();
+            disputeManager.requestPersistence(selectedDispute);
             onSelectDispute(selectedDispute);
         }
     }
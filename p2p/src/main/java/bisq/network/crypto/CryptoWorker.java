@@ -0,0 +1,100 @@
+/*
+ * This file is part of Bisq.
+ *
+ * Bisq is free software: you can redistribute it and/or modify it
+ * under the terms of the GNU Affero General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or (at
+ * your option) any later version.
+ *
+ * Bisq is distributed in the hope that it will be useful, but WITHOUT
+ * ANY WARRANTY; without even the implied warranty of MERCHANTABILITY or
+ * FITNESS FOR A PARTICULAR PURPOSE. See the GNU Affero General Public
+ * License for more details.
+ *
+ * You should have received a copy of the GNU Affero General Public License
+ * along with Bisq. If not, see <http://www.gnu.org/licenses/>.
+ */
+
+package bisq.network.crypto;
+
+import bisq.common.util.ExecutorRegistry;
+
+import javax.inject.Inject;
+import javax.inject.Singleton;
+
+import com.google.common.util.concurrent.ListeningExecutorService;
+
+import java.util.ArrayDeque;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.Queue;
+import java.util.concurrent.TimeUnit;
+
+import lombok.extern.slf4j.Slf4j;
+
+/**
+ * Runs the expensive crypto operations of direct messages (decryption and signature
+ * verification of inbound messages, encryption and signing of outbound messages) on a
+ * small thread pool instead of the UserThread.
+ * <p>
+ * Tasks with the same key (e.g. the connection or peer they belong to) are executed one
+ * after another in submission order, so if a task hands its result to the UserThread,
+ * the results of one peer arrive there in order.  Tasks with different keys run in
+ * parallel.
+ */
+@Singleton
+@Slf4j
+public class CryptoWorker {
+    private static final int MAX_THREADS = 4;
+    private static final String EXECUTOR_NAME = "CryptoWorker";
+
+    private final int numThreads;
+    // Guarded by itself. A queue is removed once all of its tasks are executed.
+    private final Map<String, Queue<Runnable>> queuesByKey = new HashMap<>();
+
+    @Inject
+    public CryptoWorker() {
+        numThreads = Math.max(1, Math.min(MAX_THREADS, Runtime.getRuntime().availableProcessors() - 1));
+    }
+
+    public void execute(String key, Runnable task) {
+        synchronized (queuesByKey) {
+            Queue<Runnable> queue = queuesByKey.get(key);
+            if (queue != null) {
+                // A task of that key is running, it will run ours once it is done.
+                queue.add(task);
+                return;
+            }
+            queuesByKey.put(key, new ArrayDeque<>());
+        }
+        getExecutor().execute(() -> runTasks(key, task));
+    }
+
+    public void shutDown() {
+        ExecutorRegistry.shutDownAndAwaitTermination(EXECUTOR_NAME, 1, TimeUnit.SECONDS);
+    }
+
+    // Tasks of one key are chained, so we must not reject any of them.
+    private ListeningExecutorService getExecutor() {
+        return ExecutorRegistry.getListeningExecutorService(EXECUTOR_NAME,
+                numThreads,
+                ExecutorRegistry.UNBOUNDED_QUEUE_CAPACITY);
+    }
+
+    private void runTasks(String key, Runnable firstTask) {
+        Runnable task = firstTask;
+        while (task != null) {
+            try {
+                task.run();
+            } catch (Throwable t) {
+                log.error("Exception at CryptoWorker task", t);
+            }
+            synchronized (queuesByKey) {
+                Queue<Runnable> queue = queuesByKey.get(key);
+                task = queue.poll();
+                if (task == null)
+                    queuesByKey.remove(key);
+            }
+        }
+    }
+}
@@ -0,0 +1,369 @@
+/*
+ * This file is part of Bisq.
+ *
+ * Bisq is free software: you can redistribute it and/or modify it
+ * under the terms of the GNU Affero General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or (at
+ * your option) any later version.
+ *
+ * Bisq is distributed in the hope that it will be useful, but WITHOUT
+ * ANY WARRANTY; without even the implied warranty of MERCHANTABILITY or
+ * FITNESS FOR A PARTICULAR PURPOSE. See the GNU Affero General Public
+ * License for more details.
+ *
+ * You should have received a copy of the GNU Affero General Public License
+ * along with Bisq. If not, see <http://www.gnu.org/licenses/>.
+ */
+
+package bisq.network.http;
+
+import bisq.common.metrics.MetricsRegistry;
+
+import org.apache.http.HttpEntity;
+import org.apache.http.client.config.RequestConfig;
+import org.apache.http.client.methods.CloseableHttpResponse;
+import org.apache.http.client.methods.HttpUriRequest;
+import org.apache.http.client.protocol.HttpClientContext;
+import org.apache.http.config.Registry;
+import org.apache.http.config.RegistryBuilder;
+import org.apache.http.conn.socket.ConnectionSocketFactory;
+import org.apache.http.conn.socket.PlainConnectionSocketFactory;
+import org.apache.http.conn.ssl.SSLConnectionSocketFactory;
+import org.apache.http.impl.client.CloseableHttpClient;
+import org.apache.http.impl.client.HttpClients;
+import org.apache.http.impl.conn.PoolingHttpClientConnectionManager;
+import org.apache.http.ssl.SSLContexts;
+import org.apache.http.util.EntityUtils;
+
+import com.runjva.sourceforge.jsocks.protocol.Socks5Proxy;
+
+import com.google.common.annotations.VisibleForTesting;
+
+import java.net.InetSocketAddress;
+
+import java.nio.charset.StandardCharsets;
+
+import java.io.IOException;
+
+import java.util.Arrays;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.function.ToDoubleFunction;
+import java.util.stream.Collectors;
+
+import lombok.Value;
+import lombok.extern.slf4j.Slf4j;
+
+import javax.annotation.Nullable;
+
+/**
+ * Pooled http clients shared by all HttpClientImpl instances.
+ * <p>
+ * We keep one client per socks5 proxy (and one for direct requests), each with a pool of keep-alive connections
+ * per host, so the requests to the same host reuse connections or Tor streams instead of opening a new one for each
+ * request. Concurrent GET requests with the same url, headers and proxy are only sent once and all callers get
+ * the same response.
+ * <p>
+ * If a host failed FAILURE_THRESHOLD times in a row with a connection error or a 5xx response, we open its circuit
+ * and let requests to it fail immediately for the open circuit period. After that period requests are sent again,
+ * and the next failure opens the circuit again until a request succeeds.
+ * <p>
+ * The metrics of each host of the shared instance are registered with the {@link MetricsRegistry}.
+ */
+@Slf4j
+public class HttpClientPool {
+    private static final int MAX_CONNECTIONS_PER_HOST = 4;
+    private static final int MAX_CONNECTIONS = 40;
+    private static final int CONNECT_TIMEOUT_MS = (int) TimeUnit.SECONDS.toMillis(60);
+    private static final int SOCKET_TIMEOUT_MS = (int) TimeUnit.SECONDS.toMillis(120);
+    private static final long IDLE_CONNECTION_TIMEOUT_SEC = 60;
+    private static final int FAILURE_THRESHOLD = 5;
+    private static final long OPEN_CIRCUIT_PERIOD_MS = TimeUnit.SECONDS.toMillis(60);
+    private static final String DIRECT = "direct";
+
+    private static final Map<String, ToDoubleFunction<HostMetrics>> GAUGES = Map.of(
+            "http_client_requests", HostMetrics::getNumRequests,
+            "http_client_errors", HostMetrics::getNumErrors,
+            "http_client_coalesced_requests", HostMetrics::getNumCoalescedRequests,
+            "http_client_avg_latency_ms", HostMetrics::getAvgLatencyMs,
+            "http_client_max_latency_ms", HostMetrics::getMaxLatencyMs,
+            "http_client_circuit_open", metrics -> metrics.isCircuitOpen() ? 1 : 0);
+
+    private static final HttpClientPool INSTANCE = new HttpClientPool(FAILURE_THRESHOLD, OPEN_CIRCUIT_PERIOD_MS, true);
+
+    public static HttpClientPool getInstance() {
+        return INSTANCE;
+    }
+
+    @Value
+    public static class HostMetrics {
+        String host;
+        long numRequests;
+        long numErrors;
+        long numCoalescedRequests;
+        double avgLatencyMs;
+        long maxLatencyMs;
+        boolean circuitOpen;
+    }
+
+    private final int failureThreshold;
+    private final long openCircuitPeriodMs;
+    private final boolean registerMetrics;
+    private final RequestConfig requestConfig = RequestConfig.custom()
+            .setConnectTimeout(CONNECT_TIMEOUT_MS)
+            .setConnectionRequestTimeout(CONNECT_TIMEOUT_MS)
+            .setSocketTimeout(SOCKET_TIMEOUT_MS)
+            .build();
+    private final Map<String, CloseableHttpClient> clientsByProxy = new ConcurrentHashMap<>();
+    private final Map<String, CompletableFuture<String>> pendingGetRequests = new ConcurrentHashMap<>();
+    private final Map<String, HostState> hostStates = new ConcurrentHashMap<>();
+
+
+    ///////////////////////////////////////////////////////////////////////////////////////////
+    // Constructor
+    ///////////////////////////////////////////////////////////////////////////////////////////
+
+    // Instances used in tests do not register their metrics, as they would replace the ones of other instances.
+    @VisibleForTesting
+    HttpClientPool(int failureThreshold, long openCircuitPeriodMs) {
+        this(failureThreshold, openCircuitPeriodMs, false);
+    }
+
+    private HttpClientPool(int failureThreshold, long openCircuitPeriodMs, boolean registerMetrics) {
+        this.failureThreshold = failureThreshold;
+        this.openCircuitPeriodMs = openCircuitPeriodMs;
+        this.registerMetrics = registerMetrics;
+    }
+
+
+    ///////////////////////////////////////////////////////////////////////////////////////////
+    // API
+    ///////////////////////////////////////////////////////////////////////////////////////////
+
+    // Returns the response body if the status code is 200. GET requests get coalesced.
+    String execute(HttpUriRequest request, @Nullable Socks5Proxy socks5Proxy) throws IOException, HttpException {
+        String host = request.getURI().getAuthority();
+        HostState hostState = hostStates.computeIfAbsent(host, this::createHostState);
+        if (hostState.isCircuitOpen()) {
+            throw new IOException("Circuit for " + host + " is open after " + hostState.consecutiveFailures +
+                    " failed requests. We do not send requests to it for now.");
+        }
+
+        if (!request.getMethod().equals("GET")) {
+            return send(request, socks5Proxy, hostState);
+        }
+
+        String key = getProxyKey(socks5Proxy) + " " + request.getURI() + " " + Arrays.toString(request.getAllHeaders());
+        CompletableFuture<String> future = new CompletableFuture<>();
+        CompletableFuture<String> pendingRequest = pendingGetRequests.putIfAbsent(key, future);
+        if (pendingRequest != null) {
+            hostState.numCoalescedRequests.increment();
+            return await(pendingRequest);
+        }
+
+        try {
+            String response = send(request, socks5Proxy, hostState);
+            future.complete(response);
+            return response;
+        } catch (IOException | HttpException | RuntimeException e) {
+            future.completeExceptionally(e);
+            throw e;
+        } finally {
+            pendingGetRequests.remove(key, future);
+        }
+    }
+
+    public List<HostMetrics> getHostMetrics() {
+        return hostStates.values().stream()
+                .map(HostState::getMetrics)
+                .collect(Collectors.toList());
+    }
+
+    public void shutDown() {
+        clientsByProxy.values().forEach(client -> {
+            try {
+                client.close();
+            } catch (IOException ignore) {
+            }
+        });
+        clientsByProxy.clear();
+    }
+
+
+    ///////////////////////////////////////////////////////////////////////////////////////////
+    // Private
+    ///////////////////////////////////////////////////////////////////////////////////////////
+
+    private String send(HttpUriRequest request,
+                        @Nullable Socks5Proxy socks5Proxy,
+                        HostState hostState) throws IOException, HttpException {
+        HttpClientContext context = HttpClientContext.create();
+        if (socks5Proxy != null) {
+            context.setAttribute("socks.address",
+                    new InetSocketAddress(socks5Proxy.getInetAddress(), socks5Proxy.getPort()));
+        }
+
+        long ts = System.currentTimeMillis();
+        CloseableHttpClient client = clientsByProxy.computeIfAbsent(getProxyKey(socks5Proxy),
+                key -> createClient(socks5Proxy));
+        try (CloseableHttpResponse httpResponse = client.execute(request, context)) {
+            // We need to consume the entity completely so the connection can be reused.
+            HttpEntity entity = httpResponse.getEntity();
+            String response = entity != null ? EntityUtils.toString(entity, StandardCharsets.UTF_8) : "";
+            int statusCode = httpResponse.getStatusLine().getStatusCode();
+            long latency = System.currentTimeMillis() - ts;
+            if (statusCode == 200) {
+                hostState.onSuccess(latency);
+                return response;
+            }
+
+            log.info("Received errorMsg '{}' with statusCode {} from {}. Response took: {} ms.",
+                    response, statusCode, request.getURI().getAuthority(), latency);
+            // A 4xx response shows that the host is available, so we only count 5xx for the circuit breaker.
+            hostState.onErrorResponse(latency, statusCode >= 500);
+            throw new HttpException(response, statusCode);
+        } catch (IOException e) {
+            if (!request.isAborted()) {
+                hostState.onConnectionFailure(System.currentTimeMillis() - ts);
+            }
+            throw e;
+        }
+    }
+
+    private HostState createHostState(String host) {
+        HostState hostState = new HostState(host);
+        if (registerMetrics) {
+            GAUGES.forEach((name, value) -> MetricsRegistry.gauge(name,
+                    "Http requests per host, see HttpClientPool.HostMetrics",
+                    () -> value.applyAsDouble(hostState.getMetrics()),
+                    "host", host));
+        }
+        return hostState;
+    }
+
+    private String await(CompletableFuture<String> pendingRequest) throws IOException, HttpException {
+        try {
+            return pendingRequest.get(CONNECT_TIMEOUT_MS + SOCKET_TIMEOUT_MS, TimeUnit.MILLISECONDS);
+        } catch (ExecutionException e) {
+            Throwable cause = e.getCause();
+            if (cause instanceof HttpException) {
+                throw new HttpException(cause.getMessage(), ((HttpException) cause).getResponseCode());
+            }
+            throw new IOException(cause.getMessage(), cause);
+        } catch (TimeoutException e) {
+            throw new IOException("Timeout at waiting for response of pending request", e);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new IOException("Interrupted at waiting for response of pending request", e);
+        }
+    }
+
+    private CloseableHttpClient createClient(@Nullable Socks5Proxy socks5Proxy) {
+        PoolingHttpClientConnectionManager connectionManager;
+        if (socks5Proxy == null) {
+            Registry<ConnectionSocketFactory> registry = RegistryBuilder.<ConnectionSocketFactory>create()
+                    .register("http", PlainConnectionSocketFactory.getSocketFactory())
+                    .register("https", SSLConnectionSocketFactory.getSocketFactory()).build();
+            connectionManager = new PoolingHttpClientConnectionManager(registry);
+        } else {
+            // Register our own SocketFactories to override createSocket() and connectSocket().
+            // connectSocket does NOT resolve hostname before passing it to proxy.
+            Registry<ConnectionSocketFactory> registry = RegistryBuilder.<ConnectionSocketFactory>create()
+                    .register("http", new SocksConnectionSocketFactory())
+                    .register("https", new SocksSSLConnectionSocketFactory(SSLContexts.createSystemDefault())).build();
+
+            // Use FakeDNSResolver if not resolving DNS locally.
+            // This prevents a local DNS lookup (which would be ignored anyway)
+            connectionManager = socks5Proxy.resolveAddrLocally() ?
+                    new PoolingHttpClientConnectionManager(registry) :
+                    new PoolingHttpClientConnectionManager(registry, new FakeDnsResolver());
+        }
+        connectionManager.setMaxTotal(MAX_CONNECTIONS);
+        connectionManager.setDefaultMaxPerRoute(MAX_CONNECTIONS_PER_HOST);
+        return HttpClients.custom()
+                .setConnectionManager(connectionManager)
+                .setDefaultRequestConfig(requestConfig)
+                .evictExpiredConnections()
+                .evictIdleConnections(IDLE_CONNECTION_TIMEOUT_SEC, TimeUnit.SECONDS)
+                .build();
+    }
+
+    private static String getProxyKey(@Nullable Socks5Proxy socks5Proxy) {
+        return socks5Proxy == null ?
+                DIRECT :
+                socks5Proxy.getInetAddress() + ":" + socks5Proxy.getPort() + ":" + socks5Proxy.resolveAddrLocally();
+    }
+
+    private class HostState {
+        private final String host;
+        private final LongAdder numRequests = new LongAdder();
+        private final LongAdder numErrors = new LongAdder();
+        private final LongAdder numCoalescedRequests = new LongAdder();
+        private final LongAdder totalLatency = new LongAdder();
+        private final AtomicLong maxLatency = new AtomicLong();
+        private volatile int consecutiveFailures;
+        private volatile long circuitOpenUntil;
+
+        HostState(String host) {
+            this.host = host;
+        }
+
+        boolean isCircuitOpen() {
+            return System.currentTimeMillis() < circuitOpenUntil;
+        }
+
+        void onSuccess(long latency) {
+            recordLatency(latency);
+            consecutiveFailures = 0;
+        }
+
+        void onErrorResponse(long latency, boolean isServerError) {
+            recordLatency(latency);
+            numErrors.increment();
+            if (isServerError) {
+                onFailure();
+            } else {
+                consecutiveFailures = 0;
+            }
+        }
+
+        void onConnectionFailure(long latency) {
+            recordLatency(latency);
+            numErrors.increment();
+            onFailure();
+        }
+
+        private void recordLatency(long latency) {
+            numRequests.increment();
+            totalLatency.add(latency);
+            maxLatency.accumulateAndGet(latency, Math::max);
+        }
+
+        private synchronized void onFailure() {
+            consecutiveFailures++;
+            if (consecutiveFailures >= failureThreshold) {
+                log.warn("Requests to {} failed {} times in a row. We open its circuit for {} ms.",
+                        host, consecutiveFailures, openCircuitPeriodMs);
+                circuitOpenUntil = System.currentTimeMillis() + openCircuitPeriodMs;
+            }
+        }
+
+        HostMetrics getMetrics() {
+            long numRequests = this.numRequests.sum();
+            return new HostMetrics(host,
+                    numRequests,
+                    numErrors.sum(),
+                    numCoalescedRequests.sum(),
+                    numRequests == 0 ? 0 : totalLatency.sum() / (double) numRequests,
+                    maxLatency.get(),
+                    isCircuitOpen());
+        }
+    }
+}
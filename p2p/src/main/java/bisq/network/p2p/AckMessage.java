@@ -43,7 +43,8 @@ import javax.annotation.Nullable;
 @EqualsAndHashCode(callSuper = true, exclude = {"uid"})
 @Value
 @Slf4j
-public final class AckMessage extends NetworkEnvelope implements MailboxMessage, PersistablePayload, ExpirablePayload {
+public final class AckMessage extends NetworkEnvelope implements MailboxMessage, PersistablePayload, ExpirablePayload,
+        RoutableMessage {
     public static final long TTL = TimeUnit.DAYS.toMillis(7);
 
     private final String uid;
@@ -155,6 +156,12 @@ public final class AckMessage extends NetworkEnvelope implements MailboxMessage,
         return TTL;
     }
 
+    // We route the AckMessage to the listeners of the source, e.g. the trade protocol of the trade with the sourceId.
+    @Override
+    public String getRoutingId() {
+        return sourceId;
+    }
+
     @Override
     public String toString() {
         return "AckMessage{" +
@@ -25,6 +25,7 @@ import bisq.network.p2p.network.NewTor;
 import bisq.network.p2p.network.RunningTor;
 import bisq.network.p2p.network.TorMode;
 import bisq.network.p2p.network.TorNetworkNode;
+import bisq.network.p2p.seed.SeedNodeRepository;
 
 import bisq.common.config.Config;
 import bisq.common.proto.network.NetworkProtoResolver;
@@ -44,6 +45,7 @@ public class NetworkNodeProvider implements Provider<NetworkNode> {
     @Inject
     public NetworkNodeProvider(NetworkProtoResolver networkProtoResolver,
                                BridgeAddressProvider bridgeAddressProvider,
+                               SeedNodeRepository seedNodeRepository,
                                @Nullable NetworkFilter networkFilter,
                                @Named(Config.USE_LOCALHOST_FOR_P2P) boolean useLocalhostForP2P,
                                @Named(Config.NODE_PORT) int port,
@@ -66,7 +68,12 @@ public class NetworkNodeProvider implements Provider<NetworkNode> {
                     password,
                     cookieFile,
                     useSafeCookieAuthentication);
-            networkNode = new TorNetworkNode(port, networkProtoResolver, streamIsolation, torMode, networkFilter);
+            networkNode = new TorNetworkNode(port,
+                    networkProtoResolver,
+                    streamIsolation,
+                    torMode,
+                    networkFilter,
+                    seedNodeRepository.getSeedNodeAddresses());
         }
     }
 
@@ -18,6 +18,7 @@
 package bisq.network.p2p;
 
 import bisq.network.Socks5ProxyProvider;
+import bisq.network.crypto.CryptoWorker;
 import bisq.network.crypto.EncryptionService;
 import bisq.network.p2p.mailbox.MailboxMessageService;
 import bisq.network.p2p.network.CloseConnectionReason;
@@ -44,6 +45,7 @@ import bisq.common.app.Capabilities;
 import bisq.common.crypto.CryptoException;
 import bisq.common.crypto.KeyRing;
 import bisq.common.crypto.PubKeyRing;
+import bisq.common.crypto.SealedAndSigned;
 import bisq.common.proto.ProtobufferException;
 import bisq.common.proto.network.NetworkEnvelope;
 
@@ -87,6 +89,7 @@ public class P2PService implements SetupListener, MessageListener, ConnectionLis
     private static final Logger log = LoggerFactory.getLogger(P2PService.class);
 
     private final EncryptionService encryptionService;
+    private final CryptoWorker cryptoWorker;
     private final KeyRing keyRing;
     @Getter
     private final MailboxMessageService mailboxMessageService;
@@ -102,6 +105,8 @@ public class P2PService implements SetupListener, MessageListener, ConnectionLis
     @SuppressWarnings("FieldCanBeLocal")
     private final MonadicBinding<Boolean> networkReadyBinding;
     private final Set<DecryptedDirectMessageListener> decryptedDirectMessageListeners = new CopyOnWriteArraySet<>();
+    // Listeners which only get the RoutableMessages with the routing id they registered for.
+    private final RoutedListeners<DecryptedDirectMessageListener> routedDecryptedDirectMessageListeners = new RoutedListeners<>();
     private final Set<P2PServiceListener> p2pServiceListeners = new CopyOnWriteArraySet<>();
     private final Set<Runnable> shutDownResultHandlers = new CopyOnWriteArraySet<>();
     private final BooleanProperty hiddenServicePublished = new SimpleBooleanProperty();
@@ -132,6 +137,7 @@ public class P2PService implements SetupListener, MessageListener, ConnectionLis
                       Broadcaster broadcaster,
                       Socks5ProxyProvider socks5ProxyProvider,
                       EncryptionService encryptionService,
+                      CryptoWorker cryptoWorker,
                       KeyRing keyRing,
                       MailboxMessageService mailboxMessageService) {
         this.networkNode = networkNode;
@@ -143,6 +149,7 @@ public class P2PService implements SetupListener, MessageListener, ConnectionLis
         this.broadcaster = broadcaster;
         this.socks5ProxyProvider = socks5ProxyProvider;
         this.encryptionService = encryptionService;
+        this.cryptoWorker = cryptoWorker;
         this.keyRing = keyRing;
         this.mailboxMessageService = mailboxMessageService;
 
@@ -222,6 +229,8 @@ public class P2PService implements SetupListener, MessageListener, ConnectionLis
             networkReadySubscription.unsubscribe();
         }
 
+        cryptoWorker.shutDown();
+
         if (networkNode != null) {
             networkNode.shutDown(() -> {
                 shutDownResultHandlers.forEach(Runnable::run);
@@ -377,25 +386,36 @@ public class P2PService implements SetupListener, MessageListener, ConnectionLis
     public void onMessage(NetworkEnvelope networkEnvelope, Connection connection) {
         if (networkEnvelope instanceof PrefixedSealedAndSignedMessage) {
             PrefixedSealedAndSignedMessage sealedMsg = (PrefixedSealedAndSignedMessage) networkEnvelope;
-            try {
-                DecryptedMessageWithPubKey decryptedMsg = encryptionService.decryptAndVerify(sealedMsg.getSealedAndSigned());
-                connection.maybeHandleSupportedCapabilitiesMessage(decryptedMsg.getNetworkEnvelope());
-                connection.getPeersNodeAddressOptional().ifPresentOrElse(nodeAddress ->
-                                decryptedDirectMessageListeners.forEach(e -> e.onDirectMessage(decryptedMsg, nodeAddress)),
-                        () -> {
-                            log.error("peersNodeAddress is expected to be available at onMessage for " +
-                                    "processing PrefixedSealedAndSignedMessage.");
-                        });
-            } catch (CryptoException e) {
-                log.warn("Decryption of a direct message failed. This is not expected as the " +
-                        "direct message was sent to our node.");
-            } catch (ProtobufferException e) {
-                log.error("ProtobufferException at decryptAndVerify: {}", e.toString());
-                e.getStackTrace();
-            }
+            // We decrypt and verify off the UserThread. The tasks of one connection are executed in order, so the
+            // decrypted messages of a peer get delivered in the order we received them.
+            cryptoWorker.execute(connection.getUid(), () -> {
+                try {
+                    DecryptedMessageWithPubKey decryptedMsg = encryptionService.decryptAndVerify(sealedMsg.getSealedAndSigned());
+                    UserThread.execute(() -> onDecryptedMessage(decryptedMsg, connection));
+                } catch (CryptoException e) {
+                    log.warn("Decryption of a direct message failed. This is not expected as the " +
+                            "direct message was sent to our node.");
+                } catch (ProtobufferException e) {
+                    log.error("ProtobufferException at decryptAndVerify: {}", e.toString());
+                    e.getStackTrace();
+                }
+            });
         }
     }
 
+    private void onDecryptedMessage(DecryptedMessageWithPubKey decryptedMsg, Connection connection) {
+        connection.maybeHandleSupportedCapabilitiesMessage(decryptedMsg.getNetworkEnvelope());
+        connection.getPeersNodeAddressOptional().ifPresentOrElse(nodeAddress -> {
+                    decryptedDirectMessageListeners.forEach(e -> e.onDirectMessage(decryptedMsg, nodeAddress));
+                    routedDecryptedDirectMessageListeners.get(decryptedMsg.getNetworkEnvelope())
+                            .forEach(e -> e.onDirectMessage(decryptedMsg, nodeAddress));
+                },
+                () -> {
+                    log.error("peersNodeAddress is expected to be available at onMessage for " +
+                            "processing PrefixedSealedAndSignedMessage.");
+                });
+    }
+
 
     ///////////////////////////////////////////////////////////////////////////////////////////
     // DirectMessages
@@ -429,33 +449,40 @@ public class P2PService implements SetupListener, MessageListener, ConnectionLis
             return;
         }
 
-        try {
-            // Prefix is not needed for direct messages but as old code is doing the verification we still need to
-            // send it if peer has not updated.
-            PrefixedSealedAndSignedMessage sealedMsg = new PrefixedSealedAndSignedMessage(
-                    networkNode.getNodeAddress(),
-                    encryptionService.encryptAndSign(pubKeyRing, message));
-
-            SettableFuture<Connection> future = networkNode.sendMessage(peersNodeAddress, sealedMsg);
-            Futures.addCallback(future, new FutureCallback<>() {
-                @Override
-                public void onSuccess(@Nullable Connection connection) {
-                    sendDirectMessageListener.onArrived();
-                }
-
-                @Override
-                public void onFailure(@NotNull Throwable throwable) {
-                    log.error(throwable.toString());
-                    throwable.printStackTrace();
-                    sendDirectMessageListener.onFault(throwable.toString());
-                }
-            }, MoreExecutors.directExecutor());
-        } catch (CryptoException e) {
-            e.printStackTrace();
-            log.error(message.toString());
-            log.error(e.toString());
-            sendDirectMessageListener.onFault(e.toString());
-        }
+        // We encrypt and sign off the UserThread and send from the UserThread again. The tasks for one peer are
+        // executed in order, so the messages to a peer are sent in the order of the sendEncryptedDirectMessage calls.
+        NodeAddress senderNodeAddress = networkNode.getNodeAddress();
+        cryptoWorker.execute(peersNodeAddress.getFullAddress(), () -> {
+            try {
+                SealedAndSigned sealedAndSigned = encryptionService.encryptAndSign(pubKeyRing, message);
+                UserThread.execute(() -> {
+                    // Prefix is not needed for direct messages but as old code is doing the verification we still
+                    // need to send it if peer has not updated.
+                    PrefixedSealedAndSignedMessage sealedMsg = new PrefixedSealedAndSignedMessage(senderNodeAddress,
+                            sealedAndSigned);
+
+                    SettableFuture<Connection> future = networkNode.sendMessage(peersNodeAddress, sealedMsg);
+                    Futures.addCallback(future, new FutureCallback<>() {
+                        @Override
+                        public void onSuccess(@Nullable Connection connection) {
+                            sendDirectMessageListener.onArrived();
+                        }
+
+                        @Override
+                        public void onFailure(@NotNull Throwable throwable) {
+                            log.error(throwable.toString());
+                            throwable.printStackTrace();
+                            sendDirectMessageListener.onFault(throwable.toString());
+                        }
+                    }, MoreExecutors.directExecutor());
+                });
+            } catch (CryptoException e) {
+                e.printStackTrace();
+                log.error(message.toString());
+                log.error(e.toString());
+                UserThread.execute(() -> sendDirectMessageListener.onFault(e.toString()));
+            }
+        });
     }
 
 
@@ -522,6 +549,18 @@ public class P2PService implements SetupListener, MessageListener, ConnectionLis
         decryptedDirectMessageListeners.remove(listener);
     }
 
+    /**
+     * Adds a listener which only gets the direct messages implementing RoutableMessage with the given routing id,
+     * e.g. the messages of a single trade.
+     */
+    public void addDecryptedDirectMessageListener(String routingId, DecryptedDirectMessageListener listener) {
+        routedDecryptedDirectMessageListeners.add(routingId, listener);
+    }
+
+    public void removeDecryptedDirectMessageListener(String routingId, DecryptedDirectMessageListener listener) {
+        routedDecryptedDirectMessageListeners.remove(routingId, listener);
+    }
+
     public void addP2PServiceListener(P2PServiceListener listener) {
         p2pServiceListeners.add(listener);
     }
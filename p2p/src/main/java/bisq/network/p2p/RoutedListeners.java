@@ -0,0 +1,52 @@
+/*
+ * This file is part of Bisq.
+ *
+ * Bisq is free software: you can redistribute it and/or modify it
+ * under the terms of the GNU Affero General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or (at
+ * your option) any later version.
+ *
+ * Bisq is distributed in the hope that it will be useful, but WITHOUT
+ * ANY WARRANTY; without even the implied warranty of MERCHANTABILITY or
+ * FITNESS FOR A PARTICULAR PURPOSE. See the GNU Affero General Public
+ * License for more details.
+ *
+ * You should have received a copy of the GNU Affero General Public License
+ * along with Bisq. If not, see <http://www.gnu.org/licenses/>.
+ */
+
+package bisq.network.p2p;
+
+import bisq.common.proto.network.NetworkEnvelope;
+
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.CopyOnWriteArraySet;
+
+/**
+ * Listeners registered for the routing id of a RoutableMessage. Looking up the listeners of
+ * a message is O(1), independent of the number of registered listeners.
+ */
+public class RoutedListeners<T> {
+    private final Map<String, Set<T>> listenersByRoutingId = new ConcurrentHashMap<>();
+
+    public void add(String routingId, T listener) {
+        listenersByRoutingId.computeIfAbsent(routingId, k -> new CopyOnWriteArraySet<>()).add(listener);
+    }
+
+    public void remove(String routingId, T listener) {
+        listenersByRoutingId.computeIfPresent(routingId, (k, listeners) -> {
+            listeners.remove(listener);
+            return listeners.isEmpty() ? null : listeners;
+        });
+    }
+
+    public Set<T> get(NetworkEnvelope networkEnvelope) {
+        if (!(networkEnvelope instanceof RoutableMessage))
+            return Set.of();
+
+        String routingId = ((RoutableMessage) networkEnvelope).getRoutingId();
+        return routingId != null ? listenersByRoutingId.getOrDefault(routingId, Set.of()) : Set.of();
+    }
+}
@@ -17,11 +17,14 @@
 
 package bisq.network.p2p.mailbox;
 
+import bisq.network.crypto.CryptoWorker;
 import bisq.network.crypto.EncryptionService;
 import bisq.network.p2p.DecryptedMessageWithPubKey;
 import bisq.network.p2p.NetworkNotReadyException;
 import bisq.network.p2p.NodeAddress;
 import bisq.network.p2p.PrefixedSealedAndSignedMessage;
+import bisq.network.p2p.RoutableMessage;
+import bisq.network.p2p.RoutedListeners;
 import bisq.network.p2p.SendMailboxMessageListener;
 import bisq.network.p2p.messaging.DecryptedMailboxListener;
 import bisq.network.p2p.network.Connection;
@@ -47,7 +50,7 @@ import bisq.common.persistence.PersistenceManager;
 import bisq.common.proto.ProtobufferException;
 import bisq.common.proto.network.NetworkEnvelope;
 import bisq.common.proto.persistable.PersistedDataHost;
-import bisq.common.util.Utilities;
+import bisq.common.util.ExecutorRegistry;
 
 import javax.inject.Inject;
 import javax.inject.Named;
@@ -74,10 +77,11 @@ import java.util.HashMap;
 import java.util.HashSet;
 import java.util.List;
 import java.util.Map;
+import java.util.Optional;
 import java.util.Queue;
-import java.util.Random;
 import java.util.Set;
 import java.util.concurrent.CopyOnWriteArraySet;
+import java.util.concurrent.RejectedExecutionException;
 import java.util.concurrent.TimeUnit;
 import java.util.stream.Collectors;
 
@@ -112,11 +116,14 @@ import static com.google.common.base.Preconditions.checkNotNull;
 @Slf4j
 public class MailboxMessageService implements HashMapChangedListener, PersistedDataHost {
     private static final long REPUBLISH_DELAY_SEC = TimeUnit.MINUTES.toSeconds(2);
+    private static final String MAILBOX_ENTRY_EXECUTOR_NAME = "MailboxMessageService.processMailboxEntry";
+    private static final int MAILBOX_ENTRY_EXECUTOR_THREADS = 2;
 
     private final NetworkNode networkNode;
     private final PeerManager peerManager;
     private final P2PDataStorage p2PDataStorage;
     private final EncryptionService encryptionService;
+    private final CryptoWorker cryptoWorker;
     private final IgnoredMailboxService ignoredMailboxService;
     private final PersistenceManager<MailboxMessageList> persistenceManager;
     private final KeyRing keyRing;
@@ -126,6 +133,10 @@ public class MailboxMessageService implements HashMapChangedListener, PersistedD
     private final Set<DecryptedMailboxListener> decryptedMailboxListeners = new CopyOnWriteArraySet<>();
     private final MailboxMessageList mailboxMessageList = new MailboxMessageList();
     private final Map<String, MailboxItem> mailboxItemsByUid = new HashMap<>();
+    // Listeners which only get the RoutableMessages with the routing id they registered for.
+    private final RoutedListeners<DecryptedMailboxListener> routedDecryptedMailboxListeners = new RoutedListeners<>();
+    // Index of the uids of my mailbox items by the routing id of their RoutableMessage.
+    private final Map<String, Set<String>> myMailboxItemUidsByRoutingId = new HashMap<>();
 
     private boolean isBootstrapped;
 
@@ -134,6 +145,7 @@ public class MailboxMessageService implements HashMapChangedListener, PersistedD
                                  PeerManager peerManager,
                                  P2PDataStorage p2PDataStorage,
                                  EncryptionService encryptionService,
+                                 CryptoWorker cryptoWorker,
                                  IgnoredMailboxService ignoredMailboxService,
                                  PersistenceManager<MailboxMessageList> persistenceManager,
                                  KeyRing keyRing,
@@ -143,6 +155,7 @@ public class MailboxMessageService implements HashMapChangedListener, PersistedD
         this.peerManager = peerManager;
         this.p2PDataStorage = p2PDataStorage;
         this.encryptionService = encryptionService;
+        this.cryptoWorker = cryptoWorker;
         this.ignoredMailboxService = ignoredMailboxService;
         this.persistenceManager = persistenceManager;
         this.keyRing = keyRing;
@@ -182,7 +195,7 @@ public class MailboxMessageService implements HashMapChangedListener, PersistedD
                                     numItemsPerDay.put(day, numItemsPerDay.get(day) + 1);
 
                                     String uid = mailboxItem.getUid();
-                                    mailboxItemsByUid.put(uid, mailboxItem);
+                                    putMailboxItem(uid, mailboxItem);
                                     mailboxMessageList.add(mailboxItem);
 
                                     // We add it to our map so that it get added to the excluded key set we send for
@@ -265,35 +278,42 @@ public class MailboxMessageService implements HashMapChangedListener, PersistedD
             return;
         }
 
-        try {
-            PrefixedSealedAndSignedMessage prefixedSealedAndSignedMessage = new PrefixedSealedAndSignedMessage(
-                    networkNode.getNodeAddress(),
-                    encryptionService.encryptAndSign(peersPubKeyRing, networkEnvelope));
-            SettableFuture<Connection> future = networkNode.sendMessage(peer, prefixedSealedAndSignedMessage);
-            Futures.addCallback(future, new FutureCallback<>() {
-                @Override
-                public void onSuccess(@Nullable Connection connection) {
-                    sendMailboxMessageListener.onArrived();
-                }
-
-                @Override
-                public void onFailure(@NotNull Throwable throwable) {
-                    PublicKey receiverStoragePublicKey = peersPubKeyRing.getSignaturePubKey();
-                    long ttl = mailboxMessage.getTTL();
-                    log.trace("## We take TTL from {}. ttl={}", mailboxMessage.getClass().getSimpleName(), ttl);
-                    addMailboxData(new MailboxStoragePayload(prefixedSealedAndSignedMessage,
-                                    keyRing.getSignatureKeyPair().getPublic(),
+        // We encrypt and sign off the UserThread and send from the UserThread again. We use the same key as for
+        // direct messages, so all messages to a peer are sent in the order of the calls.
+        NodeAddress senderNodeAddress = networkNode.getNodeAddress();
+        cryptoWorker.execute(peer.getFullAddress(), () -> {
+            try {
+                SealedAndSigned sealedAndSigned = encryptionService.encryptAndSign(peersPubKeyRing, networkEnvelope);
+                UserThread.execute(() -> {
+                    PrefixedSealedAndSignedMessage prefixedSealedAndSignedMessage =
+                            new PrefixedSealedAndSignedMessage(senderNodeAddress, sealedAndSigned);
+                    SettableFuture<Connection> future = networkNode.sendMessage(peer, prefixedSealedAndSignedMessage);
+                    Futures.addCallback(future, new FutureCallback<>() {
+                        @Override
+                        public void onSuccess(@Nullable Connection connection) {
+                            sendMailboxMessageListener.onArrived();
+                        }
+
+                        @Override
+                        public void onFailure(@NotNull Throwable throwable) {
+                            PublicKey receiverStoragePublicKey = peersPubKeyRing.getSignaturePubKey();
+                            long ttl = mailboxMessage.getTTL();
+                            log.trace("## We take TTL from {}. ttl={}", mailboxMessage.getClass().getSimpleName(), ttl);
+                            addMailboxData(new MailboxStoragePayload(prefixedSealedAndSignedMessage,
+                                            keyRing.getSignatureKeyPair().getPublic(),
+                                            receiverStoragePublicKey,
+                                            ttl),
                                     receiverStoragePublicKey,
-                                    ttl),
-                            receiverStoragePublicKey,
-                            sendMailboxMessageListener);
-                }
-            }, MoreExecutors.directExecutor());
-        } catch (CryptoException e) {
-            log.error("sendEncryptedMessage failed");
-            e.printStackTrace();
-            sendMailboxMessageListener.onFault("sendEncryptedMailboxMessage failed " + e);
-        }
+                                    sendMailboxMessageListener);
+                        }
+                    }, MoreExecutors.directExecutor());
+                });
+            } catch (CryptoException e) {
+                log.error("sendEncryptedMessage failed");
+                e.printStackTrace();
+                UserThread.execute(() -> sendMailboxMessageListener.onFault("sendEncryptedMailboxMessage failed " + e));
+            }
+        });
     }
 
     /**
@@ -336,10 +356,33 @@ public class MailboxMessageService implements HashMapChangedListener, PersistedD
                 .collect(Collectors.toSet());
     }
 
+    /**
+     * @param routingId The routing id of the RoutableMessages, e.g. a trade id
+     * @return My decrypted mailbox messages with the given routing id.
+     */
+    public Set<DecryptedMessageWithPubKey> getMyDecryptedMailboxMessages(String routingId) {
+        return myMailboxItemUidsByRoutingId.getOrDefault(routingId, Set.of()).stream()
+                .map(mailboxItemsByUid::get)
+                .map(MailboxItem::getDecryptedMessageWithPubKey)
+                .collect(Collectors.toSet());
+    }
+
     public void addDecryptedMailboxListener(DecryptedMailboxListener listener) {
         decryptedMailboxListeners.add(listener);
     }
 
+    /**
+     * Adds a listener which only gets the mailbox messages implementing RoutableMessage with the given routing id,
+     * e.g. the messages of a single trade.
+     */
+    public void addDecryptedMailboxListener(String routingId, DecryptedMailboxListener listener) {
+        routedDecryptedMailboxListeners.add(routingId, listener);
+    }
+
+    public void removeDecryptedMailboxListener(String routingId, DecryptedMailboxListener listener) {
+        routedDecryptedMailboxListeners.remove(routingId, listener);
+    }
+
 
     ///////////////////////////////////////////////////////////////////////////////////////////
     // HashMapChangedListener implementation for ProtectedStorageEntry items
@@ -394,15 +437,23 @@ public class MailboxMessageService implements HashMapChangedListener, PersistedD
     // We run the batch processing of all mailbox messages we have received at startup in a thread to not block the UI.
     // For about 1000 messages decryption takes about 1 sec.
     private void threadedBatchProcessMailboxEntries(Collection<ProtectedMailboxStorageEntry> protectedMailboxStorageEntries) {
-        ListeningExecutorService executor = Utilities.getSingleThreadListeningExecutor("processMailboxEntry-" + new Random().nextInt(1000));
         long ts = System.currentTimeMillis();
-        ListenableFuture<Set<MailboxItem>> future = executor.submit(() -> {
-            var mailboxItems = getMailboxItems(protectedMailboxStorageEntries);
-            log.info("Batch processing of {} mailbox entries took {} ms",
-                    protectedMailboxStorageEntries.size(),
-                    System.currentTimeMillis() - ts);
-            return mailboxItems;
-        });
+        ListenableFuture<Set<MailboxItem>> future;
+        try {
+            future = getMailboxEntryExecutor().submit(() -> {
+                var mailboxItems = getMailboxItems(protectedMailboxStorageEntries);
+                log.info("Batch processing of {} mailbox entries took {} ms",
+                        protectedMailboxStorageEntries.size(),
+                        System.currentTimeMillis() - ts);
+                return mailboxItems;
+            });
+        } catch (RejectedExecutionException e) {
+            // We must not lose mailbox messages, so if the executor is saturated we process them on the user thread.
+            log.warn("Batch processing of {} mailbox entries got rejected, we process them on the user thread.",
+                    protectedMailboxStorageEntries.size());
+            getMailboxItems(protectedMailboxStorageEntries).forEach(this::handleMailboxItem);
+            return;
+        }
 
         Futures.addCallback(future, new FutureCallback<>() {
             public void onSuccess(Set<MailboxItem> decryptedMailboxMessageWithEntries) {
@@ -415,6 +466,11 @@ public class MailboxMessageService implements HashMapChangedListener, PersistedD
         }, MoreExecutors.directExecutor());
     }
 
+    // All batches share one bounded executor instead of a new thread per batch.
+    private static ListeningExecutorService getMailboxEntryExecutor() {
+        return ExecutorRegistry.getListeningExecutorService(MAILBOX_ENTRY_EXECUTOR_NAME, MAILBOX_ENTRY_EXECUTOR_THREADS);
+    }
+
     private Set<MailboxItem> getMailboxItems(Collection<ProtectedMailboxStorageEntry> protectedMailboxStorageEntries) {
         Set<MailboxItem> mailboxItems = new HashSet<>();
         protectedMailboxStorageEntries.stream()
@@ -451,7 +507,7 @@ public class MailboxMessageService implements HashMapChangedListener, PersistedD
     private void handleMailboxItem(MailboxItem mailboxItem) {
         String uid = mailboxItem.getUid();
         if (!mailboxItemsByUid.containsKey(uid)) {
-            mailboxItemsByUid.put(uid, mailboxItem);
+            putMailboxItem(uid, mailboxItem);
             mailboxMessageList.add(mailboxItem);
             log.trace("## handleMailboxItem uid={}\nhash={}",
                     uid,
@@ -476,6 +532,7 @@ public class MailboxMessageService implements HashMapChangedListener, PersistedD
         log.info("Received a {} mailbox message with uid {} and senderAddress {}",
                 mailboxMessage.getClass().getSimpleName(), uid, sender);
         decryptedMailboxListeners.forEach(e -> e.onMailboxMessageAdded(decryptedMessageWithPubKey, sender));
+        routedDecryptedMailboxListeners.get(mailboxMessage).forEach(e -> e.onMailboxMessageAdded(decryptedMessageWithPubKey, sender));
 
         if (isBootstrapped) {
             // After we notified our listeners we remove the data immediately from the network.
@@ -609,9 +666,20 @@ public class MailboxMessageService implements HashMapChangedListener, PersistedD
         }
     }
 
+    private void putMailboxItem(String uid, MailboxItem mailboxItem) {
+        mailboxItemsByUid.put(uid, mailboxItem);
+        getRoutingId(mailboxItem).ifPresent(routingId ->
+                myMailboxItemUidsByRoutingId.computeIfAbsent(routingId, k -> new HashSet<>()).add(uid));
+    }
+
     private void removeMailboxItemFromLocalStore(String uid) {
         MailboxItem mailboxItem = mailboxItemsByUid.get(uid);
         mailboxItemsByUid.remove(uid);
+        getRoutingId(mailboxItem).ifPresent(routingId ->
+                myMailboxItemUidsByRoutingId.computeIfPresent(routingId, (k, uids) -> {
+                    uids.remove(uid);
+                    return uids.isEmpty() ? null : uids;
+                }));
         mailboxMessageList.remove(mailboxItem);
         log.trace("## removeMailboxItemFromMap uid={}\nhash={}\nmailboxItemsByUid={}",
                 uid,
@@ -621,6 +689,16 @@ public class MailboxMessageService implements HashMapChangedListener, PersistedD
         requestPersistence();
     }
 
+    private static Optional<String> getRoutingId(MailboxItem mailboxItem) {
+        if (!mailboxItem.isMine())
+            return Optional.empty();
+
+        NetworkEnvelope networkEnvelope = checkNotNull(mailboxItem.getDecryptedMessageWithPubKey()).getNetworkEnvelope();
+        return networkEnvelope instanceof RoutableMessage ?
+                Optional.ofNullable(((RoutableMessage) networkEnvelope).getRoutingId()) :
+                Optional.empty();
+    }
+
     private void requestPersistence() {
         persistenceManager.requestPersistence();
     }
@@ -41,6 +41,7 @@ import bisq.common.config.Config;
 import bisq.common.proto.ProtobufferException;
 import bisq.common.proto.network.NetworkEnvelope;
 import bisq.common.proto.network.NetworkProtoResolver;
+import bisq.common.util.ExecutorRegistry;
 import bisq.common.util.Utilities;
 
 import com.google.protobuf.InvalidProtocolBufferException;
@@ -53,6 +54,9 @@ import com.google.common.util.concurrent.Uninterruptibles;
 import javafx.beans.property.ObjectProperty;
 import javafx.beans.property.SimpleObjectProperty;
 
+import java.nio.ByteBuffer;
+import java.nio.channels.SocketChannel;
+
 import java.net.Socket;
 import java.net.SocketException;
 import java.net.SocketTimeoutException;
@@ -64,20 +68,20 @@ import java.io.InvalidClassException;
 import java.io.OptionalDataException;
 import java.io.StreamCorruptedException;
 
-import java.util.ArrayList;
+import java.util.ArrayDeque;
+import java.util.Deque;
 import java.util.HashMap;
 import java.util.HashSet;
 import java.util.List;
 import java.util.Map;
 import java.util.Optional;
-import java.util.Queue;
 import java.util.Set;
 import java.util.UUID;
 import java.util.concurrent.ConcurrentHashMap;
-import java.util.concurrent.ConcurrentLinkedQueue;
 import java.util.concurrent.CopyOnWriteArraySet;
+import java.util.concurrent.Executor;
 import java.util.concurrent.ExecutorService;
-import java.util.concurrent.Executors;
+import java.util.concurrent.RejectedExecutionException;
 import java.util.concurrent.ScheduledExecutorService;
 import java.util.concurrent.TimeUnit;
 import java.util.concurrent.TimeoutException;
@@ -85,6 +89,7 @@ import java.util.concurrent.TimeoutException;
 import java.lang.ref.WeakReference;
 
 import lombok.Getter;
+import lombok.Value;
 import lombok.extern.slf4j.Slf4j;
 
 import org.jetbrains.annotations.Nullable;
@@ -113,10 +118,43 @@ public class Connection implements HasCapabilities, Runnable, MessageListener {
     //TODO decrease limits again after testing
     private static final int SOCKET_TIMEOUT = (int) TimeUnit.SECONDS.toMillis(180);
 
+    // Sockets created from a SocketChannel are read by the ConnectionReactor, the received frames are
+    // processed on this pool, in order per connection.
+    private static final String FRAME_PROCESSING_EXECUTOR_NAME = "Connection.frameProcessing";
+    // We stop reading from a channel while that many received frames are waiting to be processed and
+    // continue once half of them got processed, so a peer sending faster than we process cannot fill
+    // up our memory.
+    static final int MAX_PENDING_FRAMES = 100;
+    // Sockets without a channel, like the sockets to Tor, can only be read by blocking a thread. The
+    // threads are shared between connections and get reused after a connection got closed.
+    private static final String BLOCKING_READ_EXECUTOR_NAME = "InputHandler";
+    // Sends the envelopes queued by the outbound throttle and delivers the envelopes queued by the inbound
+    // throttle of all connections.
+    private static final String BUNDLE_SENDER_NAME = "Connection.bundleSender";
+    // Max. number of received envelopes we queue while the peer exceeds the inbound rate limit. Beyond that
+    // we drop the envelopes and count it as a rule violation.
+    private static final int MAX_QUEUED_INBOUND_ENVELOPES = 100;
+
     public static int getPermittedMessageSize() {
         return PERMITTED_MESSAGE_SIZE;
     }
 
+    // The executors are shut down by the ExecutorRegistry, so we get them at each use and a new one gets
+    // created if needed after a shutdown.
+    private static ExecutorService getFrameProcessingExecutor() {
+        return ExecutorRegistry.getListeningExecutorService(FRAME_PROCESSING_EXECUTOR_NAME,
+                Runtime.getRuntime().availableProcessors(),
+                1000);
+    }
+
+    private static ExecutorService getBlockingReadExecutor() {
+        return ExecutorRegistry.getCachedExecutorService(BLOCKING_READ_EXECUTOR_NAME);
+    }
+
+    private static ScheduledExecutorService getBundleSender() {
+        return ExecutorRegistry.getScheduledExecutorService(BUNDLE_SENDER_NAME, 4);
+    }
+
 
     ///////////////////////////////////////////////////////////////////////////////////////////
     // Class fields
@@ -129,7 +167,6 @@ public class Connection implements HasCapabilities, Runnable, MessageListener {
     private final NetworkFilter networkFilter;
     @Getter
     private final String uid;
-    private final ExecutorService singleThreadExecutor = Executors.newSingleThreadExecutor(runnable -> new Thread(runnable, "Connection.java executor-service"));
     // holder of state shared between InputHandler and Connection
     @Getter
     private final Statistic statistic;
@@ -140,6 +177,9 @@ public class Connection implements HasCapabilities, Runnable, MessageListener {
 
     // set in init
     private SynchronizedProtoOutputStream protoOutputStream;
+    // Set if processing of frames read from the channel was stopped before the connection got closed.
+    private volatile boolean frameProcessingStopped;
+    private final PendingFrames pendingFrames = new PendingFrames(MAX_PENDING_FRAMES);
 
     // mutable data, set from other threads but not changed internally.
     @Getter
@@ -149,9 +189,12 @@ public class Connection implements HasCapabilities, Runnable, MessageListener {
 
     @Getter
     private final ObjectProperty<NodeAddress> peersNodeAddressProperty = new SimpleObjectProperty<>();
-    private final List<Long> messageTimeStamps = new ArrayList<>();
     private final CopyOnWriteArraySet<MessageListener> messageListeners = new CopyOnWriteArraySet<>();
-    private volatile long lastSendTimeStamp = 0;
+    // Per peer rate limits, inbound for the messages we receive and outbound for the messages we send.
+    @Getter
+    private final ConnectionThrottle inboundThrottle;
+    @Getter
+    private final ConnectionThrottle outboundThrottle;
     // We use a weak reference here to ensure that no connection causes a memory leak in case it get closed without
     // the shutDown being called.
     private final CopyOnWriteArraySet<WeakReference<SupportedCapabilitiesListener>> capabilitiesListeners = new CopyOnWriteArraySet<>();
@@ -178,6 +221,8 @@ public class Connection implements HasCapabilities, Runnable, MessageListener {
         this.networkFilter = networkFilter;
         uid = UUID.randomUUID().toString();
         statistic = new Statistic();
+        inboundThrottle = createInboundThrottle();
+        outboundThrottle = createOutboundThrottle();
 
         addMessageListener(messageListener);
 
@@ -190,15 +235,26 @@ public class Connection implements HasCapabilities, Runnable, MessageListener {
     private void init(@Nullable NodeAddress peersNodeAddress) {
         try {
             socket.setSoTimeout(SOCKET_TIMEOUT);
-            // Need to access first the ObjectOutputStream otherwise the ObjectInputStream would block
-            // See: https://stackoverflow.com/questions/5658089/java-creating-a-new-objectinputstream-blocks/5658109#5658109
-            // When you construct an ObjectInputStream, in the constructor the class attempts to read a header that
-            // the associated ObjectOutputStream on the other end of the connection has written.
-            // It will not return until that header has been read.
-            protoOutputStream = new SynchronizedProtoOutputStream(socket.getOutputStream(), statistic);
-            protoInputStream = socket.getInputStream();
-            // We create a thread for handling inputStream data
-            singleThreadExecutor.submit(this);
+            SocketChannel channel = socket.getChannel();
+            if (channel != null) {
+                // The streams of the socket cannot be used with a non-blocking channel, so we write to the
+                // channel directly and read with the ConnectionReactor.
+                channel.configureBlocking(false);
+                protoOutputStream = new SynchronizedProtoOutputStream(new ChannelOutputStream(channel, SOCKET_TIMEOUT),
+                        statistic, this::isCompressionSupported);
+                startReadingFromChannel(channel);
+            } else {
+                // Need to access first the ObjectOutputStream otherwise the ObjectInputStream would block
+                // See: https://stackoverflow.com/questions/5658089/java-creating-a-new-objectinputstream-blocks/5658109#5658109
+                // When you construct an ObjectInputStream, in the constructor the class attempts to read a header that
+                // the associated ObjectOutputStream on the other end of the connection has written.
+                // It will not return until that header has been read.
+                protoOutputStream = new SynchronizedProtoOutputStream(socket.getOutputStream(), statistic,
+                        this::isCompressionSupported);
+                protoInputStream = socket.getInputStream();
+                // We use a pooled thread for handling inputStream data
+                getBlockingReadExecutor().execute(this);
+            }
 
             if (peersNodeAddress != null) {
                 setPeersNodeAddress(peersNodeAddress);
@@ -221,9 +277,11 @@ public class Connection implements HasCapabilities, Runnable, MessageListener {
         return capabilities;
     }
 
+    // Guards queueOfBundles, lastBundleSize and sendQueuedEnvelopesScheduled.
     private final Object lock = new Object();
-    private final Queue<BundleOfEnvelopes> queueOfBundles = new ConcurrentLinkedQueue<>();
-    private final ScheduledExecutorService bundleSender = Executors.newSingleThreadScheduledExecutor();
+    private final Deque<BundleOfEnvelopes> queueOfBundles = new ArrayDeque<>();
+    private int lastBundleSize;
+    private boolean sendQueuedEnvelopesScheduled;
 
     // Called from various threads
     public void sendMessage(NetworkEnvelope networkEnvelope) {
@@ -248,72 +306,18 @@ public class Connection implements HasCapabilities, Runnable, MessageListener {
         }
         int networkEnvelopeSize = networkEnvelope.toProtoNetworkEnvelope().getSerializedSize();
         try {
-            // Throttle outbound network_messages
-            long now = System.currentTimeMillis();
-            long elapsed = now - lastSendTimeStamp;
-            if (elapsed < getSendMsgThrottleTrigger()) {
-                log.debug("We got 2 sendMessage requests in less than {} ms. We set the thread to sleep " +
-                                "for {} ms to avoid flooding our peer. lastSendTimeStamp={}, now={}, elapsed={}, networkEnvelope={}",
-                        getSendMsgThrottleTrigger(), getSendMsgThrottleSleep(), lastSendTimeStamp, now, elapsed,
-                        networkEnvelope.getClass().getSimpleName());
-
-                // check if BundleOfEnvelopes is supported
-                if (getCapabilities().containsAll(new Capabilities(Capability.BUNDLE_OF_ENVELOPES))) {
-                    synchronized (lock) {
-                        // check if current envelope fits size
-                        // - no? create new envelope
-
-                        int size = !queueOfBundles.isEmpty() ? queueOfBundles.element().toProtoNetworkEnvelope().getSerializedSize() + networkEnvelopeSize : 0;
-                        if (queueOfBundles.isEmpty() || size > MAX_PERMITTED_MESSAGE_SIZE * 0.9) {
-                            // - no? create a bucket
-                            queueOfBundles.add(new BundleOfEnvelopes());
-
-                            // - and schedule it for sending
-                            lastSendTimeStamp += getSendMsgThrottleSleep();
-
-                            bundleSender.schedule(() -> {
-                                if (!stopped) {
-                                    synchronized (lock) {
-                                        BundleOfEnvelopes bundle = queueOfBundles.poll();
-                                        if (bundle != null && !stopped) {
-                                            NetworkEnvelope envelope;
-                                            int msgSize;
-                                            if (bundle.getEnvelopes().size() == 1) {
-                                                envelope = bundle.getEnvelopes().get(0);
-                                                msgSize = envelope.toProtoNetworkEnvelope().getSerializedSize();
-                                            } else {
-                                                envelope = bundle;
-                                                msgSize = networkEnvelopeSize;
-                                            }
-                                            try {
-                                                protoOutputStream.writeEnvelope(envelope);
-                                                UserThread.execute(() -> messageListeners.forEach(e -> e.onMessageSent(envelope, this)));
-                                                UserThread.execute(() -> connectionStatistics.addSendMsgMetrics(System.currentTimeMillis() - ts, msgSize));
-                                            } catch (Throwable t) {
-                                                log.error("Sending envelope of class {} to address {} " +
-                                                                "failed due {}",
-                                                        envelope.getClass().getSimpleName(),
-                                                        this.getPeersNodeAddressOptional(),
-                                                        t.toString());
-                                                log.error("envelope: {}", envelope);
-                                            }
-                                        }
-                                    }
-                                }
-                            }, lastSendTimeStamp - now, TimeUnit.MILLISECONDS);
-                        }
-
-                        // - yes? add to bucket
-                        queueOfBundles.element().add(networkEnvelope);
+            // Throttle outbound network_messages. If we exceed the rate limit or earlier messages
+            // are still queued, we queue the message and send it once the limit allows it, instead
+            // of blocking the caller. A CloseConnectionMessage is never delayed as we stop right after.
+            if (!(networkEnvelope instanceof CloseConnectionMessage)) {
+                synchronized (lock) {
+                    if (!queueOfBundles.isEmpty() || !outboundThrottle.tryAcquire(networkEnvelopeSize)) {
+                        queueEnvelope(networkEnvelope, networkEnvelopeSize);
+                        return;
                     }
-                    return;
                 }
-
-                Thread.sleep(getSendMsgThrottleSleep());
             }
 
-            lastSendTimeStamp = now;
-
             if (!stopped) {
                 protoOutputStream.writeEnvelope(networkEnvelope);
                 UserThread.execute(() -> messageListeners.forEach(e -> e.onMessageSent(networkEnvelope, this)));
@@ -324,6 +328,74 @@ public class Connection implements HasCapabilities, Runnable, MessageListener {
         }
     }
 
+    // Must be called while holding the lock
+    private void queueEnvelope(NetworkEnvelope networkEnvelope, int networkEnvelopeSize) {
+        log.debug("We exceed the send rate limit to our peer. We queue the networkEnvelope {}. numQueuedBundles={}",
+                networkEnvelope.getClass().getSimpleName(), queueOfBundles.size());
+
+        // If the peer supports BundleOfEnvelopes we add the message to the last queued bundle
+        // as long it fits, otherwise each message is queued in a bundle of its own, which gets
+        // sent as a single message.
+        boolean isBundlingSupported = getCapabilities().containsAll(new Capabilities(Capability.BUNDLE_OF_ENVELOPES));
+        if (queueOfBundles.isEmpty() ||
+                !isBundlingSupported ||
+                lastBundleSize + networkEnvelopeSize > MAX_PERMITTED_MESSAGE_SIZE * 0.9) {
+            queueOfBundles.add(new BundleOfEnvelopes());
+            lastBundleSize = 0;
+        }
+        queueOfBundles.getLast().add(networkEnvelope);
+        lastBundleSize += networkEnvelopeSize;
+
+        if (!sendQueuedEnvelopesScheduled) {
+            sendQueuedEnvelopesScheduled = true;
+            scheduleSendQueuedEnvelopes(networkEnvelopeSize);
+        }
+    }
+
+    // Must be called while holding the lock
+    private void scheduleSendQueuedEnvelopes(int nextMessageSize) {
+        // We wait at least getSendMsgThrottleSleep() so more messages can be added to the queued bundle.
+        long delay = Math.max(getSendMsgThrottleSleep(), outboundThrottle.getDelayMillis(nextMessageSize));
+        getBundleSender().schedule(this::sendQueuedEnvelopes, delay, TimeUnit.MILLISECONDS);
+    }
+
+    // Runs on a bundle sender thread
+    private void sendQueuedEnvelopes() {
+        synchronized (lock) {
+            while (!stopped) {
+                BundleOfEnvelopes bundle = queueOfBundles.peek();
+                if (bundle == null) {
+                    sendQueuedEnvelopesScheduled = false;
+                    return;
+                }
+
+                NetworkEnvelope envelope = bundle.getEnvelopes().size() == 1 ? bundle.getEnvelopes().get(0) : bundle;
+                int msgSize = envelope.toProtoNetworkEnvelope().getSerializedSize();
+                if (!outboundThrottle.tryAcquire(msgSize)) {
+                    scheduleSendQueuedEnvelopes(msgSize);
+                    return;
+                }
+
+                queueOfBundles.poll();
+                long ts = System.currentTimeMillis();
+                try {
+                    // We write while holding the lock so messages sent later by sendMessage cannot overtake
+                    // the queued ones.
+                    protoOutputStream.writeEnvelope(envelope);
+                    UserThread.execute(() -> messageListeners.forEach(e -> e.onMessageSent(envelope, this)));
+                    UserThread.execute(() -> connectionStatistics.addSendMsgMetrics(System.currentTimeMillis() - ts, msgSize));
+                } catch (Throwable t) {
+                    log.error("Sending envelope of class {} to address {} " +
+                                    "failed due {}",
+                            envelope.getClass().getSimpleName(),
+                            this.getPeersNodeAddressOptional(),
+                            t.toString());
+                    log.error("envelope: {}", envelope);
+                }
+            }
+        }
+    }
+
     // TODO: If msg is BundleOfEnvelopes we should check each individual message for capability and filter out those
     //  which fail.
     public boolean noCapabilityRequiredOrCapabilityIsSupported(Proto msg) {
@@ -359,6 +431,11 @@ public class Connection implements HasCapabilities, Runnable, MessageListener {
         return result;
     }
 
+    private boolean isCompressionSupported() {
+        return capabilities.contains(Capability.ENVELOPE_COMPRESSION) &&
+                Capabilities.app.contains(Capability.ENVELOPE_COMPRESSION);
+    }
+
     public void addMessageListener(MessageListener messageListener) {
         boolean isNewEntry = messageListeners.add(messageListener);
         if (!isNewEntry)
@@ -376,17 +453,26 @@ public class Connection implements HasCapabilities, Runnable, MessageListener {
         capabilitiesListeners.add(new WeakReference<>(listener));
     }
 
-    private boolean violatesThrottleLimit() {
-        long now = System.currentTimeMillis();
-
-        messageTimeStamps.add(now);
-
-        // clean list
-        while (messageTimeStamps.size() > getMsgThrottlePer10Sec())
-            messageTimeStamps.remove(0);
+    // The inbound limits allow bursts of getMsgThrottlePerSec() messages and a sustained rate of
+    // getMsgThrottlePer10Sec() / 10 messages per second. The byte limits allow the same number of
+    // messages with PERMITTED_MESSAGE_SIZE, but at least 2 messages with MAX_PERMITTED_MESSAGE_SIZE.
+    private ConnectionThrottle createInboundThrottle() {
+        int messagesPerSec = Math.max(1, getMsgThrottlePer10Sec() / 10);
+        return new ConnectionThrottle(getMsgThrottlePerSec(),
+                messagesPerSec,
+                Math.max(2L * MAX_PERMITTED_MESSAGE_SIZE, (long) getMsgThrottlePerSec() * PERMITTED_MESSAGE_SIZE),
+                (long) messagesPerSec * PERMITTED_MESSAGE_SIZE);
+    }
 
-        return violatesThrottleLimit(now, 1, getMsgThrottlePerSec()) ||
-                violatesThrottleLimit(now, 10, getMsgThrottlePer10Sec());
+    // We send at most one message per getSendMsgThrottleTrigger() ms on average, with bursts of up to
+    // one second. We stay well below the inbound limits of our peer, which are also applied by peers
+    // using the older timestamp based throttling.
+    private ConnectionThrottle createOutboundThrottle() {
+        int messagesPerSec = Math.max(1, 1000 / Math.max(1, getSendMsgThrottleTrigger()));
+        return new ConnectionThrottle(messagesPerSec,
+                messagesPerSec,
+                MAX_PERMITTED_MESSAGE_SIZE,
+                (long) messagesPerSec * PERMITTED_MESSAGE_SIZE / 2);
     }
 
     private int getMsgThrottlePerSec() {
@@ -405,23 +491,6 @@ public class Connection implements HasCapabilities, Runnable, MessageListener {
         return config != null ? config.sendMsgThrottleTrigger : 20;
     }
 
-    private boolean violatesThrottleLimit(long now, int seconds, int messageCountLimit) {
-        if (messageTimeStamps.size() >= messageCountLimit) {
-
-            // find the entry in the message timestamp history which determines whether we overshot the limit or not
-            long compareValue = messageTimeStamps.get(messageTimeStamps.size() - messageCountLimit);
-
-            // if duration < seconds sec we received too much network_messages
-            if (now - compareValue < TimeUnit.SECONDS.toMillis(seconds)) {
-                log.error("violatesThrottleLimit {}/{} second(s)", messageCountLimit, seconds);
-
-                return true;
-            }
-        }
-
-        return false;
-    }
-
     ///////////////////////////////////////////////////////////////////////////////////////////
     // MessageListener implementation
     ///////////////////////////////////////////////////////////////////////////////////////////
@@ -567,18 +636,16 @@ public class Connection implements HasCapabilities, Runnable, MessageListener {
 
             capabilitiesListeners.clear();
 
-            try {
-                protoInputStream.close();
-            } catch (IOException e) {
-                log.error(e.getMessage());
-                e.printStackTrace();
+            // Closing the socket closed the channel as well, which stops the ConnectionReactor reading from it.
+            if (protoInputStream != null) {
+                try {
+                    protoInputStream.close();
+                } catch (IOException e) {
+                    log.error(e.getMessage());
+                    e.printStackTrace();
+                }
             }
 
-            //noinspection UnstableApiUsage
-            MoreExecutors.shutdownAndAwaitTermination(singleThreadExecutor, 500, TimeUnit.MILLISECONDS);
-            //noinspection UnstableApiUsage
-            MoreExecutors.shutdownAndAwaitTermination(bundleSender, 500, TimeUnit.MILLISECONDS);
-
             log.debug("Connection shutdown complete {}", this.toString());
             // Use UserThread.execute as its not clear if that is called from a non-UserThread
             if (shutDownCompleteHandler != null)
@@ -626,6 +693,8 @@ public class Connection implements HasCapabilities, Runnable, MessageListener {
                 ", uid='" + uid + '\'' +
                 ", ruleViolation=" + ruleViolation +
                 ", ruleViolations=" + ruleViolations +
+                ", inboundThrottle=" + inboundThrottle +
+                ", outboundThrottle=" + outboundThrottle +
                 ", supportedCapabilities=" + capabilities +
                 ", stopped=" + stopped +
                 '}';
@@ -741,12 +810,19 @@ public class Connection implements HasCapabilities, Runnable, MessageListener {
     // Runs in same thread as Connection, receives a message, performs several checks on it
     // (including throttling limits, validity and statistics)
     // and delivers it to the message listener given in the constructor.
+    @Nullable
     private InputStream protoInputStream;
     private final NetworkProtoResolver networkProtoResolver;
 
-    private long lastReadTimeStamp;
     private boolean threadNameSet;
 
+    // Guards queueOfInboundEnvelopes and deliverQueuedInboundEnvelopesScheduled.
+    private final Object inboundLock = new Object();
+    private final Deque<QueuedInboundEnvelope> queueOfInboundEnvelopes = new ArrayDeque<>();
+    private boolean deliverQueuedInboundEnvelopesScheduled;
+    // Set if a queued envelope stopped the processing of further envelopes.
+    private volatile boolean inboundProcessingStopped;
+
     @Override
     public void run() {
         try {
@@ -786,119 +862,289 @@ public class Connection implements HasCapabilities, Runnable, MessageListener {
                         return;
                     }
 
-                    if (networkFilter != null &&
-                            peersNodeAddressOptional.isPresent() &&
-                            networkFilter.isPeerBanned(peersNodeAddressOptional.get())) {
-                        reportInvalidRequest(RuleViolation.PEER_BANNED);
+                    if (!handleProto(proto, ts))
                         return;
-                    }
+                } catch (Throwable t) {
+                    handleReadException(t);
+                }
+            }
+        } catch (Throwable t) {
+            handleException(t);
+        }
+    }
 
-                    // Throttle inbound network_messages
-                    long now = System.currentTimeMillis();
-                    long elapsed = now - lastReadTimeStamp;
-                    if (elapsed < 10) {
-                        log.debug("We got 2 network_messages received in less than 10 ms. We set the thread to sleep " +
-                                        "for 20 ms to avoid getting flooded by our peer. lastReadTimeStamp={}, now={}, elapsed={}",
-                                lastReadTimeStamp, now, elapsed);
-                        Thread.sleep(20);
-                    }
+    // Called with each envelope read from the socket, in the order they were received.
+    // Returns false if we must not process further envelopes of that connection.
+    private boolean handleProto(protobuf.NetworkEnvelope proto, long ts) throws IOException {
+        if (inboundProcessingStopped)
+            return false;
 
-                    NetworkEnvelope networkEnvelope = networkProtoResolver.fromProto(proto);
-                    lastReadTimeStamp = now;
-                    log.debug("<< Received networkEnvelope of type: {}", networkEnvelope.getClass().getSimpleName());
-                    int size = proto.getSerializedSize();
+        if (networkFilter != null &&
+                peersNodeAddressOptional.isPresent() &&
+                networkFilter.isPeerBanned(peersNodeAddressOptional.get())) {
+            reportInvalidRequest(RuleViolation.PEER_BANNED);
+            return false;
+        }
 
-                    // We want to track the size of each object even if it is invalid data
-                    statistic.addReceivedBytes(size);
+        // We track the bytes we received, but apply the size checks to the uncompressed envelope.
+        int receivedSize = proto.getSerializedSize();
+        if (proto.hasCompressedEnvelope())
+            proto = EnvelopeCompression.decompress(proto, MAX_PERMITTED_MESSAGE_SIZE);
 
-                    // We want to track the network_messages also before the checks, so do it early...
-                    statistic.addReceivedMessage(networkEnvelope);
+        NetworkEnvelope networkEnvelope = networkProtoResolver.fromProto(proto);
+        log.debug("<< Received networkEnvelope of type: {}", networkEnvelope.getClass().getSimpleName());
+        int size = proto.getSerializedSize();
 
-                    // First we check the size
-                    boolean exceeds;
-                    if (networkEnvelope instanceof ExtendedDataSizePermission) {
-                        exceeds = size > MAX_PERMITTED_MESSAGE_SIZE;
-                    } else {
-                        exceeds = size > PERMITTED_MESSAGE_SIZE;
-                    }
+        // We want to track the size of each object even if it is invalid data
+        statistic.addReceivedBytes(receivedSize);
 
-                    if (networkEnvelope instanceof AddPersistableNetworkPayloadMessage &&
-                            !((AddPersistableNetworkPayloadMessage) networkEnvelope).getPersistableNetworkPayload().verifyHashSize()) {
-                        log.warn("PersistableNetworkPayload.verifyHashSize failed. hashSize={}; object={}",
-                                ((AddPersistableNetworkPayloadMessage) networkEnvelope).getPersistableNetworkPayload().getHash().length,
-                                Utilities.toTruncatedString(proto));
-                        if (reportInvalidRequest(RuleViolation.MAX_MSG_SIZE_EXCEEDED))
-                            return;
-                    }
+        // We want to track the network_messages also before the checks, so do it early...
+        statistic.addReceivedMessage(networkEnvelope);
 
-                    if (exceeds) {
-                        log.warn("size > MAX_MSG_SIZE. size={}; object={}", size, Utilities.toTruncatedString(proto));
+        // First we check the size
+        boolean exceeds;
+        if (networkEnvelope instanceof ExtendedDataSizePermission) {
+            exceeds = size > MAX_PERMITTED_MESSAGE_SIZE;
+        } else {
+            exceeds = size > PERMITTED_MESSAGE_SIZE;
+        }
 
-                        if (reportInvalidRequest(RuleViolation.MAX_MSG_SIZE_EXCEEDED))
-                            return;
-                    }
+        if (networkEnvelope instanceof AddPersistableNetworkPayloadMessage &&
+                !((AddPersistableNetworkPayloadMessage) networkEnvelope).getPersistableNetworkPayload().verifyHashSize()) {
+            log.warn("PersistableNetworkPayload.verifyHashSize failed. hashSize={}; object={}",
+                    ((AddPersistableNetworkPayloadMessage) networkEnvelope).getPersistableNetworkPayload().getHash().length,
+                    Utilities.toTruncatedString(proto));
+            if (reportInvalidRequest(RuleViolation.MAX_MSG_SIZE_EXCEEDED))
+                return false;
+        }
 
-                    if (violatesThrottleLimit() && reportInvalidRequest(RuleViolation.THROTTLE_LIMIT_EXCEEDED))
-                        return;
+        if (exceeds) {
+            log.warn("size > MAX_MSG_SIZE. size={}; object={}", size, Utilities.toTruncatedString(proto));
 
-                    // Check P2P network ID
-                    if (proto.getMessageVersion() != Version.getP2PMessageVersion()
-                            && reportInvalidRequest(RuleViolation.WRONG_NETWORK_ID)) {
-                        log.warn("RuleViolation.WRONG_NETWORK_ID. version of message={}, app version={}, " +
-                                        "proto.toTruncatedString={}", proto.getMessageVersion(),
-                                Version.getP2PMessageVersion(),
-                                Utilities.toTruncatedString(proto.toString()));
-                        return;
-                    }
+            if (reportInvalidRequest(RuleViolation.MAX_MSG_SIZE_EXCEEDED))
+                return false;
+        }
 
-                    boolean causedShutDown = maybeHandleSupportedCapabilitiesMessage(networkEnvelope);
-                    if (causedShutDown) {
-                        return;
-                    }
+        // Throttle inbound network_messages. Bursts within the limits are delivered without delay. If the peer
+        // exceeds the sustained rate or earlier envelopes are still queued, we queue the envelope and deliver it
+        // once the limit allows it. Only if the queue is full we drop the envelope and count it as a rule violation.
+        boolean throttled;
+        synchronized (inboundLock) {
+            throttled = !queueOfInboundEnvelopes.isEmpty() || !inboundThrottle.tryAcquire(size);
+            if (throttled && queueOfInboundEnvelopes.size() < MAX_QUEUED_INBOUND_ENVELOPES) {
+                queueInboundEnvelope(new QueuedInboundEnvelope(proto, networkEnvelope, size, ts));
+                return true;
+            }
+        }
+        if (throttled) {
+            log.warn("Peer exceeds the inbound rate limit and we have {} envelopes queued already. " +
+                            "We drop the envelope. inboundThrottle={}, connection={}",
+                    MAX_QUEUED_INBOUND_ENVELOPES, inboundThrottle, this);
+            return !reportInvalidRequest(RuleViolation.THROTTLE_LIMIT_EXCEEDED);
+        }
 
-                    if (networkEnvelope instanceof CloseConnectionMessage) {
-                        // If we get a CloseConnectionMessage we shut down
-                        log.debug("CloseConnectionMessage received. Reason={}\n\t" +
-                                "connection={}", proto.getCloseConnectionMessage().getReason(), this);
+        return deliverEnvelope(proto, networkEnvelope, size, ts);
+    }
 
-                        if (CloseConnectionReason.PEER_BANNED.name().equals(proto.getCloseConnectionMessage().getReason())) {
-                            log.warn("We got shut down because we are banned by the other peer. " +
-                                    "(InputHandler.run CloseConnectionMessage). Peer: {}", getPeersNodeAddressOptional());
-                        }
-                        shutDown(CloseConnectionReason.CLOSE_REQUESTED_BY_PEER);
-                        return;
-                    } else if (!stopped) {
-                        // We don't want to get the activity ts updated by ping/pong msg
-                        if (!(networkEnvelope instanceof KeepAliveMessage))
-                            statistic.updateLastActivityTimestamp();
-
-                        // If SendersNodeAddressMessage we do some verifications and apply if successful,
-                        // otherwise we return false.
-                        if (networkEnvelope instanceof SendersNodeAddressMessage &&
-                                !processSendersNodeAddressMessage((SendersNodeAddressMessage) networkEnvelope)) {
-                            return;
-                        }
+    // Must be called while holding the inboundLock
+    private void queueInboundEnvelope(QueuedInboundEnvelope queuedInboundEnvelope) {
+        log.debug("Peer exceeds the inbound rate limit. We queue the networkEnvelope {}. numQueuedEnvelopes={}",
+                queuedInboundEnvelope.getNetworkEnvelope().getClass().getSimpleName(),
+                queueOfInboundEnvelopes.size());
+        queueOfInboundEnvelopes.add(queuedInboundEnvelope);
+        if (!deliverQueuedInboundEnvelopesScheduled) {
+            deliverQueuedInboundEnvelopesScheduled = true;
+            scheduleDeliverQueuedInboundEnvelopes(queuedInboundEnvelope.getSize());
+        }
+    }
+
+    // Must be called while holding the inboundLock
+    private void scheduleDeliverQueuedInboundEnvelopes(int nextMessageSize) {
+        long delay = inboundThrottle.getDelayMillis(nextMessageSize);
+        getBundleSender().schedule(this::deliverQueuedInboundEnvelopes, delay, TimeUnit.MILLISECONDS);
+    }
+
+    // Runs on a bundle sender thread
+    private void deliverQueuedInboundEnvelopes() {
+        synchronized (inboundLock) {
+            while (!stopped) {
+                QueuedInboundEnvelope queued = queueOfInboundEnvelopes.peek();
+                if (queued == null) {
+                    deliverQueuedInboundEnvelopesScheduled = false;
+                    return;
+                }
 
-                        onMessage(networkEnvelope, this);
-                        UserThread.execute(() -> connectionStatistics.addReceivedMsgMetrics(System.currentTimeMillis() - ts, size));
+                if (!inboundThrottle.tryAcquire(queued.getSize())) {
+                    scheduleDeliverQueuedInboundEnvelopes(queued.getSize());
+                    return;
+                }
+
+                queueOfInboundEnvelopes.poll();
+                try {
+                    // We deliver while holding the lock so envelopes received later cannot overtake the queued ones.
+                    if (!deliverEnvelope(queued.getProto(),
+                            queued.getNetworkEnvelope(),
+                            queued.getSize(),
+                            queued.getTs())) {
+                        inboundProcessingStopped = true;
+                        queueOfInboundEnvelopes.clear();
+                        deliverQueuedInboundEnvelopesScheduled = false;
+                        return;
                     }
-                } catch (InvalidClassException e) {
-                    log.error(e.getMessage());
-                    e.printStackTrace();
-                    reportInvalidRequest(RuleViolation.INVALID_CLASS);
-                } catch (ProtobufferException | NoClassDefFoundError | InvalidProtocolBufferException e) {
-                    log.error(e.getMessage());
-                    e.printStackTrace();
-                    reportInvalidRequest(RuleViolation.INVALID_DATA_TYPE);
                 } catch (Throwable t) {
-                    handleException(t);
+                    handleReadException(t);
                 }
             }
-        } catch (Throwable t) {
+        }
+    }
+
+    // Applies the remaining checks to an envelope within the inbound rate limit and delivers it to the listeners.
+    // Returns false if we must not process further envelopes of that connection.
+    private boolean deliverEnvelope(protobuf.NetworkEnvelope proto,
+                                    NetworkEnvelope networkEnvelope,
+                                    int size,
+                                    long ts) {
+        // Check P2P network ID
+        if (proto.getMessageVersion() != Version.getP2PMessageVersion()
+                && reportInvalidRequest(RuleViolation.WRONG_NETWORK_ID)) {
+            log.warn("RuleViolation.WRONG_NETWORK_ID. version of message={}, app version={}, " +
+                            "proto.toTruncatedString={}", proto.getMessageVersion(),
+                    Version.getP2PMessageVersion(),
+                    Utilities.toTruncatedString(proto.toString()));
+            return false;
+        }
+
+        boolean causedShutDown = maybeHandleSupportedCapabilitiesMessage(networkEnvelope);
+        if (causedShutDown) {
+            return false;
+        }
+
+        if (networkEnvelope instanceof CloseConnectionMessage) {
+            // If we get a CloseConnectionMessage we shut down
+            log.debug("CloseConnectionMessage received. Reason={}\n\t" +
+                    "connection={}", proto.getCloseConnectionMessage().getReason(), this);
+
+            if (CloseConnectionReason.PEER_BANNED.name().equals(proto.getCloseConnectionMessage().getReason())) {
+                log.warn("We got shut down because we are banned by the other peer. " +
+                        "(InputHandler.run CloseConnectionMessage). Peer: {}", getPeersNodeAddressOptional());
+            }
+            shutDown(CloseConnectionReason.CLOSE_REQUESTED_BY_PEER);
+            return false;
+        } else if (!stopped) {
+            // We don't want to get the activity ts updated by ping/pong msg
+            if (!(networkEnvelope instanceof KeepAliveMessage))
+                statistic.updateLastActivityTimestamp();
+
+            // If SendersNodeAddressMessage we do some verifications and apply if successful,
+            // otherwise we return false.
+            if (networkEnvelope instanceof SendersNodeAddressMessage &&
+                    !processSendersNodeAddressMessage((SendersNodeAddressMessage) networkEnvelope)) {
+                return false;
+            }
+
+            onMessage(networkEnvelope, this);
+            UserThread.execute(() -> connectionStatistics.addReceivedMsgMetrics(System.currentTimeMillis() - ts, size));
+        }
+        return true;
+    }
+
+    private void handleReadException(Throwable t) {
+        if (t instanceof InvalidClassException) {
+            log.error(t.getMessage());
+            t.printStackTrace();
+            reportInvalidRequest(RuleViolation.INVALID_CLASS);
+        } else if (t instanceof ProtobufferException ||
+                t instanceof NoClassDefFoundError ||
+                t instanceof InvalidProtocolBufferException) {
+            log.error(t.getMessage());
+            t.printStackTrace();
+            reportInvalidRequest(RuleViolation.INVALID_DATA_TYPE);
+        } else {
             handleException(t);
         }
     }
 
+
+    ///////////////////////////////////////////////////////////////////////////////////////////
+    // Reading from the channel
+    ///////////////////////////////////////////////////////////////////////////////////////////
+
+    private void startReadingFromChannel(SocketChannel channel) throws IOException {
+        // The frames are processed one after the other, but not on the selector thread of the ConnectionReactor.
+        Executor frameExecutor = MoreExecutors.newSequentialExecutor(command -> getFrameProcessingExecutor().execute(command));
+        FrameDecoder frameDecoder = new FrameDecoder(MAX_PERMITTED_MESSAGE_SIZE,
+                frame -> {
+                    long ts = System.currentTimeMillis();
+                    pendingFrames.onFrameQueued();
+                    executeFrameTask(frameExecutor, () -> processFrame(frame, ts));
+                },
+                frameSize -> executeFrameTask(frameExecutor, () -> {
+                    log.warn("size > MAX_MSG_SIZE. size={}; connection={}", frameSize, this);
+                    reportInvalidRequest(RuleViolation.MAX_MSG_SIZE_EXCEEDED);
+                }));
+
+        var readControl = ConnectionReactor.getInstance().register(channel, new ConnectionReactor.ReadHandler() {
+            @Override
+            public void onRead(ByteBuffer buffer) throws IOException {
+                if (!stopped && !frameProcessingStopped)
+                    frameDecoder.decode(buffer);
+            }
+
+            @Override
+            public void onEndOfStream() {
+                executeFrameTask(frameExecutor, () -> {
+                    if (!stopped) {
+                        log.warn("EOF at channel. That is expected if client got stopped without proper shutdown.");
+                        shutDown(CloseConnectionReason.NO_PROTO_BUFFER_ENV);
+                    }
+                });
+            }
+
+            @Override
+            public void onReadFailed(IOException exception) {
+                // We map the exceptions to the ones we get when reading from the socket stream.
+                Throwable throwable;
+                if (exception instanceof SocketTimeoutException)
+                    throwable = exception;
+                else if (exception instanceof InvalidProtocolBufferException)
+                    throwable = new StreamCorruptedException(exception.getMessage());
+                else
+                    throwable = new SocketException(exception.toString());
+                executeFrameTask(frameExecutor, () -> handleException(throwable));
+            }
+        }, SOCKET_TIMEOUT);
+        pendingFrames.setReadControl(readControl);
+    }
+
+    // Called on the selector thread. If the frame processing pool is saturated we cannot queue the
+    // task anywhere else without blocking the selector thread, so we close the connection.
+    private void executeFrameTask(Executor frameExecutor, Runnable task) {
+        try {
+            frameExecutor.execute(task);
+        } catch (RejectedExecutionException e) {
+            if (!stopped) {
+                log.warn("Frame processing is saturated, we close connection {}", this);
+                shutDown(CloseConnectionReason.RESET);
+            }
+        }
+    }
+
+    // Runs on the frame processing executor, in order of the received frames.
+    private void processFrame(byte[] frame, long ts) {
+        try {
+            if (stopped || frameProcessingStopped)
+                return;
+
+            protobuf.NetworkEnvelope proto = protobuf.NetworkEnvelope.parseFrom(frame);
+            if (!handleProto(proto, ts))
+                frameProcessingStopped = true;
+        } catch (Throwable t) {
+            handleReadException(t);
+        } finally {
+            pendingFrames.onFrameProcessed();
+        }
+    }
+
     public boolean maybeHandleSupportedCapabilitiesMessage(NetworkEnvelope networkEnvelope) {
         if (!(networkEnvelope instanceof SupportedCapabilitiesMessage)) {
             return false;
@@ -948,4 +1194,12 @@ public class Connection implements HasCapabilities, Runnable, MessageListener {
         NodeAddress nodeAddress = getSenderNodeAddress(networkEnvelope);
         return nodeAddress == null ? "null" : nodeAddress.getFullAddress();
     }
+
+    @Value
+    private static class QueuedInboundEnvelope {
+        protobuf.NetworkEnvelope proto;
+        NetworkEnvelope networkEnvelope;
+        int size;
+        long ts;
+    }
 }
@@ -0,0 +1,286 @@
+/*
+ * This file is part of Bisq.
+ *
+ * Bisq is free software: you can redistribute it and/or modify it
+ * under the terms of the GNU Affero General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or (at
+ * your option) any later version.
+ *
+ * Bisq is distributed in the hope that it will be useful, but WITHOUT
+ * ANY WARRANTY; without even the implied warranty of MERCHANTABILITY or
+ * FITNESS FOR A PARTICULAR PURPOSE. See the GNU Affero General Public
+ * License for more details.
+ *
+ * You should have received a copy of the GNU Affero General Public License
+ * along with Bisq. If not, see <http://www.gnu.org/licenses/>.
+ */
+
+package bisq.network.p2p.network;
+
+import java.nio.ByteBuffer;
+import java.nio.channels.ClosedChannelException;
+import java.nio.channels.SelectionKey;
+import java.nio.channels.Selector;
+import java.nio.channels.ServerSocketChannel;
+import java.nio.channels.SocketChannel;
+
+import java.net.SocketTimeoutException;
+
+import java.io.IOException;
+
+import java.util.Iterator;
+import java.util.Queue;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.Consumer;
+
+import lombok.extern.slf4j.Slf4j;
+
+import javax.annotation.Nullable;
+
+/**
+ * Reads from the socket channels of all connections and accepts inbound connections on a small,
+ * fixed number of selector threads, instead of blocking a thread per connection.
+ * <p>
+ * Each channel is served by a single selector thread, so the bytes read from a channel are
+ * delivered in order. The handlers are called on the selector thread and must not block.
+ */
+@Slf4j
+class ConnectionReactor {
+    interface ReadHandler {
+        // The buffer is reused after the call returns.
+        void onRead(ByteBuffer buffer) throws IOException;
+
+        void onEndOfStream();
+
+        void onReadFailed(IOException exception);
+    }
+
+    // Lets the reader of a channel stop and restart reading, e.g. while it cannot keep up with the
+    // received data. The read timeout does not apply while reading is paused.
+    interface ReadControl {
+        void pauseReading();
+
+        void resumeReading();
+    }
+
+    private static final int NUM_SELECTOR_THREADS = Math.max(1, Math.min(4, Runtime.getRuntime().availableProcessors() / 2));
+    private static final int READ_BUFFER_SIZE = 64 * 1024;
+    private static final long TIMEOUT_CHECK_INTERVAL_MS = 1000;
+
+    @Nullable
+    private static ConnectionReactor instance;
+
+    static synchronized ConnectionReactor getInstance() throws IOException {
+        if (instance == null)
+            instance = new ConnectionReactor(NUM_SELECTOR_THREADS);
+        return instance;
+    }
+
+
+    ///////////////////////////////////////////////////////////////////////////////////////////
+    // Class fields
+    ///////////////////////////////////////////////////////////////////////////////////////////
+
+    private final SelectorThread[] selectorThreads;
+    private final AtomicInteger nextSelectorThread = new AtomicInteger();
+
+
+    ///////////////////////////////////////////////////////////////////////////////////////////
+    // Constructor
+    ///////////////////////////////////////////////////////////////////////////////////////////
+
+    ConnectionReactor(int numSelectorThreads) throws IOException {
+        selectorThreads = new SelectorThread[numSelectorThreads];
+        for (int i = 0; i < numSelectorThreads; i++) {
+            selectorThreads[i] = new SelectorThread(Selector.open());
+            Thread thread = new Thread(selectorThreads[i], "ConnectionReactor-" + i);
+            thread.setDaemon(true);
+            thread.start();
+        }
+    }
+
+
+    ///////////////////////////////////////////////////////////////////////////////////////////
+    // API
+    ///////////////////////////////////////////////////////////////////////////////////////////
+
+    // The channel must be in non-blocking mode. Reading stops if the channel gets closed, if the
+    // end of the stream is reached, if a read fails or if no data was read for readTimeoutMs.
+    ReadControl register(SocketChannel channel, ReadHandler readHandler, long readTimeoutMs) {
+        SelectorThread selectorThread = getNextSelectorThread();
+        ReadRegistration registration = new ReadRegistration(selectorThread, readHandler, readTimeoutMs);
+        selectorThread.execute(() -> {
+            try {
+                registration.key = channel.register(selectorThread.selector,
+                        registration.paused ? 0 : SelectionKey.OP_READ,
+                        registration);
+            } catch (ClosedChannelException e) {
+                readHandler.onReadFailed(e);
+            }
+        });
+        return registration;
+    }
+
+    // The server channel must be in non-blocking mode. Accepting stops when the server channel gets closed.
+    void registerAcceptor(ServerSocketChannel serverChannel, Consumer<SocketChannel> acceptHandler) {
+        SelectorThread selectorThread = getNextSelectorThread();
+        selectorThread.execute(() -> {
+            try {
+                serverChannel.register(selectorThread.selector, SelectionKey.OP_ACCEPT, acceptHandler);
+            } catch (ClosedChannelException e) {
+                log.warn("Server channel got closed before it was registered");
+            }
+        });
+    }
+
+
+    ///////////////////////////////////////////////////////////////////////////////////////////
+    // Private
+    ///////////////////////////////////////////////////////////////////////////////////////////
+
+    private SelectorThread getNextSelectorThread() {
+        return selectorThreads[Math.floorMod(nextSelectorThread.getAndIncrement(), selectorThreads.length)];
+    }
+
+    private static class ReadRegistration implements ReadControl {
+        private final SelectorThread selectorThread;
+        private final ReadHandler readHandler;
+        private final long readTimeoutMs;
+        // Only accessed on the selector thread.
+        @Nullable
+        private SelectionKey key;
+        private boolean paused;
+        private long lastReadTs = System.currentTimeMillis();
+
+        ReadRegistration(SelectorThread selectorThread, ReadHandler readHandler, long readTimeoutMs) {
+            this.selectorThread = selectorThread;
+            this.readHandler = readHandler;
+            this.readTimeoutMs = readTimeoutMs;
+        }
+
+        // The interest ops are changed on the selector thread, so the pause and resume calls are
+        // applied in the order they were made.
+        @Override
+        public void pauseReading() {
+            selectorThread.execute(() -> setPaused(true));
+        }
+
+        @Override
+        public void resumeReading() {
+            selectorThread.execute(() -> setPaused(false));
+        }
+
+        private void setPaused(boolean paused) {
+            this.paused = paused;
+            if (!paused)
+                lastReadTs = System.currentTimeMillis();
+            if (key != null && key.isValid())
+                key.interestOps(paused ? 0 : SelectionKey.OP_READ);
+        }
+    }
+
+    private static class SelectorThread implements Runnable {
+        private final Selector selector;
+        // Registrations are done on the selector thread, as register blocks while the selector is selecting.
+        private final Queue<Runnable> pendingTasks = new ConcurrentLinkedQueue<>();
+        private final ByteBuffer readBuffer = ByteBuffer.allocateDirect(READ_BUFFER_SIZE);
+        private long lastTimeoutCheckTs = System.currentTimeMillis();
+
+        SelectorThread(Selector selector) {
+            this.selector = selector;
+        }
+
+        void execute(Runnable task) {
+            pendingTasks.add(task);
+            selector.wakeup();
+        }
+
+        @Override
+        public void run() {
+            while (true) {
+                try {
+                    selector.select(TIMEOUT_CHECK_INTERVAL_MS);
+
+                    Runnable task;
+                    while ((task = pendingTasks.poll()) != null)
+                        task.run();
+
+                    Iterator<SelectionKey> iterator = selector.selectedKeys().iterator();
+                    while (iterator.hasNext()) {
+                        SelectionKey key = iterator.next();
+                        iterator.remove();
+                        if (!key.isValid())
+                            continue;
+
+                        if ((key.readyOps() & SelectionKey.OP_ACCEPT) != 0)
+                            accept(key);
+                        else if ((key.readyOps() & SelectionKey.OP_READ) != 0)
+                            read(key);
+                    }
+
+                    long now = System.currentTimeMillis();
+                    if (now - lastTimeoutCheckTs >= TIMEOUT_CHECK_INTERVAL_MS) {
+                        lastTimeoutCheckTs = now;
+                        checkReadTimeouts(now);
+                    }
+                } catch (Throwable t) {
+                    log.error("Unexpected error at selector thread {}", Thread.currentThread().getName(), t);
+                }
+            }
+        }
+
+        @SuppressWarnings("unchecked")
+        private void accept(SelectionKey key) {
+            ServerSocketChannel serverChannel = (ServerSocketChannel) key.channel();
+            Consumer<SocketChannel> acceptHandler = (Consumer<SocketChannel>) key.attachment();
+            try {
+                SocketChannel channel;
+                while ((channel = serverChannel.accept()) != null)
+                    acceptHandler.accept(channel);
+            } catch (IOException e) {
+                if (serverChannel.isOpen())
+                    log.error("Accepting a connection failed", e);
+            } catch (RuntimeException e) {
+                log.error("Handling an accepted connection failed", e);
+            }
+        }
+
+        private void read(SelectionKey key) {
+            SocketChannel channel = (SocketChannel) key.channel();
+            ReadRegistration registration = (ReadRegistration) key.attachment();
+            try {
+                readBuffer.clear();
+                int numBytes = channel.read(readBuffer);
+                if (numBytes < 0) {
+                    key.cancel();
+                    registration.readHandler.onEndOfStream();
+                } else if (numBytes > 0) {
+                    registration.lastReadTs = System.currentTimeMillis();
+                    readBuffer.flip();
+                    registration.readHandler.onRead(readBuffer);
+                }
+            } catch (IOException e) {
+                key.cancel();
+                registration.readHandler.onReadFailed(e);
+            } catch (RuntimeException e) {
+                log.error("Handling the data read from {} failed", channel, e);
+                key.cancel();
+                registration.readHandler.onReadFailed(new IOException(e));
+            }
+        }
+
+        private void checkReadTimeouts(long now) {
+            for (SelectionKey key : selector.keys()) {
+                if (!key.isValid() || !(key.attachment() instanceof ReadRegistration))
+                    continue;
+
+                ReadRegistration registration = (ReadRegistration) key.attachment();
+                if (!registration.paused && now - registration.lastReadTs > registration.readTimeoutMs) {
+                    key.cancel();
+                    registration.readHandler.onReadFailed(new SocketTimeoutException("Read timed out"));
+                }
+            }
+        }
+    }
+}
@@ -107,7 +107,8 @@ public class ConnectionStatistics implements MessageListener {
                         "Sent data: %s; %s" + ls +
                         "Received data: %s; %s" + ls +
                         "CPU time spent on sending messages: %s" + ls +
-                        "CPU time spent on receiving messages: %s",
+                        "CPU time spent on receiving messages: %s" + ls +
+                        "Throttled messages: inbound %s; outbound %s",
                 age,
                 seedNode ? "[Seed node] " : "", peer,
                 connectionState.getPeerType().name(),
@@ -118,7 +119,9 @@ public class ConnectionStatistics implements MessageListener {
                 Utilities.readableFileSize(sentBytes), sentDataMap.toString(),
                 Utilities.readableFileSize(receivedBytes), receivedDataMap.toString(),
                 Utilities.formatDurationAsWords(timeOnSendMsg),
-                Utilities.formatDurationAsWords(timeOnReceivedMsg));
+                Utilities.formatDurationAsWords(timeOnReceivedMsg),
+                connection.getInboundThrottle().getNumThrottledMessages(),
+                connection.getOutboundThrottle().getNumThrottledMessages());
     }
 
     @Override
@@ -0,0 +1,110 @@
+/*
+ * This file is part of Bisq.
+ *
+ * Bisq is free software: you can redistribute it and/or modify it
+ * under the terms of the GNU Affero General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or (at
+ * your option) any later version.
+ *
+ * Bisq is distributed in the hope that it will be useful, but WITHOUT
+ * ANY WARRANTY; without even the implied warranty of MERCHANTABILITY or
+ * FITNESS FOR A PARTICULAR PURPOSE. See the GNU Affero General Public
+ * License for more details.
+ *
+ * You should have received a copy of the GNU Affero General Public License
+ * along with Bisq. If not, see <http://www.gnu.org/licenses/>.
+ */
+
+package bisq.network.p2p.network;
+
+import lombok.Getter;
+
+/**
+ * Token bucket rate limiter for the messages of one connection, accounting both the
+ * number of messages and their size in bytes.
+ * <p>
+ * Each bucket holds up to its burst capacity and is refilled at its sustained rate, so
+ * bursts up to the capacity pass without delay and only a sustained rate above the limit
+ * gets throttled.  A message larger than the byte capacity is accepted once the byte
+ * bucket is full, leaving the bucket in debt until it is refilled.
+ */
+public class ConnectionThrottle {
+    private final double messageCapacity;
+    private final double messagesPerMs;
+    private final double byteCapacity;
+    private final double bytesPerMs;
+
+    private double messageTokens;
+    private double byteTokens;
+    private long lastRefillTimestamp;
+
+    @Getter
+    private volatile long numAcceptedMessages;
+    @Getter
+    private volatile long numAcceptedBytes;
+    @Getter
+    private volatile long numThrottledMessages;
+    @Getter
+    private volatile long lastThrottledTimestamp;
+
+    public ConnectionThrottle(int messageCapacity, int messagesPerSec, long byteCapacity, long bytesPerSec) {
+        this.messageCapacity = messageCapacity;
+        this.messagesPerMs = messagesPerSec / 1000d;
+        this.byteCapacity = byteCapacity;
+        this.bytesPerMs = bytesPerSec / 1000d;
+        messageTokens = messageCapacity;
+        byteTokens = byteCapacity;
+        lastRefillTimestamp = System.currentTimeMillis();
+    }
+
+    /**
+     * @param numBytes  Size of the message
+     * @return True if the message is within the limits and got accounted, false if it
+     * exceeds the limits and must be throttled.
+     */
+    public synchronized boolean tryAcquire(int numBytes) {
+        refill();
+        if (messageTokens >= 1 && byteTokens >= Math.min(numBytes, byteCapacity)) {
+            messageTokens -= 1;
+            byteTokens -= numBytes;
+            numAcceptedMessages++;
+            numAcceptedBytes += numBytes;
+            return true;
+        } else {
+            numThrottledMessages++;
+            lastThrottledTimestamp = System.currentTimeMillis();
+            return false;
+        }
+    }
+
+    /**
+     * @param numBytes  Size of the message
+     * @return Time in ms until a message of the given size would be within the limits.
+     */
+    public synchronized long getDelayMillis(int numBytes) {
+        refill();
+        double missingMessageTokens = Math.max(0, 1 - messageTokens);
+        double missingByteTokens = Math.max(0, Math.min(numBytes, byteCapacity) - byteTokens);
+        return (long) Math.ceil(Math.max(missingMessageTokens / messagesPerMs, missingByteTokens / bytesPerMs));
+    }
+
+    private void refill() {
+        long now = System.currentTimeMillis();
+        long elapsed = now - lastRefillTimestamp;
+        if (elapsed > 0) {
+            messageTokens = Math.min(messageCapacity, messageTokens + elapsed * messagesPerMs);
+            byteTokens = Math.min(byteCapacity, byteTokens + elapsed * bytesPerMs);
+            lastRefillTimestamp = now;
+        }
+    }
+
+    @Override
+    public synchronized String toString() {
+        return "ConnectionThrottle{" +
+                "numAcceptedMessages=" + numAcceptedMessages +
+                ", numAcceptedBytes=" + numAcceptedBytes +
+                ", numThrottledMessages=" + numThrottledMessages +
+                ", lastThrottledTimestamp=" + lastThrottledTimestamp +
+                '}';
+    }
+}
@@ -0,0 +1,141 @@
+/*
+ * This file is part of Bisq.
+ *
+ * Bisq is free software: you can redistribute it and/or modify it
+ * under the terms of the GNU Affero General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or (at
+ * your option) any later version.
+ *
+ * Bisq is distributed in the hope that it will be useful, but WITHOUT
+ * ANY WARRANTY; without even the implied warranty of MERCHANTABILITY or
+ * FITNESS FOR A PARTICULAR PURPOSE. See the GNU Affero General Public
+ * License for more details.
+ *
+ * You should have received a copy of the GNU Affero General Public License
+ * along with Bisq. If not, see <http://www.gnu.org/licenses/>.
+ */
+
+package bisq.network.p2p.network;
+
+import bisq.common.metrics.Histogram;
+import bisq.common.metrics.MetricsRegistry;
+
+import com.google.protobuf.ByteString;
+import com.google.protobuf.InvalidProtocolBufferException;
+
+import java.io.ByteArrayOutputStream;
+
+import java.util.zip.DataFormatException;
+import java.util.zip.Deflater;
+import java.util.zip.Inflater;
+
+/**
+ * Compresses large envelopes for peers with the ENVELOPE_COMPRESSION capability, like the
+ * GetDataResponse, GetBlocksResponse, BundleOfEnvelopes or GetInventoryResponse, as on Tor the
+ * bandwidth dominates the time to sync. The compressed envelope is wrapped in a CompressedEnvelope
+ * and only sent if its size is at most {@value MAX_COMPRESSION_RATIO} of the original size.
+ */
+final class EnvelopeCompression {
+    // Small envelopes like offers or acks do not compress well and are not worth the cpu.
+    static final int MIN_SIZE_TO_COMPRESS = 4 * 1024;
+    static final double MAX_COMPRESSION_RATIO = 0.9;
+
+    private static final int BUFFER_SIZE = 8 * 1024;
+
+    private EnvelopeCompression() {
+    }
+
+    // Returns the proto itself if it is too small or does not compress well.
+    static protobuf.NetworkEnvelope maybeCompress(protobuf.NetworkEnvelope proto) {
+        int size = proto.getSerializedSize();
+        if (size < MIN_SIZE_TO_COMPRESS)
+            return proto;
+
+        long ts = System.currentTimeMillis();
+        byte[] compressed = deflate(proto.toByteArray());
+        getTimeHistogram("compress").record(System.currentTimeMillis() - ts);
+        if (compressed.length > size * MAX_COMPRESSION_RATIO) {
+            MetricsRegistry.counter("p2p_envelope_compression_skipped",
+                    "Envelopes not compressed as the compression ratio was too low").inc();
+            return proto;
+        }
+
+        addBytes("sent", size, compressed.length);
+        return protobuf.NetworkEnvelope.newBuilder()
+                .setMessageVersion(proto.getMessageVersion())
+                .setCompressedEnvelope(protobuf.CompressedEnvelope.newBuilder()
+                        .setEnvelope(ByteString.copyFrom(compressed)))
+                .build();
+    }
+
+    // The uncompressed envelope must not be larger than maxSize, so a small compressed envelope
+    // cannot make us allocate lots of memory.
+    static protobuf.NetworkEnvelope decompress(protobuf.NetworkEnvelope proto, int maxSize)
+            throws InvalidProtocolBufferException {
+        long ts = System.currentTimeMillis();
+        ByteString compressed = proto.getCompressedEnvelope().getEnvelope();
+        byte[] uncompressed = inflate(compressed.toByteArray(), maxSize);
+        protobuf.NetworkEnvelope envelope = protobuf.NetworkEnvelope.parseFrom(uncompressed);
+        getTimeHistogram("decompress").record(System.currentTimeMillis() - ts);
+        if (envelope.hasCompressedEnvelope())
+            throw new InvalidProtocolBufferException("Nested CompressedEnvelope");
+
+        addBytes("received", uncompressed.length, compressed.size());
+        return envelope;
+    }
+
+    static byte[] deflate(byte[] bytes) {
+        Deflater deflater = new Deflater(Deflater.DEFAULT_COMPRESSION);
+        try {
+            deflater.setInput(bytes);
+            deflater.finish();
+            ByteArrayOutputStream outputStream = new ByteArrayOutputStream(bytes.length / 2);
+            byte[] buffer = new byte[BUFFER_SIZE];
+            while (!deflater.finished()) {
+                int numBytes = deflater.deflate(buffer);
+                outputStream.write(buffer, 0, numBytes);
+            }
+            return outputStream.toByteArray();
+        } finally {
+            deflater.end();
+        }
+    }
+
+    static byte[] inflate(byte[] bytes, int maxSize) throws InvalidProtocolBufferException {
+        Inflater inflater = new Inflater();
+        try {
+            inflater.setInput(bytes);
+            ByteArrayOutputStream outputStream = new ByteArrayOutputStream(Math.min(maxSize, bytes.length * 4));
+            byte[] buffer = new byte[BUFFER_SIZE];
+            while (!inflater.finished()) {
+                int numBytes = inflater.inflate(buffer);
+                if (numBytes == 0 && (inflater.needsInput() || inflater.needsDictionary()))
+                    throw new InvalidProtocolBufferException("Compressed envelope is truncated");
+                if (outputStream.size() + numBytes > maxSize)
+                    throw new InvalidProtocolBufferException("Uncompressed envelope exceeds " + maxSize + " bytes");
+                outputStream.write(buffer, 0, numBytes);
+            }
+            return outputStream.toByteArray();
+        } catch (DataFormatException e) {
+            throw new InvalidProtocolBufferException("Compressed envelope is corrupted: " + e.getMessage());
+        } finally {
+            inflater.end();
+        }
+    }
+
+    private static void addBytes(String direction, int uncompressedSize, int compressedSize) {
+        MetricsRegistry.counter("p2p_envelope_compression_bytes",
+                "Size of the compressed envelopes before and after compression",
+                "direction", direction, "stage", "uncompressed").add(uncompressedSize);
+        MetricsRegistry.counter("p2p_envelope_compression_bytes",
+                "Size of the compressed envelopes before and after compression",
+                "direction", direction, "stage", "compressed").add(compressedSize);
+    }
+
+    private static Histogram getTimeHistogram(String operation) {
+        return MetricsRegistry.histogram("p2p_envelope_compression_time_ms",
+                "Time to compress or decompress an envelope",
+                MetricsRegistry.DEFAULT_MS_BUCKETS,
+                "operation", operation);
+    }
+}
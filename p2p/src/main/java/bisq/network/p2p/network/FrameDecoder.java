@@ -0,0 +1,104 @@
+/*
+ * This file is part of Bisq.
+ *
+ * Bisq is free software: you can redistribute it and/or modify it
+ * under the terms of the GNU Affero General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or (at
+ * your option) any later version.
+ *
+ * Bisq is distributed in the hope that it will be useful, but WITHOUT
+ * ANY WARRANTY; without even the implied warranty of MERCHANTABILITY or
+ * FITNESS FOR A PARTICULAR PURPOSE. See the GNU Affero General Public
+ * License for more details.
+ *
+ * You should have received a copy of the GNU Affero General Public License
+ * along with Bisq. If not, see <http://www.gnu.org/licenses/>.
+ */
+
+package bisq.network.p2p.network;
+
+import com.google.protobuf.InvalidProtocolBufferException;
+
+import java.nio.ByteBuffer;
+
+import java.util.function.Consumer;
+import java.util.function.IntConsumer;
+
+import javax.annotation.concurrent.NotThreadSafe;
+
+/**
+ * Splits the bytes read from a connection into the frames written by {@link ProtoOutputStream},
+ * i.e. a varint32 length followed by the serialized protobuf.NetworkEnvelope, so we can read
+ * without blocking until a whole frame has arrived.
+ * <p>
+ * Frames larger than maxFrameSize are reported and skipped without buffering them.
+ */
+@NotThreadSafe
+class FrameDecoder {
+    private static final int MAX_VARINT32_SHIFT = 28;
+
+    private final int maxFrameSize;
+    private final Consumer<byte[]> frameHandler;
+    private final IntConsumer frameTooLargeHandler;
+
+    // State of the frame length being read
+    private int frameSize;
+    private int frameSizeShift;
+    // State of the frame being read, frame is null while we read the frame length
+    private byte[] frame;
+    private int frameOffset;
+    private int numBytesToSkip;
+
+    FrameDecoder(int maxFrameSize, Consumer<byte[]> frameHandler, IntConsumer frameTooLargeHandler) {
+        this.maxFrameSize = maxFrameSize;
+        this.frameHandler = frameHandler;
+        this.frameTooLargeHandler = frameTooLargeHandler;
+    }
+
+    // Consumes all remaining bytes of the buffer. The handlers are called for each completed frame.
+    void decode(ByteBuffer buffer) throws InvalidProtocolBufferException {
+        while (buffer.hasRemaining()) {
+            if (numBytesToSkip > 0) {
+                int numBytes = Math.min(numBytesToSkip, buffer.remaining());
+                buffer.position(buffer.position() + numBytes);
+                numBytesToSkip -= numBytes;
+                continue;
+            }
+
+            if (frame == null) {
+                byte b = buffer.get();
+                frameSize |= (b & 0x7F) << frameSizeShift;
+                if ((b & 0x80) != 0) {
+                    frameSizeShift += 7;
+                    if (frameSizeShift > MAX_VARINT32_SHIFT)
+                        throw new InvalidProtocolBufferException("Frame length is not a valid varint32");
+                    continue;
+                }
+
+                int size = frameSize;
+                frameSize = 0;
+                frameSizeShift = 0;
+                if (size < 0)
+                    throw new InvalidProtocolBufferException("Frame length is negative: " + size);
+
+                if (size > maxFrameSize) {
+                    numBytesToSkip = size;
+                    frameTooLargeHandler.accept(size);
+                    continue;
+                }
+
+                frame = new byte[size];
+                frameOffset = 0;
+            }
+
+            int numBytes = Math.min(frame.length - frameOffset, buffer.remaining());
+            buffer.get(frame, frameOffset, numBytes);
+            frameOffset += numBytes;
+            if (frameOffset == frame.length) {
+                byte[] completedFrame = frame;
+                frame = null;
+                frameHandler.accept(completedFrame);
+            }
+        }
+    }
+}
@@ -22,7 +22,10 @@ import bisq.network.p2p.NodeAddress;
 import bisq.common.UserThread;
 import bisq.common.proto.network.NetworkProtoResolver;
 
-import java.net.ServerSocket;
+import java.nio.channels.ServerSocketChannel;
+import java.nio.channels.SocketChannel;
+
+import java.net.InetSocketAddress;
 import java.net.Socket;
 
 import java.io.IOException;
@@ -65,8 +68,6 @@ public class LocalhostNetworkNode extends NetworkNode {
         if (setupListener != null)
             addSetupListener(setupListener);
 
-        createExecutorService();
-
         // simulate tor connection delay
         UserThread.runAfter(() -> {
             nodeAddressProperty.set(new NodeAddress("localhost", servicePort));
@@ -76,7 +77,10 @@ public class LocalhostNetworkNode extends NetworkNode {
             // simulate tor HS publishing delay
             UserThread.runAfter(() -> {
                 try {
-                    startServer(new ServerSocket(servicePort));
+                    // We use channel based sockets so the connections are served by the ConnectionReactor.
+                    ServerSocketChannel serverChannel = ServerSocketChannel.open();
+                    serverChannel.bind(new InetSocketAddress(servicePort));
+                    startServer(serverChannel.socket());
                 } catch (IOException e) {
                     e.printStackTrace();
                     log.error("Exception at startServer: " + e.getMessage());
@@ -89,6 +93,6 @@ public class LocalhostNetworkNode extends NetworkNode {
     // Called from NetworkNode thread
     @Override
     protected Socket createSocket(NodeAddress peerNodeAddress) throws IOException {
-        return new Socket(peerNodeAddress.getHostName(), peerNodeAddress.getPort());
+        return SocketChannel.open(new InetSocketAddress(peerNodeAddress.getHostName(), peerNodeAddress.getPort())).socket();
     }
 }
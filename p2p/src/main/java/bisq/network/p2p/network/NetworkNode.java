@@ -22,8 +22,10 @@ import bisq.network.p2p.NodeAddress;
 import bisq.common.Timer;
 import bisq.common.UserThread;
 import bisq.common.app.Capabilities;
+import bisq.common.metrics.MetricsRegistry;
 import bisq.common.proto.network.NetworkEnvelope;
 import bisq.common.proto.network.NetworkProtoResolver;
+import bisq.common.util.ExecutorRegistry;
 import bisq.common.util.Utilities;
 
 import com.runjva.sourceforge.jsocks.protocol.Socks5Proxy;
@@ -48,7 +50,9 @@ import java.io.IOException;
 import java.util.HashSet;
 import java.util.Optional;
 import java.util.Set;
+import java.util.concurrent.Callable;
 import java.util.concurrent.CopyOnWriteArraySet;
+import java.util.concurrent.RejectedExecutionException;
 import java.util.concurrent.TimeUnit;
 import java.util.concurrent.TimeoutException;
 import java.util.concurrent.atomic.AtomicInteger;
@@ -66,6 +70,7 @@ import static com.google.common.base.Preconditions.checkNotNull;
 public abstract class NetworkNode implements MessageListener {
     private static final Logger log = LoggerFactory.getLogger(NetworkNode.class);
     private static final int CREATE_SOCKET_TIMEOUT = (int) TimeUnit.SECONDS.toMillis(120);
+    public static final int MAX_EXECUTOR_THREADS = 30;
 
     final int servicePort;
     private final NetworkProtoResolver networkProtoResolver;
@@ -76,7 +81,6 @@ public abstract class NetworkNode implements MessageListener {
     private final CopyOnWriteArraySet<MessageListener> messageListeners = new CopyOnWriteArraySet<>();
     private final CopyOnWriteArraySet<ConnectionListener> connectionListeners = new CopyOnWriteArraySet<>();
     final CopyOnWriteArraySet<SetupListener> setupListeners = new CopyOnWriteArraySet<>();
-    ListeningExecutorService executorService;
     private Server server;
 
     private volatile boolean shutDownInProgress;
@@ -95,6 +99,12 @@ public abstract class NetworkNode implements MessageListener {
         this.servicePort = servicePort;
         this.networkProtoResolver = networkProtoResolver;
         this.networkFilter = networkFilter;
+
+        // Labeled by port as there can be several nodes in one process (e.g. load tests).
+        MetricsRegistry.gauge("p2p_connections", "Number of connections", inBoundConnections::size,
+                "node", String.valueOf(servicePort), "direction", "inbound");
+        MetricsRegistry.gauge("p2p_connections", "Number of connections", outBoundConnections::size,
+                "node", String.valueOf(servicePort), "direction", "outbound");
     }
 
     ///////////////////////////////////////////////////////////////////////////////////////////
@@ -123,7 +133,7 @@ public abstract class NetworkNode implements MessageListener {
                     "We will create a new outbound connection.", peersNodeAddress);
 
             final SettableFuture<Connection> resultFuture = SettableFuture.create();
-            ListenableFuture<Connection> future = executorService.submit(() -> {
+            ListenableFuture<Connection> future = submit(() -> {
                 Thread.currentThread().setName("NetworkNode:SendMessage-to-" + peersNodeAddress.getFullAddress());
 
                 if (peersNodeAddress.equals(getNodeAddress())) {
@@ -280,7 +290,7 @@ public abstract class NetworkNode implements MessageListener {
 
     public SettableFuture<Connection> sendMessage(Connection connection, NetworkEnvelope networkEnvelope) {
         // connection.sendMessage might take a bit (compression, write to stream), so we use a thread to not block
-        ListenableFuture<Connection> future = executorService.submit(() -> {
+        ListenableFuture<Connection> future = submit(() -> {
             String id = connection.getPeersNodeAddressOptional().isPresent() ? connection.getPeersNodeAddressOptional().get().getFullAddress() : connection.getUid();
             Thread.currentThread().setName("NetworkNode:SendMessage-to-" + id);
             connection.sendMessage(networkEnvelope);
@@ -330,6 +340,8 @@ public abstract class NetworkNode implements MessageListener {
     public void shutDown(Runnable shutDownCompleteHandler) {
         if (!shutDownInProgress) {
             shutDownInProgress = true;
+            MetricsRegistry.removeGauge("p2p_connections", "node", String.valueOf(servicePort), "direction", "inbound");
+            MetricsRegistry.removeGauge("p2p_connections", "node", String.valueOf(servicePort), "direction", "outbound");
             if (server != null) {
                 server.shutDown();
                 server = null;
@@ -429,9 +441,13 @@ public abstract class NetworkNode implements MessageListener {
     // Protected
     ///////////////////////////////////////////////////////////////////////////////////////////
 
-    void createExecutorService() {
-        if (executorService == null)
-            executorService = Utilities.getListeningExecutorService("NetworkNode-" + servicePort, 15, 30, 60);
+    // Like before the registry we allow max. 30 threads and 30 queued tasks per node.
+    ListeningExecutorService getExecutorService() {
+        return ExecutorRegistry.getListeningExecutorService(getExecutorName(), MAX_EXECUTOR_THREADS, 30);
+    }
+
+    void shutDownExecutorService(long timeout, TimeUnit unit) {
+        ExecutorRegistry.shutDownAndAwaitTermination(getExecutorName(), timeout, unit);
     }
 
     void startServer(ServerSocket serverSocket) {
@@ -465,7 +481,12 @@ public abstract class NetworkNode implements MessageListener {
                 connectionListener,
                 networkProtoResolver,
                 networkFilter);
-        executorService.submit(server);
+        try {
+            server.start();
+        } catch (IOException e) {
+            log.error("Starting the server failed. " + e.getMessage());
+            connectionListeners.forEach(listener -> listener.onError(e));
+        }
     }
 
     private Optional<OutboundConnection> lookupOutBoundConnection(NodeAddress peersNodeAddress) {
@@ -500,11 +521,20 @@ public abstract class NetworkNode implements MessageListener {
 
     protected abstract Socket createSocket(NodeAddress peersNodeAddress) throws IOException;
 
+    // Seed nodes to which we opened connections ahead of need, see SeedConnectionManager.
+    public Set<NodeAddress> getWarmSeedNodeAddresses() {
+        return new HashSet<>();
+    }
+
     @Nullable
     public NodeAddress getNodeAddress() {
         return nodeAddressProperty.get();
     }
 
+    public int getServicePort() {
+        return servicePort;
+    }
+
     public Optional<Capabilities> findPeersCapabilities(NodeAddress nodeAddress) {
         return getConfirmedConnections().stream()
                 .filter(c -> c.getPeersNodeAddressProperty().get() != null)
@@ -512,4 +542,18 @@ public abstract class NetworkNode implements MessageListener {
                 .map(Connection::getCapabilities)
                 .findAny();
     }
+
+    private String getExecutorName() {
+        return "NetworkNode-" + servicePort;
+    }
+
+    // A full executor rejects the task, we report that as failed future so the callers handle it like any other
+    // failure instead of waiting for a result which never comes.
+    private ListenableFuture<Connection> submit(Callable<Connection> task) {
+        try {
+            return getExecutorService().submit(task);
+        } catch (RejectedExecutionException e) {
+            return Futures.immediateFailedFuture(e);
+        }
+    }
 }
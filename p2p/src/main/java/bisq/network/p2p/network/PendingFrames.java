@@ -0,0 +1,71 @@
+/*
+ * This file is part of Bisq.
+ *
+ * Bisq is free software: you can redistribute it and/or modify it
+ * under the terms of the GNU Affero General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or (at
+ * your option) any later version.
+ *
+ * Bisq is distributed in the hope that it will be useful, but WITHOUT
+ * ANY WARRANTY; without even the implied warranty of MERCHANTABILITY or
+ * FITNESS FOR A PARTICULAR PURPOSE. See the GNU Affero General Public
+ * License for more details.
+ *
+ * You should have received a copy of the GNU Affero General Public License
+ * along with Bisq. If not, see <http://www.gnu.org/licenses/>.
+ */
+
+package bisq.network.p2p.network;
+
+import javax.annotation.Nullable;
+
+/**
+ * Counts the frames read from a channel which are waiting to be processed. Reading from the
+ * channel is paused once maxPendingFrames are pending and resumed once half of them got
+ * processed, so a peer sending faster than we process cannot fill up our memory.
+ */
+class PendingFrames {
+    private final int maxPendingFrames;
+    @Nullable
+    private ConnectionReactor.ReadControl readControl;
+    private int numPendingFrames;
+    private boolean readingPaused;
+
+    PendingFrames(int maxPendingFrames) {
+        this.maxPendingFrames = maxPendingFrames;
+    }
+
+    // The read control is only known after the channel got registered, but frames might be read before.
+    synchronized void setReadControl(ConnectionReactor.ReadControl readControl) {
+        this.readControl = readControl;
+        maybePauseReading();
+    }
+
+    synchronized void onFrameQueued() {
+        numPendingFrames++;
+        maybePauseReading();
+    }
+
+    synchronized void onFrameProcessed() {
+        numPendingFrames--;
+        if (numPendingFrames <= maxPendingFrames / 2 && readingPaused) {
+            readingPaused = false;
+            readControl.resumeReading();
+        }
+    }
+
+    synchronized int getNumPendingFrames() {
+        return numPendingFrames;
+    }
+
+    synchronized boolean isReadingPaused() {
+        return readingPaused;
+    }
+
+    private void maybePauseReading() {
+        if (numPendingFrames >= maxPendingFrames && !readingPaused && readControl != null) {
+            readingPaused = true;
+            readControl.pauseReading();
+        }
+    }
+}
@@ -24,6 +24,8 @@ import bisq.common.proto.network.NetworkEnvelope;
 import java.io.IOException;
 import java.io.OutputStream;
 
+import java.util.function.BooleanSupplier;
+
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
@@ -35,10 +37,14 @@ class ProtoOutputStream {
 
     private final OutputStream delegate;
     private final Statistic statistic;
+    // Whether the peer supports the ENVELOPE_COMPRESSION capability, which we might learn only after
+    // the connection was created.
+    private final BooleanSupplier isCompressionSupported;
 
-    ProtoOutputStream(OutputStream delegate, Statistic statistic) {
+    ProtoOutputStream(OutputStream delegate, Statistic statistic, BooleanSupplier isCompressionSupported) {
         this.delegate = delegate;
         this.statistic = statistic;
+        this.isCompressionSupported = isCompressionSupported;
     }
 
     void writeEnvelope(NetworkEnvelope envelope) {
@@ -60,6 +66,8 @@ class ProtoOutputStream {
 
     private void writeEnvelopeOrThrow(NetworkEnvelope envelope) throws IOException {
         protobuf.NetworkEnvelope proto = envelope.toProtoNetworkEnvelope();
+        if (isCompressionSupported.getAsBoolean())
+            proto = EnvelopeCompression.maybeCompress(proto);
         proto.writeDelimitedTo(delegate);
         delegate.flush();
 
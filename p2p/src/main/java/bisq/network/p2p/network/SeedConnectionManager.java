@@ -0,0 +1,286 @@
+/*
+ * This file is part of Bisq.
+ *
+ * Bisq is free software: you can redistribute it and/or modify it
+ * under the terms of the GNU Affero General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or (at
+ * your option) any later version.
+ *
+ * Bisq is distributed in the hope that it will be useful, but WITHOUT
+ * ANY WARRANTY; without even the implied warranty of MERCHANTABILITY or
+ * FITNESS FOR A PARTICULAR PURPOSE. See the GNU Affero General Public
+ * License for more details.
+ *
+ * You should have received a copy of the GNU Affero General Public License
+ * along with Bisq. If not, see <http://www.gnu.org/licenses/>.
+ */
+
+package bisq.network.p2p.network;
+
+import bisq.network.p2p.NodeAddress;
+
+import bisq.common.Timer;
+import bisq.common.UserThread;
+
+import com.google.common.annotations.VisibleForTesting;
+import com.google.common.util.concurrent.FutureCallback;
+import com.google.common.util.concurrent.Futures;
+import com.google.common.util.concurrent.ListenableFuture;
+import com.google.common.util.concurrent.ListeningExecutorService;
+import com.google.common.util.concurrent.MoreExecutors;
+
+import java.net.Socket;
+
+import java.io.IOException;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.Comparator;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.TimeUnit;
+import java.util.function.Supplier;
+
+import lombok.extern.slf4j.Slf4j;
+
+import javax.annotation.Nullable;
+
+/**
+ * Opens the connections to a ranked subset of the seed nodes in parallel before they are needed, as
+ * building the circuit to a hidden service is the largest part of our startup time. The socket of a
+ * seed node is handed to the first caller of {@link #getSocket}, also if it is still connecting.
+ * <p>
+ * Sockets nobody asked for are reopened before the seed node closes them for inactivity, but only
+ * for {@value KEEP_WARM_PERIOD_SEC} sec. after the warm up, so we do not load the seed nodes with
+ * idle connections.
+ */
+@Slf4j
+public class SeedConnectionManager {
+    public interface SocketFactory {
+        Socket createSocket(NodeAddress nodeAddress) throws IOException;
+    }
+
+    static final int NUM_SEEDS_TO_WARM_UP = 3;
+    // The seed node closes a connection after Connection.SOCKET_TIMEOUT (180 sec.) without data.
+    static final long MAX_IDLE_MS = TimeUnit.SECONDS.toMillis(120);
+    private static final long KEEP_WARM_PERIOD_SEC = 600;
+    private static final long REFRESH_INTERVAL_SEC = 30;
+
+    private static class WarmSocket {
+        private final ListenableFuture<Socket> future;
+        // Set when the socket got connected
+        private volatile long connectedTs;
+
+        WarmSocket(ListenableFuture<Socket> future) {
+            this.future = future;
+        }
+    }
+
+    private final SocketFactory socketFactory;
+    // Supplied at each use as the executor is owned by the ExecutorRegistry and might get recreated after a shut down.
+    private final Supplier<ListeningExecutorService> executorServiceSupplier;
+    private final Map<NodeAddress, WarmSocket> warmSockets = new ConcurrentHashMap<>();
+    // Duration of the last connection attempt per seed node, Long.MAX_VALUE if it failed.
+    private final Map<NodeAddress, Long> connectDurations = new ConcurrentHashMap<>();
+    private volatile long keepWarmUntilTs;
+    @Nullable
+    private Timer refreshTimer;
+    private volatile boolean stopped;
+
+
+    ///////////////////////////////////////////////////////////////////////////////////////////
+    // Constructor
+    ///////////////////////////////////////////////////////////////////////////////////////////
+
+    public SeedConnectionManager(SocketFactory socketFactory,
+                                 Supplier<ListeningExecutorService> executorServiceSupplier) {
+        this.socketFactory = socketFactory;
+        this.executorServiceSupplier = executorServiceSupplier;
+    }
+
+
+    ///////////////////////////////////////////////////////////////////////////////////////////
+    // API
+    ///////////////////////////////////////////////////////////////////////////////////////////
+
+    // Can be called again, e.g. at a reconnect. Seed nodes with a warm socket are not connected again.
+    public void warmUp(Collection<NodeAddress> seedNodeAddresses) {
+        if (stopped)
+            return;
+
+        keepWarmUntilTs = System.currentTimeMillis() + TimeUnit.SECONDS.toMillis(KEEP_WARM_PERIOD_SEC);
+        List<NodeAddress> ranked = rank(seedNodeAddresses);
+        ranked.subList(0, Math.min(NUM_SEEDS_TO_WARM_UP, ranked.size())).forEach(this::open);
+        log.info("We warm up the connections to the seed nodes {}", warmSockets.keySet());
+
+        if (refreshTimer == null)
+            refreshTimer = UserThread.runPeriodically(() -> refresh(System.currentTimeMillis()),
+                    REFRESH_INTERVAL_SEC);
+    }
+
+    // Returns the warm socket to the seed node if there is one, otherwise a new socket. Blocks until
+    // the socket is connected. If the warm socket failed to connect we try again with a new one.
+    public Socket getSocket(NodeAddress nodeAddress) throws IOException {
+        WarmSocket warmSocket = warmSockets.remove(nodeAddress);
+        if (warmSocket != null) {
+            Socket socket = await(nodeAddress, warmSocket);
+            if (socket != null) {
+                if (!socket.isClosed() && !isExpired(warmSocket, System.currentTimeMillis())) {
+                    log.info("We use the warm socket to seed node {}", nodeAddress);
+                    return socket;
+                }
+                close(socket);
+            }
+        }
+        return connect(nodeAddress);
+    }
+
+    public Set<NodeAddress> getWarmSeedNodeAddresses() {
+        return new HashSet<>(warmSockets.keySet());
+    }
+
+    public void shutDown() {
+        stopped = true;
+        if (refreshTimer != null) {
+            refreshTimer.stop();
+            refreshTimer = null;
+        }
+        new ArrayList<>(warmSockets.keySet()).forEach(nodeAddress -> {
+            WarmSocket warmSocket = warmSockets.remove(nodeAddress);
+            if (warmSocket != null)
+                closeWhenConnected(warmSocket);
+        });
+    }
+
+
+    ///////////////////////////////////////////////////////////////////////////////////////////
+    // Package scope for tests
+    ///////////////////////////////////////////////////////////////////////////////////////////
+
+    // The seed nodes we connected to fastest come first, then the ones we did not try yet in random order
+    // and then the ones we failed to connect to.
+    @VisibleForTesting
+    List<NodeAddress> rank(Collection<NodeAddress> seedNodeAddresses) {
+        List<NodeAddress> ranked = new ArrayList<>(seedNodeAddresses);
+        Collections.shuffle(ranked);
+        ranked.sort(Comparator.comparingLong(nodeAddress -> connectDurations.getOrDefault(nodeAddress, Long.MAX_VALUE - 1)));
+        return ranked;
+    }
+
+    @VisibleForTesting
+    @Nullable
+    Socket peekConnectedSocket(NodeAddress nodeAddress) {
+        WarmSocket warmSocket = warmSockets.get(nodeAddress);
+        return warmSocket != null && warmSocket.connectedTs > 0 ? Futures.getUnchecked(warmSocket.future) : null;
+    }
+
+    // Reopens the unused sockets before they expire, or closes them after the keep warm period.
+    @VisibleForTesting
+    void refresh(long now) {
+        warmSockets.forEach((nodeAddress, warmSocket) -> {
+            if (isExpired(warmSocket, now) && warmSockets.remove(nodeAddress, warmSocket)) {
+                closeWhenConnected(warmSocket);
+                if (now < keepWarmUntilTs && !stopped) {
+                    log.debug("We reopen the warm socket to seed node {}", nodeAddress);
+                    open(nodeAddress);
+                }
+            }
+        });
+    }
+
+
+    ///////////////////////////////////////////////////////////////////////////////////////////
+    // Private
+    ///////////////////////////////////////////////////////////////////////////////////////////
+
+    private void open(NodeAddress nodeAddress) {
+        if (warmSockets.containsKey(nodeAddress))
+            return;
+
+        ListenableFuture<Socket> future;
+        try {
+            future = executorServiceSupplier.get().submit(() -> connect(nodeAddress));
+        } catch (RejectedExecutionException e) {
+            // Warming up is only an optimization, we skip it if the executor is busy.
+            log.info("Warming up the connection to seed node {} got rejected: {}", nodeAddress, e.toString());
+            return;
+        }
+        WarmSocket warmSocket = new WarmSocket(future);
+        if (warmSockets.putIfAbsent(nodeAddress, warmSocket) != null) {
+            closeWhenConnected(warmSocket);
+            return;
+        }
+
+        Futures.addCallback(future, new FutureCallback<>() {
+            @Override
+            public void onSuccess(Socket socket) {
+                warmSocket.connectedTs = System.currentTimeMillis();
+                if (stopped)
+                    close(socket);
+            }
+
+            @Override
+            public void onFailure(Throwable throwable) {
+                log.info("Warming up the connection to seed node {} failed: {}", nodeAddress, throwable.toString());
+                warmSockets.remove(nodeAddress, warmSocket);
+            }
+        }, MoreExecutors.directExecutor());
+    }
+
+    private Socket connect(NodeAddress nodeAddress) throws IOException {
+        long ts = System.currentTimeMillis();
+        try {
+            Socket socket = socketFactory.createSocket(nodeAddress);
+            connectDurations.put(nodeAddress, System.currentTimeMillis() - ts);
+            return socket;
+        } catch (IOException | RuntimeException e) {
+            connectDurations.put(nodeAddress, Long.MAX_VALUE);
+            throw e;
+        }
+    }
+
+    // Returns null if the warm socket failed to connect.
+    @Nullable
+    private Socket await(NodeAddress nodeAddress, WarmSocket warmSocket) throws IOException {
+        try {
+            return warmSocket.future.get();
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new IOException("Interrupted while waiting for the warm socket", e);
+        } catch (ExecutionException e) {
+            log.info("The warm socket to seed node {} failed to connect: {}. We connect again.",
+                    nodeAddress, e.getCause().toString());
+            return null;
+        }
+    }
+
+    private boolean isExpired(WarmSocket warmSocket, long now) {
+        return warmSocket.connectedTs > 0 && now - warmSocket.connectedTs > MAX_IDLE_MS;
+    }
+
+    private void closeWhenConnected(WarmSocket warmSocket) {
+        Futures.addCallback(warmSocket.future, new FutureCallback<>() {
+            @Override
+            public void onSuccess(Socket socket) {
+                close(socket);
+            }
+
+            @Override
+            public void onFailure(Throwable throwable) {
+            }
+        }, MoreExecutors.directExecutor());
+    }
+
+    private void close(Socket socket) {
+        try {
+            socket.close();
+        } catch (IOException ignore) {
+        }
+    }
+}
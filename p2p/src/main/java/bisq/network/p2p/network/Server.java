@@ -19,6 +19,8 @@ package bisq.network.p2p.network;
 
 import bisq.common.proto.network.NetworkProtoResolver;
 
+import java.nio.channels.ServerSocketChannel;
+
 import java.net.ServerSocket;
 import java.net.Socket;
 import java.net.SocketException;
@@ -61,34 +63,29 @@ class Server implements Runnable {
         this.networkFilter = networkFilter;
     }
 
+    // If the server socket was created from a ServerSocketChannel we accept with the ConnectionReactor,
+    // otherwise (e.g. the hidden service socket of Tor) we need a thread blocking on accept.
+    void start() throws IOException {
+        ServerSocketChannel serverChannel = serverSocket.getChannel();
+        if (serverChannel != null) {
+            serverChannel.configureBlocking(false);
+            ConnectionReactor.getInstance().registerAcceptor(serverChannel, channel -> onAccepted(channel.socket()));
+        } else {
+            Thread thread = new Thread(this, "Server-" + serverSocket.getLocalPort());
+            thread.setDaemon(true);
+            thread.start();
+        }
+    }
+
     @Override
     public void run() {
         try {
-            // Thread created by NetworkNode
-            Thread.currentThread().setName("Server-" + serverSocket.getLocalPort());
             try {
                 while (!stopped && !Thread.currentThread().isInterrupted()) {
                     log.debug("Ready to accept new clients on port " + serverSocket.getLocalPort());
                     final Socket socket = serverSocket.accept();
-                    if (!stopped && !Thread.currentThread().isInterrupted()) {
-                        log.debug("Accepted new client on localPort/port " + socket.getLocalPort() + "/" + socket.getPort());
-                        InboundConnection connection = new InboundConnection(socket,
-                                messageListener,
-                                connectionListener,
-                                networkProtoResolver,
-                                networkFilter);
-
-                        log.debug("\n\n%%%%%%%%%%%%%%%%%%%%%%%%%%%%%%%%%%%%%%%%%%%%%%%%%%%%%%%%%%%%\n" +
-                                "Server created new inbound connection:"
-                                + "\nlocalPort/port={}/{}"
-                                + "\nconnection.uid={}", serverSocket.getLocalPort(), socket.getPort(), connection.getUid()
-                                + "\n%%%%%%%%%%%%%%%%%%%%%%%%%%%%%%%%%%%%%%%%%%%%%%%%%%%%%%%%%%%%\n");
-
-                        if (!stopped)
-                            connections.add(connection);
-                        else
-                            connection.shutDown(CloseConnectionReason.APP_SHUT_DOWN);
-                    }
+                    if (!Thread.currentThread().isInterrupted())
+                        onAccepted(socket);
                 }
             } catch (IOException e) {
                 if (!stopped)
@@ -100,6 +97,34 @@ class Server implements Runnable {
         }
     }
 
+    private void onAccepted(Socket socket) {
+        if (stopped) {
+            try {
+                socket.close();
+            } catch (IOException ignore) {
+            }
+            return;
+        }
+
+        log.debug("Accepted new client on localPort/port " + socket.getLocalPort() + "/" + socket.getPort());
+        InboundConnection connection = new InboundConnection(socket,
+                messageListener,
+                connectionListener,
+                networkProtoResolver,
+                networkFilter);
+
+        log.debug("\n\n%%%%%%%%%%%%%%%%%%%%%%%%%%%%%%%%%%%%%%%%%%%%%%%%%%%%%%%%%%%%\n" +
+                "Server created new inbound connection:"
+                + "\nlocalPort/port={}/{}"
+                + "\nconnection.uid={}", serverSocket.getLocalPort(), socket.getPort(), connection.getUid()
+                + "\n%%%%%%%%%%%%%%%%%%%%%%%%%%%%%%%%%%%%%%%%%%%%%%%%%%%%%%%%%%%%\n");
+
+        if (!stopped)
+            connections.add(connection);
+        else
+            connection.shutDown(CloseConnectionReason.APP_SHUT_DOWN);
+    }
+
     public void shutDown() {
         if (!stopped) {
             stopped = true;
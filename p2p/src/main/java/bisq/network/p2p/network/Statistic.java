@@ -18,6 +18,8 @@
 package bisq.network.p2p.network;
 
 import bisq.common.UserThread;
+import bisq.common.metrics.Counter;
+import bisq.common.metrics.MetricsRegistry;
 import bisq.common.proto.network.NetworkEnvelope;
 import bisq.common.util.Utilities;
 
@@ -32,12 +34,19 @@ import java.util.Date;
 import java.util.Map;
 import java.util.concurrent.ConcurrentHashMap;
 import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.LongAdder;
 
 import lombok.extern.slf4j.Slf4j;
 
+import javax.annotation.Nullable;
+
 /**
  * Network statistics per connection. As we are also interested in total network statistics
- * we use static properties to get traffic of all connections combined.
+ * we use static counters to get traffic of all connections combined.
+ * <p>
+ * The counters are updated lock-free from the network threads and are exported by the
+ * {@link MetricsRegistry}. The JavaFX properties are only created if the UI requests
+ * them, so headless apps don't pay for updating them on the UserThread.
  */
 @Slf4j
 public class Statistic {
@@ -48,30 +57,14 @@ public class Statistic {
 
 
     private final static long startTime = System.currentTimeMillis();
-    private final static LongProperty totalSentBytes = new SimpleLongProperty(0);
-    private final static DoubleProperty totalSentBytesPerSec = new SimpleDoubleProperty(0);
-    private final static LongProperty totalReceivedBytes = new SimpleLongProperty(0);
-    private final static DoubleProperty totalReceivedBytesPerSec = new SimpleDoubleProperty(0);
-    private final static Map<String, Integer> totalReceivedMessages = new ConcurrentHashMap<>();
-    private final static Map<String, Integer> totalSentMessages = new ConcurrentHashMap<>();
-    private final static LongProperty numTotalSentMessages = new SimpleLongProperty(0);
-    private final static DoubleProperty numTotalSentMessagesPerSec = new SimpleDoubleProperty(0);
-    private final static LongProperty numTotalReceivedMessages = new SimpleLongProperty(0);
-    private final static DoubleProperty numTotalReceivedMessagesPerSec = new SimpleDoubleProperty(0);
+    private final static Counter totalSentBytes = MetricsRegistry.counter("p2p_sent_bytes_total",
+            "Bytes sent to all peers");
+    private final static Counter totalReceivedBytes = MetricsRegistry.counter("p2p_received_bytes_total",
+            "Bytes received from all peers");
+    private final static Map<String, Counter> totalReceivedMessages = new ConcurrentHashMap<>();
+    private final static Map<String, Counter> totalSentMessages = new ConcurrentHashMap<>();
 
     static {
-        UserThread.runPeriodically(() -> {
-            numTotalSentMessages.set(totalSentMessages.values().stream().mapToInt(Integer::intValue).sum());
-            numTotalReceivedMessages.set(totalReceivedMessages.values().stream().mapToInt(Integer::intValue).sum());
-
-            long passed = (System.currentTimeMillis() - startTime) / 1000;
-            numTotalSentMessagesPerSec.set(((double) numTotalSentMessages.get()) / passed);
-            numTotalReceivedMessagesPerSec.set(((double) numTotalReceivedMessages.get()) / passed);
-
-            totalSentBytesPerSec.set(((double) totalSentBytes.get()) / passed);
-            totalReceivedBytesPerSec.set(((double) totalReceivedBytes.get()) / passed);
-        }, 1);
-
         // We log statistics every 5 minutes
         UserThread.runPeriodically(() -> {
             String ls = System.lineSeparator();
@@ -82,45 +75,112 @@ public class Statistic {
                             "Bytes received: {}" + ls +
                             "Number of received messages/Received messages: {} / {};" + ls +
                             "Number of received messages per sec: {};" + ls,
-                    Utilities.readableFileSize(totalSentBytes.get()),
-                    numTotalSentMessages.get(), totalSentMessages,
-                    numTotalSentMessagesPerSec.get(),
-                    Utilities.readableFileSize(totalReceivedBytes.get()),
-                    numTotalReceivedMessages.get(), totalReceivedMessages,
-                    numTotalReceivedMessagesPerSec.get());
+                    Utilities.readableFileSize(getTotalSentBytes()),
+                    getNumTotalSentMessages(), totalSentMessages,
+                    getNumTotalSentMessagesPerSec(),
+                    Utilities.readableFileSize(getTotalReceivedBytes()),
+                    getNumTotalReceivedMessages(), totalReceivedMessages,
+                    getNumTotalReceivedMessagesPerSec());
         }, TimeUnit.MINUTES.toSeconds(5));
     }
 
+    public static long getTotalSentBytes() {
+        return totalSentBytes.get();
+    }
+
+    public static double getTotalSentBytesPerSec() {
+        return perSec(getTotalSentBytes());
+    }
+
+    public static long getTotalReceivedBytes() {
+        return totalReceivedBytes.get();
+    }
+
+    public static double getTotalReceivedBytesPerSec() {
+        return perSec(getTotalReceivedBytes());
+    }
+
+    public static long getNumTotalSentMessages() {
+        return totalSentMessages.values().stream().mapToLong(Counter::get).sum();
+    }
+
+    public static double getNumTotalSentMessagesPerSec() {
+        return perSec(getNumTotalSentMessages());
+    }
+
+    public static long getNumTotalReceivedMessages() {
+        return totalReceivedMessages.values().stream().mapToLong(Counter::get).sum();
+    }
+
+    public static double getNumTotalReceivedMessagesPerSec() {
+        return perSec(getNumTotalReceivedMessages());
+    }
+
     public static LongProperty totalSentBytesProperty() {
-        return totalSentBytes;
+        return FxProperties.totalSentBytes;
     }
 
     public static DoubleProperty totalSentBytesPerSecProperty() {
-        return totalSentBytesPerSec;
+        return FxProperties.totalSentBytesPerSec;
     }
 
     public static LongProperty totalReceivedBytesProperty() {
-        return totalReceivedBytes;
+        return FxProperties.totalReceivedBytes;
     }
 
     public static DoubleProperty totalReceivedBytesPerSecProperty() {
-        return totalReceivedBytesPerSec;
+        return FxProperties.totalReceivedBytesPerSec;
     }
 
     public static LongProperty numTotalSentMessagesProperty() {
-        return numTotalSentMessages;
+        return FxProperties.numTotalSentMessages;
     }
 
     public static DoubleProperty numTotalSentMessagesPerSecProperty() {
-        return numTotalSentMessagesPerSec;
+        return FxProperties.numTotalSentMessagesPerSec;
     }
 
     public static LongProperty numTotalReceivedMessagesProperty() {
-        return numTotalReceivedMessages;
+        return FxProperties.numTotalReceivedMessages;
     }
 
     public static DoubleProperty numTotalReceivedMessagesPerSecProperty() {
-        return numTotalReceivedMessagesPerSec;
+        return FxProperties.numTotalReceivedMessagesPerSec;
+    }
+
+    private static double perSec(long value) {
+        long passed = (System.currentTimeMillis() - startTime) / 1000;
+        return passed > 0 ? ((double) value) / passed : 0;
+    }
+
+    private static Counter getMessageCounter(Map<String, Counter> counters, String name, String messageClassName) {
+        return counters.computeIfAbsent(messageClassName, key -> MetricsRegistry.counter(name,
+                "Messages by message type", "type", messageClassName));
+    }
+
+    // Initialized at the first access of one of the static properties, which only the UI does.
+    private static class FxProperties {
+        private final static LongProperty totalSentBytes = new SimpleLongProperty(0);
+        private final static DoubleProperty totalSentBytesPerSec = new SimpleDoubleProperty(0);
+        private final static LongProperty totalReceivedBytes = new SimpleLongProperty(0);
+        private final static DoubleProperty totalReceivedBytesPerSec = new SimpleDoubleProperty(0);
+        private final static LongProperty numTotalSentMessages = new SimpleLongProperty(0);
+        private final static DoubleProperty numTotalSentMessagesPerSec = new SimpleDoubleProperty(0);
+        private final static LongProperty numTotalReceivedMessages = new SimpleLongProperty(0);
+        private final static DoubleProperty numTotalReceivedMessagesPerSec = new SimpleDoubleProperty(0);
+
+        static {
+            UserThread.runPeriodically(() -> {
+                totalSentBytes.set(getTotalSentBytes());
+                totalSentBytesPerSec.set(getTotalSentBytesPerSec());
+                totalReceivedBytes.set(getTotalReceivedBytes());
+                totalReceivedBytesPerSec.set(getTotalReceivedBytesPerSec());
+                numTotalSentMessages.set(getNumTotalSentMessages());
+                numTotalSentMessagesPerSec.set(getNumTotalSentMessagesPerSec());
+                numTotalReceivedMessages.set(getNumTotalReceivedMessages());
+                numTotalReceivedMessagesPerSec.set(getNumTotalReceivedMessagesPerSec());
+            }, 1);
+        }
     }
 
 
@@ -129,12 +189,20 @@ public class Statistic {
     ///////////////////////////////////////////////////////////////////////////////////////////
 
     private final Date creationDate;
-    private long lastActivityTimestamp = System.currentTimeMillis();
-    private final LongProperty sentBytes = new SimpleLongProperty(0);
-    private final LongProperty receivedBytes = new SimpleLongProperty(0);
-    private final Map<String, Integer> receivedMessages = new ConcurrentHashMap<>();
-    private final Map<String, Integer> sentMessages = new ConcurrentHashMap<>();
-    private final IntegerProperty roundTripTime = new SimpleIntegerProperty(0);
+    private volatile long lastActivityTimestamp = System.currentTimeMillis();
+    private final LongAdder sentBytes = new LongAdder();
+    private final LongAdder receivedBytes = new LongAdder();
+    private final Map<String, LongAdder> receivedMessages = new ConcurrentHashMap<>();
+    private final Map<String, LongAdder> sentMessages = new ConcurrentHashMap<>();
+    private volatile int roundTripTime;
+
+    // Created on the UserThread if requested by the UI.
+    @Nullable
+    private volatile LongProperty sentBytesProperty;
+    @Nullable
+    private volatile LongProperty receivedBytesProperty;
+    @Nullable
+    private IntegerProperty roundTripTimeProperty;
 
 
     ///////////////////////////////////////////////////////////////////////////////////////////
@@ -150,56 +218,45 @@ public class Statistic {
     ///////////////////////////////////////////////////////////////////////////////////////////
 
     void updateLastActivityTimestamp() {
-        UserThread.execute(() -> lastActivityTimestamp = System.currentTimeMillis());
+        lastActivityTimestamp = System.currentTimeMillis();
     }
 
     void addSentBytes(int value) {
-        UserThread.execute(() -> {
-            sentBytes.set(sentBytes.get() + value);
-            totalSentBytes.set(totalSentBytes.get() + value);
-        });
+        sentBytes.add(value);
+        totalSentBytes.add(value);
+        LongProperty property = sentBytesProperty;
+        if (property != null) {
+            UserThread.execute(() -> property.set(sentBytes.sum()));
+        }
     }
 
     void addReceivedBytes(int value) {
-        UserThread.execute(() -> {
-            receivedBytes.set(receivedBytes.get() + value);
-            totalReceivedBytes.set(totalReceivedBytes.get() + value);
-        });
+        receivedBytes.add(value);
+        totalReceivedBytes.add(value);
+        LongProperty property = receivedBytesProperty;
+        if (property != null) {
+            UserThread.execute(() -> property.set(receivedBytes.sum()));
+        }
     }
 
     // TODO would need msg inspection to get useful information...
     void addReceivedMessage(NetworkEnvelope networkEnvelope) {
         String messageClassName = networkEnvelope.getClass().getSimpleName();
-        int counter = 1;
-        if (receivedMessages.containsKey(messageClassName)) {
-            counter = receivedMessages.get(messageClassName) + 1;
-        }
-        receivedMessages.put(messageClassName, counter);
-
-        counter = 1;
-        if (totalReceivedMessages.containsKey(messageClassName)) {
-            counter = totalReceivedMessages.get(messageClassName) + 1;
-        }
-        totalReceivedMessages.put(messageClassName, counter);
+        receivedMessages.computeIfAbsent(messageClassName, key -> new LongAdder()).increment();
+        getMessageCounter(totalReceivedMessages, "p2p_received_messages_total", messageClassName).inc();
     }
 
     void addSentMessage(NetworkEnvelope networkEnvelope) {
         String messageClassName = networkEnvelope.getClass().getSimpleName();
-        int counter = 1;
-        if (sentMessages.containsKey(messageClassName)) {
-            counter = sentMessages.get(messageClassName) + 1;
-        }
-        sentMessages.put(messageClassName, counter);
-
-        counter = 1;
-        if (totalSentMessages.containsKey(messageClassName)) {
-            counter = totalSentMessages.get(messageClassName) + 1;
-        }
-        totalSentMessages.put(messageClassName, counter);
+        sentMessages.computeIfAbsent(messageClassName, key -> new LongAdder()).increment();
+        getMessageCounter(totalSentMessages, "p2p_sent_messages_total", messageClassName).inc();
     }
 
     public void setRoundTripTime(int roundTripTime) {
-        this.roundTripTime.set(roundTripTime);
+        this.roundTripTime = roundTripTime;
+        if (roundTripTimeProperty != null) {
+            roundTripTimeProperty.set(roundTripTime);
+        }
     }
 
     ///////////////////////////////////////////////////////////////////////////////////////////
@@ -215,29 +272,45 @@ public class Statistic {
     }
 
     public long getSentBytes() {
-        return sentBytes.get();
+        return sentBytes.sum();
     }
 
+    // Must be called on the UserThread.
     public LongProperty sentBytesProperty() {
-        return sentBytes;
+        if (sentBytesProperty == null) {
+            sentBytesProperty = new SimpleLongProperty(getSentBytes());
+        }
+        return sentBytesProperty;
     }
 
     public long getReceivedBytes() {
-        return receivedBytes.get();
+        return receivedBytes.sum();
     }
 
+    // Must be called on the UserThread.
     public LongProperty receivedBytesProperty() {
-        return receivedBytes;
+        if (receivedBytesProperty == null) {
+            receivedBytesProperty = new SimpleLongProperty(getReceivedBytes());
+        }
+        return receivedBytesProperty;
     }
 
     public Date getCreationDate() {
         return creationDate;
     }
 
-    public IntegerProperty roundTripTimeProperty() {
+    public int getRoundTripTime() {
         return roundTripTime;
     }
 
+    // Must be called on the UserThread.
+    public IntegerProperty roundTripTimeProperty() {
+        if (roundTripTimeProperty == null) {
+            roundTripTimeProperty = new SimpleIntegerProperty(roundTripTime);
+        }
+        return roundTripTimeProperty;
+    }
+
     @Override
     public String toString() {
         return "Statistic{" +
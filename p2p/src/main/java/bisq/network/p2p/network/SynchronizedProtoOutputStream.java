@@ -21,10 +21,7 @@ import bisq.common.proto.network.NetworkEnvelope;
 
 import java.io.OutputStream;
 
-import java.util.concurrent.ExecutionException;
-import java.util.concurrent.ExecutorService;
-import java.util.concurrent.Executors;
-import java.util.concurrent.Future;
+import java.util.function.BooleanSupplier;
 
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
@@ -35,34 +32,19 @@ import javax.annotation.concurrent.ThreadSafe;
 class SynchronizedProtoOutputStream extends ProtoOutputStream {
     private static final Logger log = LoggerFactory.getLogger(SynchronizedProtoOutputStream.class);
 
-    private final ExecutorService executorService;
-
-    SynchronizedProtoOutputStream(OutputStream delegate, Statistic statistic) {
-        super(delegate, statistic);
-        this.executorService = Executors.newSingleThreadExecutor();
+    SynchronizedProtoOutputStream(OutputStream delegate, Statistic statistic, BooleanSupplier isCompressionSupported) {
+        super(delegate, statistic, isCompressionSupported);
     }
 
+    // The envelope is written on the calling thread, the lock only serializes concurrent writers.
     @Override
-    void writeEnvelope(NetworkEnvelope envelope) {
-        Future<?> future = executorService.submit(() -> super.writeEnvelope(envelope));
-        try {
-            future.get();
-        } catch (InterruptedException e) {
-            Thread currentThread = Thread.currentThread();
-            currentThread.interrupt();
-            String msg = "Thread " + currentThread + " was interrupted. InterruptedException=" + e;
-            log.error(msg);
-            throw new BisqRuntimeException(msg, e);
-        } catch (ExecutionException e) {
-            String msg = "Failed to write envelope. ExecutionException " + e;
-            log.error(msg);
-            throw new BisqRuntimeException(msg, e);
-        }
+    synchronized void writeEnvelope(NetworkEnvelope envelope) {
+        super.writeEnvelope(envelope);
     }
 
+    // Not synchronized, as closing the stream must not wait for a blocked writer but unblock it.
     void onConnectionShutdown() {
         try {
-            executorService.shutdownNow();
             super.onConnectionShutdown();
         } catch (Throwable t) {
             log.error("Failed to handle connection shutdown. Throwable={}", t.toString());
@@ -48,8 +48,13 @@ import java.net.Socket;
 
 import java.io.IOException;
 
+import java.util.ArrayList;
 import java.util.Base64;
+import java.util.Collection;
 import java.util.Date;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
 import java.util.concurrent.TimeUnit;
 
 import org.slf4j.Logger;
@@ -82,6 +87,9 @@ public class TorNetworkNode extends NetworkNode {
     private Socks5Proxy socksProxy;
     private ListenableFuture<Void> torStartupFuture;
 
+    private final Set<NodeAddress> seedNodeAddresses;
+    private final SeedConnectionManager seedConnectionManager;
+
     ///////////////////////////////////////////////////////////////////////////////////////////
     // Constructor
     ///////////////////////////////////////////////////////////////////////////////////////////
@@ -91,10 +99,20 @@ public class TorNetworkNode extends NetworkNode {
                           boolean useStreamIsolation,
                           TorMode torMode,
                           @Nullable NetworkFilter networkFilter) {
+        this(servicePort, networkProtoResolver, useStreamIsolation, torMode, networkFilter, new ArrayList<>());
+    }
+
+    public TorNetworkNode(int servicePort,
+                          NetworkProtoResolver networkProtoResolver,
+                          boolean useStreamIsolation,
+                          TorMode torMode,
+                          @Nullable NetworkFilter networkFilter,
+                          Collection<NodeAddress> seedNodeAddresses) {
         super(servicePort, networkProtoResolver, networkFilter);
         this.torMode = torMode;
         this.streamIsolation = useStreamIsolation;
-        createExecutorService();
+        this.seedNodeAddresses = new HashSet<>(seedNodeAddresses);
+        seedConnectionManager = new SeedConnectionManager(this::createTorSocket, this::getExecutorService);
     }
 
 
@@ -115,10 +133,15 @@ public class TorNetworkNode extends NetworkNode {
 
     @Override
     protected Socket createSocket(NodeAddress peerNodeAddress) throws IOException {
-        checkArgument(peerNodeAddress.getHostName().endsWith(".onion"), "PeerAddress is not an onion address");
-        // If streamId is null stream isolation gets deactivated.
-        // Hidden services use stream isolation by default so we pass null.
-        return new TorSocket(peerNodeAddress.getHostName(), peerNodeAddress.getPort(), null);
+        if (seedNodeAddresses.contains(peerNodeAddress))
+            return seedConnectionManager.getSocket(peerNodeAddress);
+
+        return createTorSocket(peerNodeAddress);
+    }
+
+    @Override
+    public Set<NodeAddress> getWarmSeedNodeAddresses() {
+        return seedConnectionManager.getWarmSeedNodeAddresses();
     }
 
     // TODO handle failure more cleanly
@@ -154,6 +177,7 @@ public class TorNetworkNode extends NetworkNode {
             log.warn("We got called shutDown again and ignore it.");
             return;
         }
+        seedConnectionManager.shutDown();
         // this one is executed synchronously
         BooleanProperty networkNodeShutDown = networkNodeShutDown();
         // this one is committed as a thread to the executor
@@ -167,7 +191,7 @@ public class TorNetworkNode extends NetworkNode {
                 shutDownTimeoutTimer.stop();
                 long ts = System.currentTimeMillis();
                 try {
-                    MoreExecutors.shutdownAndAwaitTermination(executorService, 500, TimeUnit.MILLISECONDS);
+                    shutDownExecutorService(500, TimeUnit.MILLISECONDS);
                     log.debug("Shutdown executorService done after {} ms.", System.currentTimeMillis() - ts);
                 } catch (Throwable t) {
                     log.error("Shutdown executorService failed with exception: {}", t.getMessage());
@@ -251,8 +275,24 @@ public class TorNetworkNode extends NetworkNode {
     // create tor
     ///////////////////////////////////////////////////////////////////////////////////////////
 
+    private Socket createTorSocket(NodeAddress peerNodeAddress) throws IOException {
+        checkArgument(peerNodeAddress.getHostName().endsWith(".onion"), "PeerAddress is not an onion address");
+        // If streamId is null stream isolation gets deactivated.
+        // Hidden services use stream isolation by default so we pass null.
+        return new TorSocket(peerNodeAddress.getHostName(), peerNodeAddress.getPort(), null);
+    }
+
+    // Tor is ready for outbound connections now, we open the circuits to the seed nodes we will request
+    // the data from while the hidden service gets published.
+    private void warmUpSeedConnections() {
+        List<NodeAddress> nodeAddresses = new ArrayList<>(seedNodeAddresses);
+        nodeAddresses.remove(getNodeAddress());
+        if (!nodeAddresses.isEmpty())
+            seedConnectionManager.warmUp(nodeAddresses);
+    }
+
     private void createTorAndHiddenService(int localPort, int servicePort) {
-        torStartupFuture = executorService.submit(() -> {
+        torStartupFuture = getExecutorService().submit(() -> {
             try {
                 // get tor
                 Tor.setDefault(torMode.getTor());
@@ -261,6 +301,7 @@ public class TorNetworkNode extends NetworkNode {
                 long ts2 = new Date().getTime();
                 hiddenServiceSocket = new HiddenServiceSocket(localPort, torMode.getHiddenServiceDirectory(), servicePort);
                 nodeAddressProperty.set(new NodeAddress(hiddenServiceSocket.getServiceName() + ":" + hiddenServiceSocket.getHiddenServicePort()));
+                warmUpSeedConnections();
                 UserThread.execute(() -> setupListeners.forEach(SetupListener::onTorNodeReady));
                 hiddenServiceSocket.addReadyListener(socket -> {
                     try {
@@ -39,10 +39,12 @@ import javax.inject.Inject;
 import java.util.ArrayList;
 import java.util.Collection;
 import java.util.Collections;
+import java.util.Comparator;
 import java.util.HashMap;
 import java.util.List;
 import java.util.Map;
 import java.util.Optional;
+import java.util.Set;
 import java.util.concurrent.TimeUnit;
 import java.util.stream.Collectors;
 
@@ -156,6 +158,11 @@ public class RequestDataManager implements MessageListener, ConnectionListener,
     }
 
     public void requestPreliminaryData() {
+        // We prefer the seed nodes the network node has opened connections to already. The sort is stable, so
+        // the order of the others stays shuffled and we use the same seed nodes for the updated data requests.
+        Set<NodeAddress> warmSeedNodeAddresses = networkNode.getWarmSeedNodeAddresses();
+        seedNodeAddresses.sort(Comparator.comparing(nodeAddress -> !warmSeedNodeAddresses.contains(nodeAddress)));
+
         ArrayList<NodeAddress> nodeAddresses = new ArrayList<>(seedNodeAddresses);
         if (!nodeAddresses.isEmpty()) {
             ArrayList<NodeAddress> finalNodeAddresses = new ArrayList<>(nodeAddresses);
@@ -26,6 +26,8 @@ import bisq.network.p2p.peers.keepalive.messages.Pong;
 
 import bisq.common.Timer;
 import bisq.common.UserThread;
+import bisq.common.metrics.Histogram;
+import bisq.common.metrics.MetricsRegistry;
 import bisq.common.proto.network.NetworkEnvelope;
 
 import com.google.common.util.concurrent.FutureCallback;
@@ -47,6 +49,8 @@ class KeepAliveHandler implements MessageListener {
     private static final Logger log = LoggerFactory.getLogger(KeepAliveHandler.class);
 
     private static final int DELAY_MS = 10_000;
+    private static final Histogram ROUND_TRIP_TIMES = MetricsRegistry.histogram("p2p_round_trip_time_ms",
+            "Round trip time of Ping messages in ms", MetricsRegistry.DEFAULT_MS_BUCKETS);
 
 
     ///////////////////////////////////////////////////////////////////////////////////////////
@@ -101,7 +105,7 @@ class KeepAliveHandler implements MessageListener {
 
     private void sendPing(Connection connection) {
         if (!stopped) {
-            Ping ping = new Ping(nonce, connection.getStatistic().roundTripTimeProperty().get());
+            Ping ping = new Ping(nonce, connection.getStatistic().getRoundTripTime());
             sendTs = System.currentTimeMillis();
             SettableFuture<Connection> future = networkNode.sendMessage(connection, ping);
             Futures.addCallback(future, new FutureCallback<Connection>() {
@@ -149,6 +153,7 @@ class KeepAliveHandler implements MessageListener {
                 if (pong.getRequestNonce() == nonce) {
                     int roundTripTime = (int) (System.currentTimeMillis() - sendTs);
                     connection.getStatistic().setRoundTripTime(roundTripTime);
+                    ROUND_TRIP_TIMES.record(roundTripTime);
                     cleanup();
                     listener.onComplete();
                 } else {
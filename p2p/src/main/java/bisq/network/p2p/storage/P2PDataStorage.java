@@ -54,6 +54,7 @@ import bisq.network.p2p.storage.persistence.ProtectedDataStoreService;
 import bisq.network.p2p.storage.persistence.RemovedPayloadsService;
 import bisq.network.p2p.storage.persistence.ResourceDataStoreService;
 import bisq.network.p2p.storage.persistence.SequenceNumberMap;
+import bisq.network.p2p.storage.persistence.UnionMapView;
 
 import bisq.common.Timer;
 import bisq.common.UserThread;
@@ -61,6 +62,7 @@ import bisq.common.app.Capabilities;
 import bisq.common.crypto.CryptoException;
 import bisq.common.crypto.Hash;
 import bisq.common.crypto.Sig;
+import bisq.common.metrics.MetricsRegistry;
 import bisq.common.persistence.PersistenceManager;
 import bisq.common.proto.network.NetworkEnvelope;
 import bisq.common.proto.network.NetworkPayload;
@@ -153,6 +155,8 @@ public class P2PDataStorage implements MessageListener, ConnectionListener, Pers
 
     // Don't convert to local variable as it might get GC'ed.
     private MonadicBinding<Boolean> readFromResourcesCompleteBinding;
+    // Label of our gauges, by port as there can be several nodes in one process (e.g. load tests).
+    private final String metricsNodeLabel;
 
 
     ///////////////////////////////////////////////////////////////////////////////////////////
@@ -182,6 +186,18 @@ public class P2PDataStorage implements MessageListener, ConnectionListener, Pers
         networkNode.addConnectionListener(this);
 
         this.persistenceManager.initialize(sequenceNumberMap, PersistenceManager.Source.PRIVATE_LOW_PRIO);
+
+        metricsNodeLabel = String.valueOf(networkNode.getServicePort());
+        MetricsRegistry.gauge("p2p_storage_protected_entries", "Number of protected storage entries", map::size,
+                "node", metricsNodeLabel);
+        MetricsRegistry.gauge("p2p_storage_append_only_entries",
+                "Number of append-only entries, excluding the historical ones",
+                () -> appendOnlyDataStoreService.getServices().stream()
+                        .mapToInt(service -> service instanceof HistoricalDataStoreService ?
+                                ((HistoricalDataStoreService<?>) service).getMapOfLiveData().size() :
+                                service.getMap().size())
+                        .sum(),
+                "node", metricsNodeLabel);
     }
 
 
@@ -310,7 +326,7 @@ public class P2PDataStorage implements MessageListener, ConnectionListener, Pers
         // The methods in HistoricalDataStoreService will return all historical data in that case.
         // mapForDataResponse contains the filtered by version data from HistoricalDataStoreService as well as all other
         // maps of the remaining appendOnlyDataStoreServices.
-        Map<ByteArray, PersistableNetworkPayload> mapForDataResponse = getMapForDataResponse(getDataRequest.getVersion());
+        UnionMapView<ByteArray, PersistableNetworkPayload> mapForDataResponse = getMapForDataResponse(getDataRequest.getVersion());
         Set<PersistableNetworkPayload> filteredPersistableNetworkPayloads =
                 filterKnownHashes(
                         mapForDataResponse,
@@ -321,7 +337,7 @@ public class P2PDataStorage implements MessageListener, ConnectionListener, Pers
                         wasPersistableNetworkPayloadsTruncated);
         log.info("{} PersistableNetworkPayload entries remained after filtered by excluded keys. " +
                         "Original map had {} entries.",
-                filteredPersistableNetworkPayloads.size(), mapForDataResponse.size());
+                filteredPersistableNetworkPayloads.size(), mapForDataResponse.getSizeOfSegments());
         log.trace("## buildGetDataResponse filteredPersistableNetworkPayloadHashes={}",
                 filteredPersistableNetworkPayloads.stream()
                         .map(e -> Utilities.encodeToHex(e.getHash()))
@@ -356,7 +372,7 @@ public class P2PDataStorage implements MessageListener, ConnectionListener, Pers
     ///////////////////////////////////////////////////////////////////////////////////////////
 
     private Map<ByteArray, PersistableNetworkPayload> getMapForDataRequest() {
-        Map<ByteArray, PersistableNetworkPayload> map = new HashMap<>();
+        List<Map<ByteArray, PersistableNetworkPayload>> maps = new ArrayList<>();
         appendOnlyDataStoreService.getServices()
                 .forEach(service -> {
                     Map<ByteArray, PersistableNetworkPayload> serviceMap;
@@ -368,29 +384,35 @@ public class P2PDataStorage implements MessageListener, ConnectionListener, Pers
                     } else {
                         serviceMap = service.getMap();
                     }
-                    map.putAll(serviceMap);
+                    maps.add(serviceMap);
                     log.info("We added {} entries from {} to the excluded key set of our request",
                             serviceMap.size(), service.getClass().getSimpleName());
                 });
-        return map;
+        return new UnionMapView<>(maps);
     }
 
-    public Map<ByteArray, PersistableNetworkPayload> getMapForDataResponse(String requestersVersion) {
-        Map<ByteArray, PersistableNetworkPayload> map = new HashMap<>();
+    public UnionMapView<ByteArray, PersistableNetworkPayload> getMapForDataResponse(String requestersVersion) {
+        List<Map<ByteArray, PersistableNetworkPayload>> maps = new ArrayList<>();
         appendOnlyDataStoreService.getServices()
                 .forEach(service -> {
                     Map<ByteArray, PersistableNetworkPayload> serviceMap;
+                    int numEntries;
                     if (service instanceof HistoricalDataStoreService) {
                         var historicalDataStoreService = (HistoricalDataStoreService<? extends PersistableNetworkPayloadStore>) service;
-                        serviceMap = historicalDataStoreService.getMapSinceVersion(requestersVersion);
+                        UnionMapView<ByteArray, PersistableNetworkPayload> mapSinceVersion =
+                                historicalDataStoreService.getMapSinceVersion(requestersVersion);
+                        serviceMap = mapSinceVersion;
+                        // The size of the view would need to go over all entries
+                        numEntries = mapSinceVersion.getSizeOfSegments();
                     } else {
                         serviceMap = service.getMap();
+                        numEntries = serviceMap.size();
                     }
-                    map.putAll(serviceMap);
+                    maps.add(serviceMap);
                     log.info("We added {} entries from {} to be filtered by excluded keys",
-                            serviceMap.size(), service.getClass().getSimpleName());
+                            numEntries, service.getClass().getSimpleName());
                 });
-        return map;
+        return new UnionMapView<>(maps);
     }
 
     /**
@@ -407,11 +429,14 @@ public class P2PDataStorage implements MessageListener, ConnectionListener, Pers
 
         log.info("Num knownHashes {}", knownHashes.size());
 
-        Set<Map.Entry<ByteArray, T>> entries = toFilter.entrySet();
-        List<T> dateSortedTruncatablePayloads = entries.stream()
-                .filter(entry -> entry.getValue() instanceof DateSortedTruncatablePayload)
+        // We filter by the keys first, so the values of known entries do not need to be accessed. Values of
+        // historical data get decoded from the mapped store at each access.
+        List<T> unknownPayloads = toFilter.entrySet().stream()
                 .filter(entry -> !knownHashes.contains(entry.getKey()))
                 .map(Map.Entry::getValue)
+                .collect(Collectors.toList());
+        List<T> dateSortedTruncatablePayloads = unknownPayloads.stream()
+                .filter(payload -> payload instanceof DateSortedTruncatablePayload)
                 .filter(payload -> shouldTransmitPayloadToPeer(peerCapabilities, objToPayload.apply(payload)))
                 .sorted(Comparator.comparing(payload -> ((DateSortedTruncatablePayload) payload).getDate()))
                 .collect(Collectors.toList());
@@ -426,10 +451,8 @@ public class P2PDataStorage implements MessageListener, ConnectionListener, Pers
             }
         }
 
-        List<T> filteredResults = entries.stream()
-                .filter(entry -> !(entry.getValue() instanceof DateSortedTruncatablePayload))
-                .filter(entry -> !knownHashes.contains(entry.getKey()))
-                .map(Map.Entry::getValue)
+        List<T> filteredResults = unknownPayloads.stream()
+                .filter(payload -> !(payload instanceof DateSortedTruncatablePayload))
                 .filter(payload -> shouldTransmitPayloadToPeer(peerCapabilities, objToPayload.apply(payload)))
                 .collect(Collectors.toList());
         log.info("Num filtered non-dateSortedTruncatablePayloads {}", filteredResults.size());
@@ -531,6 +554,9 @@ public class P2PDataStorage implements MessageListener, ConnectionListener, Pers
     public void shutDown() {
         if (removeExpiredEntriesTimer != null)
             removeExpiredEntriesTimer.stop();
+
+        MetricsRegistry.removeGauge("p2p_storage_protected_entries", "node", metricsNodeLabel);
+        MetricsRegistry.removeGauge("p2p_storage_append_only_entries", "node", metricsNodeLabel);
     }
 
     @VisibleForTesting
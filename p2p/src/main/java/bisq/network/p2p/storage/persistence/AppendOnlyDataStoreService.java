@@ -76,15 +76,13 @@ public class AppendOnlyDataStoreService {
     }
 
 
+    // Read-only view of the data of all services.
     public Map<P2PDataStorage.ByteArray, PersistableNetworkPayload> getMap() {
-        return services.stream()
-                .flatMap(service -> {
-                    Map<P2PDataStorage.ByteArray, PersistableNetworkPayload> map = service instanceof HistoricalDataStoreService ?
-                            ((HistoricalDataStoreService) service).getMapOfAllData() :
-                            service.getMap();
-                    return map.entrySet().stream();
-                })
-                .collect(Collectors.toMap(Map.Entry::getKey, Map.Entry::getValue));
+        return new UnionMapView<>(services.stream()
+                .map(service -> service instanceof HistoricalDataStoreService ?
+                        ((HistoricalDataStoreService<?>) service).getMapOfAllData() :
+                        service.getMap())
+                .collect(Collectors.toList()));
     }
 
     public void put(P2PDataStorage.ByteArray hashAsByteArray, PersistableNetworkPayload payload) {
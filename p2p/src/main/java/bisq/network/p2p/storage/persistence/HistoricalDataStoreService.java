@@ -26,11 +26,17 @@ import bisq.common.persistence.PersistenceManager;
 
 import com.google.common.collect.ImmutableMap;
 
+import java.nio.file.Paths;
+
 import java.io.File;
+import java.io.IOException;
 
+import java.util.ArrayList;
 import java.util.HashMap;
+import java.util.List;
 import java.util.Map;
 import java.util.concurrent.atomic.AtomicInteger;
+import java.util.stream.Collectors;
 
 import lombok.extern.slf4j.Slf4j;
 
@@ -39,12 +45,15 @@ import lombok.extern.slf4j.Slf4j;
  * New data is added to the default map in the store (live data). Historical data is created from resource files.
  * For initial data requests we only use the live data as the users version is sent with the
  * request so the responding (seed)node can figure out if we miss any of the historical data.
+ * <p>
+ * The historical data of each version is kept in a {@link MappedPayloadStore}, which is created from the
+ * resource file at the first start with that version. Later starts only map that file.
  */
 @Slf4j
 public abstract class HistoricalDataStoreService<T extends PersistableNetworkPayloadStore<? extends PersistableNetworkPayload>> extends MapStoreService<T, PersistableNetworkPayload> {
-    private ImmutableMap<String, PersistableNetworkPayloadStore<? extends PersistableNetworkPayload>> storesByVersion;
-    // Cache to avoid that we have to recreate the historical data at each request
-    private ImmutableMap<P2PDataStorage.ByteArray, PersistableNetworkPayload> allHistoricalPayloads;
+    private static final String MAPPED_STORE_POST_FIX = "_mapped";
+
+    private ImmutableMap<String, Map<P2PDataStorage.ByteArray, PersistableNetworkPayload>> storesByVersion;
 
 
     ///////////////////////////////////////////////////////////////////////////////////////////
@@ -60,11 +69,12 @@ public abstract class HistoricalDataStoreService<T extends PersistableNetworkPay
     // API
     ///////////////////////////////////////////////////////////////////////////////////////////
 
-    // We give back a map of our live map and all historical maps newer than the requested version.
+    // We give back a read-only view of our live map and all historical maps newer than the requested version.
     // If requestersVersion is null we return all historical data.
-    public Map<P2PDataStorage.ByteArray, PersistableNetworkPayload> getMapSinceVersion(String requestersVersion) {
+    public UnionMapView<P2PDataStorage.ByteArray, PersistableNetworkPayload> getMapSinceVersion(String requestersVersion) {
         // We add all our live data
-        Map<P2PDataStorage.ByteArray, PersistableNetworkPayload> result = new HashMap<>(store.getMap());
+        List<Map<P2PDataStorage.ByteArray, PersistableNetworkPayload>> maps = new ArrayList<>();
+        maps.add(store.getMap());
 
         // If we have a store with a newer version than the requesters version we will add those as well.
         storesByVersion.entrySet().stream()
@@ -87,22 +97,26 @@ public abstract class HistoricalDataStoreService<T extends PersistableNetworkPay
                             requestersVersion, storeVersion, details);
                     return newVersion;
                 })
-                .map(e -> e.getValue().getMap())
-                .forEach(result::putAll);
-
-        log.info("We found {} entries since requesters version {}",
-                result.size(), requestersVersion);
-        return result;
+                .map(Map.Entry::getValue)
+                .forEach(maps::add);
+
+        log.info("We found {} entries since requesters version {}. Entries per store: {}",
+                maps.stream().mapToInt(Map::size).sum(),
+                requestersVersion,
+                maps.stream().map(Map::size).collect(Collectors.toList()));
+        return new UnionMapView<>(maps);
     }
 
     public Map<P2PDataStorage.ByteArray, PersistableNetworkPayload> getMapOfLiveData() {
         return store.getMap();
     }
 
+    // Read-only view of the live and all historical data.
     public Map<P2PDataStorage.ByteArray, PersistableNetworkPayload> getMapOfAllData() {
-        Map<P2PDataStorage.ByteArray, PersistableNetworkPayload> result = new HashMap<>(getMapOfLiveData());
-        result.putAll(allHistoricalPayloads);
-        return result;
+        List<Map<P2PDataStorage.ByteArray, PersistableNetworkPayload>> maps = new ArrayList<>();
+        maps.add(getMapOfLiveData());
+        maps.addAll(storesByVersion.values());
+        return new UnionMapView<>(maps);
     }
 
 
@@ -149,17 +163,14 @@ public abstract class HistoricalDataStoreService<T extends PersistableNetworkPay
                     getFileName(), getMapOfLiveData().size());
 
             // Now we add our historical data stores.
-            Map<P2PDataStorage.ByteArray, PersistableNetworkPayload> allHistoricalPayloads = new HashMap<>();
-            Map<String, PersistableNetworkPayloadStore<? extends PersistableNetworkPayload>> storesByVersion = new HashMap<>();
+            Map<String, Map<P2PDataStorage.ByteArray, PersistableNetworkPayload>> storesByVersion = new HashMap<>();
             AtomicInteger numFiles = new AtomicInteger(Version.HISTORICAL_RESOURCE_FILE_VERSION_TAGS.size());
             Version.HISTORICAL_RESOURCE_FILE_VERSION_TAGS.forEach(version -> readHistoricalStoreFromResources(version,
                     postFix,
-                    allHistoricalPayloads,
                     storesByVersion,
                     () -> {
                         if (numFiles.decrementAndGet() == 0) {
                             // At last iteration we set the immutable map
-                            this.allHistoricalPayloads = ImmutableMap.copyOf(allHistoricalPayloads);
                             this.storesByVersion = ImmutableMap.copyOf(storesByVersion);
                             completeHandler.run();
                         }
@@ -174,29 +185,65 @@ public abstract class HistoricalDataStoreService<T extends PersistableNetworkPay
 
     private void readHistoricalStoreFromResources(String version,
                                                   String postFix,
-                                                  Map<P2PDataStorage.ByteArray, PersistableNetworkPayload> allHistoricalPayloads,
-                                                  Map<String, PersistableNetworkPayloadStore<? extends PersistableNetworkPayload>> storesByVersion,
+                                                  Map<String, Map<P2PDataStorage.ByteArray, PersistableNetworkPayload>> storesByVersion,
                                                   Runnable completeHandler) {
 
         String fileName = getFileName() + "_" + version;
-        boolean wasCreatedFromResources = makeFileFromResourceFile(fileName, postFix);
+        File mappedStoreFile = Paths.get(absolutePathOfStorageDir, fileName + MAPPED_STORE_POST_FIX).toFile();
+        if (mappedStoreFile.exists()) {
+            try {
+                MappedPayloadStore mappedStore = MappedPayloadStore.open(mappedStoreFile, this::decodePayload);
+                onHistoricalStoreRead(version, mappedStore, storesByVersion);
+                log.info("We have mapped {} historical items from {}.", mappedStore.size(), mappedStoreFile.getName());
+                completeHandler.run();
+                return;
+            } catch (IOException e) {
+                log.warn("Could not map {}, we create it again from the resource file. {}",
+                        mappedStoreFile.getName(), e.toString());
+            }
+        }
+
+        makeFileFromResourceFile(fileName, postFix);
 
         // If resource file does not exist we do not create a new store as it would never get filled.
         persistenceManager.readPersisted(fileName, persisted -> {
-                    storesByVersion.put(version, persisted);
-                    allHistoricalPayloads.putAll(persisted.getMap());
                     log.info("We have read from {} {} historical items.", fileName, persisted.getMap().size());
-                    pruneStore(persisted, version);
+                    onHistoricalStoreRead(version, toMappedStore(persisted, mappedStoreFile), storesByVersion);
                     completeHandler.run();
                 },
                 completeHandler::run);
     }
 
-    private void pruneStore(PersistableNetworkPayloadStore<? extends PersistableNetworkPayload> historicalStore,
+    // Falls back to keeping the parsed payloads on the heap if we cannot write the mapped store.
+    private Map<P2PDataStorage.ByteArray, PersistableNetworkPayload> toMappedStore(
+            PersistableNetworkPayloadStore<? extends PersistableNetworkPayload> persisted,
+            File mappedStoreFile) {
+        try {
+            MappedPayloadStore.write(mappedStoreFile, persisted.getMap());
+            return MappedPayloadStore.open(mappedStoreFile, this::decodePayload);
+        } catch (IOException e) {
+            log.warn("Could not create {}, we keep the historical data in memory. {}",
+                    mappedStoreFile.getName(), e.toString());
+            return ImmutableMap.copyOf(persisted.getMap());
+        }
+    }
+
+    private void onHistoricalStoreRead(String version,
+                                       Map<P2PDataStorage.ByteArray, PersistableNetworkPayload> historicalStore,
+                                       Map<String, Map<P2PDataStorage.ByteArray, PersistableNetworkPayload>> storesByVersion) {
+        storesByVersion.put(version, historicalStore);
+        pruneStore(historicalStore, version);
+    }
+
+    private PersistableNetworkPayload decodePayload(protobuf.PersistableNetworkPayload proto) {
+        return PersistableNetworkPayload.fromProto(proto, persistenceManager.getPersistenceProtoResolver());
+    }
+
+    private void pruneStore(Map<P2PDataStorage.ByteArray, PersistableNetworkPayload> historicalStore,
                             String version) {
         Map<P2PDataStorage.ByteArray, PersistableNetworkPayload> mapOfLiveData = getMapOfLiveData();
         int preLive = mapOfLiveData.size();
-        mapOfLiveData.keySet().removeAll(historicalStore.getMap().keySet());
+        mapOfLiveData.keySet().removeIf(historicalStore::containsKey);
         int postLive = mapOfLiveData.size();
         if (preLive > postLive) {
             log.info("We pruned data from our live data store which are already contained in the historical data store with version {}. " +
@@ -209,6 +256,7 @@ public abstract class HistoricalDataStoreService<T extends PersistableNetworkPay
     }
 
     private boolean anyMapContainsKey(P2PDataStorage.ByteArray hash) {
-        return getMapOfLiveData().containsKey(hash) || allHistoricalPayloads.containsKey(hash);
+        return getMapOfLiveData().containsKey(hash) ||
+                storesByVersion.values().stream().anyMatch(store -> store.containsKey(hash));
     }
 }
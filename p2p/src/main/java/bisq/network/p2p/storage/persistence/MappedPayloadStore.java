@@ -0,0 +1,320 @@
+/*
+ * This file is part of Bisq.
+ *
+ * Bisq is free software: you can redistribute it and/or modify it
+ * under the terms of the GNU Affero General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or (at
+ * your option) any later version.
+ *
+ * Bisq is distributed in the hope that it will be useful, but WITHOUT
+ * ANY WARRANTY; without even the implied warranty of MERCHANTABILITY or
+ * FITNESS FOR A PARTICULAR PURPOSE. See the GNU Affero General Public
+ * License for more details.
+ *
+ * You should have received a copy of the GNU Affero General Public License
+ * along with Bisq. If not, see <http://www.gnu.org/licenses/>.
+ */
+
+package bisq.network.p2p.storage.persistence;
+
+import bisq.network.p2p.storage.P2PDataStorage;
+import bisq.network.p2p.storage.payload.PersistableNetworkPayload;
+
+import bisq.common.file.FileUtil;
+
+import com.google.protobuf.InvalidProtocolBufferException;
+
+import java.nio.ByteBuffer;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.StandardOpenOption;
+
+import java.io.BufferedOutputStream;
+import java.io.DataOutputStream;
+import java.io.File;
+import java.io.FileOutputStream;
+import java.io.IOException;
+import java.io.UncheckedIOException;
+
+import java.util.AbstractMap;
+import java.util.AbstractSet;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Map;
+import java.util.NoSuchElementException;
+import java.util.Set;
+import java.util.function.Function;
+
+import lombok.extern.slf4j.Slf4j;
+
+/**
+ * Read-only map of PersistableNetworkPayloads backed by a memory mapped file, used for the historical data
+ * which never changes once it got shipped with a release.
+ * <p>
+ * The file holds a header (magic, format version, hash length, number of entries), the index of all entries
+ * sorted by hash and the serialized payloads. An index entry consists of the hash and the offset and length of
+ * its payload. Lookups by hash are binary searches on the index. Payloads are only decoded when they are
+ * accessed and are not kept, so the payloads do not live on the heap.
+ */
+@Slf4j
+public final class MappedPayloadStore extends AbstractMap<P2PDataStorage.ByteArray, PersistableNetworkPayload> {
+    private static final int MAGIC = 0x48505331; // HPS1
+    private static final int FORMAT_VERSION = 1;
+    private static final int HEADER_SIZE = 4 * Integer.BYTES;
+
+    private final MappedByteBuffer buffer;
+    private final Function<protobuf.PersistableNetworkPayload, PersistableNetworkPayload> decoder;
+    private final int hashLength;
+    private final int size;
+    private final int indexEntrySize;
+    private final int dataStart;
+    private final Set<Entry<P2PDataStorage.ByteArray, PersistableNetworkPayload>> entrySet = new EntrySet();
+
+
+    ///////////////////////////////////////////////////////////////////////////////////////////
+    // Write, open
+    ///////////////////////////////////////////////////////////////////////////////////////////
+
+    /**
+     * Writes the payloads to file. All hashes need to have the same length.
+     */
+    public static void write(File file, Map<P2PDataStorage.ByteArray, ? extends PersistableNetworkPayload> map)
+            throws IOException {
+        List<P2PDataStorage.ByteArray> hashes = new ArrayList<>(map.keySet());
+        hashes.sort((o1, o2) -> Arrays.compareUnsigned(o1.bytes, o2.bytes));
+        int hashLength = hashes.isEmpty() ? 0 : hashes.get(0).bytes.length;
+        List<byte[]> payloads = new ArrayList<>(hashes.size());
+        for (P2PDataStorage.ByteArray hash : hashes) {
+            if (hash.bytes.length != hashLength) {
+                throw new IOException("Hashes of different length cannot be stored in a mapped store");
+            }
+            payloads.add(map.get(hash).toProtoMessage().toByteArray());
+        }
+
+        File tempFile = new File(file.getParentFile(), file.getName() + ".tmp");
+        try (DataOutputStream out = new DataOutputStream(new BufferedOutputStream(new FileOutputStream(tempFile)))) {
+            out.writeInt(MAGIC);
+            out.writeInt(FORMAT_VERSION);
+            out.writeInt(hashLength);
+            out.writeInt(hashes.size());
+            int offset = 0;
+            for (int i = 0; i < hashes.size(); i++) {
+                out.write(hashes.get(i).bytes);
+                out.writeInt(offset);
+                out.writeInt(payloads.get(i).length);
+                offset += payloads.get(i).length;
+            }
+            for (byte[] payload : payloads) {
+                out.write(payload);
+            }
+        }
+        FileUtil.renameFile(tempFile, file);
+    }
+
+    /**
+     * Maps the file written by {@link #write}. The file is not locked, so it must not be changed while it is
+     * in use.
+     */
+    public static MappedPayloadStore open(File file,
+                                          Function<protobuf.PersistableNetworkPayload, PersistableNetworkPayload> decoder)
+            throws IOException {
+        try (FileChannel channel = FileChannel.open(file.toPath(), StandardOpenOption.READ)) {
+            // The mapping stays valid after the channel is closed.
+            return new MappedPayloadStore(channel.map(FileChannel.MapMode.READ_ONLY, 0, channel.size()), decoder);
+        }
+    }
+
+    private MappedPayloadStore(MappedByteBuffer buffer,
+                               Function<protobuf.PersistableNetworkPayload, PersistableNetworkPayload> decoder)
+            throws IOException {
+        this.buffer = buffer;
+        this.decoder = decoder;
+        if (buffer.capacity() < HEADER_SIZE || buffer.getInt(0) != MAGIC || buffer.getInt(4) != FORMAT_VERSION) {
+            throw new IOException("Not a mapped store file or unsupported format version");
+        }
+        hashLength = buffer.getInt(8);
+        size = buffer.getInt(12);
+        indexEntrySize = hashLength + 2 * Integer.BYTES;
+        long dataStart = HEADER_SIZE + (long) size * indexEntrySize;
+        if (hashLength < 0 || size < 0 || dataStart > buffer.capacity() ||
+                (size > 0 && dataStart + getOffset(size - 1) + getLength(size - 1) != buffer.capacity())) {
+            throw new IOException("Mapped store file is corrupted");
+        }
+        this.dataStart = (int) dataStart;
+    }
+
+
+    ///////////////////////////////////////////////////////////////////////////////////////////
+    // Map
+    ///////////////////////////////////////////////////////////////////////////////////////////
+
+    @Override
+    public int size() {
+        return size;
+    }
+
+    @Override
+    public boolean containsKey(Object key) {
+        return indexOf(key) >= 0;
+    }
+
+    @Override
+    public PersistableNetworkPayload get(Object key) {
+        int index = indexOf(key);
+        return index >= 0 ? decode(index) : null;
+    }
+
+    @Override
+    public Set<Entry<P2PDataStorage.ByteArray, PersistableNetworkPayload>> entrySet() {
+        return entrySet;
+    }
+
+
+    ///////////////////////////////////////////////////////////////////////////////////////////
+    // Private
+    ///////////////////////////////////////////////////////////////////////////////////////////
+
+    // We only use absolute reads on the shared buffer, so concurrent reads are safe.
+    private int indexOf(Object key) {
+        if (!(key instanceof P2PDataStorage.ByteArray)) {
+            return -1;
+        }
+        byte[] hash = ((P2PDataStorage.ByteArray) key).bytes;
+        if (hash.length != hashLength) {
+            return -1;
+        }
+        int low = 0;
+        int high = size - 1;
+        while (low <= high) {
+            int mid = (low + high) >>> 1;
+            int cmp = compareHash(mid, hash);
+            if (cmp < 0) {
+                low = mid + 1;
+            } else if (cmp > 0) {
+                high = mid - 1;
+            } else {
+                return mid;
+            }
+        }
+        return -1;
+    }
+
+    private int compareHash(int index, byte[] hash) {
+        int position = HEADER_SIZE + index * indexEntrySize;
+        for (int i = 0; i < hashLength; i++) {
+            int cmp = Byte.compareUnsigned(buffer.get(position + i), hash[i]);
+            if (cmp != 0) {
+                return cmp;
+            }
+        }
+        return 0;
+    }
+
+    private P2PDataStorage.ByteArray getHash(int index) {
+        byte[] hash = new byte[hashLength];
+        ByteBuffer view = buffer.duplicate();
+        view.position(HEADER_SIZE + index * indexEntrySize);
+        view.get(hash);
+        return new P2PDataStorage.ByteArray(hash);
+    }
+
+    private int getOffset(int index) {
+        return buffer.getInt(HEADER_SIZE + index * indexEntrySize + hashLength);
+    }
+
+    private int getLength(int index) {
+        return buffer.getInt(HEADER_SIZE + index * indexEntrySize + hashLength + Integer.BYTES);
+    }
+
+    private PersistableNetworkPayload decode(int index) {
+        ByteBuffer view = buffer.duplicate();
+        int position = dataStart + getOffset(index);
+        view.position(position);
+        view.limit(position + getLength(index));
+        try {
+            return decoder.apply(protobuf.PersistableNetworkPayload.parseFrom(view));
+        } catch (InvalidProtocolBufferException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+
+    private class EntrySet extends AbstractSet<Entry<P2PDataStorage.ByteArray, PersistableNetworkPayload>> {
+        @Override
+        public int size() {
+            return size;
+        }
+
+        @Override
+        public boolean contains(Object o) {
+            if (!(o instanceof Entry)) {
+                return false;
+            }
+            Entry<?, ?> entry = (Entry<?, ?>) o;
+            int index = indexOf(entry.getKey());
+            return index >= 0 && decode(index).equals(entry.getValue());
+        }
+
+        @Override
+        public Iterator<Entry<P2PDataStorage.ByteArray, PersistableNetworkPayload>> iterator() {
+            return new Iterator<>() {
+                private int next;
+
+                @Override
+                public boolean hasNext() {
+                    return next < size;
+                }
+
+                @Override
+                public Entry<P2PDataStorage.ByteArray, PersistableNetworkPayload> next() {
+                    if (!hasNext()) {
+                        throw new NoSuchElementException();
+                    }
+                    int index = next++;
+                    return new LazyEntry(index, getHash(index));
+                }
+            };
+        }
+    }
+
+    // The payload gets only decoded when the value is requested, so iterating the keys does not decode anything.
+    private class LazyEntry implements Entry<P2PDataStorage.ByteArray, PersistableNetworkPayload> {
+        private final int index;
+        private final P2PDataStorage.ByteArray hash;
+
+        LazyEntry(int index, P2PDataStorage.ByteArray hash) {
+            this.index = index;
+            this.hash = hash;
+        }
+
+        @Override
+        public P2PDataStorage.ByteArray getKey() {
+            return hash;
+        }
+
+        @Override
+        public PersistableNetworkPayload getValue() {
+            return decode(index);
+        }
+
+        @Override
+        public PersistableNetworkPayload setValue(PersistableNetworkPayload value) {
+            throw new UnsupportedOperationException();
+        }
+
+        @Override
+        public boolean equals(Object o) {
+            if (!(o instanceof Entry)) {
+                return false;
+            }
+            Entry<?, ?> entry = (Entry<?, ?>) o;
+            return hash.equals(entry.getKey()) && getValue().equals(entry.getValue());
+        }
+
+        @Override
+        public int hashCode() {
+            return hash.hashCode() ^ getValue().hashCode();
+        }
+    }
+}
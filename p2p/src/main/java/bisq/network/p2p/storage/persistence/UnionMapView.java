@@ -0,0 +1,138 @@
+/*
+ * This file is part of Bisq.
+ *
+ * Bisq is free software: you can redistribute it and/or modify it
+ * under the terms of the GNU Affero General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or (at
+ * your option) any later version.
+ *
+ * Bisq is distributed in the hope that it will be useful, but WITHOUT
+ * ANY WARRANTY; without even the implied warranty of MERCHANTABILITY or
+ * FITNESS FOR A PARTICULAR PURPOSE. See the GNU Affero General Public
+ * License for more details.
+ *
+ * You should have received a copy of the GNU Affero General Public License
+ * along with Bisq. If not, see <http://www.gnu.org/licenses/>.
+ */
+
+package bisq.network.p2p.storage.persistence;
+
+import com.google.common.collect.ImmutableList;
+
+import java.util.AbstractMap;
+import java.util.AbstractSet;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.stream.IntStream;
+import java.util.stream.Stream;
+
+/**
+ * Read-only view of the union of maps. Nothing gets copied: lookups go through the maps in the given order and
+ * iterating streams over the entries of the maps, so the view also reflects later changes of the maps.
+ * <p>
+ * If more than one map contains a key, the entry of the first one is used and the others are skipped. The
+ * append-only data is keyed by the hash of the payload, so the values would be the same anyway.
+ * <p>
+ * containsKey and get cost one lookup per map. size needs to go over all keys, as keys might be contained in more
+ * than one map, so for logging use getSizeOfSegments instead.
+ */
+public final class UnionMapView<K, V> extends AbstractMap<K, V> {
+    private final List<Map<K, V>> maps;
+    private final Set<Entry<K, V>> entrySet = new EntrySet();
+
+    public UnionMapView(List<? extends Map<K, V>> maps) {
+        this.maps = ImmutableList.copyOf(maps);
+    }
+
+    @Override
+    public boolean containsKey(Object key) {
+        for (Map<K, V> map : maps) {
+            if (map.containsKey(key)) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    @Override
+    public V get(Object key) {
+        for (Map<K, V> map : maps) {
+            V value = map.get(key);
+            if (value != null) {
+                return value;
+            }
+        }
+        return null;
+    }
+
+    @Override
+    public int size() {
+        if (maps.size() == 1) {
+            return maps.get(0).size();
+        }
+        return (int) entryStream().count();
+    }
+
+    // Sum of the sizes of the maps, without going over the keys. Keys contained in more than one map are counted
+    // more than once.
+    public int getSizeOfSegments() {
+        return maps.stream()
+                .mapToInt(map -> map instanceof UnionMapView ? ((UnionMapView<?, ?>) map).getSizeOfSegments() : map.size())
+                .sum();
+    }
+
+    @Override
+    public boolean isEmpty() {
+        return maps.stream().allMatch(Map::isEmpty);
+    }
+
+    @Override
+    public Set<Entry<K, V>> entrySet() {
+        return entrySet;
+    }
+
+    @Override
+    public V put(K key, V value) {
+        throw new UnsupportedOperationException("UnionMapView is read-only");
+    }
+
+    private Stream<Entry<K, V>> entryStream() {
+        return IntStream.range(0, maps.size())
+                .boxed()
+                .flatMap(index -> maps.get(index).entrySet().stream()
+                        .filter(entry -> !isContainedBefore(index, entry.getKey())));
+    }
+
+    private boolean isContainedBefore(int index, K key) {
+        for (int i = 0; i < index; i++) {
+            if (maps.get(i).containsKey(key)) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    private class EntrySet extends AbstractSet<Entry<K, V>> {
+        @Override
+        public Iterator<Entry<K, V>> iterator() {
+            return entryStream().iterator();
+        }
+
+        @Override
+        public Stream<Entry<K, V>> stream() {
+            return entryStream();
+        }
+
+        @Override
+        public int size() {
+            return UnionMapView.this.size();
+        }
+
+        @Override
+        public boolean isEmpty() {
+            return UnionMapView.this.isEmpty();
+        }
+    }
+}
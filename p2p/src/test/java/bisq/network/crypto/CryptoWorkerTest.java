@@ -0,0 +1,69 @@
+/*
+ * This file is part of Bisq.
+ *
+ * Bisq is free software: you can redistribute it and/or modify it
+ * under the terms of the GNU Affero General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or (at
+ * your option) any later version.
+ *
+ * Bisq is distributed in the hope that it will be useful, but WITHOUT
+ * ANY WARRANTY; without even the implied warranty of MERCHANTABILITY or
+ * FITNESS FOR A PARTICULAR PURPOSE. See the GNU Affero General Public
+ * License for more details.
+ *
+ * You should have received a copy of the GNU Affero General Public License
+ * along with Bisq. If not, see <http://www.gnu.org/licenses/>.
+ */
+
+package bisq.network.crypto;
+
+import java.util.List;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+
+import org.junit.Test;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
+
+public class CryptoWorkerTest {
+
+    @Test
+    public void testTasksOfOneKeyAreExecutedInOrder() throws InterruptedException {
+        CryptoWorker cryptoWorker = new CryptoWorker();
+        int numTasks = 1000;
+        List<Integer> peer1Results = new CopyOnWriteArrayList<>();
+        List<Integer> peer2Results = new CopyOnWriteArrayList<>();
+        CountDownLatch latch = new CountDownLatch(2 * numTasks);
+        for (int i = 0; i < numTasks; i++) {
+            int index = i;
+            cryptoWorker.execute("peer1", () -> {
+                peer1Results.add(index);
+                latch.countDown();
+            });
+            cryptoWorker.execute("peer2", () -> {
+                peer2Results.add(index);
+                latch.countDown();
+            });
+        }
+        assertTrue(latch.await(10, TimeUnit.SECONDS));
+        for (int i = 0; i < numTasks; i++) {
+            assertEquals(i, (int) peer1Results.get(i));
+            assertEquals(i, (int) peer2Results.get(i));
+        }
+        cryptoWorker.shutDown();
+    }
+
+    @Test
+    public void testFailingTaskDoesNotBlockFollowingTasks() throws InterruptedException {
+        CryptoWorker cryptoWorker = new CryptoWorker();
+        CountDownLatch latch = new CountDownLatch(1);
+        cryptoWorker.execute("peer", () -> {
+            throw new RuntimeException("test");
+        });
+        cryptoWorker.execute("peer", latch::countDown);
+        assertTrue(latch.await(10, TimeUnit.SECONDS));
+        cryptoWorker.shutDown();
+    }
+}
@@ -0,0 +1,191 @@
+/*
+ * This file is part of Bisq.
+ *
+ * Bisq is free software: you can redistribute it and/or modify it
+ * under the terms of the GNU Affero General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or (at
+ * your option) any later version.
+ *
+ * Bisq is distributed in the hope that it will be useful, but WITHOUT
+ * ANY WARRANTY; without even the implied warranty of MERCHANTABILITY or
+ * FITNESS FOR A PARTICULAR PURPOSE. See the GNU Affero General Public
+ * License for more details.
+ *
+ * You should have received a copy of the GNU Affero General Public License
+ * along with Bisq. If not, see <http://www.gnu.org/licenses/>.
+ */
+
+package bisq.network.http;
+
+import com.sun.net.httpserver.HttpServer;
+
+import java.net.InetSocketAddress;
+
+import java.nio.charset.StandardCharsets;
+
+import java.io.IOException;
+import java.io.OutputStream;
+
+import java.util.Set;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.BooleanSupplier;
+
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertTrue;
+import static org.junit.Assert.fail;
+
+public class HttpClientPoolTest {
+    private static final String RESPONSE = "{\"status\":\"success\"}";
+
+    private HttpServer server;
+    private String baseUrl;
+    private final AtomicInteger numHits = new AtomicInteger();
+    private final Set<Integer> clientPorts = ConcurrentHashMap.newKeySet();
+    private volatile CountDownLatch releaseResponses = new CountDownLatch(0);
+    private volatile int responseCode = 200;
+
+    @Before
+    public void setUp() throws IOException {
+        server = HttpServer.create(new InetSocketAddress("127.0.0.1", 0), 0);
+        server.createContext("/api", exchange -> {
+            numHits.incrementAndGet();
+            clientPorts.add(exchange.getRemoteAddress().getPort());
+            try {
+                releaseResponses.await(10, TimeUnit.SECONDS);
+            } catch (InterruptedException ignore) {
+            }
+            byte[] response = RESPONSE.getBytes(StandardCharsets.UTF_8);
+            exchange.sendResponseHeaders(responseCode, response.length);
+            try (OutputStream outputStream = exchange.getResponseBody()) {
+                outputStream.write(response);
+            }
+        });
+        server.setExecutor(Executors.newCachedThreadPool());
+        server.start();
+        baseUrl = "http://127.0.0.1:" + server.getAddress().getPort();
+    }
+
+    @After
+    public void tearDown() {
+        server.stop(0);
+    }
+
+    @Test
+    public void testConnectionIsReused() throws IOException {
+        HttpClientPool pool = new HttpClientPool(5, 60_000);
+        HttpClientImpl httpClient = new HttpClientImpl(baseUrl, pool);
+        for (int i = 0; i < 3; i++) {
+            assertEquals(RESPONSE, httpClient.get("/api?i=" + i, null, null));
+        }
+        assertEquals(3, numHits.get());
+        assertEquals(1, clientPorts.size());
+
+        HttpClientPool.HostMetrics metrics = pool.getHostMetrics().get(0);
+        assertEquals(server.getAddress().getHostString() + ":" + server.getAddress().getPort(), metrics.getHost());
+        assertEquals(3, metrics.getNumRequests());
+        assertEquals(0, metrics.getNumErrors());
+    }
+
+    @Test
+    public void testConcurrentGetRequestsAreCoalesced() throws Exception {
+        releaseResponses = new CountDownLatch(1);
+        HttpClientPool pool = new HttpClientPool(5, 60_000);
+        CompletableFuture<String> first = getAsync(new HttpClientImpl(baseUrl, pool), "/api?tx=1");
+        waitUntil(() -> numHits.get() == 1);
+        CompletableFuture<String> second = getAsync(new HttpClientImpl(baseUrl, pool), "/api?tx=1");
+        waitUntil(() -> pool.getHostMetrics().get(0).getNumCoalescedRequests() == 1);
+
+        releaseResponses.countDown();
+        assertEquals(RESPONSE, first.get(10, TimeUnit.SECONDS));
+        assertEquals(RESPONSE, second.get(10, TimeUnit.SECONDS));
+        assertEquals(1, numHits.get());
+
+        // Once completed, the same request is sent again
+        assertEquals(RESPONSE, new HttpClientImpl(baseUrl, pool).get("/api?tx=1", null, null));
+        assertEquals(2, numHits.get());
+    }
+
+    @Test
+    public void testCircuitOpensAfterFailures() {
+        responseCode = 500;
+        HttpClientPool pool = new HttpClientPool(2, 60_000);
+        HttpClientImpl httpClient = new HttpClientImpl(baseUrl, pool);
+        for (int i = 0; i < 3; i++) {
+            try {
+                httpClient.get("/api", null, null);
+                fail("Expected the request to fail");
+            } catch (IOException ignore) {
+            }
+        }
+        // The third request was not sent as the circuit was open
+        assertEquals(2, numHits.get());
+        HttpClientPool.HostMetrics metrics = pool.getHostMetrics().get(0);
+        assertTrue(metrics.isCircuitOpen());
+        assertEquals(2, metrics.getNumRequests());
+        assertEquals(2, metrics.getNumErrors());
+    }
+
+    @Test
+    public void testClientErrorsDoNotOpenCircuit() {
+        responseCode = 404;
+        HttpClientPool pool = new HttpClientPool(1, 60_000);
+        HttpClientImpl httpClient = new HttpClientImpl(baseUrl, pool);
+        for (int i = 0; i < 2; i++) {
+            try {
+                httpClient.get("/api", null, null);
+                fail("Expected the request to fail");
+            } catch (IOException e) {
+                assertTrue(e.getCause() instanceof HttpException);
+                assertEquals(404, ((HttpException) e.getCause()).getResponseCode());
+            }
+        }
+        assertEquals(2, numHits.get());
+        assertFalse(pool.getHostMetrics().get(0).isCircuitOpen());
+    }
+
+    @Test
+    public void testCircuitClosesAfterSuccess() throws Exception {
+        responseCode = 500;
+        HttpClientPool pool = new HttpClientPool(1, 50);
+        HttpClientImpl httpClient = new HttpClientImpl(baseUrl, pool);
+        try {
+            httpClient.get("/api", null, null);
+            fail("Expected the request to fail");
+        } catch (IOException ignore) {
+        }
+        assertTrue(pool.getHostMetrics().get(0).isCircuitOpen());
+
+        Thread.sleep(100);
+        responseCode = 200;
+        assertEquals(RESPONSE, httpClient.get("/api", null, null));
+        assertFalse(pool.getHostMetrics().get(0).isCircuitOpen());
+    }
+
+    private static CompletableFuture<String> getAsync(HttpClientImpl httpClient, String param) {
+        return CompletableFuture.supplyAsync(() -> {
+            try {
+                return httpClient.get(param, null, null);
+            } catch (IOException e) {
+                throw new RuntimeException(e);
+            }
+        });
+    }
+
+    private static void waitUntil(BooleanSupplier condition) throws InterruptedException {
+        long deadline = System.currentTimeMillis() + 5000;
+        while (!condition.getAsBoolean()) {
+            assertTrue("Condition not met in time", System.currentTimeMillis() < deadline);
+            Thread.sleep(5);
+        }
+    }
+}
@@ -0,0 +1,54 @@
+/*
+ * This file is part of Bisq.
+ *
+ * Bisq is free software: you can redistribute it and/or modify it
+ * under the terms of the GNU Affero General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or (at
+ * your option) any later version.
+ *
+ * Bisq is distributed in the hope that it will be useful, but WITHOUT
+ * ANY WARRANTY; without even the implied warranty of MERCHANTABILITY or
+ * FITNESS FOR A PARTICULAR PURPOSE. See the GNU Affero General Public
+ * License for more details.
+ *
+ * You should have received a copy of the GNU Affero General Public License
+ * along with Bisq. If not, see <http://www.gnu.org/licenses/>.
+ */
+
+package bisq.network.p2p;
+
+import org.junit.Test;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
+
+public class RoutedListenersTest {
+
+    @Test
+    public void testListenersGetOnlyMessagesOfTheirRoutingId() {
+        RoutedListeners<String> routedListeners = new RoutedListeners<>();
+        routedListeners.add("trade1", "listener1");
+        routedListeners.add("trade1", "listener2");
+        routedListeners.add("trade2", "listener3");
+
+        assertEquals(2, routedListeners.get(getAckMessage("trade1")).size());
+        assertTrue(routedListeners.get(getAckMessage("trade2")).contains("listener3"));
+        assertTrue(routedListeners.get(getAckMessage("trade3")).isEmpty());
+        assertTrue(routedListeners.get(new CloseConnectionMessage("reason")).isEmpty());
+
+        routedListeners.remove("trade1", "listener1");
+        assertEquals(1, routedListeners.get(getAckMessage("trade1")).size());
+        routedListeners.remove("trade1", "listener2");
+        assertTrue(routedListeners.get(getAckMessage("trade1")).isEmpty());
+    }
+
+    private static AckMessage getAckMessage(String sourceId) {
+        return new AckMessage(new NodeAddress("localhost", 8001),
+                AckMessageSourceType.TRADE_MESSAGE,
+                "TradeMessage",
+                "uid",
+                sourceId,
+                true,
+                null);
+    }
+}
@@ -0,0 +1,238 @@
+/*
+ * This file is part of Bisq.
+ *
+ * Bisq is free software: you can redistribute it and/or modify it
+ * under the terms of the GNU Affero General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or (at
+ * your option) any later version.
+ *
+ * Bisq is distributed in the hope that it will be useful, but WITHOUT
+ * ANY WARRANTY; without even the implied warranty of MERCHANTABILITY or
+ * FITNESS FOR A PARTICULAR PURPOSE. See the GNU Affero General Public
+ * License for more details.
+ *
+ * You should have received a copy of the GNU Affero General Public License
+ * along with Bisq. If not, see <http://www.gnu.org/licenses/>.
+ */
+
+package bisq.network.p2p.network;
+
+import java.nio.ByteBuffer;
+import java.nio.channels.ServerSocketChannel;
+import java.nio.channels.SocketChannel;
+
+import java.net.InetAddress;
+import java.net.InetSocketAddress;
+import java.net.SocketTimeoutException;
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicReference;
+
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertTrue;
+
+/**
+ * Sends frames over a localhost SocketChannel with a ChannelOutputStream and reads them with a
+ * ConnectionReactor and a FrameDecoder, like a Connection does.
+ */
+public class ConnectionReactorTest {
+    private static final long TIMEOUT_MS = 30_000;
+
+    private ConnectionReactor connectionReactor;
+    private ServerSocketChannel serverChannel;
+    private SocketChannel clientChannel;
+    private SocketChannel acceptedChannel;
+    private ChannelOutputStream outputStream;
+
+    @Before
+    public void setUp() throws IOException {
+        connectionReactor = new ConnectionReactor(1);
+        serverChannel = ServerSocketChannel.open();
+        serverChannel.bind(new InetSocketAddress(InetAddress.getLoopbackAddress(), 0));
+        clientChannel = SocketChannel.open(serverChannel.getLocalAddress());
+        acceptedChannel = serverChannel.accept();
+
+        clientChannel.configureBlocking(false);
+        acceptedChannel.configureBlocking(false);
+        outputStream = new ChannelOutputStream(clientChannel, TIMEOUT_MS);
+    }
+
+    @After
+    public void tearDown() throws IOException {
+        outputStream.close();
+        acceptedChannel.close();
+        serverChannel.close();
+    }
+
+    @Test
+    public void testFramesAreDeliveredInOrder() throws Exception {
+        int numFrames = 500;
+        List<byte[]> frames = new ArrayList<>();
+        CountDownLatch allReceived = new CountDownLatch(numFrames);
+        FrameDecoder frameDecoder = new FrameDecoder(Integer.MAX_VALUE, frame -> {
+            synchronized (frames) {
+                frames.add(frame);
+            }
+            allReceived.countDown();
+        }, frameSize -> {
+        });
+        connectionReactor.register(acceptedChannel, new TestReadHandler(frameDecoder), TIMEOUT_MS);
+
+        // Some frames are larger than the read buffer of the reactor and the send buffer of the socket,
+        // so they get split up and the writer has to wait until the channel gets writable again.
+        for (int i = 0; i < numFrames; i++) {
+            writeFrame(body(i, i % 50 == 0 ? 300_000 : i % 1000));
+        }
+
+        assertTrue(allReceived.await(TIMEOUT_MS, TimeUnit.MILLISECONDS));
+        synchronized (frames) {
+            assertEquals(numFrames, frames.size());
+            for (int i = 0; i < numFrames; i++) {
+                byte[] expected = body(i, i % 50 == 0 ? 300_000 : i % 1000);
+                assertEquals(ByteBuffer.wrap(expected), ByteBuffer.wrap(frames.get(i)));
+            }
+        }
+    }
+
+    @Test
+    public void testReadingPausesAtMaxPendingFramesAndResumes() throws Exception {
+        // More data than fits into the read buffer of the reactor and the socket buffers, so we can
+        // see the reading stop while it is paused.
+        int numFrames = 20 * Connection.MAX_PENDING_FRAMES;
+        int frameSize = 2_000;
+        PendingFrames pendingFrames = new PendingFrames(Connection.MAX_PENDING_FRAMES);
+        BlockingQueue<byte[]> receivedFrames = new LinkedBlockingQueue<>();
+        FrameDecoder frameDecoder = new FrameDecoder(Integer.MAX_VALUE, frame -> {
+            pendingFrames.onFrameQueued();
+            receivedFrames.add(frame);
+        }, size -> {
+        });
+        pendingFrames.setReadControl(connectionReactor.register(acceptedChannel,
+                new TestReadHandler(frameDecoder), TIMEOUT_MS));
+
+        AtomicReference<Throwable> writeException = new AtomicReference<>();
+        Thread writer = new Thread(() -> {
+            try {
+                for (int i = 0; i < numFrames; i++) {
+                    writeFrame(body(i, frameSize));
+                }
+            } catch (Throwable t) {
+                writeException.set(t);
+            }
+        });
+        writer.start();
+
+        // Nothing gets processed, so the reading pauses once MAX_PENDING_FRAMES are pending. The frames
+        // of the last read are still decoded, but no further data is read.
+        long deadline = System.currentTimeMillis() + TIMEOUT_MS;
+        while (!pendingFrames.isReadingPaused() && System.currentTimeMillis() < deadline) {
+            Thread.sleep(10);
+        }
+        assertTrue(pendingFrames.isReadingPaused());
+        Thread.sleep(200);
+        int numReceivedWhilePaused = receivedFrames.size();
+        assertTrue(numReceivedWhilePaused >= Connection.MAX_PENDING_FRAMES);
+        Thread.sleep(300);
+        assertEquals(numReceivedWhilePaused, receivedFrames.size());
+        assertTrue(numReceivedWhilePaused < numFrames);
+
+        // Once we process the frames, the reading resumes and all frames arrive in order.
+        for (int i = 0; i < numFrames; i++) {
+            byte[] frame = receivedFrames.poll(TIMEOUT_MS, TimeUnit.MILLISECONDS);
+            assertEquals(ByteBuffer.wrap(body(i, frameSize)), ByteBuffer.wrap(frame));
+            pendingFrames.onFrameProcessed();
+        }
+        writer.join(TIMEOUT_MS);
+        assertNull(writeException.get());
+        assertEquals(0, pendingFrames.getNumPendingFrames());
+        assertFalse(pendingFrames.isReadingPaused());
+    }
+
+    @Test
+    public void testReadTimeout() throws Exception {
+        CountDownLatch readFailed = new CountDownLatch(1);
+        AtomicReference<IOException> exception = new AtomicReference<>();
+        connectionReactor.register(acceptedChannel, new ConnectionReactor.ReadHandler() {
+            @Override
+            public void onRead(ByteBuffer buffer) {
+            }
+
+            @Override
+            public void onEndOfStream() {
+            }
+
+            @Override
+            public void onReadFailed(IOException e) {
+                exception.set(e);
+                readFailed.countDown();
+            }
+        }, 100);
+
+        // The timeouts are checked once per second.
+        assertTrue(readFailed.await(5, TimeUnit.SECONDS));
+        assertTrue(exception.get() instanceof SocketTimeoutException);
+    }
+
+    private void writeFrame(byte[] body) throws IOException {
+        byte[] frame = frame(body);
+        outputStream.write(frame, 0, frame.length);
+    }
+
+    // The index in the first 4 bytes, so each frame is different.
+    private static byte[] body(int index, int size) {
+        byte[] body = new byte[Math.max(4, size)];
+        ByteBuffer.wrap(body).putInt(index);
+        for (int i = 4; i < body.length; i++) {
+            body[i] = (byte) (index + i);
+        }
+        return body;
+    }
+
+    // Same format as written by ProtoOutputStream, a varint32 length followed by the data.
+    private static byte[] frame(byte[] body) {
+        ByteArrayOutputStream outputStream = new ByteArrayOutputStream();
+        int length = body.length;
+        while ((length & ~0x7F) != 0) {
+            outputStream.write((length & 0x7F) | 0x80);
+            length >>>= 7;
+        }
+        outputStream.write(length);
+        outputStream.write(body, 0, body.length);
+        return outputStream.toByteArray();
+    }
+
+    private static class TestReadHandler implements ConnectionReactor.ReadHandler {
+        private final FrameDecoder frameDecoder;
+
+        TestReadHandler(FrameDecoder frameDecoder) {
+            this.frameDecoder = frameDecoder;
+        }
+
+        @Override
+        public void onRead(ByteBuffer buffer) throws IOException {
+            frameDecoder.decode(buffer);
+        }
+
+        @Override
+        public void onEndOfStream() {
+        }
+
+        @Override
+        public void onReadFailed(IOException exception) {
+        }
+    }
+}
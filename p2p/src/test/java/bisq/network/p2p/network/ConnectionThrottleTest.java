@@ -0,0 +1,66 @@
+/*
+ * This file is part of Bisq.
+ *
+ * Bisq is free software: you can redistribute it and/or modify it
+ * under the terms of the GNU Affero General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or (at
+ * your option) any later version.
+ *
+ * Bisq is distributed in the hope that it will be useful, but WITHOUT
+ * ANY WARRANTY; without even the implied warranty of MERCHANTABILITY or
+ * FITNESS FOR A PARTICULAR PURPOSE. See the GNU Affero General Public
+ * License for more details.
+ *
+ * You should have received a copy of the GNU Affero General Public License
+ * along with Bisq. If not, see <http://www.gnu.org/licenses/>.
+ */
+
+package bisq.network.p2p.network;
+
+import org.junit.Test;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertTrue;
+
+public class ConnectionThrottleTest {
+
+    @Test
+    public void testBurstWithinCapacityIsAccepted() {
+        ConnectionThrottle throttle = new ConnectionThrottle(10, 1, 1000, 1);
+        for (int i = 0; i < 10; i++) {
+            assertTrue(throttle.tryAcquire(10));
+        }
+        assertFalse(throttle.tryAcquire(10));
+        assertEquals(10, throttle.getNumAcceptedMessages());
+        assertEquals(100, throttle.getNumAcceptedBytes());
+        assertEquals(1, throttle.getNumThrottledMessages());
+        assertTrue(throttle.getDelayMillis(10) > 0);
+    }
+
+    @Test
+    public void testByteLimit() {
+        ConnectionThrottle throttle = new ConnectionThrottle(100, 1, 1000, 1);
+        assertTrue(throttle.tryAcquire(600));
+        assertFalse(throttle.tryAcquire(600));
+        assertTrue(throttle.tryAcquire(400));
+    }
+
+    @Test
+    public void testMessageLargerThanByteCapacityIsAcceptedWhenBucketIsFull() {
+        ConnectionThrottle throttle = new ConnectionThrottle(100, 1, 1000, 1);
+        assertTrue(throttle.tryAcquire(5000));
+        // The bucket is in debt now.
+        assertFalse(throttle.tryAcquire(1));
+    }
+
+    @Test
+    public void testRefill() throws InterruptedException {
+        ConnectionThrottle throttle = new ConnectionThrottle(1, 100, 1000, 100_000);
+        assertTrue(throttle.tryAcquire(10));
+        assertFalse(throttle.tryAcquire(10));
+        Thread.sleep(30);
+        assertEquals(0, throttle.getDelayMillis(10));
+        assertTrue(throttle.tryAcquire(10));
+    }
+}
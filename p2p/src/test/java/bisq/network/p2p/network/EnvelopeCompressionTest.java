@@ -0,0 +1,99 @@
+/*
+ * This file is part of Bisq.
+ *
+ * Bisq is free software: you can redistribute it and/or modify it
+ * under the terms of the GNU Affero General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or (at
+ * your option) any later version.
+ *
+ * Bisq is distributed in the hope that it will be useful, but WITHOUT
+ * ANY WARRANTY; without even the implied warranty of MERCHANTABILITY or
+ * FITNESS FOR A PARTICULAR PURPOSE. See the GNU Affero General Public
+ * License for more details.
+ *
+ * You should have received a copy of the GNU Affero General Public License
+ * along with Bisq. If not, see <http://www.gnu.org/licenses/>.
+ */
+
+package bisq.network.p2p.network;
+
+import com.google.protobuf.ByteString;
+import com.google.protobuf.InvalidProtocolBufferException;
+
+import java.util.Arrays;
+import java.util.Random;
+
+import org.junit.Test;
+
+import static org.junit.Assert.assertArrayEquals;
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertSame;
+import static org.junit.Assert.assertTrue;
+
+public class EnvelopeCompressionTest {
+
+    @Test
+    public void testCompressAndDecompressLargeEnvelope() throws InvalidProtocolBufferException {
+        protobuf.NetworkEnvelope proto = bundleOfPings(2000);
+        assertTrue(proto.getSerializedSize() > EnvelopeCompression.MIN_SIZE_TO_COMPRESS);
+
+        protobuf.NetworkEnvelope compressed = EnvelopeCompression.maybeCompress(proto);
+        assertTrue(compressed.hasCompressedEnvelope());
+        assertEquals(proto.getMessageVersion(), compressed.getMessageVersion());
+        assertTrue(compressed.getSerializedSize() < proto.getSerializedSize() * EnvelopeCompression.MAX_COMPRESSION_RATIO);
+
+        assertEquals(proto, EnvelopeCompression.decompress(compressed, proto.getSerializedSize()));
+    }
+
+    @Test
+    public void testSmallEnvelopeIsNotCompressed() {
+        protobuf.NetworkEnvelope proto = bundleOfPings(2);
+        assertSame(proto, EnvelopeCompression.maybeCompress(proto));
+    }
+
+    @Test
+    public void testIncompressibleDataIsNotCompressed() {
+        byte[] random = new byte[EnvelopeCompression.MIN_SIZE_TO_COMPRESS * 2];
+        new Random(1).nextBytes(random);
+        protobuf.NetworkEnvelope proto = protobuf.NetworkEnvelope.newBuilder()
+                .setCompressedEnvelope(protobuf.CompressedEnvelope.newBuilder()
+                        .setEnvelope(ByteString.copyFrom(random)))
+                .build();
+        assertSame(proto, EnvelopeCompression.maybeCompress(proto));
+    }
+
+    @Test(expected = InvalidProtocolBufferException.class)
+    public void testDecompressExceedingMaxSize() throws InvalidProtocolBufferException {
+        EnvelopeCompression.inflate(EnvelopeCompression.deflate(new byte[10_000]), 9_999);
+    }
+
+    @Test(expected = InvalidProtocolBufferException.class)
+    public void testDecompressTruncatedData() throws InvalidProtocolBufferException {
+        byte[] compressed = EnvelopeCompression.deflate(new byte[10_000]);
+        EnvelopeCompression.inflate(Arrays.copyOf(compressed, compressed.length / 2), 10_000);
+    }
+
+    @Test
+    public void testDeflateAndInflate() throws InvalidProtocolBufferException {
+        byte[] bytes = new byte[100_000];
+        for (int i = 0; i < bytes.length; i++) {
+            bytes[i] = (byte) (i % 7);
+        }
+        byte[] compressed = EnvelopeCompression.deflate(bytes);
+        assertTrue(compressed.length < bytes.length);
+        assertArrayEquals(bytes, EnvelopeCompression.inflate(compressed, bytes.length));
+    }
+
+    private static protobuf.NetworkEnvelope bundleOfPings(int numPings) {
+        protobuf.BundleOfEnvelopes.Builder bundle = protobuf.BundleOfEnvelopes.newBuilder();
+        for (int i = 0; i < numPings; i++) {
+            bundle.addEnvelopes(protobuf.NetworkEnvelope.newBuilder()
+                    .setMessageVersion(1)
+                    .setPing(protobuf.Ping.newBuilder().setNonce(i).setLastRoundTripTime(100)));
+        }
+        return protobuf.NetworkEnvelope.newBuilder()
+                .setMessageVersion(1)
+                .setBundleOfEnvelopes(bundle)
+                .build();
+    }
+}
@@ -0,0 +1,125 @@
+/*
+ * This file is part of Bisq.
+ *
+ * Bisq is free software: you can redistribute it and/or modify it
+ * under the terms of the GNU Affero General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or (at
+ * your option) any later version.
+ *
+ * Bisq is distributed in the hope that it will be useful, but WITHOUT
+ * ANY WARRANTY; without even the implied warranty of MERCHANTABILITY or
+ * FITNESS FOR A PARTICULAR PURPOSE. See the GNU Affero General Public
+ * License for more details.
+ *
+ * You should have received a copy of the GNU Affero General Public License
+ * along with Bisq. If not, see <http://www.gnu.org/licenses/>.
+ */
+
+package bisq.network.p2p.network;
+
+import com.google.protobuf.InvalidProtocolBufferException;
+
+import java.nio.ByteBuffer;
+
+import java.io.ByteArrayOutputStream;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+
+import org.junit.Before;
+import org.junit.Test;
+
+import static org.junit.Assert.assertArrayEquals;
+import static org.junit.Assert.assertEquals;
+
+public class FrameDecoderTest {
+    private static final int MAX_FRAME_SIZE = 1000;
+
+    private List<byte[]> frames;
+    private List<Integer> tooLargeFrameSizes;
+    private FrameDecoder frameDecoder;
+
+    @Before
+    public void setUp() {
+        frames = new ArrayList<>();
+        tooLargeFrameSizes = new ArrayList<>();
+        frameDecoder = new FrameDecoder(MAX_FRAME_SIZE, frames::add, tooLargeFrameSizes::add);
+    }
+
+    @Test
+    public void testMultipleFramesInOneBuffer() throws InvalidProtocolBufferException {
+        byte[] first = body(3);
+        byte[] second = body(200);
+        byte[] empty = new byte[0];
+        frameDecoder.decode(ByteBuffer.wrap(concat(frame(first), frame(second), frame(empty))));
+
+        assertEquals(3, frames.size());
+        assertArrayEquals(first, frames.get(0));
+        assertArrayEquals(second, frames.get(1));
+        assertArrayEquals(empty, frames.get(2));
+    }
+
+    @Test
+    public void testFrameSplitAtEachByte() throws InvalidProtocolBufferException {
+        byte[] body = body(300);
+        for (byte b : frame(body)) {
+            frameDecoder.decode(ByteBuffer.wrap(new byte[]{b}));
+        }
+
+        assertEquals(1, frames.size());
+        assertArrayEquals(body, frames.get(0));
+    }
+
+    @Test
+    public void testTooLargeFrameIsSkipped() throws InvalidProtocolBufferException {
+        byte[] tooLarge = body(MAX_FRAME_SIZE + 1);
+        byte[] next = body(10);
+        byte[] bytes = concat(frame(tooLarge), frame(next));
+        frameDecoder.decode(ByteBuffer.wrap(bytes, 0, 100));
+        frameDecoder.decode(ByteBuffer.wrap(bytes, 100, bytes.length - 100));
+
+        assertEquals(Arrays.asList(MAX_FRAME_SIZE + 1), tooLargeFrameSizes);
+        assertEquals(1, frames.size());
+        assertArrayEquals(next, frames.get(0));
+    }
+
+    @Test(expected = InvalidProtocolBufferException.class)
+    public void testMalformedLength() throws InvalidProtocolBufferException {
+        frameDecoder.decode(ByteBuffer.wrap(new byte[]{(byte) 0x80, (byte) 0x80, (byte) 0x80, (byte) 0x80, (byte) 0x80, 0x01}));
+    }
+
+    @Test(expected = InvalidProtocolBufferException.class)
+    public void testNegativeLength() throws InvalidProtocolBufferException {
+        frameDecoder.decode(ByteBuffer.wrap(new byte[]{(byte) 0xFF, (byte) 0xFF, (byte) 0xFF, (byte) 0xFF, 0x0F}));
+    }
+
+    private static byte[] body(int size) {
+        byte[] body = new byte[size];
+        for (int i = 0; i < size; i++) {
+            body[i] = (byte) i;
+        }
+        return body;
+    }
+
+    // Same format as written by ProtoOutputStream, a varint32 length followed by the data.
+    private static byte[] frame(byte[] body) {
+        ByteArrayOutputStream outputStream = new ByteArrayOutputStream();
+        int length = body.length;
+        while ((length & ~0x7F) != 0) {
+            outputStream.write((length & 0x7F) | 0x80);
+            length >>>= 7;
+        }
+        outputStream.write(length);
+        outputStream.write(body, 0, body.length);
+        return outputStream.toByteArray();
+    }
+
+    private static byte[] concat(byte[]... arrays) {
+        ByteArrayOutputStream outputStream = new ByteArrayOutputStream();
+        for (byte[] array : arrays) {
+            outputStream.write(array, 0, array.length);
+        }
+        return outputStream.toByteArray();
+    }
+}
@@ -0,0 +1,227 @@
+/*
+ * This file is part of Bisq.
+ *
+ * Bisq is free software: you can redistribute it and/or modify it
+ * under the terms of the GNU Affero General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or (at
+ * your option) any later version.
+ *
+ * Bisq is distributed in the hope that it will be useful, but WITHOUT
+ * ANY WARRANTY; without even the implied warranty of MERCHANTABILITY or
+ * FITNESS FOR A PARTICULAR PURPOSE. See the GNU Affero General Public
+ * License for more details.
+ *
+ * You should have received a copy of the GNU Affero General Public License
+ * along with Bisq. If not, see <http://www.gnu.org/licenses/>.
+ */
+
+package bisq.network.p2p.network;
+
+import bisq.network.p2p.NodeAddress;
+
+import com.google.common.util.concurrent.ListeningExecutorService;
+import com.google.common.util.concurrent.MoreExecutors;
+
+import java.net.ServerSocket;
+import java.net.Socket;
+
+import java.io.IOException;
+
+import java.util.Arrays;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertNotSame;
+import static org.junit.Assert.assertSame;
+import static org.junit.Assert.assertTrue;
+
+public class SeedConnectionManagerTest {
+    private static final NodeAddress SEED_1 = new NodeAddress("seed1.onion", 8000);
+    private static final NodeAddress SEED_2 = new NodeAddress("seed2.onion", 8000);
+    private static final NodeAddress SEED_3 = new NodeAddress("seed3.onion", 8000);
+    private static final NodeAddress SEED_4 = new NodeAddress("seed4.onion", 8000);
+    private static final NodeAddress SEED_5 = new NodeAddress("seed5.onion", 8000);
+
+    private ServerSocket serverSocket;
+    private ListeningExecutorService executorService;
+    private FakeSocketFactory socketFactory;
+    private SeedConnectionManager seedConnectionManager;
+
+    // Connects to a local server socket instead of a hidden service.
+    private class FakeSocketFactory implements SeedConnectionManager.SocketFactory {
+        private final Map<NodeAddress, AtomicInteger> numCreatedSockets = new ConcurrentHashMap<>();
+        private final Set<NodeAddress> unreachable = ConcurrentHashMap.newKeySet();
+        // The next that many connects fail
+        private final AtomicInteger numFailingConnects = new AtomicInteger();
+        private CountDownLatch connectLatch = new CountDownLatch(0);
+
+        @Override
+        public Socket createSocket(NodeAddress nodeAddress) throws IOException {
+            numCreatedSockets.computeIfAbsent(nodeAddress, key -> new AtomicInteger()).incrementAndGet();
+            try {
+                connectLatch.await();
+            } catch (InterruptedException e) {
+                throw new IOException(e);
+            }
+            if (unreachable.contains(nodeAddress) || numFailingConnects.getAndUpdate(n -> Math.max(0, n - 1)) > 0)
+                throw new IOException("Unreachable " + nodeAddress);
+            return new Socket("127.0.0.1", serverSocket.getLocalPort());
+        }
+
+        int getNumCreatedSockets(NodeAddress nodeAddress) {
+            return numCreatedSockets.getOrDefault(nodeAddress, new AtomicInteger()).get();
+        }
+    }
+
+    @Before
+    public void setUp() throws IOException {
+        serverSocket = new ServerSocket(0);
+        Thread acceptThread = new Thread(() -> {
+            try {
+                while (!serverSocket.isClosed())
+                    serverSocket.accept();
+            } catch (IOException ignore) {
+            }
+        });
+        acceptThread.setDaemon(true);
+        acceptThread.start();
+
+        executorService = MoreExecutors.listeningDecorator(Executors.newCachedThreadPool());
+        socketFactory = new FakeSocketFactory();
+        seedConnectionManager = new SeedConnectionManager(socketFactory, () -> executorService);
+    }
+
+    @After
+    public void tearDown() throws IOException {
+        seedConnectionManager.shutDown();
+        executorService.shutdownNow();
+        serverSocket.close();
+    }
+
+    @Test
+    public void testWarmSocketIsHandedToFirstCaller() throws Exception {
+        seedConnectionManager.warmUp(Arrays.asList(SEED_1, SEED_2));
+        awaitConnected(SEED_1);
+
+        Socket socket = seedConnectionManager.getSocket(SEED_1);
+        assertTrue(socket.isConnected());
+        assertEquals(1, socketFactory.getNumCreatedSockets(SEED_1));
+        assertFalse(seedConnectionManager.getWarmSeedNodeAddresses().contains(SEED_1));
+
+        // The next caller gets a new socket
+        assertNotSame(socket, seedConnectionManager.getSocket(SEED_1));
+        assertEquals(2, socketFactory.getNumCreatedSockets(SEED_1));
+    }
+
+    @Test
+    public void testOnlyRankedSubsetIsWarmedUp() {
+        seedConnectionManager.warmUp(Arrays.asList(SEED_1, SEED_2, SEED_3, SEED_4, SEED_5));
+        assertEquals(SeedConnectionManager.NUM_SEEDS_TO_WARM_UP, seedConnectionManager.getWarmSeedNodeAddresses().size());
+    }
+
+    @Test
+    public void testFirstCallerWaitsForConnectingSocket() throws Exception {
+        socketFactory.connectLatch = new CountDownLatch(1);
+        seedConnectionManager.warmUp(Arrays.asList(SEED_1));
+
+        Future<Socket> socket = Executors.newSingleThreadExecutor().submit(() -> seedConnectionManager.getSocket(SEED_1));
+        Thread.sleep(100);
+        assertFalse(socket.isDone());
+
+        socketFactory.connectLatch.countDown();
+        assertTrue(socket.get(5, TimeUnit.SECONDS).isConnected());
+        assertEquals(1, socketFactory.getNumCreatedSockets(SEED_1));
+    }
+
+    @Test
+    public void testFailedWarmUpIsNotHandedOut() throws Exception {
+        socketFactory.unreachable.add(SEED_1);
+        seedConnectionManager.warmUp(Arrays.asList(SEED_1));
+        long ts = System.currentTimeMillis();
+        while (seedConnectionManager.getWarmSeedNodeAddresses().contains(SEED_1) && System.currentTimeMillis() - ts < 5000)
+            Thread.sleep(10);
+
+        socketFactory.unreachable.remove(SEED_1);
+        assertTrue(seedConnectionManager.getSocket(SEED_1).isConnected());
+        assertEquals(2, socketFactory.getNumCreatedSockets(SEED_1));
+    }
+
+    @Test
+    public void testFirstCallerConnectsAgainIfWarmSocketFails() throws Exception {
+        socketFactory.connectLatch = new CountDownLatch(1);
+        socketFactory.numFailingConnects.set(1);
+        seedConnectionManager.warmUp(Arrays.asList(SEED_1));
+
+        Future<Socket> socket = Executors.newSingleThreadExecutor().submit(() -> seedConnectionManager.getSocket(SEED_1));
+        Thread.sleep(100);
+        assertFalse(socket.isDone());
+
+        socketFactory.connectLatch.countDown();
+        assertTrue(socket.get(5, TimeUnit.SECONDS).isConnected());
+        assertEquals(2, socketFactory.getNumCreatedSockets(SEED_1));
+        assertFalse(seedConnectionManager.getWarmSeedNodeAddresses().contains(SEED_1));
+    }
+
+    @Test
+    public void testRankPrefersFastSeedsAndPutsFailedLast() throws Exception {
+        socketFactory.unreachable.add(SEED_1);
+        try {
+            seedConnectionManager.getSocket(SEED_1);
+        } catch (IOException ignore) {
+        }
+        seedConnectionManager.getSocket(SEED_2);
+
+        for (int i = 0; i < 10; i++) {
+            List<NodeAddress> ranked = seedConnectionManager.rank(Arrays.asList(SEED_1, SEED_2, SEED_3, SEED_4));
+            assertEquals(SEED_2, ranked.get(0));
+            assertEquals(SEED_1, ranked.get(3));
+        }
+    }
+
+    @Test
+    public void testExpiredSocketIsReopened() throws Exception {
+        seedConnectionManager.warmUp(Arrays.asList(SEED_1));
+        Socket expired = awaitConnected(SEED_1);
+
+        seedConnectionManager.refresh(System.currentTimeMillis() + SeedConnectionManager.MAX_IDLE_MS + 1);
+        Socket socket = seedConnectionManager.getSocket(SEED_1);
+        assertTrue(expired.isClosed());
+        assertTrue(socket.isConnected());
+        assertEquals(2, socketFactory.getNumCreatedSockets(SEED_1));
+    }
+
+    @Test
+    public void testShutDownClosesWarmSockets() throws Exception {
+        seedConnectionManager.warmUp(Arrays.asList(SEED_1));
+        Socket socket = awaitConnected(SEED_1);
+
+        seedConnectionManager.shutDown();
+        assertTrue(socket.isClosed());
+        assertTrue(seedConnectionManager.getWarmSeedNodeAddresses().isEmpty());
+    }
+
+    // Returns the warm socket once it is connected, without claiming it.
+    private Socket awaitConnected(NodeAddress nodeAddress) throws Exception {
+        long ts = System.currentTimeMillis();
+        Socket socket = null;
+        while (socket == null && System.currentTimeMillis() - ts < 5000) {
+            socket = seedConnectionManager.peekConnectedSocket(nodeAddress);
+            Thread.sleep(10);
+        }
+        assertSame(socket, seedConnectionManager.peekConnectedSocket(nodeAddress));
+        return socket;
+    }
+}
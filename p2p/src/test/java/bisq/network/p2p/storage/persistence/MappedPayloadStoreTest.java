@@ -0,0 +1,117 @@
+/*
+ * This file is part of Bisq.
+ *
+ * Bisq is free software: you can redistribute it and/or modify it
+ * under the terms of the GNU Affero General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or (at
+ * your option) any later version.
+ *
+ * Bisq is distributed in the hope that it will be useful, but WITHOUT
+ * ANY WARRANTY; without even the implied warranty of MERCHANTABILITY or
+ * FITNESS FOR A PARTICULAR PURPOSE. See the GNU Affero General Public
+ * License for more details.
+ *
+ * You should have received a copy of the GNU Affero General Public License
+ * along with Bisq. If not, see <http://www.gnu.org/licenses/>.
+ */
+
+package bisq.network.p2p.storage.persistence;
+
+import bisq.network.p2p.storage.P2PDataStorage;
+import bisq.network.p2p.storage.mocks.PersistableNetworkPayloadStub;
+import bisq.network.p2p.storage.payload.PersistableNetworkPayload;
+
+import com.google.protobuf.ByteString;
+
+import java.nio.file.Files;
+
+import java.io.File;
+import java.io.IOException;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Random;
+
+import org.junit.Before;
+import org.junit.Test;
+
+import static org.junit.Assert.assertArrayEquals;
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertTrue;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+
+public class MappedPayloadStoreTest {
+    private File file;
+
+    @Before
+    public void setUp() throws IOException {
+        file = new File(Files.createTempDirectory("mapped").toFile(), "Store_mapped");
+    }
+
+    @Test
+    public void testWriteAndOpen() throws IOException {
+        Random random = new Random(1);
+        Map<P2PDataStorage.ByteArray, PersistableNetworkPayload> map = new HashMap<>();
+        for (int i = 0; i < 100; i++) {
+            byte[] hash = new byte[20];
+            random.nextBytes(hash);
+            map.put(new P2PDataStorage.ByteArray(hash), mockPayload(hash));
+        }
+
+        MappedPayloadStore.write(file, map);
+        MappedPayloadStore store = MappedPayloadStore.open(file, MappedPayloadStoreTest::decode);
+
+        assertEquals(100, store.size());
+        map.keySet().forEach(hash -> {
+            assertTrue(store.containsKey(hash));
+            assertArrayEquals(hash.bytes, store.get(hash).getHash());
+        });
+        assertFalse(store.containsKey(new P2PDataStorage.ByteArray(new byte[20])));
+        assertNull(store.get(new P2PDataStorage.ByteArray(new byte[]{1})));
+
+        // We iterate in the order of the hashes
+        List<byte[]> hashes = new ArrayList<>();
+        store.forEach((hash, payload) -> {
+            assertArrayEquals(hash.bytes, payload.getHash());
+            hashes.add(hash.bytes);
+        });
+        assertEquals(100, hashes.size());
+        for (int i = 1; i < hashes.size(); i++) {
+            assertTrue(Arrays.compareUnsigned(hashes.get(i - 1), hashes.get(i)) < 0);
+        }
+    }
+
+    @Test
+    public void testEmptyStore() throws IOException {
+        MappedPayloadStore.write(file, new HashMap<>());
+        MappedPayloadStore store = MappedPayloadStore.open(file, MappedPayloadStoreTest::decode);
+
+        assertTrue(store.isEmpty());
+        assertFalse(store.containsKey(new P2PDataStorage.ByteArray(new byte[20])));
+    }
+
+    @Test(expected = IOException.class)
+    public void testOpenCorruptedFile() throws IOException {
+        Files.write(file.toPath(), new byte[]{1, 2, 3, 4, 5, 6, 7, 8, 9, 10, 11, 12, 13, 14, 15, 16});
+        MappedPayloadStore.open(file, MappedPayloadStoreTest::decode);
+    }
+
+    private static PersistableNetworkPayload mockPayload(byte[] hash) {
+        PersistableNetworkPayload payload = mock(PersistableNetworkPayload.class);
+        when(payload.toProtoMessage()).thenReturn(protobuf.PersistableNetworkPayload.newBuilder()
+                .setAccountAgeWitness(protobuf.AccountAgeWitness.newBuilder()
+                        .setHash(ByteString.copyFrom(hash)))
+                .build());
+        return payload;
+    }
+
+    private static PersistableNetworkPayload decode(protobuf.PersistableNetworkPayload proto) {
+        return new PersistableNetworkPayloadStub(proto.getAccountAgeWitness().getHash().toByteArray());
+    }
+}
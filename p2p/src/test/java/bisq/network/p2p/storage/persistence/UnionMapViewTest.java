@@ -0,0 +1,100 @@
+/*
+ * This file is part of Bisq.
+ *
+ * Bisq is free software: you can redistribute it and/or modify it
+ * under the terms of the GNU Affero General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or (at
+ * your option) any later version.
+ *
+ * Bisq is distributed in the hope that it will be useful, but WITHOUT
+ * ANY WARRANTY; without even the implied warranty of MERCHANTABILITY or
+ * FITNESS FOR A PARTICULAR PURPOSE. See the GNU Affero General Public
+ * License for more details.
+ *
+ * You should have received a copy of the GNU Affero General Public License
+ * along with Bisq. If not, see <http://www.gnu.org/licenses/>.
+ */
+
+package bisq.network.p2p.storage.persistence;
+
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.Map;
+import java.util.Set;
+
+import org.junit.Before;
+import org.junit.Test;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertTrue;
+
+public class UnionMapViewTest {
+    private Map<String, String> first;
+    private Map<String, String> second;
+    private UnionMapView<String, String> view;
+
+    @Before
+    public void setUp() {
+        first = new HashMap<>();
+        first.put("a", "first-a");
+        first.put("b", "first-b");
+        second = new HashMap<>();
+        second.put("b", "second-b");
+        second.put("c", "second-c");
+        view = new UnionMapView<>(Arrays.asList(first, second));
+    }
+
+    @Test
+    public void testLookups() {
+        assertTrue(view.containsKey("a"));
+        assertTrue(view.containsKey("c"));
+        assertFalse(view.containsKey("d"));
+        assertEquals("first-b", view.get("b"));
+        assertEquals("second-c", view.get("c"));
+        assertNull(view.get("d"));
+    }
+
+    @Test
+    public void testSizeAndIterationSkipDuplicates() {
+        assertEquals(3, view.size());
+        Set<String> keys = new HashSet<>();
+        view.forEach((key, value) -> assertTrue(keys.add(key)));
+        assertEquals(Set.of("a", "b", "c"), keys);
+        assertEquals(Map.of("a", "first-a", "b", "first-b", "c", "second-c"), new HashMap<>(view));
+    }
+
+    @Test
+    public void testReflectsChangesOfMaps() {
+        second.put("d", "second-d");
+        first.remove("b");
+        assertEquals(4, view.size());
+        assertEquals("second-b", view.get("b"));
+        assertEquals("second-d", view.get("d"));
+    }
+
+    @Test
+    public void testSizeOfSegmentsCountsDuplicatesOfNestedViews() {
+        assertEquals(4, view.getSizeOfSegments());
+        Map<String, String> third = new HashMap<>(Map.of("d", "third-d"));
+        assertEquals(5, new UnionMapView<>(Arrays.asList(view, third)).getSizeOfSegments());
+    }
+
+    @Test
+    public void testIsEmpty() {
+        assertFalse(view.isEmpty());
+        assertTrue(new UnionMapView<>(Arrays.asList(new HashMap<String, String>(), new HashMap<String, String>())).isEmpty());
+    }
+
+    @Test(expected = UnsupportedOperationException.class)
+    public void testPutIsNotSupported() {
+        view.put("d", "d");
+    }
+
+    @Test(expected = UnsupportedOperationException.class)
+    public void testRemoveIsNotSupported() {
+        view.remove("a");
+    }
+}
@@ -65,6 +65,7 @@ public class SeedNodeMain extends ExecutableForAppWithP2p {
         super.doExecute();
 
         checkMemory(config, this);
+        maybeStartMetricsHttpServer();
 
         keepRunning();
     }
@@ -44,6 +44,7 @@ public class StatisticsMain extends ExecutableForAppWithP2p {
         super.doExecute();
 
         checkMemory(config, this);
+        maybeStartMetricsHttpServer();
 
         keepRunning();
     }